@@ -0,0 +1,80 @@
+package fans.goldenglow.plumaspherebackend.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Helpers for wiring services outside the Spring container in benchmarks.
+ */
+final class BenchmarkSupport {
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Builds a Markdown document of roughly the given size, mixing the block types found in real posts.
+     *
+     * @param kilobytes the approximate size of the document in kilobytes
+     * @return the Markdown document
+     */
+    static String markdownDocument(int kilobytes) {
+        return markdownDocument(kilobytes, "");
+    }
+
+    /**
+     * Builds a Markdown document of roughly the given size, with a variant tag in every block.
+     * Documents with different tags share no block, so none of their blocks is found in a render cache
+     * filled by the others.
+     *
+     * @param kilobytes the approximate size of the document in kilobytes
+     * @param variant   the tag added to every block, or an empty string for the plain document
+     * @return the Markdown document
+     */
+    static String markdownDocument(int kilobytes, String variant) {
+        StringBuilder markdown = new StringBuilder(kilobytes * 1024 + 512);
+        int section = 0;
+        while (markdown.length() < kilobytes * 1024) {
+            section++;
+            markdown.append("## Section ").append(section).append(variant).append("\n\n")
+                    .append("Some **bold** and *italic* text with a [link](https://example.com/").append(section)
+                    .append(") and `inline code`, followed by enough prose to look like a real paragraph of a blog post.")
+                    .append(variant).append("\n\n")
+                    .append("- first item").append(variant).append("\n- second item\n- third item\n\n")
+                    .append("```java\nSystem.out.println(\"section ").append(section).append(variant).append("\");\n```\n\n")
+                    .append("> A quoted remark about section ").append(section).append(variant).append(".\n\n");
+        }
+        return markdown.toString();
+    }
+
+    /**
+     * Sets a field that is normally injected by Spring, such as a {@code @Value} field.
+     *
+     * @param target    the object to set the field on
+     * @param fieldName the name of the field
+     * @param value     the value to set
+     */
+    static void setField(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to set field " + fieldName, e);
+        }
+    }
+
+    /**
+     * Invokes a no-argument lifecycle method that is normally called by Spring, such as a {@code @PostConstruct} method.
+     *
+     * @param target     the object to invoke the method on
+     * @param methodName the name of the method
+     */
+    static void invoke(Object target, String methodName) {
+        try {
+            Method method = target.getClass().getDeclaredMethod(methodName);
+            method.setAccessible(true);
+            method.invoke(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to invoke " + methodName, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package fans.goldenglow.plumaspherebackend.benchmark;
+
+import fans.goldenglow.plumaspherebackend.config.LikeSyncProperties;
+import fans.goldenglow.plumaspherebackend.service.LikeCacheService;
+import fans.goldenglow.plumaspherebackend.service.RedisService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for like operations served from the Redis cache, run against an embedded Redis server.
+ * Likes are marked as loaded up front, so the benchmarks never fall through to the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LikeCacheBenchmark {
+    private static final int REDIS_PORT = 6371;
+    private static final int POSTS = 100;
+    private static final int LIKES_PER_POST = 1000;
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private LikeCacheService likeCacheService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory("localhost", REDIS_PORT);
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+
+        RedisService redisService = new RedisService(redisTemplate);
+        likeCacheService = new LikeCacheService(redisService, null, null, null, new LikeSyncProperties());
+        for (long postId = 0; postId < POSTS; postId++) {
+            redisService.addToSet("post:likes:loaded", Long.toString(postId));
+            for (long userId = 0; userId < LIKES_PER_POST; userId++) {
+                redisService.addToSet("post:like:" + postId, Long.toString(userId));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public boolean isPostLiked() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return likeCacheService.isPostLiked((long) random.nextInt(POSTS), (long) random.nextInt(LIKES_PER_POST * 2));
+    }
+
+    @Benchmark
+    public long getPostLikesCount() {
+        return likeCacheService.getPostLikesCount((long) ThreadLocalRandom.current().nextInt(POSTS));
+    }
+
+    @Benchmark
+    public void switchPostLike() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        likeCacheService.switchPostLike((long) random.nextInt(POSTS), (long) random.nextInt(LIKES_PER_POST * 2));
+    }
+}
@@ -0,0 +1,90 @@
+package fans.goldenglow.plumaspherebackend.benchmark;
+
+import fans.goldenglow.plumaspherebackend.dto.CommentDto;
+import fans.goldenglow.plumaspherebackend.dto.PostDto;
+import fans.goldenglow.plumaspherebackend.entity.Comment;
+import fans.goldenglow.plumaspherebackend.entity.Post;
+import fans.goldenglow.plumaspherebackend.entity.Tag;
+import fans.goldenglow.plumaspherebackend.entity.User;
+import fans.goldenglow.plumaspherebackend.mapper.CommentMapper;
+import fans.goldenglow.plumaspherebackend.mapper.CommentMapperImpl;
+import fans.goldenglow.plumaspherebackend.mapper.PostMapper;
+import fans.goldenglow.plumaspherebackend.mapper.PostMapperImpl;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostSummary;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for mapping pages of posts and comments to DTOs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MapperBenchmark {
+    @Param({"5", "50"})
+    private int pageSize;
+
+    private final PostMapper postMapper = new PostMapperImpl();
+    private final CommentMapper commentMapper = new CommentMapperImpl();
+    private List<Post> posts;
+    private List<PostSummary> summaries;
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() {
+        User author = new User("author", "password", "Author");
+        author.setId(1L);
+        Set<Tag> tags = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            Tag tag = new Tag("tag" + i);
+            tag.setId((long) i);
+            tags.add(tag);
+        }
+
+        posts = new ArrayList<>(pageSize);
+        summaries = new ArrayList<>(pageSize);
+        comments = new ArrayList<>(pageSize);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < pageSize; i++) {
+            Post post = new Post();
+            post.setId((long) i);
+            post.setTitle("title" + i);
+            post.setDescription("description" + i);
+            post.setAuthor(author);
+            post.setTags(tags);
+            post.setCreatedAt(now);
+            post.setUpdatedAt(now);
+            posts.add(post);
+
+            summaries.add(new PostSummary((long) i, "title" + i, "description" + i, 1L, now, now, List.of("tag0", "tag1", "tag2")));
+
+            Comment comment = new Comment("comment" + i, author);
+            comment.setId((long) i);
+            comment.setCreatedAt(now);
+            comments.add(comment);
+        }
+    }
+
+    @Benchmark
+    public List<PostDto> postEntitiesToDto() {
+        return postMapper.toDto(posts);
+    }
+
+    @Benchmark
+    public List<PostDto> postSummariesToDto() {
+        return postMapper.summariesToDto(summaries);
+    }
+
+    @Benchmark
+    public List<CommentDto> commentsToDto() {
+        return commentMapper.toDto(comments);
+    }
+}
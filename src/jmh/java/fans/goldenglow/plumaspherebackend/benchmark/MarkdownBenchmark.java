@@ -0,0 +1,65 @@
+package fans.goldenglow.plumaspherebackend.benchmark;
+
+import fans.goldenglow.plumaspherebackend.service.MarkdownService;
+import fans.goldenglow.plumaspherebackend.service.PostService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for Markdown processing of post content.
+ * {@link MarkdownService#renderHtml} caches rendered blocks, so rendering is measured both with every block
+ * already cached, as when a post is viewed again, and with none cached, as when a post is rendered for the first time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MarkdownBenchmark {
+    // Number of distinct documents rendered in turn by the cold benchmark; cycling through more blocks than the
+    // block cache holds evicts every block before its document comes round again
+    private static final int COLD_DOCUMENTS = 256;
+
+    @Param({"2", "20", "200"})
+    private int kilobytes;
+
+    private String markdown;
+    private String[] coldMarkdown;
+    private int coldIndex;
+    private MarkdownService markdownService;
+    private PostService postService;
+
+    @Setup
+    public void setUp() {
+        markdown = BenchmarkSupport.markdownDocument(kilobytes);
+        coldMarkdown = new String[COLD_DOCUMENTS];
+        for (int i = 0; i < COLD_DOCUMENTS; i++) {
+            coldMarkdown[i] = BenchmarkSupport.markdownDocument(kilobytes, " v" + i);
+        }
+        markdownService = new MarkdownService();
+        postService = new PostService(null, markdownService, null);
+    }
+
+    @Benchmark
+    public String convertMarkdownToPlainText() {
+        return markdownService.convertMarkdownToPlainText(markdown);
+    }
+
+    @Benchmark
+    public String renderHtmlCached() {
+        return markdownService.renderHtml(markdown);
+    }
+
+    @Benchmark
+    public String renderHtmlCold() {
+        String document = coldMarkdown[coldIndex];
+        coldIndex = (coldIndex + 1) % COLD_DOCUMENTS;
+        return markdownService.renderHtml(document);
+    }
+
+    @Benchmark
+    public String generateDescription() {
+        return postService.generateDescription(markdown);
+    }
+}
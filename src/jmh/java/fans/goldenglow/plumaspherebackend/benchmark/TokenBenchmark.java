@@ -0,0 +1,51 @@
+package fans.goldenglow.plumaspherebackend.benchmark;
+
+import fans.goldenglow.plumaspherebackend.config.SecurityConfig;
+import fans.goldenglow.plumaspherebackend.dto.TokenPairResponseDto;
+import fans.goldenglow.plumaspherebackend.service.SecretService;
+import fans.goldenglow.plumaspherebackend.service.TokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for issuing JWTs and decoding them through the resource server decoder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TokenBenchmark {
+    private static final List<String> SCOPES = List.of("regular");
+
+    private TokenService tokenService;
+    private JwtDecoder jwtDecoder;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        SecretService secretService = new SecretService();
+        tokenService = new TokenService(null, secretService);
+        BenchmarkSupport.setField(tokenService, "JWT_ISSUER", "benchmark");
+        BenchmarkSupport.setField(tokenService, "ACCESS_TOKEN_EXPIRATION", 60L);
+        BenchmarkSupport.setField(tokenService, "REFRESH_TOKEN_EXPIRATION", 0L);
+        BenchmarkSupport.invoke(tokenService, "init");
+
+        jwtDecoder = new SecurityConfig(secretService, null, null).jwtDecoder();
+        accessToken = tokenService.generateTokens(1L, SCOPES).getAccessToken().getToken();
+    }
+
+    @Benchmark
+    public TokenPairResponseDto generateTokens() {
+        return tokenService.generateTokens(1L, SCOPES);
+    }
+
+    @Benchmark
+    public Jwt decodeAccessToken() {
+        return jwtDecoder.decode(accessToken);
+    }
+}
@@ -0,0 +1,38 @@
+package fans.goldenglow.plumaspherebackend.benchmark;
+
+import fans.goldenglow.plumaspherebackend.constant.WebSocketMessageType;
+import fans.goldenglow.plumaspherebackend.dto.CommentDto;
+import fans.goldenglow.plumaspherebackend.dto.websocket.TopicUpdateMessageDto;
+import fans.goldenglow.plumaspherebackend.dto.websocket.WebSocketMessageDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for serializing WebSocket messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WebSocketMessageBenchmark {
+    private final WebSocketMessageDto likeUpdate = new WebSocketMessageDto(WebSocketMessageType.UPDATE,
+            new TopicUpdateMessageDto(42L, null, null, null));
+    private final WebSocketMessageDto mergedUpdate = new WebSocketMessageDto(WebSocketMessageType.UPDATE,
+            new TopicUpdateMessageDto(42L, 7L, Map.of(1L, 3L, 2L, 5L),
+                    List.of(new CommentDto(9L, "A new comment", ZonedDateTime.now(), 4L, "Reader"))));
+
+    @Benchmark
+    public String likeUpdateToJson() {
+        return likeUpdate.toJson();
+    }
+
+    @Benchmark
+    public String mergedUpdateToJson() {
+        return mergedUpdate.toJson();
+    }
+}
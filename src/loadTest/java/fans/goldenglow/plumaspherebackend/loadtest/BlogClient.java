@@ -0,0 +1,222 @@
+package fans.goldenglow.plumaspherebackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP and WebSocket client for the blog API, recording the latency and outcome of every call.
+ * Endpoints are reported by method and path template, so calls to different posts are aggregated.
+ */
+final class BlogClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LoadTestReport report;
+
+    /**
+     * Creates a client for a running backend.
+     *
+     * @param baseUrl  the base URL of the backend, e.g. {@code http://localhost:8080}
+     * @param executor the executor running the callbacks of the HTTP client
+     * @param report   the report to record calls in
+     */
+    BlogClient(String baseUrl, ExecutorService executor, LoadTestReport report) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.report = report;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    Response getIdentity() {
+        return send("GET /api/v1/get-identity", get("/api/v1/get-identity", null));
+    }
+
+    Response refreshToken(String refreshToken) {
+        ObjectNode body = objectMapper.createObjectNode().put("value", refreshToken);
+        return send("POST /api/v1/refresh-token", post("/api/v1/refresh-token", null, body));
+    }
+
+    Response login(String username, String password) {
+        ObjectNode body = objectMapper.createObjectNode().put("username", username).put("password", password);
+        return send("POST /api/v1/login", post("/api/v1/login", null, body));
+    }
+
+    Response init(String verificationCode, String adminUsername, String adminPassword) {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("verificationCode", verificationCode)
+                .put("blogTitle", "Load Test")
+                .put("blogSubtitle", "Generated by the load-test harness")
+                .put("adminUsername", adminUsername)
+                .put("adminPassword", adminPassword)
+                .put("adminNickname", "Load Test Admin");
+        return send("POST /api/v1/init", post("/api/v1/init", null, body));
+    }
+
+    Response createPost(String token, String title, String content, List<String> tags) {
+        ObjectNode body = objectMapper.createObjectNode().put("title", title).put("content", content);
+        tags.forEach(body.putArray("tags")::add);
+        return send("POST /api/v1/post", post("/api/v1/post", token, body));
+    }
+
+    Response listPosts(int page) {
+        return send("GET /api/v1/post", get("/api/v1/post?page=" + page, null));
+    }
+
+    Response readPost(long postId) {
+        return send("GET /api/v1/post/{postId}", get("/api/v1/post/" + postId, null));
+    }
+
+    Response listComments(long postId, int page) {
+        return send("GET /api/v1/post/{postId}/comment", get("/api/v1/post/" + postId + "/comment?page=" + page, null));
+    }
+
+    Response postComment(String token, long postId, String content) {
+        ObjectNode body = objectMapper.createObjectNode().put("content", content);
+        return send("POST /api/v1/post/{postId}/comment", post("/api/v1/post/" + postId + "/comment", token, body));
+    }
+
+    Response readLikes(long postId) {
+        return send("GET /api/v1/post/{postId}/like", get("/api/v1/post/" + postId + "/like", null));
+    }
+
+    Response likePost(String token, long postId) {
+        return send("POST /api/v1/post/{postId}/like", post("/api/v1/post/" + postId + "/like", token, null));
+    }
+
+    Response listTags() {
+        return send("GET /api/v1/tag", get("/api/v1/tag", null));
+    }
+
+    /**
+     * Opens a WebSocket subscribed to the events of a post, counting every message it receives.
+     *
+     * @param postId the ID of the post
+     * @return the open WebSocket, or null if the connection failed
+     */
+    WebSocket subscribeToPost(long postId) {
+        URI uri = URI.create(baseUrl.replaceFirst("^http", "ws") + "/ws?postId=" + postId);
+        WebSocket.Listener listener = new WebSocket.Listener() {
+            @Override
+            public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+                if (last) report.recordWebSocketMessage();
+                webSocket.request(1);
+                return null;
+            }
+
+            @Override
+            public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+                report.recordWebSocketDisconnect();
+                return null;
+            }
+
+            @Override
+            public void onError(WebSocket webSocket, Throwable error) {
+                report.recordWebSocketDisconnect();
+            }
+        };
+
+        long start = System.nanoTime();
+        try {
+            WebSocket webSocket = httpClient.newWebSocketBuilder()
+                    .connectTimeout(REQUEST_TIMEOUT)
+                    .buildAsync(uri, listener)
+                    .get(REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            report.record("WS /ws?postId={postId}", System.nanoTime() - start, EndpointStats.Outcome.OK);
+            return webSocket;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            report.record("WS /ws?postId={postId}", System.nanoTime() - start, EndpointStats.Outcome.ERROR);
+            return null;
+        }
+    }
+
+    /**
+     * Parses a JSON response body.
+     *
+     * @param response the response
+     * @return the parsed body
+     * @throws IllegalStateException if the body is not valid JSON
+     */
+    JsonNode json(Response response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("Response is not JSON: " + response.body(), e);
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, JsonNode body) {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body.toString());
+        return request(path, token).header("Content-Type", "application/json").POST(publisher).build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        return builder;
+    }
+
+    /**
+     * Sends a request and records its latency and outcome.
+     * Rate-limited responses are counted as throttled rather than as errors.
+     *
+     * @param endpoint the endpoint to record the request under
+     * @param request  the request to send
+     * @return the response, with status 0 if no response was received
+     */
+    private Response send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            int status = response.statusCode();
+            EndpointStats.Outcome outcome = status < 400 ? EndpointStats.Outcome.OK
+                    : status == 429 ? EndpointStats.Outcome.THROTTLED
+                    : EndpointStats.Outcome.ERROR;
+            report.record(endpoint, System.nanoTime() - start, outcome);
+            return new Response(status, response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, "");
+        } catch (IOException e) {
+            report.record(endpoint, System.nanoTime() - start, EndpointStats.Outcome.ERROR);
+            return new Response(0, "");
+        }
+    }
+
+    /**
+     * Status and body of a response.
+     *
+     * @param status the HTTP status, or 0 if no response was received
+     * @param body   the response body
+     */
+    record Response(int status, String body) {
+        boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package fans.goldenglow.plumaspherebackend.loadtest;
+
+import fans.goldenglow.plumaspherebackend.PlumaSphereBackendApplication;
+import fans.goldenglow.plumaspherebackend.service.RedisService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.INITIALIZATION_CODE_KEY;
+
+/**
+ * The backend booted in-process on a random port, by default against an in-memory H2 database
+ * and an embedded Redis server. Any default can be overridden through the application properties
+ * of the options, e.g. to run against a local Postgres database and Redis server instead.
+ */
+final class EmbeddedTarget implements AutoCloseable {
+    private final RedisServer redisServer;
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedTarget(RedisServer redisServer, ConfigurableApplicationContext context) {
+        this.redisServer = redisServer;
+        this.context = context;
+    }
+
+    /**
+     * Starts the embedded Redis server if enabled, then boots the application.
+     *
+     * @param options the options of the run
+     * @return the running target
+     * @throws IOException if the embedded Redis server cannot be started
+     */
+    static EmbeddedTarget start(LoadTestOptions options) throws IOException {
+        RedisServer redisServer = null;
+        if (options.embeddedRedis()) {
+            redisServer = new RedisServer(options.redisPort());
+            redisServer.start();
+        }
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.data.redis.host", "localhost");
+        properties.put("spring.data.redis.port", options.redisPort());
+        // Tokens of the virtual users must not expire during long runs
+        properties.put("config.jwt.expiration.access_token", 0);
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(options.appProperties());
+
+        try {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(PlumaSphereBackendApplication.class)
+                    .properties(properties)
+                    .run();
+            return new EmbeddedTarget(redisServer, context);
+        } catch (RuntimeException e) {
+            if (redisServer != null) redisServer.stop();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the base URL the application is listening on.
+     *
+     * @return the base URL
+     */
+    String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+    }
+
+    /**
+     * Returns the verification code needed to initialize the blog.
+     *
+     * @return the verification code, or null if the blog is already initialized
+     */
+    String verificationCode() {
+        return context.getBean(RedisService.class).get(INITIALIZATION_CODE_KEY);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        if (redisServer != null) redisServer.stop();
+    }
+}
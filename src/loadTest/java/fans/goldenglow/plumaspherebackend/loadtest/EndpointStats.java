@@ -0,0 +1,110 @@
+package fans.goldenglow.plumaspherebackend.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters and a latency histogram of a single endpoint.
+ * Latencies are kept in log-linear buckets of microseconds with a relative error below 2%,
+ * so recording is lock-free and percentiles do not require keeping every sample.
+ */
+final class EndpointStats {
+    // Values below 2^SUB_BUCKET_BITS microseconds get an exact bucket; larger values share 2^(SUB_BUCKET_BITS - 1) buckets per power of two
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int HALF_SUB_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int BUCKETS = bucketIndex(MAX_MICROS) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    /**
+     * Records a completed request.
+     *
+     * @param latencyNanos the latency of the request in nanoseconds
+     * @param outcome      the outcome of the request
+     */
+    void record(long latencyNanos, Outcome outcome) {
+        requests.increment();
+        switch (outcome) {
+            case ERROR -> errors.increment();
+            case THROTTLED -> throttled.increment();
+            case OK -> {
+            }
+        }
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_MICROS);
+        buckets.incrementAndGet(bucketIndex(micros));
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long throttled() {
+        return throttled.sum();
+    }
+
+    /**
+     * Computes a latency percentile from the histogram.
+     *
+     * @param percentile the percentile between 0 and 100
+     * @return the latency in microseconds at or below which the given share of requests completed, or 0 without requests
+     */
+    long percentileMicros(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += buckets.get(i);
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) return bucketUpperBound(i);
+        }
+        return MAX_MICROS;
+    }
+
+    /**
+     * Maps a latency to its histogram bucket.
+     *
+     * @param micros the latency in microseconds
+     * @return the index of the bucket
+     */
+    private static int bucketIndex(long micros) {
+        if (micros < 2L * HALF_SUB_BUCKETS) return (int) micros;
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - (SUB_BUCKET_BITS - 1);
+        return shift * HALF_SUB_BUCKETS + (int) (micros >> shift);
+    }
+
+    /**
+     * Returns the largest latency that falls into a histogram bucket.
+     *
+     * @param index the index of the bucket
+     * @return the upper bound of the bucket in microseconds
+     */
+    private static long bucketUpperBound(int index) {
+        if (index < 2 * HALF_SUB_BUCKETS) return index;
+        int shift = index / HALF_SUB_BUCKETS - 1;
+        long mantissa = index - (long) shift * HALF_SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * Outcome of a request as seen by the client.
+     */
+    enum Outcome {
+        OK,
+        /**
+         * The request was rejected by a rate limiter, which is expected behavior rather than a failure.
+         */
+        THROTTLED,
+        ERROR
+    }
+}
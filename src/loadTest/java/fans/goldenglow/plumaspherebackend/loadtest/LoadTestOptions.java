@@ -0,0 +1,108 @@
+package fans.goldenglow.plumaspherebackend.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of a load-test run, parsed from {@code --name=value} arguments.
+ * Arguments starting with {@code --spring.}, {@code --config.}, {@code --server.}, {@code --logging.} or {@code --resilience4j.}
+ * are passed through to the in-process application, e.g. to point it at a local Postgres database.
+ *
+ * @param target         the base URL of a running backend, or null to boot the application in-process
+ * @param profile        the traffic mix to replay
+ * @param users          the number of concurrent virtual users
+ * @param duration       how long traffic is measured
+ * @param warmup         how long traffic runs before measuring starts
+ * @param thinkTime      the pause of a virtual user between two requests
+ * @param subscribers    the number of WebSocket subscribers spread over the hot posts
+ * @param posts          the number of posts to seed
+ * @param hotPosts       the number of posts receiving most of the traffic
+ * @param comments       the number of comments to seed on each hot post
+ * @param embeddedRedis  whether to start an embedded Redis server for the in-process application
+ * @param redisPort      the port of the embedded Redis server
+ * @param adminUsername  the admin username used to seed a running backend, or null to only read existing posts
+ * @param adminPassword  the admin password used to seed a running backend
+ * @param output         the file the JSON report is written to
+ * @param appProperties  properties passed through to the in-process application
+ */
+record LoadTestOptions(String target,
+                       TrafficProfile profile,
+                       int users,
+                       Duration duration,
+                       Duration warmup,
+                       Duration thinkTime,
+                       int subscribers,
+                       int posts,
+                       int hotPosts,
+                       int comments,
+                       boolean embeddedRedis,
+                       int redisPort,
+                       String adminUsername,
+                       String adminPassword,
+                       Path output,
+                       Map<String, String> appProperties) {
+
+    private static final String[] APP_PROPERTY_PREFIXES = {"spring.", "config.", "logging.", "resilience4j.", "server."};
+
+    /**
+     * Parses the options from command line arguments, falling back to defaults for missing options.
+     *
+     * @param args the command line arguments
+     * @return the parsed options
+     * @throws IllegalArgumentException if an argument is malformed or unknown
+     */
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        Map<String, String> appProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("="))
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (isAppProperty(name)) appProperties.put(name, value);
+            else options.put(name, value);
+        }
+
+        LoadTestOptions parsed = new LoadTestOptions(
+                options.remove("target"),
+                TrafficProfile.fromName(options.getOrDefault("profile", "mixed")),
+                Integer.parseInt(options.getOrDefault("users", "50")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("think-time", "50"))),
+                Integer.parseInt(options.getOrDefault("subscribers", "200")),
+                Integer.parseInt(options.getOrDefault("posts", "50")),
+                Integer.parseInt(options.getOrDefault("hot-posts", "5")),
+                Integer.parseInt(options.getOrDefault("comments", "40")),
+                Boolean.parseBoolean(options.getOrDefault("embedded-redis", "true")),
+                Integer.parseInt(options.getOrDefault("redis-port", "6372")),
+                options.remove("admin-username"),
+                options.remove("admin-password"),
+                Path.of(options.getOrDefault("output", "build/results/loadtest/results.json")),
+                appProperties);
+
+        options.keySet().removeAll(List.of("profile", "users", "duration", "warmup", "think-time",
+                "subscribers", "posts", "hot-posts", "comments", "embedded-redis", "redis-port", "output"));
+        if (!options.isEmpty()) throw new IllegalArgumentException("Unknown options: " + options.keySet());
+        if (parsed.hotPosts() < 1 || parsed.hotPosts() > parsed.posts())
+            throw new IllegalArgumentException("--hot-posts must be between 1 and --posts");
+        return parsed;
+    }
+
+    /**
+     * Checks whether an option is a property of the in-process application rather than of the harness.
+     *
+     * @param name the name of the option
+     * @return true if the option is passed through to the application
+     */
+    private static boolean isAppProperty(String name) {
+        for (String prefix : APP_PROPERTY_PREFIXES) {
+            if (name.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+}
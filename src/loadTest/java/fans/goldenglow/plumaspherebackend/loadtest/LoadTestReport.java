@@ -0,0 +1,145 @@
+package fans.goldenglow.plumaspherebackend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects per-endpoint statistics during the measured part of a run and reports
+ * throughput, p50/p99 latency and error rates.
+ * Requests completing during the warmup are not recorded.
+ */
+final class LoadTestReport {
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder webSocketMessages = new LongAdder();
+    private final LongAdder webSocketDisconnects = new LongAdder();
+    private volatile boolean measuring;
+    private long measureStartNanos;
+    private long measureEndNanos;
+
+    /**
+     * Starts recording requests.
+     */
+    void startMeasuring() {
+        measureStartNanos = System.nanoTime();
+        measuring = true;
+    }
+
+    /**
+     * Stops recording requests.
+     */
+    void stopMeasuring() {
+        measuring = false;
+        measureEndNanos = System.nanoTime();
+    }
+
+    /**
+     * Records a completed request if the run is being measured.
+     *
+     * @param endpoint     the endpoint, as method and path template
+     * @param latencyNanos the latency of the request in nanoseconds
+     * @param outcome      the outcome of the request
+     */
+    void record(String endpoint, long latencyNanos, EndpointStats.Outcome outcome) {
+        if (!measuring) return;
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointStats()).record(latencyNanos, outcome);
+    }
+
+    /**
+     * Records a message received by a WebSocket subscriber if the run is being measured.
+     */
+    void recordWebSocketMessage() {
+        if (measuring) webSocketMessages.increment();
+    }
+
+    /**
+     * Records a WebSocket subscriber that was closed or failed while the run is being measured.
+     */
+    void recordWebSocketDisconnect() {
+        if (measuring) webSocketDisconnects.increment();
+    }
+
+    /**
+     * Prints the report as a table.
+     *
+     * @param out     the stream to print to
+     * @param options the options of the run
+     */
+    void print(PrintStream out, LoadTestOptions options) {
+        double seconds = measuredSeconds();
+        out.printf("%nProfile %s, %d users, %d WebSocket subscribers, measured for %.1f s%n",
+                options.profile(), options.users(), options.subscribers(), seconds);
+        out.printf("%-40s %10s %10s %10s %10s %8s %10s%n", "Endpoint", "Requests", "Req/s", "p50 ms", "p99 ms", "Errors", "Throttled");
+        for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(endpoints).entrySet()) {
+            EndpointStats stats = entry.getValue();
+            out.printf("%-40s %10d %10.1f %10.2f %10.2f %7.2f%% %10d%n",
+                    entry.getKey(),
+                    stats.requests(),
+                    stats.requests() / seconds,
+                    stats.percentileMicros(50) / 1000.0,
+                    stats.percentileMicros(99) / 1000.0,
+                    errorRate(stats) * 100,
+                    stats.throttled());
+        }
+        out.printf("WebSocket messages received: %d (%.1f/s), subscribers disconnected: %d%n",
+                webSocketMessages.sum(), webSocketMessages.sum() / seconds, webSocketDisconnects.sum());
+    }
+
+    /**
+     * Writes the report as JSON, so runs can be compared between changes.
+     *
+     * @param options the options of the run
+     * @throws IOException if the file cannot be written
+     */
+    void writeJson(LoadTestOptions options) throws IOException {
+        double seconds = measuredSeconds();
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("profile", options.profile().name())
+                .put("users", options.users())
+                .put("subscribers", options.subscribers())
+                .put("durationSeconds", seconds)
+                .put("webSocketMessages", webSocketMessages.sum())
+                .put("webSocketDisconnects", webSocketDisconnects.sum());
+        ArrayNode results = root.putArray("endpoints");
+        new TreeMap<>(endpoints).forEach((endpoint, stats) -> results.addObject()
+                .put("endpoint", endpoint)
+                .put("requests", stats.requests())
+                .put("throughput", stats.requests() / seconds)
+                .put("p50Millis", stats.percentileMicros(50) / 1000.0)
+                .put("p99Millis", stats.percentileMicros(99) / 1000.0)
+                .put("errorRate", errorRate(stats))
+                .put("throttled", stats.throttled()));
+
+        Path output = options.output().toAbsolutePath();
+        Files.createDirectories(output.getParent());
+        objectMapper.writeValue(output.toFile(), root);
+    }
+
+    /**
+     * Checks whether any endpoint had failed requests or any WebSocket subscriber was disconnected.
+     *
+     * @return true if at least one request failed or one subscriber was disconnected
+     */
+    boolean hasErrors() {
+        return webSocketDisconnects.sum() > 0 || endpoints.values().stream().anyMatch(stats -> stats.errors() > 0);
+    }
+
+    private double measuredSeconds() {
+        return Math.max(1, measureEndNanos - measureStartNanos) / 1_000_000_000.0;
+    }
+
+    private static double errorRate(EndpointStats stats) {
+        return stats.requests() == 0 ? 0 : (double) stats.errors() / stats.requests();
+    }
+}
@@ -0,0 +1,259 @@
+package fans.goldenglow.plumaspherebackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Entry point of the load-test harness.
+ * Boots the backend in-process or targets a running one, seeds posts, comments and anonymous identities,
+ * then replays a traffic profile with one virtual thread per virtual user while WebSocket subscribers
+ * listen on the hot posts. Throughput, p50/p99 latency and error rates are reported per endpoint.
+ * <p>
+ * Run it with {@code ./gradlew loadTest -PloadTestArgs="--profile=like-storm --users=200"}, see README for all options.
+ */
+public final class LoadTestRunner {
+    private static final String ADMIN_USERNAME = "loadtest-admin";
+    private static final List<String> TAGS = List.of("java", "spring", "redis", "postgres", "websocket", "performance", "security", "frontend");
+
+    private final LoadTestOptions options;
+    private final LoadTestReport report = new LoadTestReport();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean running = true;
+
+    private LoadTestRunner(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        new LoadTestRunner(options).run();
+        // The in-process application leaves non-daemon threads behind
+        System.exit(0);
+    }
+
+    /**
+     * Runs the load test against the configured target.
+     *
+     * @throws Exception if the target cannot be started or seeded
+     */
+    private void run() throws Exception {
+        if (options.target() != null) {
+            run(options.target(), null);
+            return;
+        }
+        try (EmbeddedTarget target = EmbeddedTarget.start(options)) {
+            run(target.baseUrl(), target.verificationCode());
+        }
+    }
+
+    /**
+     * Seeds the target, replays the traffic profile and reports the results.
+     *
+     * @param baseUrl          the base URL of the target
+     * @param verificationCode the code to initialize the blog with, or null if it is initialized already
+     * @throws Exception if the target cannot be seeded
+     */
+    private void run(String baseUrl, String verificationCode) throws Exception {
+        BlogClient client = new BlogClient(baseUrl, executor, report);
+        log("Seeding " + baseUrl);
+        String adminToken = adminToken(client, verificationCode);
+        if (adminToken != null) seedPosts(client, adminToken);
+        List<Long> postIds = findPostIds(client);
+        if (postIds.isEmpty())
+            throw new IllegalStateException("No posts to read, pass --admin-username and --admin-password to seed a running backend");
+        List<Long> hotPostIds = postIds.subList(0, Math.min(options.hotPosts(), postIds.size()));
+
+        List<VirtualUser.Tokens> identities = acquireIdentities(client);
+        seedComments(client, hotPostIds, identities);
+        List<WebSocket> subscribers = subscribe(client, hotPostIds);
+
+        log("Running " + options.profile() + " with " + options.users() + " users and "
+                + subscribers.size() + " WebSocket subscribers");
+        List<Future<?>> users = new ArrayList<>();
+        for (VirtualUser.Tokens tokens : identities) {
+            users.add(executor.submit(new VirtualUser(client, options, postIds, tokens, () -> running)));
+        }
+
+        TimeUnit.MILLISECONDS.sleep(options.warmup().toMillis());
+        report.startMeasuring();
+        TimeUnit.MILLISECONDS.sleep(options.duration().toMillis());
+        report.stopMeasuring();
+
+        running = false;
+        for (Future<?> user : users) {
+            try {
+                user.get(1, TimeUnit.MINUTES);
+            } catch (TimeoutException e) {
+                user.cancel(true);
+            }
+        }
+        subscribers.forEach(WebSocket::abort);
+        executor.shutdownNow();
+
+        report.print(System.out, options);
+        report.writeJson(options);
+        log("Report written to " + options.output().toAbsolutePath());
+        if (report.hasErrors()) log("Some requests failed, see the error rates above");
+    }
+
+    /**
+     * Obtains an admin token, initializing the blog first if it has not been initialized yet.
+     *
+     * @param client           the client
+     * @param verificationCode the code to initialize the blog with, or null if it is initialized already
+     * @return the admin access token, or null if no admin credentials are available
+     */
+    private String adminToken(BlogClient client, String verificationCode) {
+        String username = options.adminUsername();
+        String password = options.adminPassword();
+        if (username == null && verificationCode != null) {
+            username = ADMIN_USERNAME;
+            password = UUID.randomUUID().toString();
+            expectSuccess(client.init(verificationCode, username, password), "initialize the blog");
+        }
+        if (username == null) return null;
+
+        BlogClient.Response login = expectSuccess(client.login(username, password), "log in as " + username);
+        return VirtualUser.Tokens.from(client.json(login)).accessToken();
+    }
+
+    /**
+     * Creates posts with Markdown content of realistic size, each with two or three tags.
+     *
+     * @param client     the client
+     * @param adminToken the admin access token
+     */
+    private void seedPosts(BlogClient client, String adminToken) {
+        for (int i = 0; i < options.posts(); i++) {
+            List<String> tags = List.of(TAGS.get(i % TAGS.size()), TAGS.get((i + 3) % TAGS.size()), TAGS.get((i * 5) % TAGS.size()));
+            expectSuccess(client.createPost(adminToken, "Load test post " + i, markdown(i), tags.stream().distinct().toList()), "create a post");
+        }
+    }
+
+    /**
+     * Finds the IDs of the posts to target, newest first, so the newest posts become the hot posts.
+     *
+     * @param client the client
+     * @return the IDs of up to the configured number of posts
+     */
+    private List<Long> findPostIds(BlogClient client) {
+        List<Long> postIds = new ArrayList<>();
+        for (int page = 0; postIds.size() < options.posts(); page++) {
+            JsonNode posts = client.json(expectSuccess(client.listPosts(page), "list posts"));
+            if (posts.isEmpty()) break;
+            posts.forEach(post -> postIds.add(post.path("id").asLong()));
+        }
+        return postIds.size() > options.posts() ? postIds.subList(0, options.posts()) : postIds;
+    }
+
+    /**
+     * Acquires one anonymous identity per virtual user.
+     * The identity endpoint is rate limited, so throttled requests are retried after a short pause.
+     *
+     * @param client the client
+     * @return the tokens of the identities
+     * @throws InterruptedException if interrupted while waiting for the rate limiter
+     */
+    private List<VirtualUser.Tokens> acquireIdentities(BlogClient client) throws InterruptedException {
+        log("Acquiring " + options.users() + " identities");
+        List<VirtualUser.Tokens> identities = new ArrayList<>();
+        while (identities.size() < options.users()) {
+            BlogClient.Response response = client.getIdentity();
+            if (response.status() == 429) {
+                TimeUnit.MILLISECONDS.sleep(100);
+                continue;
+            }
+            identities.add(VirtualUser.Tokens.from(client.json(expectSuccess(response, "get an identity"))));
+        }
+        return identities;
+    }
+
+    /**
+     * Creates comments on the hot posts, so comment pagination has several pages to read.
+     *
+     * @param client     the client
+     * @param hotPostIds the IDs of the hot posts
+     * @param identities the identities to comment as
+     */
+    private void seedComments(BlogClient client, List<Long> hotPostIds, List<VirtualUser.Tokens> identities) {
+        int comment = 0;
+        for (Long postId : hotPostIds) {
+            for (int i = 0; i < options.comments(); i++, comment++) {
+                String token = identities.get(comment % identities.size()).accessToken();
+                expectSuccess(client.postComment(token, postId, "Seeded comment " + i), "create a comment");
+            }
+        }
+    }
+
+    /**
+     * Opens the WebSocket subscribers, spread evenly over the hot posts.
+     *
+     * @param client     the client
+     * @param hotPostIds the IDs of the hot posts
+     * @return the open WebSockets
+     * @throws InterruptedException if interrupted while connecting
+     */
+    private List<WebSocket> subscribe(BlogClient client, List<Long> hotPostIds) throws InterruptedException {
+        List<Callable<WebSocket>> connects = new ArrayList<>();
+        for (int i = 0; i < options.subscribers(); i++) {
+            long postId = hotPostIds.get(i % hotPostIds.size());
+            connects.add(() -> client.subscribeToPost(postId));
+        }
+        List<WebSocket> webSockets = new ArrayList<>();
+        for (Future<WebSocket> connect : executor.invokeAll(connects)) {
+            try {
+                webSockets.add(connect.get());
+            } catch (Exception e) {
+                // Failed connections are recorded by the client
+            }
+        }
+        return webSockets.stream().filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Fails the run if a seeding request did not succeed.
+     *
+     * @param response the response
+     * @param action   a description of what the request was meant to do
+     * @return the response
+     * @throws IllegalStateException if the request did not succeed
+     */
+    private static BlogClient.Response expectSuccess(BlogClient.Response response, String action) {
+        if (!response.isSuccessful())
+            throw new IllegalStateException("Failed to " + action + ", status " + response.status() + ": " + response.body());
+        return response;
+    }
+
+    /**
+     * Builds the Markdown content of a seeded post, a few kilobytes long like a typical blog post.
+     *
+     * @param index the index of the post
+     * @return the Markdown content
+     */
+    private static String markdown(int index) {
+        StringBuilder markdown = new StringBuilder("# Load test post ").append(index).append("\n\n");
+        for (int section = 1; section <= 8; section++) {
+            markdown.append("## Section ").append(section).append("\n\n")
+                    .append("Some **bold** and *italic* text with a [link](https://example.com/").append(section)
+                    .append(") and `inline code`, followed by enough prose to look like a real paragraph of a blog post.\n\n")
+                    .append("- first item\n- second item\n- third item\n\n")
+                    .append("```java\nSystem.out.println(\"section ").append(section).append("\");\n```\n\n");
+        }
+        return markdown.toString();
+    }
+
+    private static void log(String message) {
+        System.out.println("[loadtest] " + message);
+    }
+}
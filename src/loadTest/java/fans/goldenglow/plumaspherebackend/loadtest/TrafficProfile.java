@@ -0,0 +1,99 @@
+package fans.goldenglow.plumaspherebackend.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traffic mixes replayed by the virtual users.
+ * Each mix assigns a relative weight to every action and decides how much of the post traffic goes to the hot posts.
+ */
+enum TrafficProfile {
+    /**
+     * Readers browsing the blog: listings, posts and comments, with occasional likes, comments and new visitors.
+     */
+    MIXED(0.8, Map.of(
+            Action.LIST_POSTS, 20,
+            Action.READ_POST, 30,
+            Action.LIST_COMMENTS, 20,
+            Action.READ_LIKES, 10,
+            Action.LIKE_POST, 10,
+            Action.POST_COMMENT, 3,
+            Action.GET_IDENTITY, 2,
+            Action.LIST_TAGS, 5)),
+    /**
+     * Read-only traffic spread evenly over the posts, as produced by search engines and feed readers.
+     */
+    BROWSE(0.3, Map.of(
+            Action.LIST_POSTS, 30,
+            Action.READ_POST, 40,
+            Action.LIST_COMMENTS, 20,
+            Action.LIST_TAGS, 10)),
+    /**
+     * A post going viral: likes and like counts on the hot posts, watched by all WebSocket subscribers.
+     */
+    LIKE_STORM(1.0, Map.of(
+            Action.LIKE_POST, 70,
+            Action.READ_LIKES, 15,
+            Action.READ_POST, 10,
+            Action.LIST_COMMENTS, 5));
+
+    private final double hotShare;
+    private final Map<Action, Integer> weights;
+    private final int totalWeight;
+
+    TrafficProfile(double hotShare, Map<Action, Integer> weights) {
+        this.hotShare = hotShare;
+        this.weights = new EnumMap<>(weights);
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Finds a profile by its name, ignoring case and accepting dashes for underscores.
+     *
+     * @param name the name of the profile, e.g. {@code like-storm}
+     * @return the profile
+     * @throws IllegalArgumentException if no profile has the given name
+     */
+    static TrafficProfile fromName(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    /**
+     * Picks the next action of a virtual user according to the weights of this profile.
+     *
+     * @return the next action
+     */
+    Action nextAction() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Action, Integer> entry : weights.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) return entry.getKey();
+        }
+        throw new IllegalStateException("Weights of " + this + " do not add up");
+    }
+
+    /**
+     * Decides whether the next post-targeted action goes to one of the hot posts.
+     *
+     * @return true if the action should target a hot post
+     */
+    boolean targetsHotPost() {
+        return ThreadLocalRandom.current().nextDouble() < hotShare;
+    }
+
+    /**
+     * Actions a virtual user can perform, each corresponding to what a page of the frontend requests.
+     */
+    enum Action {
+        LIST_POSTS,
+        READ_POST,
+        LIST_COMMENTS,
+        READ_LIKES,
+        LIKE_POST,
+        POST_COMMENT,
+        GET_IDENTITY,
+        LIST_TAGS
+    }
+}
@@ -0,0 +1,121 @@
+package fans.goldenglow.plumaspherebackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A reader of the blog, repeatedly performing actions picked from a traffic profile until the run ends.
+ * Each virtual user runs on its own virtual thread and holds the tokens of its own anonymous identity.
+ */
+final class VirtualUser implements Runnable {
+    // Page size of the listings when not configured otherwise, see PostController and CommentController
+    private static final int PAGE_SIZE = 5;
+
+    private final BlogClient client;
+    private final TrafficProfile profile;
+    private final Duration thinkTime;
+    private final List<Long> postIds;
+    private final int hotPosts;
+    private final int commentsPerHotPost;
+    private final BooleanSupplier running;
+    private Tokens tokens;
+
+    /**
+     * Creates a virtual user.
+     *
+     * @param client  the client to send requests with
+     * @param options the options of the run
+     * @param postIds the IDs of all posts, hot posts first
+     * @param tokens  the tokens of the identity of the user
+     * @param running tells whether the run is still going on
+     */
+    VirtualUser(BlogClient client, LoadTestOptions options, List<Long> postIds, Tokens tokens, BooleanSupplier running) {
+        this.client = client;
+        this.profile = options.profile();
+        this.thinkTime = options.thinkTime();
+        this.postIds = postIds;
+        this.hotPosts = Math.min(options.hotPosts(), postIds.size());
+        this.commentsPerHotPost = options.comments();
+        this.tokens = tokens;
+        this.running = running;
+    }
+
+    @Override
+    public void run() {
+        while (running.getAsBoolean()) {
+            perform(profile.nextAction());
+            if (!thinkTime.isZero()) {
+                try {
+                    Thread.sleep(thinkTime);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Performs a single action.
+     *
+     * @param action the action to perform
+     */
+    private void perform(TrafficProfile.Action action) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean hot = profile.targetsHotPost();
+        long postId = hot ? postIds.get(random.nextInt(hotPosts)) : postIds.get(random.nextInt(postIds.size()));
+        switch (action) {
+            case LIST_POSTS -> client.listPosts(random.nextInt(Math.max(1, postIds.size() / PAGE_SIZE)));
+            case READ_POST -> client.readPost(postId);
+            case LIST_COMMENTS -> client.listComments(postId, hot ? random.nextInt(Math.max(1, commentsPerHotPost / PAGE_SIZE)) : 0);
+            case READ_LIKES -> client.readLikes(postId);
+            case LIKE_POST -> {
+                if (client.likePost(tokens.accessToken(), postId).status() == 401 && refresh())
+                    client.likePost(tokens.accessToken(), postId);
+            }
+            case POST_COMMENT -> {
+                String content = "Load test comment " + random.nextInt(1_000_000);
+                if (client.postComment(tokens.accessToken(), postId, content).status() == 401 && refresh())
+                    client.postComment(tokens.accessToken(), postId, content);
+            }
+            // A new visitor arriving, who gets an anonymous identity before anything else
+            case GET_IDENTITY -> client.getIdentity();
+            case LIST_TAGS -> client.listTags();
+        }
+    }
+
+    /**
+     * Refreshes the tokens of this user after its access token has expired.
+     *
+     * @return true if the tokens were refreshed
+     */
+    private boolean refresh() {
+        BlogClient.Response response = client.refreshToken(tokens.refreshToken());
+        if (!response.isSuccessful()) return false;
+        tokens = Tokens.from(client.json(response));
+        return true;
+    }
+
+    /**
+     * Access and refresh token of an identity.
+     *
+     * @param accessToken  the access token
+     * @param refreshToken the refresh token
+     */
+    record Tokens(String accessToken, String refreshToken) {
+        /**
+         * Reads the tokens from a token pair response.
+         *
+         * @param tokenPair the token pair response
+         * @return the tokens
+         */
+        static Tokens from(JsonNode tokenPair) {
+            return new Tokens(tokenPair.path("accessToken").path("token").asText(),
+                    tokenPair.path("refreshToken").path("token").asText());
+        }
+    }
+}
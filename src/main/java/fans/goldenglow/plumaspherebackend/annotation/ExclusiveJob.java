@@ -0,0 +1,31 @@
+package fans.goldenglow.plumaspherebackend.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+
+/**
+ * Annotation to run a scheduled job on only one node of the cluster per interval.
+ * This annotation can be applied to @Scheduled methods; every node still triggers the method,
+ * but only the node that acquires the job's lease in Redis runs it.
+ */
+@Target(METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExclusiveJob {
+    /**
+     * The name of the job, unique across the application.
+     *
+     * @return the name of the job
+     */
+    String name();
+
+    /**
+     * The interval of the job in milliseconds; the lease is kept for about this long after the job
+     * finishes, so other nodes do not run it again in the same interval. Placeholders are resolved.
+     *
+     * @return the interval of the job
+     */
+    String interval();
+}
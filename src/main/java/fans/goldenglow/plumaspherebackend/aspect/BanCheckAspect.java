@@ -1,9 +1,10 @@
 package fans.goldenglow.plumaspherebackend.aspect;
 
-import fans.goldenglow.plumaspherebackend.entity.User;
+import fans.goldenglow.plumaspherebackend.service.BanCacheService;
 import fans.goldenglow.plumaspherebackend.service.BannedIpService;
 import fans.goldenglow.plumaspherebackend.service.TokenService;
-import fans.goldenglow.plumaspherebackend.service.UserService;
+import fans.goldenglow.plumaspherebackend.service.UserBanService;
+import fans.goldenglow.plumaspherebackend.util.ClientIpResolver;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,19 +25,26 @@ import java.util.Optional;
 /**
  * Aspect to check if a user or IP is banned before allowing access to certain methods.
  * This aspect intercepts methods annotated with @CheckUserBan and @CheckIpBan.
+ * Both checks are answered from the in-memory {@link BanCacheService} without a database round trip.
+ * The client IP address is determined by the {@link ClientIpResolver}, so forwarded headers are only honored
+ * from trusted proxies and bans apply to the same address the WebSocket connection limits see.
  */
 @Aspect
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class BanCheckAspect {
-    private final UserService userService;
+    private final BanCacheService banCacheService;
+    private final UserBanService userBanService;
     private final BannedIpService bannedIpService;
     private final TokenService tokenService;
+    private final ClientIpResolver clientIpResolver;
 
     /**
      * Checks if the user is banned before proceeding with the method execution.
      * If the user is banned, a ResponseStatusException with HTTP 403 Forbidden is thrown.
+     * Bans are looked up in the {@link BanCacheService}, so users that are not banned cost no database access.
+     * If the user is marked for an IP ban, the IP address of the request is banned and the mark is cleared.
      *
      * @param joinPoint the join point of the intercepted method
      */
@@ -49,57 +57,46 @@ public class BanCheckAspect {
 
             if (userId != null) {
                 try {
-                    Optional<User> userOptional = userService.findById(userId);
+                    Optional<BanCacheService.UserBan> banOptional = banCacheService.getUserBan(userId);
 
-                    // If user is not found, log a warning and return early
-                    if (userOptional.isEmpty()) {
-                        log.warn("User with ID {} not found, cannot check ban status", userId);
+                    // Users that are neither banned nor marked for an IP ban pass right away
+                    if (banOptional.isEmpty()) {
                         return;
                     }
 
-                    User user = userOptional.get();
-
-                    // Check if the user's ban has expired and lift it if necessary
-                    if (user.isBanExpired()) {
-                        user.unban();
-                        userService.save(user);
-                        log.info("User {} (ID: {}) ban has expired and been automatically lifted", user.getUsername(), userId);
-                    }
-
+                    BanCacheService.UserBan ban = banOptional.get();
                     boolean isUserBanned = false;
                     String banMessage = null;
 
-                    if (user.isCurrentlyBanned()) {
-                        log.info("Blocked banned user {} (ID: {}) from accessing {}",
-                                user.getUsername(), userId, joinPoint.getSignature().getName());
+                    // Expired bans are lifted in the database by the scheduled cleanup
+                    if (ban.isCurrentlyBanned()) {
+                        log.info("Blocked banned user ID {} from accessing {}", userId, joinPoint.getSignature().getName());
 
-                        banMessage = user.getBanExpiresAt() != null
-                                ? String.format("Account banned until %s. Reason: %s", user.getBanExpiresAt(), user.getBanReason())
-                                : String.format("Account permanently banned. Reason: %s", user.getBanReason());
+                        banMessage = ban.banExpiresAt() != null
+                                ? String.format("Account banned until %s. Reason: %s", ban.banExpiresAt(), ban.banReason())
+                                : String.format("Account permanently banned. Reason: %s", ban.banReason());
 
                         isUserBanned = true;
                     }
 
-                    if (user.getIsPendingIpBan()) {
+                    if (ban.pendingIpBan()) {
                         String clientIp = getClientIpAddress();
                         if (clientIp == null) {
                             log.warn("Could not determine client IP address for user ID {}", userId);
                         } else {
-                            log.info("Collecting IP {} for user {} (ID: {}) and adding to ban list. Reason: {}",
-                                    clientIp, user.getUsername(), userId, user.getIpBanReason());
+                            log.info("Collecting IP {} for user ID {} and adding to ban list. Reason: {}",
+                                    clientIp, userId, ban.ipBanReason());
 
-                            if (user.getIpBanExpiresAt() != null) {
-                                bannedIpService.banIpTemporary(clientIp, user.getIpBanReason(),
-                                        user.getIpBanExpiresAt());
+                            if (ban.ipBanExpiresAt() != null) {
+                                bannedIpService.banIpTemporary(clientIp, ban.ipBanReason(), ban.ipBanExpiresAt());
                             } else {
-                                bannedIpService.banIp(clientIp, user.getIpBanReason());
+                                bannedIpService.banIp(clientIp, ban.ipBanReason());
                             }
 
-                            user.clearIpBanMark();
-                            userService.save(user);
+                            userBanService.unmarkUserIpBan(userId);
 
                             isUserBanned = true;
-                            banMessage = "Your IP has been banned: " + user.getIpBanReason();
+                            banMessage = "Your IP has been banned: " + ban.ipBanReason();
                         }
                     }
 
@@ -148,17 +145,7 @@ public class BanCheckAspect {
         }
 
         HttpServletRequest request = attributes.getRequest();
-
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty() && !"unknown".equalsIgnoreCase(xForwardedFor)) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty() && !"unknown".equalsIgnoreCase(xRealIp)) {
-            return xRealIp;
-        }
-
-        return null;
+        return clientIpResolver.resolve(request.getRemoteAddr(), request.getHeader("X-Forwarded-For"),
+                request.getHeader("X-Real-IP"));
     }
-}
\ No newline at end of file
+}
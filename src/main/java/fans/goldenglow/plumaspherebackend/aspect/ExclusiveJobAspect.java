@@ -0,0 +1,59 @@
+package fans.goldenglow.plumaspherebackend.aspect;
+
+import fans.goldenglow.plumaspherebackend.annotation.ExclusiveJob;
+import fans.goldenglow.plumaspherebackend.config.SchedulerProperties;
+import fans.goldenglow.plumaspherebackend.service.JobLockService;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Aspect to run scheduled jobs on only one node of the cluster per interval.
+ * This aspect intercepts methods annotated with @ExclusiveJob and runs them only if their lease in Redis
+ * can be taken. It runs before any transaction of the method is started, so skipped runs cost no connection.
+ * The method checks that it still holds the lease before each write with {@link JobLockService#holdsCurrentLease()}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ExclusiveJobAspect {
+    private final JobLockService jobLockService;
+    private final SchedulerProperties schedulerProperties;
+    private final Environment environment;
+
+    /**
+     * Runs the job if its lease can be taken, skipping it otherwise.
+     * The lease is held for the interval of the job less the configured clock tolerance,
+     * and expires after the configured maximum or the interval, whichever is longer, if the job does not finish.
+     *
+     * @param joinPoint    the join point of the intercepted method
+     * @param exclusiveJob the annotation of the intercepted method
+     * @return null, as scheduled methods return nothing
+     * @throws Throwable if the job throws
+     */
+    @Around("@annotation(exclusiveJob)")
+    public Object runExclusively(ProceedingJoinPoint joinPoint, ExclusiveJob exclusiveJob) throws Throwable {
+        long interval = Long.parseLong(environment.resolveRequiredPlaceholders(exclusiveJob.interval()));
+        Duration holdTime = Duration.ofMillis(Math.max(interval - schedulerProperties.getClockTolerance(), 0));
+        Duration leaseTime = Duration.ofMillis(Math.max(interval, schedulerProperties.getLockAtMostFor()));
+
+        Throwable[] failure = new Throwable[1];
+        jobLockService.runExclusively(exclusiveJob.name(), holdTime, leaseTime, lease -> {
+            try {
+                joinPoint.proceed();
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) throw failure[0];
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package fans.goldenglow.plumaspherebackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for bulk moderation jobs.
+ * This class is used to load the chunk size, queue bound and job retention from application properties.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "config.bulk_moderation")
+public class BulkModerationProperties {
+    // Number of users updated or deleted per transaction
+    private int chunkSize = 500;
+    // Number of jobs that may wait for the running one before new jobs are rejected
+    private int queueCapacity = 8;
+    // Time in milliseconds the progress of a job is kept in Redis after its last update
+    private long jobRetention = 86400000;
+}
@@ -0,0 +1,25 @@
+package fans.goldenglow.plumaspherebackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for writing likes cached in Redis back to the database.
+ * This class is used to load the number of shards, worker threads and attempts, and the shutdown flush timeout
+ * from application properties.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "config.like_sync")
+public class LikeSyncProperties {
+    // Number of shards the posts and comments are split into by ID, each synced in its own transaction;
+    // only change it with all nodes stopped, as the dirty sets are drained under the old number on shutdown
+    private int shards = 16;
+    // Number of shards synced in parallel, bounded by the database connection pool
+    private int threads = 4;
+    // Number of times a shard is attempted per sync before it is left to the next sync
+    private int maxAttempts = 3;
+    // Maximum time in milliseconds the dirty likes are flushed for on shutdown before the rest is left to other nodes
+    private long shutdownFlushTimeout = 5000;
+}
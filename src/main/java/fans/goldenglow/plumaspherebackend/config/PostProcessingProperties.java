@@ -0,0 +1,17 @@
+package fans.goldenglow.plumaspherebackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the asynchronous post-processing pipeline.
+ * This class is used to load the executor bounds from application properties.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "config.post_processing")
+public class PostProcessingProperties {
+    private int threads = 2;
+    private int queueCapacity = 256;
+}
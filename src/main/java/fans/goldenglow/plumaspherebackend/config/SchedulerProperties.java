@@ -0,0 +1,20 @@
+package fans.goldenglow.plumaspherebackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for running scheduled jobs once across the cluster.
+ * This class is used to load the bounds of job leases from application properties.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "config.scheduler")
+public class SchedulerProperties {
+    // Time in milliseconds after which the lease of a job that did not finish expires, e.g. because its node died
+    private long lockAtMostFor = 600000;
+    // Time in milliseconds a lease is released before the end of the interval, so clock drift between
+    // the schedules of the nodes does not make every other interval skipped
+    private long clockTolerance = 1000;
+}
@@ -0,0 +1,58 @@
+package fans.goldenglow.plumaspherebackend.config;
+
+import fans.goldenglow.plumaspherebackend.metrics.SqlEndpointStatementInspector;
+import fans.goldenglow.plumaspherebackend.metrics.SqlMetricsListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+
+/**
+ * SqlMetricsConfig is a configuration class that instruments database access for per-endpoint SQL metrics.
+ * It wraps the application DataSource in a proxy that measures statements and counts rows, and registers
+ * a Hibernate statement inspector that tags every statement with the endpoint that issued it.
+ */
+@Configuration
+public class SqlMetricsConfig {
+    /**
+     * Wraps the DataSource in a proxy that reports executed statements and read rows to the current request.
+     * Declared static so that the post processor is registered before the DataSource is created.
+     *
+     * @param environment the environment to read the slow query threshold from
+     * @return the bean post processor wrapping the DataSource
+     */
+    @Bean
+    static BeanPostProcessor sqlMetricsDataSourcePostProcessor(Environment environment) {
+        long slowQueryThreshold = environment.getProperty("config.metrics.slow_query_threshold", Long.class, 500L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) return bean;
+                SqlMetricsListener listener = new SqlMetricsListener(slowQueryThreshold);
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(listener)
+                        .methodListener(listener)
+                        .proxyResultSet()
+                        .build();
+            }
+        };
+    }
+
+    /**
+     * Registers the statement inspector that tags SQL statements with the endpoint that issued them.
+     *
+     * @return the Hibernate properties customizer
+     */
+    @Bean
+    HibernatePropertiesCustomizer sqlEndpointStatementInspectorCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlEndpointStatementInspector());
+    }
+}
@@ -1,19 +1,30 @@
 package fans.goldenglow.plumaspherebackend.config;
 
+import fans.goldenglow.plumaspherebackend.metrics.SqlMetricsInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * WebMvcConfig is a configuration class that implements WebMvcConfigurer to customize
  * the Spring MVC configuration. It adds resource handlers for serving static files
- * from the "upload" directory.
+ * from the "upload" directory, and registers the interceptor labelling SQL metrics with the handling endpoint.
  */
 @Configuration
+@RequiredArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
+    private final SqlMetricsInterceptor sqlMetricsInterceptor;
+
     @Override
     public void addResourceHandlers(@NonNull org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/upload/**")
                 .addResourceLocations("file:upload/");
     }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(sqlMetricsInterceptor);
+    }
 }
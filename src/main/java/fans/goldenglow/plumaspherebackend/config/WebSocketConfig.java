@@ -1,5 +1,6 @@
 package fans.goldenglow.plumaspherebackend.config;
 
+import fans.goldenglow.plumaspherebackend.handler.WebSocketConnectionLimiter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
@@ -11,7 +12,7 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 /**
  * WebSocketConfig is a configuration class that implements WebSocketConfigurer to set up
  * WebSocket support in the application. It registers a WebSocket handler for the "/ws" endpoint
- * and configures allowed origins based on the provided CorsProperties.
+ * and configures allowed origins based on the provided CorsProperties, limiting the number of connections.
  */
 @Configuration
 @EnableWebSocket
@@ -19,10 +20,12 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 public class WebSocketConfig implements WebSocketConfigurer {
     private final CorsProperties corsProperties;
     private final WebSocketHandler webSocketHandler;
+    private final WebSocketConnectionLimiter webSocketConnectionLimiter;
 
     @Override
     public void registerWebSocketHandlers(@NonNull WebSocketHandlerRegistry registry) {
         registry.addHandler(webSocketHandler, "/ws")
+                .addInterceptors(webSocketConnectionLimiter)
                 .setAllowedOrigins(corsProperties.getAllowedOrigins().toArray(String[]::new));
     }
 }
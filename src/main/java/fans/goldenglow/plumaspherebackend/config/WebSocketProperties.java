@@ -0,0 +1,57 @@
+package fans.goldenglow.plumaspherebackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for WebSocket broadcasts.
+ * This class is used to load the per-session send and subscription limits, the heartbeat, the connection limits,
+ * the trusted proxies, the coalescing window, the relay switch, the replay buffer, the reorder timeout and the
+ * reconnect jitter from application properties.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "config.websocket")
+public class WebSocketProperties {
+    // Maximum time in milliseconds a single send to a session may take before the session is considered slow
+    private int sendTimeLimit = 5000;
+    // Maximum number of bytes buffered for a session while a previous send is still in progress
+    private int bufferSizeLimit = 64 * 1024;
+    // What to do with a slow session once a limit is exceeded: drop the message or close the session
+    private ConcurrentWebSocketSessionDecorator.OverflowStrategy overflowStrategy = ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE;
+    // Time in milliseconds during which likes and comments on the same topic are merged into a single update
+    private long coalesceWindow = 200;
+    // Maximum number of new comments carried by a single update; if more were added, clients re-fetch them
+    private int maxCommentsPerUpdate = 20;
+    // Whether broadcasts are relayed through Redis, so subscribers connected to other nodes receive them as well
+    private boolean relayEnabled = true;
+    // Number of recent messages kept per topic for clients resuming after a reconnect
+    private int replayBufferSize = 100;
+    // Time in milliseconds the messages of a topic are kept for replay after its last message
+    private long replayRetention = 600000;
+    // Maximum time in milliseconds messages arriving ahead of a missing message of their topic are held back before
+    // the missing message is read from the replay buffer
+    private long reorderTimeout = 1000;
+    // Maximum number of topics a single connection may subscribe to
+    private int maxTopicsPerSession = 50;
+    // Time in milliseconds between pings sent to every session
+    private long pingInterval = 25000;
+    // Time in milliseconds after which a session from which nothing was received, not even a pong, is closed
+    private long idleTimeout = 60000;
+    // Maximum number of open connections on this node
+    private int maxConnections = 10000;
+    // Maximum number of open connections on this node from a single client IP address
+    private int maxConnectionsPerIp = 20;
+    // Addresses or CIDR ranges of the reverse proxies whose X-Forwarded-For and X-Real-IP headers are trusted;
+    // requests and connections from any other address are counted and checked for IP bans under that address,
+    // whatever headers they send
+    private List<String> trustedProxies = new ArrayList<>(List.of("127.0.0.1", "::1"));
+    // Time in milliseconds over which the sessions are asked to reconnect when the node shuts down, each at a random
+    // point within it, so the clients do not all reconnect to the other nodes at once
+    private long reconnectJitter = 5000;
+}
@@ -0,0 +1,17 @@
+package fans.goldenglow.plumaspherebackend.constant;
+
+/**
+ * Enum representing the actions a bulk moderation job can apply to a set of users.
+ */
+public enum BulkModerationAction {
+    // Ban the users, permanently or until the given expiration time
+    BAN,
+    // Lift the bans of the users
+    UNBAN,
+    // Mark the users for an IP ban, applied to the IP address of their next request
+    MARK_IP_BAN,
+    // Remove the IP ban marks of the users
+    UNMARK_IP_BAN,
+    // Delete the users that have neither written nor liked any post or comment
+    DELETE,
+}
@@ -5,4 +5,34 @@ package fans.goldenglow.plumaspherebackend.constant;
  */
 public class RedisKey {
     public static final String INITIALIZATION_CODE_KEY = "initialization:code";
+    // Prefix of the sets of IDs of users who liked a post, followed by the post ID
+    public static final String POST_LIKES_PREFIX = "post:like:";
+    // Prefix of the sets of IDs of users who liked a comment, followed by the comment ID
+    public static final String COMMENT_LIKES_PREFIX = "comment:like:";
+    // Set of IDs of the posts whose likes are loaded into Redis
+    public static final String POST_LIKES_LOADED_KEY = "post:likes:loaded";
+    // Set of IDs of the comments whose likes are loaded into Redis
+    public static final String COMMENT_LIKES_LOADED_KEY = "comment:likes:loaded";
+    // Prefix of the sets of IDs of posts whose likes changed since the last sync, followed by the sync shard
+    public static final String POST_LIKES_DIRTY_PREFIX = "post:likes:dirty:";
+    // Prefix of the sets of IDs of comments whose likes changed since the last sync, followed by the sync shard
+    public static final String COMMENT_LIKES_DIRTY_PREFIX = "comment:likes:dirty:";
+    // Prefix of the sets of IDs of posts taken from the dirty set by a sync that has not completed, followed by the sync shard
+    public static final String POST_LIKES_DRAINING_PREFIX = "post:likes:draining:";
+    // Prefix of the sets of IDs of comments taken from the dirty set by a sync that has not completed, followed by the sync shard
+    public static final String COMMENT_LIKES_DRAINING_PREFIX = "comment:likes:draining:";
+    // Prefix of the pub/sub channels relaying WebSocket messages between nodes, followed by the topic key
+    public static final String WEBSOCKET_CHANNEL_PREFIX = "ws:";
+    // Prefix of the counters numbering the WebSocket messages of each topic, followed by the topic key
+    public static final String WEBSOCKET_SEQUENCE_PREFIX = "ws:seq:";
+    // Prefix of the sorted sets keeping recent WebSocket messages of each topic for replay, followed by the topic key
+    public static final String WEBSOCKET_REPLAY_PREFIX = "ws:replay:";
+    // Pub/sub channel notifying all nodes of changed IP and user bans, carrying the ban key, e.g. ip:1.2.3.4 or user:42
+    public static final String BAN_INVALIDATION_CHANNEL = "ban:invalidate";
+    // Prefix of the keys holding the progress of bulk moderation jobs as JSON, followed by the job ID
+    public static final String BULK_MODERATION_JOB_PREFIX = "admin:bulk:job:";
+    // Prefix of the leases of scheduled jobs, holding the ID of the current lease, followed by the job name
+    public static final String JOB_LOCK_PREFIX = "job:lock:";
+    // Prefix of the counters issuing fencing tokens for the leases of scheduled jobs, followed by the job name
+    public static final String JOB_FENCE_PREFIX = "job:fence:";
 }
@@ -4,7 +4,16 @@ package fans.goldenglow.plumaspherebackend.constant;
  * Enum representing different types of WebSocket messages.
  */
 public enum WebSocketMessageType {
-    NEW_COMMENT,
-    LIKE_POST,
-    LIKE_COMMENT,
+    // Coalesced likes and comments on a topic, see TopicUpdateMessageDto
+    UPDATE,
+    // Acknowledgement of a subscribe request, see SubscriptionMessageDto
+    SUBSCRIBED,
+    // Acknowledgement of an unsubscribe request, see SubscriptionMessageDto
+    UNSUBSCRIBED,
+    // A request could not be handled, see ErrorMessageDto
+    ERROR,
+    // Messages of the topic were missed and can no longer be replayed, the client has to reload it
+    RESYNC,
+    // The node is shutting down and closes the connection, the client has to reconnect, which reaches another node
+    RECONNECT,
 }
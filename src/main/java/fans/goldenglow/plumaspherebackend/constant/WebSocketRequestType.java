@@ -0,0 +1,11 @@
+package fans.goldenglow.plumaspherebackend.constant;
+
+/**
+ * Enum representing the types of requests WebSocket clients can send.
+ */
+public enum WebSocketRequestType {
+    // Start receiving the messages of the given topics
+    SUBSCRIBE,
+    // Stop receiving the messages of the given topics
+    UNSUBSCRIBE,
+}
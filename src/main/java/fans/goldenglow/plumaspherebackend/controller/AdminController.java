@@ -1,24 +1,23 @@
 package fans.goldenglow.plumaspherebackend.controller;
 
-import fans.goldenglow.plumaspherebackend.dto.BanIPRequestDto;
-import fans.goldenglow.plumaspherebackend.dto.BanRequestDto;
-import fans.goldenglow.plumaspherebackend.dto.UserAdminDto;
+import fans.goldenglow.plumaspherebackend.constant.BulkModerationAction;
+import fans.goldenglow.plumaspherebackend.dto.*;
 import fans.goldenglow.plumaspherebackend.entity.BannedIp;
 import fans.goldenglow.plumaspherebackend.entity.User;
 import fans.goldenglow.plumaspherebackend.mapper.UserMapper;
 import fans.goldenglow.plumaspherebackend.service.BannedIpService;
+import fans.goldenglow.plumaspherebackend.service.BulkModerationService;
 import fans.goldenglow.plumaspherebackend.service.UserBanService;
-import fans.goldenglow.plumaspherebackend.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Controller for administrative actions.
@@ -28,8 +27,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AdminController {
     private final BannedIpService bannedIpService;
-    private final UserService userService;
     private final UserBanService userBanService;
+    private final BulkModerationService bulkModerationService;
     private final UserMapper userMapper;
 
     /**
@@ -245,21 +244,12 @@ public class AdminController {
             String reason = banRequestDto.getReason();
             ZonedDateTime expiresAt = banRequestDto.getExpiresAt();
 
-            Optional<User> user = userService.findById(id);
-
-            if (user.isEmpty()) {
-                return ResponseEntity.badRequest().body("User not found with ID: " + id);
-            }
-
-            User userEntity = user.get();
-
             if (expiresAt != null) { // If an expiration date is provided, mark the user for temporary IP ban
-                userEntity.markForTemporaryIpBan(reason, expiresAt.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime());
+                userBanService.markUserForTemporaryIpBan(id, reason, expiresAt.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime());
             } else { // If no expiration date is provided, mark the user for permanent IP ban
-                userEntity.markForIpBan(reason);
+                userBanService.markUserForIpBan(id, reason);
             }
 
-            userService.save(userEntity);
             return ResponseEntity.ok("User " + id + " marked for IP ban. Reason: " + reason);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error marking user: " + e.getMessage());
@@ -275,13 +265,7 @@ public class AdminController {
     @DeleteMapping("/unmark-user-ip-ban")
     public ResponseEntity<String> unmarkUserIpBan(@RequestParam Long id) {
         try {
-            Optional<User> user = userService.findById(id);
-            if (user.isEmpty()) {
-                return ResponseEntity.badRequest().body("User not found with ID: " + id);
-            }
-            User userEntity = user.get();
-            userEntity.clearIpBanMark();
-            userService.save(userEntity);
+            userBanService.unmarkUserIpBan(id);
             return ResponseEntity.ok("User " + id + " unmarked for IP ban");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error unmarking user: " + e.getMessage());
@@ -289,10 +273,97 @@ public class AdminController {
     }
 
     /**
-     * Bans an IP address either temporarily or permanently.
+     * Bans many users at once, either temporarily or permanently, in a background job.
      *
-     * @param banIPRequestDto DTO containing IP address, reason, and optional expiration date.
-     * @return ResponseEntity with the result of the operation.
+     * @param request DTO containing the user IDs or filter, reason, and optional expiration date.
+     * @return ResponseEntity containing the ID of the job to poll its progress.
+     */
+    @PostMapping("/bulk/ban-users")
+    public ResponseEntity<StringDto> bulkBanUsers(@RequestBody BulkModerationRequestDto request) {
+        return submitBulkJob(BulkModerationAction.BAN, request);
+    }
+
+    /**
+     * Unbans many users at once in a background job.
+     *
+     * @param request DTO containing the user IDs or filter.
+     * @return ResponseEntity containing the ID of the job to poll its progress.
+     */
+    @PostMapping("/bulk/unban-users")
+    public ResponseEntity<StringDto> bulkUnbanUsers(@RequestBody BulkModerationRequestDto request) {
+        return submitBulkJob(BulkModerationAction.UNBAN, request);
+    }
+
+    /**
+     * Marks many users for IP ban at once, either temporarily or permanently, in a background job.
+     *
+     * @param request DTO containing the user IDs or filter, reason, and optional expiration date.
+     * @return ResponseEntity containing the ID of the job to poll its progress.
+     */
+    @PostMapping("/bulk/mark-users-for-ip-ban")
+    public ResponseEntity<StringDto> bulkMarkUsersForIpBan(@RequestBody BulkModerationRequestDto request) {
+        return submitBulkJob(BulkModerationAction.MARK_IP_BAN, request);
+    }
+
+    /**
+     * Unmarks many users for IP ban at once in a background job.
+     *
+     * @param request DTO containing the user IDs or filter.
+     * @return ResponseEntity containing the ID of the job to poll its progress.
+     */
+    @PostMapping("/bulk/unmark-users-ip-ban")
+    public ResponseEntity<StringDto> bulkUnmarkUsersIpBan(@RequestBody BulkModerationRequestDto request) {
+        return submitBulkJob(BulkModerationAction.UNMARK_IP_BAN, request);
+    }
+
+    /**
+     * Deletes many users at once in a background job.
+     * Only users that have neither written nor liked any post or comment are deleted, the others are skipped.
+     *
+     * @param request DTO containing the user IDs or filter.
+     * @return ResponseEntity containing the ID of the job to poll its progress.
+     */
+    @PostMapping("/bulk/delete-users")
+    public ResponseEntity<StringDto> bulkDeleteUsers(@RequestBody BulkModerationRequestDto request) {
+        return submitBulkJob(BulkModerationAction.DELETE, request);
+    }
+
+    /**
+     * Retrieves the progress of a bulk moderation job.
+     *
+     * @param jobId ID of the job.
+     * @return ResponseEntity containing the progress of the job, or not found if it does not exist or expired.
+     */
+    @GetMapping("/bulk/jobs/{jobId}")
+    public ResponseEntity<BulkModerationJobDto> getBulkJob(@PathVariable String jobId) {
+        return bulkModerationService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Submits a bulk moderation job.
+     *
+     * @param action  the action to apply to the selected users.
+     * @param request DTO containing the selection of users.
+     * @return ResponseEntity accepted with the ID of the job, bad request if the request is invalid,
+     * or service unavailable if too many jobs are waiting.
+     */
+    private ResponseEntity<StringDto> submitBulkJob(BulkModerationAction action, BulkModerationRequestDto request) {
+        try {
+            return ResponseEntity.accepted().body(new StringDto(bulkModerationService.submit(action, request)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Bans an IP address or a range of IP addresses in CIDR notation either temporarily or permanently.
+     *
+     * @param banIPRequestDto DTO containing IP address or range, reason, and optional expiration date.
+     * @return ResponseEntity with the result of the operation, or bad request if the address or range is malformed.
      */
     @PostMapping("/ban-ip")
     public ResponseEntity<String> banIp(@RequestBody BanIPRequestDto banIPRequestDto) {
@@ -300,18 +371,22 @@ public class AdminController {
         String reason = banIPRequestDto.getReason();
         ZonedDateTime expiresAt = banIPRequestDto.getExpiresAt();
 
-        if (expiresAt != null) { // If an expiration date is provided, ban the IP address temporarily
-            bannedIpService.banIpTemporary(ipAddress, reason, expiresAt.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime());
-        } else
-            bannedIpService.banIp(ipAddress, reason); // If no expiration date is provided, ban the IP address permanently
+        try {
+            if (expiresAt != null) { // If an expiration date is provided, ban the IP address temporarily
+                bannedIpService.banIpTemporary(ipAddress, reason, expiresAt.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime());
+            } else
+                bannedIpService.banIp(ipAddress, reason); // If no expiration date is provided, ban the IP address permanently
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error banning IP address: " + e.getMessage());
+        }
 
         return ResponseEntity.ok(expiresAt != null ? "IP address " + ipAddress + " banned temporarily until" + expiresAt + ". Reason: " + reason : "IP address " + ipAddress + " banned permanently. Reason: " + reason);
     }
 
     /**
-     * Unbans an IP address.
+     * Unbans an IP address or a range of IP addresses in CIDR notation.
      *
-     * @param ipAddress IP address to unban.
+     * @param ipAddress IP address or range to unban.
      * @return ResponseEntity with the result of the operation.
      */
     @DeleteMapping("/unban-ip")
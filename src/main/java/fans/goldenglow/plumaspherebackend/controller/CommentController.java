@@ -4,13 +4,11 @@ import fans.goldenglow.plumaspherebackend.annotation.CheckIpBan;
 import fans.goldenglow.plumaspherebackend.annotation.CheckUserBan;
 import fans.goldenglow.plumaspherebackend.constant.ConfigField;
 import fans.goldenglow.plumaspherebackend.constant.UserRoles;
-import fans.goldenglow.plumaspherebackend.constant.WebSocketMessageType;
 import fans.goldenglow.plumaspherebackend.dto.CommentDto;
-import fans.goldenglow.plumaspherebackend.dto.websocket.WebSocketMessageDto;
 import fans.goldenglow.plumaspherebackend.entity.Comment;
 import fans.goldenglow.plumaspherebackend.entity.Post;
 import fans.goldenglow.plumaspherebackend.entity.User;
-import fans.goldenglow.plumaspherebackend.handler.WebSocketHandler;
+import fans.goldenglow.plumaspherebackend.event.CommentAddedEvent;
 import fans.goldenglow.plumaspherebackend.mapper.CommentMapper;
 import fans.goldenglow.plumaspherebackend.service.CommentService;
 import fans.goldenglow.plumaspherebackend.service.ConfigService;
@@ -18,6 +16,7 @@ import fans.goldenglow.plumaspherebackend.service.PostService;
 import fans.goldenglow.plumaspherebackend.service.UserService;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -42,7 +41,7 @@ public class CommentController {
     private final PostService postService;
     private final CommentService commentService;
     private final UserService userService;
-    private final WebSocketHandler webSocketHandler;
+    private final ApplicationEventPublisher eventPublisher;
     private final CommentMapper commentMapper;
     private final ConfigService configService;
     private int pageSize;
@@ -181,8 +180,8 @@ public class CommentController {
         comment.setPost(postEntity);
         commentService.save(comment);
 
-        // Notify WebSocket clients about the new comment
-        webSocketHandler.sendMessageToPost(postId, new WebSocketMessageDto(WebSocketMessageType.NEW_COMMENT));
+        // Notify WebSocket clients about the new comment once it is committed
+        eventPublisher.publishEvent(CommentAddedEvent.onPost(postId, commentMapper.toDto(comment)));
 
         return ResponseEntity.ok().build();
     }
@@ -215,8 +214,8 @@ public class CommentController {
 
         Long parentCommentId = commentEntity.getId();
 
-        // Notify WebSocket clients about the new reply comment
-        webSocketHandler.sendMessageToComment(parentCommentId, new WebSocketMessageDto(WebSocketMessageType.NEW_COMMENT));
+        // Notify WebSocket clients about the new reply comment once it is committed
+        eventPublisher.publishEvent(CommentAddedEvent.onComment(parentCommentId, commentMapper.toDto(newComment)));
         return ResponseEntity.ok().build();
     }
 
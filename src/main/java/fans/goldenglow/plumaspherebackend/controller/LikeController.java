@@ -1,20 +1,13 @@
 package fans.goldenglow.plumaspherebackend.controller;
 
-import fans.goldenglow.plumaspherebackend.constant.WebSocketMessageType;
-import fans.goldenglow.plumaspherebackend.dto.websocket.CommentLikeMessageDto;
-import fans.goldenglow.plumaspherebackend.dto.websocket.WebSocketMessageDto;
-import fans.goldenglow.plumaspherebackend.entity.Comment;
-import fans.goldenglow.plumaspherebackend.handler.WebSocketHandler;
-import fans.goldenglow.plumaspherebackend.service.CommentService;
 import fans.goldenglow.plumaspherebackend.service.LikeCacheService;
+import fans.goldenglow.plumaspherebackend.service.WebSocketNotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Optional;
-
 /**
  * Controller for handling like operations on posts and comments.
  * Provides endpoints to get like counts, like states, and to toggle likes.
@@ -25,8 +18,7 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class LikeController {
     private final LikeCacheService likeCacheService;
-    private final WebSocketHandler webSocketHandler;
-    private final CommentService commentService;
+    private final WebSocketNotificationService webSocketNotificationService;
 
     /**
      * Retrieves the number of likes for a specific post.
@@ -89,7 +81,7 @@ public class LikeController {
     public ResponseEntity<Void> likePost(@PathVariable("postId") Long postId, JwtAuthenticationToken token) {
         Long userId = Long.parseLong(token.getToken().getSubject());
         likeCacheService.switchPostLike(postId, userId);
-        webSocketHandler.sendMessageToPost(postId, new WebSocketMessageDto(WebSocketMessageType.LIKE_POST));
+        webSocketNotificationService.notifyPostLiked(postId);
 
         return ResponseEntity.ok().build();
     }
@@ -105,17 +97,7 @@ public class LikeController {
     public ResponseEntity<Void> likeComment(@PathVariable("commentId") Long commentId, JwtAuthenticationToken token) {
         Long userId = Long.parseLong(token.getToken().getSubject());
         likeCacheService.switchCommentLike(commentId, userId);
-
-        Long postId = commentService.findPostId(commentId);
-        if (postId != null) {
-            webSocketHandler.sendMessageToPost(postId, new WebSocketMessageDto(WebSocketMessageType.LIKE_COMMENT, new CommentLikeMessageDto(commentId)));
-        } else {
-            Optional<Comment> comment = commentService.findById(commentId);
-            if (comment.isPresent()) {
-                Long parentId = comment.get().getParentComment().getId();
-                webSocketHandler.sendMessageToComment(parentId, new WebSocketMessageDto(WebSocketMessageType.LIKE_COMMENT, new CommentLikeMessageDto(commentId)));
-            }
-        }
+        webSocketNotificationService.notifyCommentLiked(commentId);
 
         return ResponseEntity.ok().build();
     }
@@ -5,6 +5,7 @@ import fans.goldenglow.plumaspherebackend.dto.PostDto;
 import fans.goldenglow.plumaspherebackend.entity.Post;
 import fans.goldenglow.plumaspherebackend.entity.User;
 import fans.goldenglow.plumaspherebackend.mapper.PostMapper;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostSummary;
 import fans.goldenglow.plumaspherebackend.service.ConfigService;
 import fans.goldenglow.plumaspherebackend.service.PostService;
 import fans.goldenglow.plumaspherebackend.service.TagService;
@@ -59,8 +60,8 @@ public class PostController {
     @GetMapping
     @Transactional(readOnly = true)
     public ResponseEntity<List<PostDto>> getPosts(@RequestParam int page) {
-        Page<Post> postsPage = postService.findAll(PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")));
-        return ResponseEntity.ok(postMapper.toDto(postsPage.getContent()));
+        Page<PostSummary> postsPage = postService.findAllSummaries(PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")));
+        return ResponseEntity.ok(postMapper.summariesToDto(postsPage.getContent()));
     }
 
     /**
@@ -97,8 +98,8 @@ public class PostController {
     @GetMapping("/search")
     @Transactional(readOnly = true)
     public ResponseEntity<List<PostDto>> searchPosts(@RequestParam String query, @RequestParam int page) {
-        Page<Post> postsPage = postService.searchPosts(query, PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")));
-        return ResponseEntity.ok(postMapper.toDto(postsPage.getContent()));
+        Page<PostSummary> postsPage = postService.searchSummaries(query, PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")));
+        return ResponseEntity.ok(postMapper.summariesToDto(postsPage.getContent()));
     }
 
     /**
@@ -138,8 +139,8 @@ public class PostController {
     @GetMapping("/tag")
     @Transactional(readOnly = true)
     public ResponseEntity<List<PostDto>> getPostsByTag(@RequestParam String tagName, @RequestParam int page) {
-        Page<Post> postsPage = postService.findByTagName(tagName, PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")));
-        return ResponseEntity.ok(postMapper.toDto(postsPage.getContent()));
+        Page<PostSummary> postsPage = postService.findSummariesByTagName(tagName, PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")));
+        return ResponseEntity.ok(postMapper.summariesToDto(postsPage.getContent()));
     }
 
     /**
@@ -171,6 +172,7 @@ public class PostController {
 
     /**
      * Retrieves a specific post by its ID.
+     * The pre-rendered HTML of the post is included, so clients do not need to render the Markdown themselves.
      *
      * @param postId the ID of the post to retrieve
      * @return a ResponseEntity containing the PostDto object if found, or a 404 Not Found status
@@ -179,12 +181,20 @@ public class PostController {
     @Transactional(readOnly = true)
     public ResponseEntity<PostDto> getPost(@PathVariable("postId") Long postId) {
         Optional<Post> post = postService.findById(postId);
-        return post.map(value -> ResponseEntity.ok(postMapper.toDto(value))).orElseGet(() -> ResponseEntity.notFound().build());
+        if (post.isEmpty()) return ResponseEntity.notFound().build();
+        Post postEntity = post.get();
+        PostDto postDto = postMapper.toDto(postEntity);
+        postDto.setTags(postService.findTagNames(postId));
+        // Posts still being processed, or saved before pre-rendering was introduced, have no up-to-date rendered HTML
+        if (postEntity.getRenderedHtml() == null || Boolean.TRUE.equals(postEntity.getProcessingPending()))
+            postDto.setRenderedHtml(postService.renderHtml(postEntity.getContent()));
+        return ResponseEntity.ok(postDto);
     }
 
     /**
      * Creates a new post.
      * Requires authentication via JWT token.
+     * The description and rendered HTML are generated asynchronously after the post is saved.
      *
      * @param postDto the DTO containing post data
      * @param token   the JWT authentication token of the user
@@ -198,20 +208,19 @@ public class PostController {
         Optional<User> user = userService.findById(userId);
         if (user.isEmpty()) return ResponseEntity.notFound().build();
         User userEntity = user.get();
-        String content = postDto.getContent();
         Post postEntity = new Post();
         postEntity.setTitle(postDto.getTitle());
-        postEntity.setContent(content);
+        postEntity.setContent(postDto.getContent());
         postEntity.setAuthor(userEntity);
         postEntity.setTags(tagService.dtoToEntity(postDto.getTags()));
-        postEntity.setDescription(postService.generateDescription(content));
-        postService.save(postEntity);
+        postService.saveWithContentChange(postEntity);
         return ResponseEntity.ok().build();
     }
 
     /**
      * Updates an existing post.
      * Requires authentication via JWT token.
+     * The description and rendered HTML are regenerated asynchronously after the post is saved.
      *
      * @param postDto the DTO containing updated post data
      * @return a ResponseEntity indicating the result of the operation
@@ -223,13 +232,11 @@ public class PostController {
         if (postId == null) return ResponseEntity.badRequest().build();
         Optional<Post> post = postService.findById(postId);
         if (post.isPresent()) {
-            String content = postDto.getContent();
             Post postEntity = post.get();
             postEntity.setTitle(postDto.getTitle());
-            postEntity.setContent(content);
+            postEntity.setContent(postDto.getContent());
             postEntity.setTags(tagService.dtoToEntity(postDto.getTags()));
-            postEntity.setDescription(postService.generateDescription(content));
-            postService.save(postEntity);
+            postService.saveWithContentChange(postEntity);
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
@@ -2,16 +2,15 @@ package fans.goldenglow.plumaspherebackend.controller;
 
 import fans.goldenglow.plumaspherebackend.dto.TagDto;
 import fans.goldenglow.plumaspherebackend.entity.Tag;
+import fans.goldenglow.plumaspherebackend.repository.projection.TagPostCount;
 import fans.goldenglow.plumaspherebackend.service.TagService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Controller for managing tags in the application.
@@ -33,9 +32,9 @@ public class TagController {
     @GetMapping
     @Transactional(readOnly = true)
     public ResponseEntity<List<TagDto>> getAllTags() {
-        Stream<Tag> tags = tagService.findAll().stream();
-        List<TagDto> setDtos = tags.map(tag -> new TagDto(tag.getId(), tag.getName(), tag.getPosts().size())).sorted(Comparator.comparing(TagDto::getPostCount).reversed()).collect(Collectors.toList());
-        return ResponseEntity.ok(setDtos);
+        List<TagPostCount> tags = tagService.findAllWithPostCount();
+        List<TagDto> tagDtos = tags.stream().map(tag -> new TagDto(tag.id(), tag.name(), tag.postCount())).collect(Collectors.toList());
+        return ResponseEntity.ok(tagDtos);
     }
 
     /**
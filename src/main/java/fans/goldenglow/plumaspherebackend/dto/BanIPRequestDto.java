@@ -9,6 +9,7 @@ import java.time.ZonedDateTime;
 /**
  * DTO for banning an IP address.
  * This class is used to send requests to ban an IP address with a reason and expiration time.
+ * The IP address may also be a range in CIDR notation, e.g. {@code 192.168.1.0/24}.
  */
 @Data
 @NoArgsConstructor
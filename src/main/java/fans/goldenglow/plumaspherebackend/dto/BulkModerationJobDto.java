@@ -0,0 +1,37 @@
+package fans.goldenglow.plumaspherebackend.dto;
+
+import fans.goldenglow.plumaspherebackend.constant.BulkModerationAction;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+
+/**
+ * DTO for the progress of a bulk moderation job.
+ * The total is the number of selected users when the job started; users that were skipped,
+ * e.g. administrators or users with content when deleting, count as processed but not as affected.
+ */
+@Data
+@NoArgsConstructor
+public class BulkModerationJobDto {
+    private String jobId;
+    private BulkModerationAction action;
+    private Status status;
+    private long total;
+    private long processed;
+    private long affected;
+    private ZonedDateTime createdAt;
+    private ZonedDateTime finishedAt;
+    private String error;
+
+    public enum Status {
+        // Waiting for the jobs submitted before it
+        QUEUED,
+        // Processing the selected users chunk by chunk
+        RUNNING,
+        // All selected users were processed
+        COMPLETED,
+        // Stopped by an error; the chunks processed before it stay committed
+        FAILED,
+    }
+}
@@ -0,0 +1,26 @@
+package fans.goldenglow.plumaspherebackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * DTO for moderating many users at once.
+ * The users are selected either by their IDs or, if no IDs are given, by a filter on their creation time
+ * and optionally on whether they have written any post. Administrators are never selected.
+ * The reason and expiration time only apply to bans and IP ban marks.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkModerationRequestDto {
+    private List<Long> userIds;
+    private ZonedDateTime createdAfter;
+    private ZonedDateTime createdBefore;
+    private Boolean withoutPosts;
+    private String reason;
+    private ZonedDateTime expiresAt;
+}
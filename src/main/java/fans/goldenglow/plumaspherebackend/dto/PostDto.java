@@ -9,7 +9,7 @@ import java.util.List;
 
 /**
  * DTO for posts.
- * This class is used to represent a post with its ID, title, content, description, author ID, tags,
+ * This class is used to represent a post with its ID, title, content, rendered HTML, description, author ID, tags,
  * and timestamps for creation and last update.
  */
 @Data
@@ -20,6 +20,7 @@ public class PostDto {
 
     private String title;
     private String content;
+    private String renderedHtml;
     private String description;
     private Long authorId;
     private List<String> tags;
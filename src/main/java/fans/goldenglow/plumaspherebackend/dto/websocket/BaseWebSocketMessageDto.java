@@ -1,18 +1,18 @@
 package fans.goldenglow.plumaspherebackend.dto.websocket;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import fans.goldenglow.plumaspherebackend.util.JsonUtil;
 
 /**
  * Base interface for WebSocket message DTOs.
  * This interface provides a method to convert the implementing class to JSON format.
  */
 public interface BaseWebSocketMessageDto {
+    /**
+     * Converts this message to JSON using the shared mapper.
+     *
+     * @return the JSON representation of this message
+     */
     default String toJson() {
-        ObjectMapper mapper = new ObjectMapper();
-        try {
-            return mapper.writeValueAsString(this);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to convert WebSocketMessageDto to JSON", e);
-        }
+        return JsonUtil.toJson(this);
     }
 }
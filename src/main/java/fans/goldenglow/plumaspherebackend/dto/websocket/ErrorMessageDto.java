@@ -0,0 +1,15 @@
+package fans.goldenglow.plumaspherebackend.dto.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for errors reported to a WebSocket client, e.g. for a malformed request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorMessageDto implements BaseWebSocketMessageDto {
+    private String message;
+}
@@ -0,0 +1,18 @@
+package fans.goldenglow.plumaspherebackend.dto.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the acknowledgement of a subscription request.
+ * This class carries the keys of the topics the session subscribed to or unsubscribed from.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionMessageDto implements BaseWebSocketMessageDto {
+    private List<String> topics;
+}
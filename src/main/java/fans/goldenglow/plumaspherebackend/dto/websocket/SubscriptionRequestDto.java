@@ -0,0 +1,25 @@
+package fans.goldenglow.plumaspherebackend.dto.websocket;
+
+import fans.goldenglow.plumaspherebackend.constant.WebSocketRequestType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for subscription requests sent by WebSocket clients.
+ * This class carries the topics to subscribe to or unsubscribe from, by key, e.g. {@code post:123}.
+ * A client resuming a subscription after reconnecting passes the number of the last message it received
+ * per topic key, so the messages it missed are replayed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionRequestDto {
+    private WebSocketRequestType type;
+    private List<String> topics;
+    // Number of the last message received per topic key, for topics to resume
+    private Map<String, Long> lastSeq;
+}
@@ -0,0 +1,31 @@
+package fans.goldenglow.plumaspherebackend.dto.websocket;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import fans.goldenglow.plumaspherebackend.dto.CommentDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the coalesced update of a WebSocket topic.
+ * This class carries the final counts of everything that changed on a post or comment thread during
+ * a coalescing window, and the comments added during the window, so clients can patch their view in place
+ * without re-fetching. Counts that did not change are left out.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TopicUpdateMessageDto implements BaseWebSocketMessageDto {
+    // Number of likes of the post; only set on post topics
+    private Long likeCount;
+    // Number of comments on the post, or of replies to the comment
+    private Long commentCount;
+    // Number of likes of each comment that was liked or unliked, by comment ID
+    private Map<Long, Long> commentLikeCounts;
+    // Comments added to the post, or replies added to the comment, oldest first; left out if there were too many
+    private List<CommentDto> newComments;
+}
@@ -1,5 +1,6 @@
 package fans.goldenglow.plumaspherebackend.dto.websocket;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import fans.goldenglow.plumaspherebackend.constant.WebSocketMessageType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,14 +8,24 @@ import lombok.Data;
 /**
  * DTO for WebSocket messages.
  * This class is used to send messages over WebSocket connections.
+ * Messages broadcast to a topic additionally carry a {@code seq} field with their number in the topic,
+ * which is added when the message is numbered, see WebSocketReplayService.
  */
 @Data
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class WebSocketMessageDto implements BaseWebSocketMessageDto {
     private WebSocketMessageType type;
+    // Key of the topic the message belongs to, e.g. post:123; not set on replies to requests
+    private String topic;
     private Object data;
 
     public WebSocketMessageDto(WebSocketMessageType type) {
         this.type = type;
     }
+
+    public WebSocketMessageDto(WebSocketMessageType type, Object data) {
+        this.type = type;
+        this.data = data;
+    }
 }
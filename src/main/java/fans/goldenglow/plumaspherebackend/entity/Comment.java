@@ -46,7 +46,7 @@ public class Comment implements Serializable {
     @ManyToOne(optional = false)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")
     private Post post;
     @ManyToMany(fetch = FetchType.LAZY)
@@ -46,6 +46,10 @@ public class Post implements Serializable {
     private String content;
     @Column(nullable = false, columnDefinition = "TEXT")
     private String description;
+    @Column(columnDefinition = "TEXT")
+    @Basic(fetch = FetchType.LAZY)
+    private String renderedHtml;
+    private Boolean processingPending = false;
     @ManyToOne(optional = false)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
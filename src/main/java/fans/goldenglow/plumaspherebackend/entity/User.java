@@ -31,7 +31,10 @@ import java.util.stream.Collectors;
 @EqualsAndHashCode(of = {"id"})
 @ToString(of = {"id", "username", "nickname", "dob"})
 @NoArgsConstructor
-@Table(name = "pluma_user", indexes = @Index(name = "idx_user_username", columnList = "username", unique = true))
+@Table(name = "pluma_user", indexes = {
+        @Index(name = "idx_user_username", columnList = "username", unique = true),
+        @Index(name = "idx_user_ban_expiry", columnList = "isBanned, banExpiresAt")
+})
 public class User implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
@@ -0,0 +1,36 @@
+package fans.goldenglow.plumaspherebackend.event;
+
+import fans.goldenglow.plumaspherebackend.dto.CommentDto;
+
+/**
+ * Event published when a comment has been added to a post or a reply to a comment.
+ * Listeners receive it after the surrounding transaction commits and use it to
+ * notify the viewers of the post or comment thread.
+ *
+ * @param postId          the ID of the post commented on, or null for a reply
+ * @param parentCommentId the ID of the comment replied to, or null for a comment on a post
+ * @param comment         the comment that was added
+ */
+public record CommentAddedEvent(Long postId, Long parentCommentId, CommentDto comment) {
+    /**
+     * Creates the event of a comment added to a post.
+     *
+     * @param postId  the ID of the post
+     * @param comment the comment that was added
+     * @return the event
+     */
+    public static CommentAddedEvent onPost(Long postId, CommentDto comment) {
+        return new CommentAddedEvent(postId, null, comment);
+    }
+
+    /**
+     * Creates the event of a reply added to a comment.
+     *
+     * @param parentCommentId the ID of the comment replied to
+     * @param reply           the reply that was added
+     * @return the event
+     */
+    public static CommentAddedEvent onComment(Long parentCommentId, CommentDto reply) {
+        return new CommentAddedEvent(null, parentCommentId, reply);
+    }
+}
@@ -0,0 +1,11 @@
+package fans.goldenglow.plumaspherebackend.event;
+
+/**
+ * Event published when an IP address has been banned or unbanned.
+ * Listeners receive it after the surrounding transaction commits and use it to
+ * refresh the cached ban of the IP address on every node.
+ *
+ * @param ipAddress the IP address whose ban changed
+ */
+public record IpBanChangedEvent(String ipAddress) {
+}
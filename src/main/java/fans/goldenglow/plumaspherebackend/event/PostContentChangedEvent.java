@@ -0,0 +1,11 @@
+package fans.goldenglow.plumaspherebackend.event;
+
+/**
+ * Event published when the content of a post has been created or changed.
+ * Listeners receive it after the surrounding transaction commits and use it to
+ * regenerate the content-derived fields of the post.
+ *
+ * @param postId the ID of the post whose content changed
+ */
+public record PostContentChangedEvent(Long postId) {
+}
@@ -0,0 +1,11 @@
+package fans.goldenglow.plumaspherebackend.event;
+
+/**
+ * Event published when a user has been banned, unbanned, or marked or unmarked for an IP ban.
+ * Listeners receive it after the surrounding transaction commits and use it to
+ * refresh the cached ban of the user on every node.
+ *
+ * @param userId the ID of the user whose ban changed
+ */
+public record UserBanChangedEvent(Long userId) {
+}
@@ -0,0 +1,13 @@
+package fans.goldenglow.plumaspherebackend.event;
+
+import java.util.List;
+
+/**
+ * Event published when the bans of many users have been changed at once, or the users have been deleted.
+ * Listeners receive it after the surrounding transaction commits and use it to
+ * refresh the cached bans of all the users on every node with a single query.
+ *
+ * @param userIds the IDs of the users whose bans changed
+ */
+public record UserBansChangedEvent(List<Long> userIds) {
+}
@@ -0,0 +1,11 @@
+package fans.goldenglow.plumaspherebackend.event;
+
+import fans.goldenglow.plumaspherebackend.handler.WebSocketTopic;
+
+/**
+ * Event published when a WebSocket session on this node subscribed to or unsubscribed from a topic.
+ *
+ * @param topic the topic whose local subscribers changed
+ */
+public record WebSocketTopicSubscriptionChangedEvent(WebSocketTopic topic) {
+}
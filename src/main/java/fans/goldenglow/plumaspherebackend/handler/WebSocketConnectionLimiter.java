@@ -0,0 +1,195 @@
+package fans.goldenglow.plumaspherebackend.handler;
+
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import fans.goldenglow.plumaspherebackend.util.ClientIpResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of open WebSocket connections, in total and per client IP address.
+ * Handshakes are rejected with 429 Too Many Requests while a limit is reached, and the connection
+ * slot itself is taken when the connection is established, so concurrent handshakes cannot exceed
+ * the limits either. Once the node is shutting down, every handshake is rejected with 503 Service Unavailable,
+ * so clients reconnect to other nodes. Rejections are counted in the {@code websocket.connections.rejected}
+ * metric, tagged with the limit that was reached, or {@code draining}.
+ * Connections are counted for the client address determined by the {@link ClientIpResolver}, so clients cannot
+ * evade the per-IP limit with forged headers.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebSocketConnectionLimiter implements HandshakeInterceptor {
+    // Session attribute holding the client IP address the connection is counted for
+    static final String CLIENT_IP_ATTRIBUTE = "clientIp";
+    private static final String UNKNOWN_IP = "unknown";
+
+    private final WebSocketProperties webSocketProperties;
+    private final MeterRegistry meterRegistry;
+    private final ClientIpResolver clientIpResolver;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Map<String, Integer> connectionsPerIp = new ConcurrentHashMap<>();
+    // Whether new connections are accepted, false once the node is shutting down
+    private volatile boolean accepting = true;
+
+    /**
+     * Rejects the handshake if the node is shutting down or the total or per-IP connection limit is reached.
+     * The client IP address is stored in the session attributes.
+     *
+     * @param request    the handshake request
+     * @param response   the handshake response
+     * @param wsHandler  the target WebSocket handler
+     * @param attributes the attributes of the session to be created
+     * @return false if the node is shutting down or a limit is reached
+     */
+    @Override
+    public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                   @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
+        String clientIp = getClientIpAddress(request);
+        attributes.put(CLIENT_IP_ATTRIBUTE, clientIp);
+        if (!accepting) {
+            reject("draining", clientIp);
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return false;
+        }
+        if (connections.get() >= webSocketProperties.getMaxConnections()) {
+            reject("total", clientIp);
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            return false;
+        }
+        if (connectionsPerIp.getOrDefault(clientIp, 0) >= webSocketProperties.getMaxConnectionsPerIp()) {
+            reject("ip", clientIp);
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                               @NonNull WebSocketHandler wsHandler, @Nullable Exception exception) {
+    }
+
+    /**
+     * Takes a connection slot for an established session.
+     *
+     * @param session the WebSocket session
+     * @return false if the node is shutting down or a limit is reached, in which case the session must be closed
+     */
+    public boolean acquire(WebSocketSession session) {
+        String clientIp = getClientIpAddress(session);
+        if (!accepting) {
+            reject("draining", clientIp);
+            return false;
+        }
+        if (connections.incrementAndGet() > webSocketProperties.getMaxConnections()) {
+            connections.decrementAndGet();
+            reject("total", clientIp);
+            return false;
+        }
+        AtomicBoolean acquired = new AtomicBoolean();
+        connectionsPerIp.compute(clientIp, (key, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= webSocketProperties.getMaxConnectionsPerIp()) return count;
+            acquired.set(true);
+            return current + 1;
+        });
+        if (!acquired.get()) {
+            connections.decrementAndGet();
+            reject("ip", clientIp);
+        }
+        return acquired.get();
+    }
+
+    /**
+     * Releases the connection slot of a closed session.
+     *
+     * @param session the WebSocket session
+     */
+    public void release(WebSocketSession session) {
+        connectionsPerIp.computeIfPresent(getClientIpAddress(session), (key, count) -> count > 1 ? count - 1 : null);
+        connections.decrementAndGet();
+    }
+
+    /**
+     * Stops accepting new connections, as the node is shutting down.
+     * Connections established before keep their slots until they are closed.
+     */
+    public void stopAccepting() {
+        accepting = false;
+    }
+
+    /**
+     * Checks whether new connections are accepted.
+     *
+     * @return false once the node is shutting down
+     */
+    public boolean isAccepting() {
+        return accepting;
+    }
+
+    /**
+     * Returns the number of connections holding a slot.
+     *
+     * @return the number of connections
+     */
+    public int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * Counts a rejected connection.
+     *
+     * @param limit    the limit that was reached, or draining if the node is shutting down
+     * @param clientIp the client IP address
+     */
+    private void reject(String limit, String clientIp) {
+        log.debug("WebSocket: rejecting connection from {}, {}", clientIp,
+                "draining".equals(limit) ? "node is shutting down" : limit + " connection limit reached");
+        Counter.builder("websocket.connections.rejected")
+                .description("Number of WebSocket connections rejected because a connection limit was reached or the node was shutting down")
+                .tag("limit", limit)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Retrieves the client IP address stored in the attributes of a session.
+     *
+     * @param session the WebSocket session
+     * @return the client IP address
+     */
+    private static String getClientIpAddress(WebSocketSession session) {
+        Object clientIp = session.getAttributes().get(CLIENT_IP_ATTRIBUTE);
+        return clientIp == null ? UNKNOWN_IP : clientIp.toString();
+    }
+
+    /**
+     * Retrieves the client IP address of a handshake request.
+     *
+     * @param request the handshake request
+     * @return the client IP address
+     */
+    private String getClientIpAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String remoteIp = remoteAddress == null ? UNKNOWN_IP : remoteAddress.getHostString();
+        return clientIpResolver.resolve(remoteIp, request.getHeaders().getFirst("X-Forwarded-For"),
+                request.getHeaders().getFirst("X-Real-IP"));
+    }
+}
@@ -1,214 +1,991 @@
 package fans.goldenglow.plumaspherebackend.handler;
 
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import fans.goldenglow.plumaspherebackend.constant.WebSocketMessageType;
+import fans.goldenglow.plumaspherebackend.dto.websocket.ErrorMessageDto;
+import fans.goldenglow.plumaspherebackend.dto.websocket.SubscriptionMessageDto;
+import fans.goldenglow.plumaspherebackend.dto.websocket.SubscriptionRequestDto;
 import fans.goldenglow.plumaspherebackend.dto.websocket.WebSocketMessageDto;
+import fans.goldenglow.plumaspherebackend.event.WebSocketTopicSubscriptionChangedEvent;
+import fans.goldenglow.plumaspherebackend.service.CommentService;
+import fans.goldenglow.plumaspherebackend.service.PostService;
+import fans.goldenglow.plumaspherebackend.service.WebSocketReplayService;
+import fans.goldenglow.plumaspherebackend.util.JsonUtil;
 import io.micrometer.common.lang.NonNullApi;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
- * WebSocketHandler for managing WebSocket connections for posts and comments.
- * This handler maintains separate session maps for posts and comments,
- * allowing messages to be sent to specific sessions based on the target ID.
+ * WebSocketHandler for managing WebSocket connections subscribed to posts and comment threads.
+ * A single connection can subscribe to many topics: clients send {@code SUBSCRIBE} and {@code UNSUBSCRIBE}
+ * requests carrying topic keys, e.g. {@code {"type":"SUBSCRIBE","topics":["post:1","comment:2"]}}, and
+ * receive a {@code SUBSCRIBED} or {@code UNSUBSCRIBED} acknowledgement, or an {@code ERROR}.
+ * For compatibility, a {@code postId} or {@code commentId} query parameter subscribes the connection to
+ * that topic right away. Only topics of existing posts and comments can be subscribed to. The handler keeps
+ * the topics of each session, and the sessions of each topic in the {@link WebSocketSubscriberRegistry}.
+ * <p>
+ * A client reconnecting passes the number of the last message it received per topic, in the {@code lastSeq}
+ * map of a {@code SUBSCRIBE} request or the {@code lastSeq} query parameter. The messages it missed are then
+ * replayed by the {@link WebSocketReplayService} before any new message of the topic, or, if they are no longer
+ * kept, a {@code RESYNC} message tells the client to reload the topic. New messages arriving while a topic is
+ * replayed are held back and sent after the replay, skipping those the replay already contained.
+ * Messages of a topic may arrive out of order, as they are relayed through Redis and received concurrently, and
+ * carry deltas such as new comments, so each session is sent the messages of a topic in the order they were
+ * numbered, each exactly once. A new subscriber is owed every message numbered after the last one when it
+ * subscribed. A message arriving ahead of one not received yet is held back until the missing one arrives; if it
+ * has not arrived within the reorder timeout, it is read from the {@link WebSocketReplayService}, or, if it is no
+ * longer kept, a {@code RESYNC} message tells the client to reload the topic.
+ * Every frame to a session, whether a broadcast, a reply or a ping, is queued in the session's outbox, and the
+ * outbox is sent in order, one frame at a time, on a virtual thread, so a slow client neither stalls the request
+ * that triggered the broadcast nor the delivery to other clients, and two frames to a session are never reordered.
+ * Slow clients exceeding the configured send limits are dropped, or lose their oldest queued frames with the
+ * {@code drop} overflow strategy. Changes of the subscribers of a topic are published as
+ * {@link WebSocketTopicSubscriptionChangedEvent}s, so messages from other nodes can be relayed to them.
+ * <p>
+ * Every session is pinged periodically, and sessions from which nothing, not even a pong, was received
+ * within the idle timeout are closed and dropped right away, so half-open connections do not linger.
+ * The number of connections is limited by the {@link WebSocketConnectionLimiter}.
+ * <p>
+ * When the node shuts down, the handler is stopped before the web server: new connections are refused, and
+ * every session is sent a {@code RECONNECT} message and closed at a random point within the reconnect jitter,
+ * so its client reconnects to another node without all clients arriving there at once.
+ * The handler exposes the following Micrometer metrics:
+ * <ul>
+ *     <li>{@code websocket.sessions.active}: number of open sessions</li>
+ *     <li>{@code websocket.sessions.evicted}: number of sessions closed for being idle</li>
+ *     <li>{@code websocket.broadcast.fanout}: number of local sessions per broadcast, tagged with the topic type</li>
+ *     <li>{@code websocket.send.failures}: number of failed sends, tagged with the reason</li>
+ *     <li>{@code websocket.broadcast.stale}: number of messages dropped as a session was already sent them</li>
+ * </ul>
  */
 @Slf4j
 @Component
 @NonNullApi
-public class WebSocketHandler extends TextWebSocketHandler {
-    private final Map<Long, CopyOnWriteArraySet<WebSocketSession>> postWebSocketSessionMap = new ConcurrentHashMap<>();
-    private final Map<Long, CopyOnWriteArraySet<WebSocketSession>> commentWebSocketSessionMap = new ConcurrentHashMap<>();
+@RequiredArgsConstructor
+public class WebSocketHandler extends TextWebSocketHandler implements SmartLifecycle {
+    private final WebSocketProperties webSocketProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WebSocketSubscriberRegistry subscriberRegistry;
+    private final WebSocketConnectionLimiter connectionLimiter;
+    private final WebSocketReplayService replayService;
+    private final PostService postService;
+    private final CommentService commentService;
+    private final MeterRegistry meterRegistry;
+    // Sessions with their topics and outboxes, by session ID
+    private final Map<String, SessionSubscriptions> sessions = new ConcurrentHashMap<>();
+    private ExecutorService broadcastExecutor;
+    private ScheduledExecutorService heartbeatScheduler;
+    private Counter evictedSessions;
+    private Counter staleMessages;
+    private volatile boolean running;
+
+    /**
+     * Initializes the executor used for sending the outboxes, schedules the heartbeat and registers the metrics.
+     * This method is called after the bean is constructed.
+     */
+    @PostConstruct
+    void init() {
+        broadcastExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ws-broadcast-", 0).factory());
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("ws-heartbeat").daemon().factory());
+        long pingInterval = webSocketProperties.getPingInterval();
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, pingInterval, pingInterval, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("websocket.sessions.active", sessions, Map::size)
+                .description("Number of open WebSocket sessions")
+                .register(meterRegistry);
+        evictedSessions = Counter.builder("websocket.sessions.evicted")
+                .description("Number of WebSocket sessions closed for being idle")
+                .register(meterRegistry);
+        staleMessages = Counter.builder("websocket.broadcast.stale")
+                .description("Number of WebSocket messages dropped as a session was already sent them")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stops the heartbeat and shuts down the broadcast executor, giving sends in progress a moment to complete.
+     */
+    @PreDestroy
+    void destroy() {
+        heartbeatScheduler.shutdownNow();
+        broadcastExecutor.shutdown();
+        try {
+            if (!broadcastExecutor.awaitTermination(5, TimeUnit.SECONDS)) broadcastExecutor.shutdownNow();
+        } catch (InterruptedException e) {
+            broadcastExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Marks the handler as running once the application context has started.
+     */
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Drains the sessions, waiting until all of them were asked to reconnect.
+     */
+    @Override
+    public void stop() {
+        CountDownLatch drained = new CountDownLatch(1);
+        stop(drained::countDown);
+        try {
+            drained.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Drains the sessions on shutdown. New connections are refused, and every open session is sent a
+     * {@code RECONNECT} message and closed at a random point within the reconnect jitter.
+     * The callback is run once the jitter has passed, or right away if no session is open,
+     * letting the shutdown proceed to the web server.
+     *
+     * @param callback the callback to run once the sessions were drained
+     */
+    @Override
+    public void stop(Runnable callback) {
+        running = false;
+        connectionLimiter.stopAccepting();
+        List<SessionSubscriptions> open = List.copyOf(sessions.values());
+        long jitter = webSocketProperties.getReconnectJitter();
+        if (open.isEmpty()) {
+            callback.run();
+            return;
+        }
+        log.info("WebSocket: asking {} sessions to reconnect elsewhere within {} ms", open.size(), jitter);
+        try {
+            for (SessionSubscriptions subscriptions : open) {
+                long delay = jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter) : 0;
+                heartbeatScheduler.schedule(() -> requestReconnect(subscriptions), delay, TimeUnit.MILLISECONDS);
+            }
+            heartbeatScheduler.schedule(callback, jitter, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            callback.run();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the phase of the handler, among the earliest to stop, so the sessions are drained before the web server
+     * shuts down.
+     *
+     * @return the phase of the handler
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE;
+    }
+
+    /**
+     * Checks whether the sessions are being drained, as the node is shutting down.
+     *
+     * @return true once the handler was stopped
+     */
+    public boolean isDraining() {
+        return !connectionLimiter.isAccepting();
+    }
+
+    /**
+     * Returns the number of open sessions.
+     *
+     * @return the number of open sessions
+     */
+    public int getOpenSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Asks a session to reconnect to another node and closes it once the frames queued before were sent.
+     *
+     * @param subscriptions the session with its topics
+     */
+    private void requestReconnect(SessionSubscriptions subscriptions) {
+        synchronized (subscriptions) {
+            enqueue(subscriptions, new TextMessage(new WebSocketMessageDto(WebSocketMessageType.RECONNECT).toJson()));
+            subscriptions.closeWhenSent = CloseStatus.SERVICE_RESTARTED;
+        }
+    }
 
     /**
      * Handles the establishment of a new WebSocket connection.
-     * It determines the type of connection (post or comment) and adds the session to the appropriate map.
+     * The session is closed if a connection limit is reached. Otherwise it is given an outbox and,
+     * if the connection URI names an existing post or comment, subscribed to its topic, resuming it if the URI also
+     * names the last message received.
      *
-     * @param session the WebSocket session that has been established
+     * @param rawSession the WebSocket session that has been established
      */
     @Override
-    public void afterConnectionEstablished(WebSocketSession session) {
-        Optional<ConnectionInfo> connectionInfoOption = getConnectionTypeFromSession(session);
-        if (connectionInfoOption.isPresent()) {
-            ConnectionInfo connectionInfo = connectionInfoOption.get();
-            ConnectionType connectionType = connectionInfo.getConnectionType();
-            switch (connectionType) {
-                case POST: {
-                    Long postId = connectionInfo.getTargetId();
-                    postWebSocketSessionMap.computeIfAbsent(postId, key -> new CopyOnWriteArraySet<>()).add(session);
-                    break;
+    public void afterConnectionEstablished(WebSocketSession rawSession) throws IOException {
+        if (!connectionLimiter.acquire(rawSession)) {
+            rawSession.close(CloseStatus.SERVICE_OVERLOAD);
+            return;
+        }
+        SessionSubscriptions subscriptions = new SessionSubscriptions(rawSession);
+        sessions.put(rawSession.getId(), subscriptions);
+        getTopicFromSession(rawSession).filter(this::exists).ifPresent(topic -> {
+            Long lastSeq = getLastSeqFromSession(rawSession);
+            if (subscribe(subscriptions, topic, lastSeq) == SubscribeResult.RESUMING)
+                resume(subscriptions, topic, lastSeq);
+        });
+    }
+
+    /**
+     * Handles the closure of a WebSocket connection.
+     * It unsubscribes the session from all of its topics.
+     *
+     * @param rawSession the WebSocket session that has been closed
+     * @param status     the status of the closure
+     */
+    @Override
+    public void afterConnectionClosed(WebSocketSession rawSession, CloseStatus status) {
+        unregister(rawSession);
+    }
+
+    /**
+     * Drops a session: unsubscribes it from all of its topics and releases its connection slot.
+     * Dropping a session twice has no effect.
+     *
+     * @param rawSession the WebSocket session
+     */
+    private void unregister(WebSocketSession rawSession) {
+        SessionSubscriptions subscriptions = sessions.remove(rawSession.getId());
+        if (subscriptions == null) return;
+        connectionLimiter.release(rawSession);
+        Set<WebSocketTopic> topics;
+        synchronized (subscriptions) {
+            subscriptions.closed = true;
+            topics = Set.copyOf(subscriptions.topics);
+            subscriptions.topics.clear();
+            subscriptions.resuming.clear();
+            subscriptions.delivered.clear();
+            subscriptions.ahead.clear();
+            subscriptions.outbox.clear();
+            subscriptions.outboxBytes = 0;
+        }
+        for (WebSocketTopic topic : topics) {
+            subscriberRegistry.remove(topic, subscriptions.session);
+            eventPublisher.publishEvent(new WebSocketTopicSubscriptionChangedEvent(topic));
+        }
+    }
+
+    /**
+     * Handles a subscription request of a client.
+     * Requests naming an unknown topic, or subscribing to the topic of a post or comment that does not exist,
+     * are rejected as a whole. Subscribing stops at the per-session limit,
+     * and the topics subscribed before the limit was reached are acknowledged alongside the error.
+     * Newly subscribed topics with a last message number are resumed after the acknowledgement.
+     *
+     * @param rawSession the WebSocket session that sent the request
+     * @param message    the request
+     */
+    @Override
+    protected void handleTextMessage(WebSocketSession rawSession, TextMessage message) {
+        SessionSubscriptions subscriptions = sessions.get(rawSession.getId());
+        if (subscriptions == null) return;
+        subscriptions.lastSeen = System.nanoTime();
+
+        SubscriptionRequestDto request;
+        try {
+            request = JsonUtil.fromJson(message.getPayload(), SubscriptionRequestDto.class);
+        } catch (IllegalArgumentException e) {
+            reply(subscriptions, WebSocketMessageType.ERROR, new ErrorMessageDto("Malformed request"));
+            return;
+        }
+        if (request.getType() == null || request.getTopics() == null || request.getTopics().isEmpty()) {
+            reply(subscriptions, WebSocketMessageType.ERROR, new ErrorMessageDto("Request must have a type and topics"));
+            return;
+        }
+
+        List<WebSocketTopic> topics = new ArrayList<>();
+        for (String key : request.getTopics()) {
+            Optional<WebSocketTopic> topic = key == null ? Optional.empty() : WebSocketTopic.parse(key);
+            if (topic.isEmpty()) {
+                reply(subscriptions, WebSocketMessageType.ERROR, new ErrorMessageDto("Unknown topic: " + key));
+                return;
+            }
+            topics.add(topic.get());
+        }
+
+        List<String> accepted = new ArrayList<>();
+        switch (request.getType()) {
+            case SUBSCRIBE -> {
+                for (WebSocketTopic topic : topics) {
+                    if (!exists(topic)) {
+                        reply(subscriptions, WebSocketMessageType.ERROR, new ErrorMessageDto("Unknown topic: " + topic.key()));
+                        return;
+                    }
                 }
-                case COMMENT: {
-                    Long commentId = connectionInfo.getTargetId();
-                    commentWebSocketSessionMap.computeIfAbsent(commentId, key -> new CopyOnWriteArraySet<>()).add(session);
-                    break;
+                Map<String, Long> lastSeqs = request.getLastSeq() == null ? Map.of() : request.getLastSeq();
+                Map<WebSocketTopic, Long> resumed = new LinkedHashMap<>();
+                for (WebSocketTopic topic : topics) {
+                    Long lastSeq = lastSeqs.get(topic.key());
+                    SubscribeResult result = subscribe(subscriptions, topic, lastSeq);
+                    if (result == SubscribeResult.REJECTED) {
+                        if (!accepted.isEmpty())
+                            reply(subscriptions, WebSocketMessageType.SUBSCRIBED, new SubscriptionMessageDto(accepted));
+                        reply(subscriptions, WebSocketMessageType.ERROR, new ErrorMessageDto(
+                                "Too many topics, at most " + webSocketProperties.getMaxTopicsPerSession() + " per connection"));
+                        resumed.forEach((resumedTopic, resumedSeq) -> resume(subscriptions, resumedTopic, resumedSeq));
+                        return;
+                    }
+                    if (result == SubscribeResult.RESUMING) resumed.put(topic, lastSeq);
+                    accepted.add(topic.key());
                 }
+                reply(subscriptions, WebSocketMessageType.SUBSCRIBED, new SubscriptionMessageDto(accepted));
+                resumed.forEach((topic, lastSeq) -> resume(subscriptions, topic, lastSeq));
+            }
+            case UNSUBSCRIBE -> {
+                for (WebSocketTopic topic : topics) {
+                    unsubscribe(subscriptions, topic);
+                    accepted.add(topic.key());
+                }
+                reply(subscriptions, WebSocketMessageType.UNSUBSCRIBED, new SubscriptionMessageDto(accepted));
             }
         }
     }
 
     /**
-     * Handles the closure of a WebSocket connection.
-     * It removes the session from the appropriate map based on the connection type.
+     * Records that a session answered a ping.
      *
-     * @param session the WebSocket session that has been closed
-     * @param status  the status of the closure
+     * @param rawSession the WebSocket session that sent the pong
+     * @param message    the pong
      */
     @Override
-    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-        Optional<ConnectionInfo> connectionInfoOption = getConnectionTypeFromSession(session);
-        if (connectionInfoOption.isPresent()) {
-            ConnectionInfo connectionInfo = connectionInfoOption.get();
-            ConnectionType connectionType = connectionInfo.getConnectionType();
-            Long targetId = connectionInfo.getTargetId();
-            switch (connectionType) {
-                case POST: {
-                    removeSessionFromPost(targetId, session);
-                    break;
-                }
-                case COMMENT: {
-                    removeSessionFromComment(targetId, session);
-                    break;
+    protected void handlePongMessage(WebSocketSession rawSession, PongMessage message) {
+        SessionSubscriptions subscriptions = sessions.get(rawSession.getId());
+        if (subscriptions != null) subscriptions.lastSeen = System.nanoTime();
+    }
+
+    /**
+     * Pings every session, and closes and drops the sessions that have been idle for longer than the idle timeout.
+     * Pings are queued in the outboxes and closes are dispatched on the broadcast executor, so a blocked connection
+     * cannot stall the heartbeat, and a session stuck in a send is found to exceed the send time limit.
+     */
+    void heartbeat() {
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(webSocketProperties.getIdleTimeout());
+        long now = System.nanoTime();
+        PingMessage ping = new PingMessage();
+        for (SessionSubscriptions subscriptions : sessions.values()) {
+            WebSocketSession session = subscriptions.session;
+            try {
+                if (now - subscriptions.lastSeen > idleTimeoutNanos) {
+                    log.debug("WebSocket: evicting idle session {}", session.getId());
+                    evictedSessions.increment();
+                    unregister(session);
+                    broadcastExecutor.execute(() -> close(session, CloseStatus.SESSION_NOT_RELIABLE));
+                } else {
+                    synchronized (subscriptions) {
+                        enqueue(subscriptions, ping);
+                    }
                 }
+            } catch (RejectedExecutionException e) {
+                log.debug("WebSocket heartbeat rejected during shutdown");
+                return;
             }
         }
     }
 
     /**
-     * Removes the session from the post WebSocket session map.
+     * Subscribes a session to a topic. Subscribing to a topic twice has no effect.
+     * If a last message number is given, the topic is marked as resuming before the session receives any
+     * new message of it, and the caller must {@link #resume} it. Otherwise the session is owed every message
+     * numbered after the current number of the topic.
      *
-     * @param postId  the ID of the post
-     * @param session the WebSocket session to be removed
+     * @param subscriptions the session with its topics
+     * @param topic         the topic to subscribe to
+     * @param lastSeq       the number of the last message of the topic the client received, or null
+     * @return the result of the subscription
      */
-    private void removeSessionFromPost(Long postId, WebSocketSession session) {
-        CopyOnWriteArraySet<WebSocketSession> webSocketSessions = postWebSocketSessionMap.get(postId);
-        if (webSocketSessions != null) {
-            webSocketSessions.remove(session);
-            if (webSocketSessions.isEmpty()) {
-                postWebSocketSessionMap.remove(postId);
+    private SubscribeResult subscribe(SessionSubscriptions subscriptions, WebSocketTopic topic, Long lastSeq) {
+        Long currentSeq = lastSeq == null ? currentSeq(topic) : null;
+        synchronized (subscriptions) {
+            if (subscriptions.closed) return SubscribeResult.REJECTED;
+            if (subscriptions.topics.contains(topic)) return SubscribeResult.PRESENT;
+            if (subscriptions.topics.size() >= webSocketProperties.getMaxTopicsPerSession())
+                return SubscribeResult.REJECTED;
+            subscriptions.topics.add(topic);
+            if (lastSeq != null) subscriptions.resuming.put(topic, new ArrayList<>());
+            else if (currentSeq != null) subscriptions.delivered.put(topic, currentSeq);
+            subscriberRegistry.add(topic, subscriptions.session);
+        }
+        eventPublisher.publishEvent(new WebSocketTopicSubscriptionChangedEvent(topic));
+        return lastSeq == null ? SubscribeResult.ADDED : SubscribeResult.RESUMING;
+    }
+
+    /**
+     * Reads the current number of a topic.
+     *
+     * @param topic the topic
+     * @return the number of the last message of the topic, or null if it cannot be read, in which case the session
+     * is owed the messages from the first one it receives on
+     */
+    private Long currentSeq(WebSocketTopic topic) {
+        try {
+            return replayService.currentSeq(topic);
+        } catch (RuntimeException e) {
+            log.warn("Failed to read the current message number of {}", topic, e);
+            return null;
+        }
+    }
+
+    /**
+     * Replays the messages of a resuming topic the client missed, or tells it to reload the topic if they are
+     * no longer kept, then sends the new messages held back meanwhile and ends the resumption.
+     * The last message replayed is recorded as delivered, so held back messages, and messages still on their way
+     * that the replay already contained, are skipped.
+     *
+     * @param subscriptions the session with its topics
+     * @param topic         the resuming topic
+     * @param lastSeq       the number of the last message of the topic the client received
+     */
+    private void resume(SessionSubscriptions subscriptions, WebSocketTopic topic, long lastSeq) {
+        WebSocketReplayService.Replay replay;
+        try {
+            replay = replayService.replay(topic, lastSeq);
+        } catch (RuntimeException e) {
+            log.warn("Failed to replay WebSocket messages of {}, asking client to resync", topic, e);
+            replay = new WebSocketReplayService.Replay(List.of(), false);
+        }
+
+        synchronized (subscriptions) {
+            List<SequencedFrame> heldBack = subscriptions.resuming.remove(topic);
+            // Unsubscribed or closed while the replay was read
+            if (heldBack == null) return;
+            if (replay.complete()) {
+                for (String json : replay.messages()) enqueue(subscriptions, new TextMessage(json));
+                subscriptions.delivered.put(topic, replay.messages().isEmpty()
+                        ? lastSeq : WebSocketReplayService.sequenceOf(replay.messages().getLast()));
+            } else {
+                enqueue(subscriptions, new TextMessage(
+                        new WebSocketMessageDto(WebSocketMessageType.RESYNC, topic.key(), null).toJson()));
+                // The client reloads the topic, so it needs every message from now on
+                subscriptions.delivered.remove(topic);
             }
+            for (SequencedFrame frame : heldBack) order(subscriptions, topic, frame.seq(), frame.frame());
         }
     }
 
     /**
-     * Removes the session from the comment WebSocket session map.
+     * Checks whether the post or comment of a topic exists, so clients cannot make the node track topics of
+     * arbitrary IDs. Topics with subscribers on this node were checked when they were first subscribed to.
      *
-     * @param commentId the ID of the comment
-     * @param session the WebSocket session to be removed
+     * @param topic the topic to check
+     * @return true if the post or comment exists
      */
-    private void removeSessionFromComment(Long commentId, WebSocketSession session) {
-        CopyOnWriteArraySet<WebSocketSession> webSocketSessions = commentWebSocketSessionMap.get(commentId);
-        if (webSocketSessions != null) {
-            webSocketSessions.remove(session);
-            if (webSocketSessions.isEmpty()) {
-                commentWebSocketSessionMap.remove(commentId);
+    private boolean exists(WebSocketTopic topic) {
+        if (subscriberRegistry.count(topic) > 0) return true;
+        return switch (topic.type()) {
+            case POST -> postService.existsById(topic.id());
+            case COMMENT -> commentService.existsById(topic.id());
+        };
+    }
+
+    /**
+     * Unsubscribes a session from a topic. Unsubscribing from a topic not subscribed to has no effect.
+     *
+     * @param subscriptions the session with its topics
+     * @param topic         the topic to unsubscribe from
+     */
+    private void unsubscribe(SessionSubscriptions subscriptions, WebSocketTopic topic) {
+        synchronized (subscriptions) {
+            if (!subscriptions.topics.remove(topic)) return;
+            subscriptions.resuming.remove(topic);
+            subscriptions.delivered.remove(topic);
+            subscriptions.ahead.remove(topic);
+            subscriberRegistry.remove(topic, subscriptions.session);
+        }
+        eventPublisher.publishEvent(new WebSocketTopicSubscriptionChangedEvent(topic));
+    }
+
+    /**
+     * Checks whether any WebSocket session is subscribed to a topic.
+     *
+     * @param topic the topic to check
+     * @return true if at least one session is subscribed to the topic
+     */
+    public boolean hasSubscribers(WebSocketTopic topic) {
+        return subscriberRegistry.count(topic) > 0;
+    }
+
+    /**
+     * Sends a message to all WebSocket sessions subscribed to a topic.
+     * The message is sent asynchronously; this method does not wait for any client.
+     *
+     * @param topic   the topic to which the message should be sent
+     * @param message the message to be sent
+     */
+    public void sendMessage(WebSocketTopic topic, WebSocketMessageDto message) {
+        sendText(topic, message.toJson());
+    }
+
+    /**
+     * Sends an already serialized message to all WebSocket sessions on this node subscribed to a topic.
+     * The message is queued in the outbox of every session and sent asynchronously; this method does not wait for
+     * any client. Sessions resuming the topic receive it after the replay of the messages they missed.
+     *
+     * @param topic the topic to which the message should be sent
+     * @param json  the JSON representation of the message
+     */
+    public void sendText(WebSocketTopic topic, String json) {
+        Set<WebSocketSession> webSocketSessions = subscriberRegistry.get(topic);
+        if (webSocketSessions.isEmpty()) return;
+        DistributionSummary.builder("websocket.broadcast.fanout")
+                .description("Number of local WebSocket sessions a broadcast is sent to")
+                .tag("type", topic.type().name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .record(webSocketSessions.size());
+        TextMessage frame = new TextMessage(json);
+        long seq = WebSocketReplayService.sequenceOf(json);
+        for (WebSocketSession session : webSocketSessions) {
+            SessionSubscriptions subscriptions = sessions.get(session.getId());
+            if (subscriptions != null) deliver(subscriptions, topic, frame, seq);
+        }
+    }
+
+    /**
+     * Queues a frame of a topic to a single session in the order of the message numbers, or holds it back while
+     * the session resumes the topic.
+     *
+     * @param subscriptions the session with its topics
+     * @param topic         the topic of the frame
+     * @param frame         the frame to send
+     * @param seq           the number of the message in the frame
+     */
+    private void deliver(SessionSubscriptions subscriptions, WebSocketTopic topic, TextMessage frame, long seq) {
+        synchronized (subscriptions) {
+            List<SequencedFrame> heldBack = subscriptions.resuming.get(topic);
+            if (heldBack != null) heldBack.add(new SequencedFrame(seq, frame));
+            else order(subscriptions, topic, seq, frame);
+        }
+    }
+
+    /**
+     * Queues a frame of a topic to a session once all messages of the topic numbered before it were queued.
+     * A frame arriving ahead of a message not received yet is held back, and the missing message is looked up after
+     * the reorder timeout. A frame the session was already sent is dropped, and unnumbered frames are queued right
+     * away. Must be called holding the lock of the session.
+     *
+     * @param subscriptions the session with its topics
+     * @param topic         the topic of the frame
+     * @param seq           the number of the message in the frame, or {@link WebSocketReplayService#UNSEQUENCED}
+     * @param frame         the frame to send
+     */
+    private void order(SessionSubscriptions subscriptions, WebSocketTopic topic, long seq, TextMessage frame) {
+        if (seq == WebSocketReplayService.UNSEQUENCED) {
+            enqueue(subscriptions, frame);
+            return;
+        }
+        Long delivered = subscriptions.delivered.get(topic);
+        if (delivered == null) {
+            // The number the session is owed messages from is unknown, so start from this message
+            subscriptions.delivered.put(topic, seq);
+            enqueue(subscriptions, frame);
+            return;
+        }
+        if (seq <= delivered) {
+            staleMessages.increment();
+            return;
+        }
+        if (subscriptions.ahead.computeIfAbsent(topic, key -> new TreeMap<>()).putIfAbsent(seq, frame) != null) {
+            staleMessages.increment();
+            return;
+        }
+        releaseAhead(subscriptions, topic);
+        if (subscriptions.ahead.containsKey(topic)) scheduleGapCheck(subscriptions, topic);
+    }
+
+    /**
+     * Queues the frames of a topic held back for a session that no longer wait for a missing message.
+     * Must be called holding the lock of the session.
+     *
+     * @param subscriptions the session with its topics
+     * @param topic         the topic of the frames
+     */
+    private void releaseAhead(SessionSubscriptions subscriptions, WebSocketTopic topic) {
+        TreeMap<Long, TextMessage> ahead = subscriptions.ahead.get(topic);
+        if (ahead == null) return;
+        long delivered = subscriptions.delivered.get(topic);
+        while (!ahead.isEmpty() && ahead.firstKey() == delivered + 1) {
+            delivered = ahead.firstKey();
+            enqueue(subscriptions, ahead.pollFirstEntry().getValue());
+        }
+        subscriptions.delivered.put(topic, delivered);
+        if (ahead.isEmpty()) subscriptions.ahead.remove(topic);
+    }
+
+    /**
+     * Schedules looking up the messages of a topic a session is missing after the reorder timeout,
+     * unless a look-up is already scheduled. Must be called holding the lock of the session.
+     *
+     * @param subscriptions the session with its topics
+     * @param topic         the topic with missing messages
+     */
+    private void scheduleGapCheck(SessionSubscriptions subscriptions, WebSocketTopic topic) {
+        if (!subscriptions.gapChecks.add(topic)) return;
+        try {
+            // Run on the broadcast executor, as the look-up reads Redis and must not stall the heartbeat
+            heartbeatScheduler.schedule(() -> broadcastExecutor.execute(() -> fillGap(subscriptions, topic)),
+                    webSocketProperties.getReorderTimeout(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            subscriptions.gapChecks.remove(topic);
+            log.debug("WebSocket gap check rejected during shutdown");
+        }
+    }
+
+    /**
+     * Reads the messages of a topic a session is still missing from the {@link WebSocketReplayService} and queues
+     * them with the frames held back behind them. If they are no longer kept, the session is told to reload the
+     * topic and the frames held back are dropped, as the reloaded topic already contains them.
+     *
+     * @param subscriptions the session with its topics
+     * @param topic         the topic with missing messages
+     */
+    private void fillGap(SessionSubscriptions subscriptions, WebSocketTopic topic) {
+        long delivered;
+        synchronized (subscriptions) {
+            subscriptions.gapChecks.remove(topic);
+            // Arrived meanwhile, unsubscribed or closed
+            if (!subscriptions.ahead.containsKey(topic)) return;
+            delivered = subscriptions.delivered.get(topic);
+        }
+
+        WebSocketReplayService.Replay replay;
+        try {
+            replay = replayService.replay(topic, delivered);
+        } catch (RuntimeException e) {
+            log.warn("Failed to read missing WebSocket messages of {}, asking client to resync", topic, e);
+            replay = new WebSocketReplayService.Replay(List.of(), false);
+        }
+
+        synchronized (subscriptions) {
+            TreeMap<Long, TextMessage> ahead = subscriptions.ahead.get(topic);
+            if (ahead == null) return;
+            if (replay.complete()) {
+                long sent = subscriptions.delivered.get(topic);
+                for (String json : replay.messages()) {
+                    long seq = WebSocketReplayService.sequenceOf(json);
+                    if (seq > sent) ahead.putIfAbsent(seq, new TextMessage(json));
+                }
+                releaseAhead(subscriptions, topic);
+                // Messages numbered after the replay was read may still be on their way
+                if (subscriptions.ahead.containsKey(topic)) scheduleGapCheck(subscriptions, topic);
+                return;
             }
+            enqueue(subscriptions, new TextMessage(
+                    new WebSocketMessageDto(WebSocketMessageType.RESYNC, topic.key(), null).toJson()));
+            subscriptions.delivered.put(topic, ahead.lastKey());
+            subscriptions.ahead.remove(topic);
         }
     }
 
     /**
      * Sends a message to all WebSocket sessions associated with a specific post ID.
+     * The message is sent asynchronously; this method does not wait for any client.
      *
      * @param postId the ID of the post to which the message should be sent
      * @param message the message to be sent
      */
     public void sendMessageToPost(Long postId, WebSocketMessageDto message) {
-        SendMessageToTarget(postId, message, postWebSocketSessionMap);
+        sendText(WebSocketTopic.post(postId), message.toJson());
     }
 
     /**
      * Sends a message to all WebSocket sessions associated with a specific comment ID.
+     * The message is sent asynchronously; this method does not wait for any client.
      *
      * @param commentId the ID of the comment to which the message should be sent
      * @param message the message to be sent
      */
     public void sendMessageToComment(Long commentId, WebSocketMessageDto message) {
-        SendMessageToTarget(commentId, message, commentWebSocketSessionMap);
+        sendText(WebSocketTopic.comment(commentId), message.toJson());
     }
 
     /**
-     * Handles incoming WebSocket messages.
-     * This implementation simply closes the session upon receiving a message.
+     * Sends a reply to the session that sent a request.
      *
-     * @param session the WebSocket session that received the message
-     * @param message the WebSocket message received
+     * @param subscriptions the session with its topics
+     * @param type          the type of the reply
+     * @param data          the data of the reply
      */
-    @Override
-    public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
-        session.close();
+    private void reply(SessionSubscriptions subscriptions, WebSocketMessageType type, Object data) {
+        synchronized (subscriptions) {
+            enqueue(subscriptions, new TextMessage(new WebSocketMessageDto(type, data).toJson()));
+        }
     }
 
     /**
-     * Sends a message to all WebSocket sessions associated with a specific target ID.
+     * Queues a frame in the outbox of a session and starts sending the outbox if it is not being sent.
+     * A session whose send in progress has exceeded the send time limit, or whose outbox exceeds the buffer size
+     * limit, is dropped; with the {@code drop} overflow strategy, the oldest queued frames are discarded instead
+     * when only the buffer size limit is exceeded. Must be called holding the lock of the session.
      *
-     * @param targetId the ID of the target (post or comment)
-     * @param message the message to be sent
-     * @param commentWebSocketSessionMap the map containing comment WebSocket sessions
-     */
-    private void SendMessageToTarget(Long targetId, WebSocketMessageDto message, Map<Long, CopyOnWriteArraySet<WebSocketSession>> commentWebSocketSessionMap) {
-        CopyOnWriteArraySet<WebSocketSession> webSocketSessions = commentWebSocketSessionMap.get(targetId);
-        if (webSocketSessions != null) {
-            for (WebSocketSession session : webSocketSessions) {
-                if (session.isOpen()) {
-                    try {
-                        session.sendMessage(new TextMessage(message.toJson()));
-                    } catch (IOException e) {
-                        log.warn("WebSocket: ", e);
-                    }
+     * @param subscriptions the session with its topics
+     * @param frame         the frame to send
+     */
+    private void enqueue(SessionSubscriptions subscriptions, WebSocketMessage<?> frame) {
+        if (subscriptions.closed || subscriptions.closeWhenSent != null) return;
+        if (subscriptions.sending && System.nanoTime() - subscriptions.sendStartedAt
+                > TimeUnit.MILLISECONDS.toNanos(webSocketProperties.getSendTimeLimit())) {
+            dropSlowSession(subscriptions, "send time limit exceeded");
+            return;
+        }
+        subscriptions.outbox.addLast(frame);
+        subscriptions.outboxBytes += frame.getPayloadLength();
+        int bufferSizeLimit = webSocketProperties.getBufferSizeLimit();
+        if (subscriptions.outboxBytes > bufferSizeLimit) {
+            if (webSocketProperties.getOverflowStrategy() == ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE) {
+                dropSlowSession(subscriptions, "buffer size limit exceeded");
+                return;
+            }
+            // Keep the newest frame, even if it alone exceeds the limit
+            while (subscriptions.outboxBytes > bufferSizeLimit && subscriptions.outbox.size() > 1) {
+                subscriptions.outboxBytes -= subscriptions.outbox.removeFirst().getPayloadLength();
+                countSendFailure("dropped");
+            }
+        }
+        if (subscriptions.sending) return;
+        subscriptions.sending = true;
+        subscriptions.sendStartedAt = System.nanoTime();
+        try {
+            broadcastExecutor.execute(() -> flush(subscriptions));
+        } catch (RejectedExecutionException e) {
+            subscriptions.sending = false;
+            log.debug("WebSocket send rejected during shutdown");
+        }
+    }
+
+    /**
+     * Sends the frames of the outbox of a session in order until it is empty, then closes the session if it was
+     * asked to reconnect.
+     *
+     * @param subscriptions the session with its topics
+     */
+    private void flush(SessionSubscriptions subscriptions) {
+        while (true) {
+            WebSocketMessage<?> frame;
+            synchronized (subscriptions) {
+                frame = subscriptions.outbox.pollFirst();
+                if (frame == null) {
+                    subscriptions.sending = false;
+                    if (subscriptions.closeWhenSent != null) break;
+                    return;
                 }
+                subscriptions.outboxBytes -= frame.getPayloadLength();
+                subscriptions.sendStartedAt = System.nanoTime();
             }
+            send(subscriptions.session, frame);
+        }
+        close(subscriptions.session, subscriptions.closeWhenSent);
+    }
+
+    /**
+     * Drops a session that exceeded a send limit: its outbox is discarded, nothing is queued to it anymore and it is
+     * closed. It is unsubscribed from its topics once the closure is reported. Must be called holding the lock of
+     * the session.
+     *
+     * @param subscriptions the session with its topics
+     * @param reason        the limit that was exceeded
+     */
+    private void dropSlowSession(SessionSubscriptions subscriptions, String reason) {
+        countSendFailure("limit");
+        log.debug("WebSocket: dropping slow session {}: {}", subscriptions.session.getId(), reason);
+        subscriptions.closed = true;
+        subscriptions.outbox.clear();
+        subscriptions.outboxBytes = 0;
+        try {
+            // Not queued, the outbox is stuck behind the send in progress
+            broadcastExecutor.execute(() -> close(subscriptions.session, CloseStatus.SESSION_NOT_RELIABLE));
+        } catch (RejectedExecutionException e) {
+            log.debug("WebSocket close rejected during shutdown");
+        }
+    }
+
+    /**
+     * Sends a frame to a single session. Frames are only sent from the outbox of the session, so a session is
+     * never sent two frames at once. A session whose send fails is closed, and unsubscribed from its topics once
+     * the closure is reported.
+     *
+     * @param session the WebSocket session
+     * @param frame   the frame to send
+     */
+    private void send(WebSocketSession session, WebSocketMessage<?> frame) {
+        if (!session.isOpen()) return;
+        try {
+            session.sendMessage(frame);
+        } catch (IOException | IllegalStateException e) {
+            countSendFailure("error");
+            log.debug("WebSocket: closing session {} after failed send", session.getId(), e);
+            close(session, CloseStatus.SESSION_NOT_RELIABLE);
+        }
+    }
+
+    /**
+     * Closes a session, ignoring failures as the connection is given up on anyway.
+     *
+     * @param session the WebSocket session
+     * @param status  the status to close with
+     */
+    private void close(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("WebSocket: failed to close session {}", session.getId(), e);
         }
     }
 
     /**
-     * Extracts the connection type and target ID from the WebSocket session URI.
+     * Counts a failed send.
      *
-     * @param session the WebSocket session from which to extract the connection type
-     * @return an Optional containing the ConnectionInfo if the connection type is recognized, otherwise empty
+     * @param reason the reason of the failure
      */
-    private Optional<ConnectionInfo> getConnectionTypeFromSession(WebSocketSession session) {
+    private void countSendFailure(String reason) {
+        Counter.builder("websocket.send.failures")
+                .description("Number of failed WebSocket sends")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Extracts the topic named by the {@code postId} or {@code commentId} query parameter of the session URI.
+     *
+     * @param session the WebSocket session from which to extract the topic
+     * @return an Optional containing the topic, or empty if the URI names none
+     */
+    private Optional<WebSocketTopic> getTopicFromSession(WebSocketSession session) {
         URI uri = session.getUri();
         if (uri == null) return Optional.empty();
-        String query = uri.getQuery();
-        if (query == null) return Optional.empty();
+        MultiValueMap<String, String> queryParams = UriComponentsBuilder.fromUri(uri).build().getQueryParams();
+        try {
+            if (queryParams.containsKey("postId"))
+                return Optional.of(WebSocketTopic.post(Long.parseLong(queryParams.getFirst("postId"))));
+            if (queryParams.containsKey("commentId"))
+                return Optional.of(WebSocketTopic.comment(Long.parseLong(queryParams.getFirst("commentId"))));
+        } catch (NumberFormatException e) {
+            log.debug("WebSocket: ignoring malformed topic in {}", uri);
+        }
+        return Optional.empty();
+    }
 
-        Optional<ConnectionInfo> connectionInfo = Optional.empty();
-        if (query.contains("postId=")) {
-            connectionInfo = Optional.of(new ConnectionInfo(ConnectionType.POST, Long.parseLong(query.split("=")[1])));
-        } else if (query.contains("commentId=")) {
-            connectionInfo = Optional.of(new ConnectionInfo(ConnectionType.COMMENT, Long.parseLong(query.split("=")[1])));
+    /**
+     * Extracts the number of the last message received from the {@code lastSeq} query parameter of the session URI.
+     *
+     * @param session the WebSocket session from which to extract the number
+     * @return the number of the last message received, or null if the URI names none
+     */
+    private Long getLastSeqFromSession(WebSocketSession session) {
+        URI uri = session.getUri();
+        if (uri == null) return null;
+        String lastSeq = UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst("lastSeq");
+        if (lastSeq == null) return null;
+        try {
+            return Long.parseLong(lastSeq);
+        } catch (NumberFormatException e) {
+            log.debug("WebSocket: ignoring malformed last message number in {}", uri);
+            return null;
         }
-        return connectionInfo;
     }
 
     /**
-     * Enum representing the type of WebSocket connection.
-     * It can either be a connection to a post or a comment.
+     * The result of subscribing a session to a topic.
+     */
+    private enum SubscribeResult {
+        // Newly subscribed
+        ADDED,
+        // Newly subscribed, the missed messages have to be replayed
+        RESUMING,
+        // Already subscribed
+        PRESENT,
+        // The session is closed or subscribed to the maximum number of topics
+        REJECTED
+    }
+
+    /**
+     * A frame held back while its topic is resumed, with the number of its message.
+     *
+     * @param seq   the number of the message, or {@link WebSocketReplayService#UNSEQUENCED}
+     * @param frame the frame
      */
-    private enum ConnectionType {
-        POST,
-        COMMENT
+    private record SequencedFrame(long seq, TextMessage frame) {
     }
 
     /**
-     * Class representing the connection information extracted from the WebSocket session.
-     * It contains the type of connection and the target ID (post or comment).
+     * A session with the topics it is subscribed to and its outbox.
+     * The topics, the frames held back and the outbox are only accessed while holding the lock of this object.
      */
-    @Data
-    @AllArgsConstructor
-    private static class ConnectionInfo {
-        private ConnectionType connectionType;
-        private Long targetId;
+    @RequiredArgsConstructor
+    private static class SessionSubscriptions {
+        private final WebSocketSession session;
+        private final Set<WebSocketTopic> topics = new HashSet<>();
+        // Frames held back per topic being resumed
+        private final Map<WebSocketTopic, List<SequencedFrame>> resuming = new HashMap<>();
+        // Number of the last message sent per topic, all messages of the topic numbered before it were sent as well
+        private final Map<WebSocketTopic, Long> delivered = new HashMap<>();
+        // Frames per topic that arrived ahead of a message not received yet, by message number
+        private final Map<WebSocketTopic, TreeMap<Long, TextMessage>> ahead = new HashMap<>();
+        // Topics whose missing messages are scheduled to be looked up
+        private final Set<WebSocketTopic> gapChecks = new HashSet<>();
+        // Frames waiting to be sent, in the order they are sent in
+        private final Deque<WebSocketMessage<?>> outbox = new ArrayDeque<>();
+        // Total payload length in bytes of the frames in the outbox
+        private long outboxBytes;
+        // Whether a task is sending the outbox, and the time in nanoseconds its current send started
+        private boolean sending;
+        private long sendStartedAt;
+        // Status to close the session with once its outbox was sent, set when it is asked to reconnect
+        private CloseStatus closeWhenSent;
+        private boolean closed;
+        // Time in nanoseconds anything was last received from the session
+        private volatile long lastSeen = System.nanoTime();
     }
 }
@@ -0,0 +1,148 @@
+package fans.goldenglow.plumaspherebackend.handler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of the WebSocket sessions subscribed to each topic on this node.
+ * Sessions of a topic are kept in a concurrent set, so joining and leaving are O(1) regardless of the
+ * number of viewers, and broadcasts iterate the set without copying it. The set of a topic is created
+ * by its first subscriber and removed with its last one, both atomically with the change itself, so a
+ * subscriber joining while the last one leaves is never lost.
+ * The registry exposes the following Micrometer metrics, each tagged with the topic type only, as the topic IDs are
+ * chosen by the clients and would make the number of series unbounded:
+ * <ul>
+ *     <li>{@code websocket.topics}: number of topics with at least one subscriber</li>
+ *     <li>{@code websocket.topic.subscribers}: total number of subscriptions to the topics</li>
+ *     <li>{@code websocket.topic.subscribers.max}: number of subscribers of the most watched topic</li>
+ * </ul>
+ * How the subscribers are spread over the topics is reported by the {@code websocket.broadcast.fanout} summary
+ * of the {@link WebSocketHandler}.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketSubscriberRegistry {
+    private static final String TYPE_TAG = "type";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<WebSocketTopic, Set<WebSocketSession>> topics = new ConcurrentHashMap<>();
+    // Number of topics with subscribers and of subscriptions, per topic type
+    private final Map<WebSocketTopic.Type, AtomicInteger> topicCounts = counters();
+    private final Map<WebSocketTopic.Type, AtomicInteger> subscriptionCounts = counters();
+
+    /**
+     * Registers the gauges of every topic type.
+     * This method is called after the bean is constructed.
+     */
+    @PostConstruct
+    void init() {
+        for (WebSocketTopic.Type type : WebSocketTopic.Type.values()) {
+            String tag = type.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("websocket.topics", topicCounts.get(type), AtomicInteger::get)
+                    .description("Number of WebSocket topics with at least one subscriber")
+                    .tag(TYPE_TAG, tag)
+                    .register(meterRegistry);
+            Gauge.builder("websocket.topic.subscribers", subscriptionCounts.get(type), AtomicInteger::get)
+                    .description("Total number of WebSocket subscriptions to topics")
+                    .tag(TYPE_TAG, tag)
+                    .register(meterRegistry);
+            Gauge.builder("websocket.topic.subscribers.max", () -> maxSubscribers(type))
+                    .description("Number of WebSocket sessions subscribed to the most watched topic")
+                    .tag(TYPE_TAG, tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Adds a session to the subscribers of a topic.
+     *
+     * @param topic   the topic
+     * @param session the WebSocket session
+     */
+    public void add(WebSocketTopic topic, WebSocketSession session) {
+        topics.compute(topic, (key, sessions) -> {
+            if (sessions == null) {
+                sessions = ConcurrentHashMap.newKeySet();
+                topicCounts.get(key.type()).incrementAndGet();
+            }
+            if (sessions.add(session)) subscriptionCounts.get(key.type()).incrementAndGet();
+            return sessions;
+        });
+    }
+
+    /**
+     * Removes a session from the subscribers of a topic, removing the topic once it has no subscribers left.
+     *
+     * @param topic   the topic
+     * @param session the WebSocket session
+     */
+    public void remove(WebSocketTopic topic, WebSocketSession session) {
+        topics.computeIfPresent(topic, (key, sessions) -> {
+            if (sessions.remove(session)) subscriptionCounts.get(key.type()).decrementAndGet();
+            if (!sessions.isEmpty()) return sessions;
+            topicCounts.get(key.type()).decrementAndGet();
+            return null;
+        });
+    }
+
+    /**
+     * Returns a live view of the subscribers of a topic.
+     * Iterating the view is safe while sessions join and leave.
+     *
+     * @param topic the topic
+     * @return the subscribed sessions, empty if the topic has no subscribers
+     */
+    public Set<WebSocketSession> get(WebSocketTopic topic) {
+        Set<WebSocketSession> sessions = topics.get(topic);
+        return sessions == null ? Collections.emptySet() : Collections.unmodifiableSet(sessions);
+    }
+
+    /**
+     * Returns the number of subscribers of a topic.
+     *
+     * @param topic the topic
+     * @return the number of subscribed sessions
+     */
+    public int count(WebSocketTopic topic) {
+        Set<WebSocketSession> sessions = topics.get(topic);
+        return sessions == null ? 0 : sessions.size();
+    }
+
+    /**
+     * Returns the number of subscribers of the most watched topic of a type.
+     * The topics are iterated, which is fine as it only happens when the metrics are read.
+     *
+     * @param type the topic type
+     * @return the largest number of sessions subscribed to a topic of the type, 0 if there is none
+     */
+    private int maxSubscribers(WebSocketTopic.Type type) {
+        int max = 0;
+        for (Map.Entry<WebSocketTopic, Set<WebSocketSession>> entry : topics.entrySet()) {
+            if (entry.getKey().type() == type) max = Math.max(max, entry.getValue().size());
+        }
+        return max;
+    }
+
+    /**
+     * Creates a counter per topic type.
+     *
+     * @return the counters by topic type
+     */
+    private static Map<WebSocketTopic.Type, AtomicInteger> counters() {
+        Map<WebSocketTopic.Type, AtomicInteger> counters = new EnumMap<>(WebSocketTopic.Type.class);
+        for (WebSocketTopic.Type type : WebSocketTopic.Type.values()) counters.put(type, new AtomicInteger());
+        return counters;
+    }
+}
@@ -0,0 +1,67 @@
+package fans.goldenglow.plumaspherebackend.handler;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * A topic WebSocket clients can subscribe to: the events of a post, or the replies to a comment.
+ *
+ * @param type the type of the topic
+ * @param id   the ID of the post or comment
+ */
+public record WebSocketTopic(Type type, Long id) {
+    /**
+     * Creates the topic of a post.
+     *
+     * @param postId the ID of the post
+     * @return the topic
+     */
+    public static WebSocketTopic post(Long postId) {
+        return new WebSocketTopic(Type.POST, postId);
+    }
+
+    /**
+     * Creates the topic of the replies to a comment.
+     *
+     * @param commentId the ID of the comment
+     * @return the topic
+     */
+    public static WebSocketTopic comment(Long commentId) {
+        return new WebSocketTopic(Type.COMMENT, commentId);
+    }
+
+    /**
+     * Parses a topic from its key, e.g. {@code post:123}.
+     *
+     * @param key the key of the topic
+     * @return an Optional containing the topic, or empty if the key is malformed
+     */
+    public static Optional<WebSocketTopic> parse(String key) {
+        int separator = key.indexOf(':');
+        if (separator < 0) return Optional.empty();
+        try {
+            Type type = Type.valueOf(key.substring(0, separator).toUpperCase(Locale.ROOT));
+            return Optional.of(new WebSocketTopic(type, Long.parseLong(key.substring(separator + 1))));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the key of this topic, e.g. {@code post:123}.
+     *
+     * @return the key of this topic
+     */
+    public String key() {
+        return type.name().toLowerCase(Locale.ROOT) + ":" + id;
+    }
+
+    /**
+     * Enum representing the type of WebSocket topic.
+     * It can either be a post or a comment.
+     */
+    public enum Type {
+        POST,
+        COMMENT
+    }
+}
@@ -3,6 +3,7 @@ package fans.goldenglow.plumaspherebackend.mapper;
 import fans.goldenglow.plumaspherebackend.dto.PostDto;
 import fans.goldenglow.plumaspherebackend.entity.Post;
 import fans.goldenglow.plumaspherebackend.entity.Tag;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
@@ -13,18 +14,24 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
- * Mapper interface for converting Post entities to PostDto objects.
+ * Mapper interface for converting Post entities and post summaries to PostDto objects.
  * This interface uses MapStruct to automatically generate the implementation.
  */
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface PostMapper extends BaseMapper {
     @Mapping(target = "authorId", source = "author.id")
+    @Mapping(target = "tags", ignore = true)
     PostDto toDto(Post post);
 
     @Mapping(target = "authorId", source = "author.id")
     @Mapping(target = "content", ignore = true)
+    @Mapping(target = "renderedHtml", ignore = true)
     PostDto toDtoIgnoringContent(Post post);
 
+    @Mapping(target = "content", ignore = true)
+    @Mapping(target = "renderedHtml", ignore = true)
+    PostDto toDto(PostSummary summary);
+
     /**
      * Converts a list of Post entities to a list of PostDto objects, ignoring the content field.
      *
@@ -35,6 +42,16 @@ public interface PostMapper extends BaseMapper {
         return posts.stream().map(this::toDtoIgnoringContent).collect(Collectors.toList());
     }
 
+    /**
+     * Converts a list of post summaries to a list of PostDto objects.
+     *
+     * @param summaries the list of post summaries to convert
+     * @return a list of PostDto objects without content
+     */
+    default List<PostDto> summariesToDto(List<PostSummary> summaries) {
+        return summaries.stream().map(this::toDto).collect(Collectors.toList());
+    }
+
     /**
      * Maps a set of Tag entities to a list of tag names, sorted by the number of posts associated with each tag.
      *
@@ -0,0 +1,43 @@
+package fans.goldenglow.plumaspherebackend.metrics;
+
+import fans.goldenglow.plumaspherebackend.handler.WebSocketHandler;
+import fans.goldenglow.plumaspherebackend.service.LikeSyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint reporting the progress of draining the node on shutdown, at {@code /actuator/drain}.
+ * While the node shuts down, it shows how many WebSocket sessions are still open and how many shards of dirty likes
+ * are still being flushed, e.g. {@code {"draining":true,"openSessions":120,"flushingLikes":false,"pendingLikeShards":0}}.
+ */
+@Component
+@Endpoint(id = "drain")
+@RequiredArgsConstructor
+public class DrainEndpoint {
+    private final WebSocketHandler webSocketHandler;
+    private final LikeSyncService likeSyncService;
+
+    /**
+     * Reports the progress of draining the node.
+     *
+     * @return the drain status
+     */
+    @ReadOperation
+    public DrainStatus drain() {
+        return new DrainStatus(webSocketHandler.isDraining(), webSocketHandler.getOpenSessions(),
+                likeSyncService.isFlushing(), likeSyncService.getPendingShards());
+    }
+
+    /**
+     * The progress of draining the node.
+     *
+     * @param draining          whether the node refuses new WebSocket connections and asks open ones to reconnect
+     * @param openSessions      the number of WebSocket sessions still open
+     * @param flushingLikes     whether the dirty likes are being flushed to the database
+     * @param pendingLikeShards the number of like shards not synced yet
+     */
+    public record DrainStatus(boolean draining, int openSessions, boolean flushingLikes, int pendingLikeShards) {
+    }
+}
@@ -0,0 +1,17 @@
+package fans.goldenglow.plumaspherebackend.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that prefixes every SQL statement with a comment naming the endpoint
+ * that issued it, such as PostController.getPosts.
+ * The comment shows up in database logs and slow query reports, linking each statement to its endpoint.
+ */
+public class SqlEndpointStatementInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        SqlMetricsContext context = SqlMetricsContext.current();
+        if (context == null) return sql;
+        return "/* " + context.getEndpoint() + " */ " + sql;
+    }
+}
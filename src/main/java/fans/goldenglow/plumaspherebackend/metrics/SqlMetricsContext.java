@@ -0,0 +1,72 @@
+package fans.goldenglow.plumaspherebackend.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Per-request accumulator of the SQL statements executed while handling an HTTP request.
+ * The context is bound to the request thread by {@link SqlMetricsFilter}, labelled with the handling
+ * endpoint by {@link SqlMetricsInterceptor}, and filled in by the JDBC and Hibernate instrumentation.
+ */
+@Getter
+public class SqlMetricsContext {
+    /**
+     * Endpoint label used for requests that are not handled by a controller method.
+     */
+    public static final String UNMAPPED = "unmapped";
+
+    private static final ThreadLocal<SqlMetricsContext> CURRENT = new ThreadLocal<>();
+
+    @Setter
+    private String endpoint = UNMAPPED;
+    private int queryCount;
+    private int slowQueryCount;
+    private long rowCount;
+    private long dbTimeMillis;
+
+    /**
+     * Binds a new context to the current thread.
+     *
+     * @return the new context
+     */
+    public static SqlMetricsContext begin() {
+        SqlMetricsContext context = new SqlMetricsContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    /**
+     * Returns the context bound to the current thread.
+     *
+     * @return the current context, or null if the current thread is not handling an HTTP request
+     */
+    public static SqlMetricsContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Unbinds the context from the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Records an executed statement.
+     *
+     * @param elapsedMillis the execution time of the statement in milliseconds
+     * @param slow          whether the statement exceeded the slow query threshold
+     */
+    void recordQuery(long elapsedMillis, boolean slow) {
+        queryCount++;
+        dbTimeMillis += elapsedMillis;
+        if (slow) slowQueryCount++;
+    }
+
+    /**
+     * Records a row read from a result set.
+     */
+    void recordRow() {
+        rowCount++;
+    }
+}
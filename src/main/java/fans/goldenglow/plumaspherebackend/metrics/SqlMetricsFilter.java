@@ -0,0 +1,77 @@
+package fans.goldenglow.plumaspherebackend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet filter that collects the SQL statements executed while handling each HTTP request
+ * and records them as Micrometer metrics tagged with the handling endpoint:
+ * <ul>
+ *     <li>{@code http.server.sql.queries}: number of statements per request</li>
+ *     <li>{@code http.server.sql.rows}: number of rows read per request</li>
+ *     <li>{@code http.server.sql.time}: total database time per request</li>
+ *     <li>{@code http.server.sql.slow}: number of statements exceeding the slow query threshold</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlMetricsFilter extends OncePerRequestFilter {
+    private static final String ENDPOINT_TAG = "endpoint";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
+        SqlMetricsContext context = SqlMetricsContext.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlMetricsContext.end();
+            record(context);
+        }
+    }
+
+    /**
+     * Records the SQL metrics of a finished request.
+     *
+     * @param context the SQL metrics collected for the request
+     */
+    private void record(SqlMetricsContext context) {
+        String endpoint = context.getEndpoint();
+        DistributionSummary.builder("http.server.sql.queries")
+                .description("Number of SQL statements executed per request")
+                .tag(ENDPOINT_TAG, endpoint)
+                .register(meterRegistry)
+                .record(context.getQueryCount());
+        DistributionSummary.builder("http.server.sql.rows")
+                .description("Number of rows read from the database per request")
+                .tag(ENDPOINT_TAG, endpoint)
+                .register(meterRegistry)
+                .record(context.getRowCount());
+        Timer.builder("http.server.sql.time")
+                .description("Time spent executing SQL statements per request")
+                .tag(ENDPOINT_TAG, endpoint)
+                .register(meterRegistry)
+                .record(context.getDbTimeMillis(), TimeUnit.MILLISECONDS);
+        if (context.getSlowQueryCount() > 0) {
+            Counter.builder("http.server.sql.slow")
+                    .description("Number of SQL statements exceeding the slow query threshold")
+                    .tag(ENDPOINT_TAG, endpoint)
+                    .register(meterRegistry)
+                    .increment(context.getSlowQueryCount());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package fans.goldenglow.plumaspherebackend.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Interceptor that labels the SQL metrics of a request with the handling endpoint,
+ * e.g. {@code PostController.getPosts}.
+ */
+@Component
+public class SqlMetricsInterceptor implements HandlerInterceptor {
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        SqlMetricsContext context = SqlMetricsContext.current();
+        if (context != null && handler instanceof HandlerMethod handlerMethod) {
+            context.setEndpoint(handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+        }
+        return true;
+    }
+}
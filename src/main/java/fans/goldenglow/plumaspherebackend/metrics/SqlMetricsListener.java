@@ -0,0 +1,59 @@
+package fans.goldenglow.plumaspherebackend.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * JDBC listener that feeds executed statements and read rows into the {@link SqlMetricsContext}
+ * of the current request, and logs statements exceeding the slow query threshold.
+ */
+@Slf4j
+public class SqlMetricsListener implements QueryExecutionListener, MethodExecutionListener {
+    private final long slowQueryThresholdMillis;
+
+    /**
+     * Constructs a SqlMetricsListener.
+     *
+     * @param slowQueryThresholdMillis the execution time in milliseconds above which a statement is considered slow
+     */
+    public SqlMetricsListener(long slowQueryThresholdMillis) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMillis = execInfo.getElapsedTime();
+        boolean slow = elapsedMillis >= slowQueryThresholdMillis;
+        if (slow && !queryInfoList.isEmpty()) {
+            log.warn("Slow SQL statement took {} ms: {}", elapsedMillis, queryInfoList.getFirst().getQuery());
+        }
+
+        SqlMetricsContext context = SqlMetricsContext.current();
+        if (context != null) context.recordQuery(elapsedMillis, slow);
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (!(executionContext.getTarget() instanceof ResultSet)) return;
+        if (!"next".equals(executionContext.getMethod().getName())) return;
+        if (!Boolean.TRUE.equals(executionContext.getResult())) return;
+
+        SqlMetricsContext context = SqlMetricsContext.current();
+        if (context != null) context.recordRow();
+    }
+}
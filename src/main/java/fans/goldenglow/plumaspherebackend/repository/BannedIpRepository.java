@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,6 +20,8 @@ import java.util.Optional;
 public interface BannedIpRepository extends JpaRepository<BannedIp, Long> {
     Optional<BannedIp> findByIpAddressAndExpiresAtAfter(String ipAddress, LocalDateTime expiresAtAfter);
 
+    Optional<BannedIp> findByIpAddress(String ipAddress);
+
     void deleteAllByExpiresAtBefore(LocalDateTime expiresAtBefore);
 
     void deleteByIpAddress(String ipAddress);
@@ -27,6 +30,13 @@ public interface BannedIpRepository extends JpaRepository<BannedIp, Long> {
 
     boolean existsByIpAddressAndExpiresAtAfter(String ipAddress, LocalDateTime expiresAtAfter);
 
+    @Query("SELECT COUNT(b) > 0 FROM BannedIp b WHERE b.ipAddress = :ipAddress AND " +
+            "(b.expiresAt IS NULL OR b.expiresAt > :now)")
+    boolean existsActiveByIpAddress(@Param("ipAddress") String ipAddress, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM BannedIp b WHERE b.expiresAt IS NULL OR b.expiresAt > :now")
+    List<BannedIp> findAllActive(@Param("now") LocalDateTime now);
+
     @Query("SELECT b FROM BannedIp b WHERE " +
             "LOWER(b.ipAddress) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<BannedIp> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
@@ -3,22 +3,29 @@ package fans.goldenglow.plumaspherebackend.repository;
 import fans.goldenglow.plumaspherebackend.entity.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository interface for managing comments in the application.
  * Provides methods to find comments by post ID, parent comment ID, and author ID,
- * as well as methods to count comments by post and author.
+ * as well as methods to count comments by post, parent comment and author.
+ * Paged lookups fetch the comment authors in the same query, as every listed comment shows its author.
  */
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     Page<Comment> findByPostId(Long postId, Pageable pageable);
 
     Long countByPostId(Long postId);
 
+    @EntityGraph(attributePaths = "author")
     Page<Comment> findByParentCommentId(Long parentCommentId, Pageable pageable);
 
+    Long countByParentCommentId(Long parentCommentId);
+
+    @EntityGraph(attributePaths = "author")
     Page<Comment> findByAuthorId(Long authorId, Pageable pageable);
 
     Long countByAuthorId(Long authorId);
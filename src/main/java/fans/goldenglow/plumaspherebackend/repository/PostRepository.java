@@ -1,17 +1,27 @@
 package fans.goldenglow.plumaspherebackend.repository;
 
 import fans.goldenglow.plumaspherebackend.entity.Post;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostContent;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostSummary;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostTagName;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for managing posts in the application.
  * Provides methods to find posts by tags, title, content, and description,
  * as well as methods to count posts based on these criteria.
+ * Also provides lightweight summary queries for listings, which never load post content,
+ * and the queries used by the asynchronous post-processing pipeline.
  */
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
@@ -31,4 +41,45 @@ public interface PostRepository extends JpaRepository<Post, Long> {
             "LOWER(p.content) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     long countByKeyword(@Param("keyword") String keyword);
+
+    @Query(value = "SELECT new fans.goldenglow.plumaspherebackend.repository.projection.PostSummary(" +
+            "p.id, p.title, p.description, p.author.id, p.createdAt, p.updatedAt) FROM Post p",
+            countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<PostSummary> findAllSummaries(Pageable pageable);
+
+    @Query(value = "SELECT new fans.goldenglow.plumaspherebackend.repository.projection.PostSummary(" +
+            "p.id, p.title, p.description, p.author.id, p.createdAt, p.updatedAt) FROM Post p JOIN p.tags t " +
+            "WHERE t.name = :tagName",
+            countQuery = "SELECT COUNT(p) FROM Post p JOIN p.tags t WHERE t.name = :tagName")
+    Page<PostSummary> findSummariesByTagName(@Param("tagName") String tagName, Pageable pageable);
+
+    @Query(value = "SELECT new fans.goldenglow.plumaspherebackend.repository.projection.PostSummary(" +
+            "p.id, p.title, p.description, p.author.id, p.createdAt, p.updatedAt) FROM Post p WHERE " +
+            "LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.content) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE " +
+                    "LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+                    "LOWER(p.content) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+                    "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    Page<PostSummary> searchSummariesByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query("SELECT new fans.goldenglow.plumaspherebackend.repository.projection.PostTagName(p.id, t.name, SIZE(t.posts)) " +
+            "FROM Post p JOIN p.tags t WHERE p.id IN :postIds")
+    List<PostTagName> findTagNamesByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    @Query("SELECT new fans.goldenglow.plumaspherebackend.repository.projection.PostContent(p.id, p.version, p.content) " +
+            "FROM Post p WHERE p.id = :id")
+    Optional<PostContent> findContentById(@Param("id") Long id);
+
+    @Query("SELECT p.id FROM Post p WHERE p.processingPending = true ORDER BY p.id")
+    List<Long> findProcessingPendingIds(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.description = :description, p.renderedHtml = :renderedHtml, p.processingPending = false " +
+            "WHERE p.id = :id AND p.version = :version")
+    int updateProcessedContent(@Param("id") Long id,
+                               @Param("version") Long version,
+                               @Param("description") String description,
+                               @Param("renderedHtml") String renderedHtml);
 }
@@ -1,16 +1,23 @@
 package fans.goldenglow.plumaspherebackend.repository;
 
 import fans.goldenglow.plumaspherebackend.entity.Tag;
+import fans.goldenglow.plumaspherebackend.repository.projection.TagPostCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for managing tags in the application.
- * Provides methods to find a tag by its name.
+ * Provides methods to find a tag by its name and to list tags with their post counts.
  */
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByName(String name);
+
+    @Query("SELECT new fans.goldenglow.plumaspherebackend.repository.projection.TagPostCount(t.id, t.name, SIZE(t.posts)) " +
+            "FROM Tag t ORDER BY SIZE(t.posts) DESC")
+    List<TagPostCount> findAllWithPostCount();
 }
@@ -5,6 +5,7 @@ import fans.goldenglow.plumaspherebackend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,7 +16,8 @@ import java.util.Optional;
 
 /**
  * Repository interface for managing users in the application.
- * Provides methods to find users by username, check existence, and manage banned users.
+ * Provides methods to find users by username, check existence, and manage banned users,
+ * one at a time or in bulk with set-based updates.
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -31,10 +33,72 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Long countByIsPendingIpBanTrue();
 
-    List<User> findUserByBanExpiresAtBefore(LocalDateTime banExpiresAtBefore);
+    List<User> findByIsBannedTrueOrIsPendingIpBanTrue();
+
+    @Query("SELECT u.id FROM User u WHERE u.isBanned = true AND u.banExpiresAt < :now ORDER BY u.banExpiresAt")
+    List<Long> findExpiredBanIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE User u SET u.isBanned = false, u.banReason = null, u.bannedAt = null, " +
+            "u.banExpiresAt = null, u.version = u.version + 1 " +
+            "WHERE u.id IN :ids AND u.isBanned = true AND u.banExpiresAt < :now")
+    int unbanExpiredByIdIn(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
 
     void deleteByIdAndRoleIsNot(Long id, UserRoles role);
 
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND u.role <> :excludedRole AND " +
+            "u.createdAt >= :createdAfter AND u.createdAt < :createdBefore AND " +
+            "(:withoutPosts = false OR u.posts IS EMPTY) ORDER BY u.id")
+    List<Long> findIdsForModeration(@Param("createdAfter") LocalDateTime createdAfter,
+                                    @Param("createdBefore") LocalDateTime createdBefore,
+                                    @Param("withoutPosts") boolean withoutPosts,
+                                    @Param("excludedRole") UserRoles excludedRole,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.role <> :excludedRole AND " +
+            "u.createdAt >= :createdAfter AND u.createdAt < :createdBefore AND " +
+            "(:withoutPosts = false OR u.posts IS EMPTY)")
+    long countForModeration(@Param("createdAfter") LocalDateTime createdAfter,
+                            @Param("createdBefore") LocalDateTime createdBefore,
+                            @Param("withoutPosts") boolean withoutPosts,
+                            @Param("excludedRole") UserRoles excludedRole);
+
+    @Modifying
+    @Query("UPDATE User u SET u.isBanned = true, u.banReason = :reason, u.bannedAt = :bannedAt, " +
+            "u.banExpiresAt = :expiresAt, u.version = u.version + 1 " +
+            "WHERE u.id IN :ids AND u.role <> :excludedRole")
+    int banByIdIn(@Param("ids") List<Long> ids, @Param("reason") String reason,
+                  @Param("bannedAt") LocalDateTime bannedAt, @Param("expiresAt") LocalDateTime expiresAt,
+                  @Param("excludedRole") UserRoles excludedRole);
+
+    @Modifying
+    @Query("UPDATE User u SET u.isBanned = false, u.banReason = null, u.bannedAt = null, " +
+            "u.banExpiresAt = null, u.version = u.version + 1 " +
+            "WHERE u.id IN :ids AND u.isBanned = true")
+    int unbanByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE User u SET u.isPendingIpBan = true, u.ipBanReason = :reason, " +
+            "u.ipBanExpiresAt = :expiresAt, u.version = u.version + 1 " +
+            "WHERE u.id IN :ids AND u.role <> :excludedRole")
+    int markForIpBanByIdIn(@Param("ids") List<Long> ids, @Param("reason") String reason,
+                           @Param("expiresAt") LocalDateTime expiresAt,
+                           @Param("excludedRole") UserRoles excludedRole);
+
+    @Modifying
+    @Query("UPDATE User u SET u.isPendingIpBan = false, u.ipBanReason = null, " +
+            "u.ipBanExpiresAt = null, u.version = u.version + 1 " +
+            "WHERE u.id IN :ids AND u.isPendingIpBan = true")
+    int clearIpBanMarkByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids AND u.role <> :excludedRole AND " +
+            "u.posts IS EMPTY AND u.comments IS EMPTY AND " +
+            "NOT EXISTS (SELECT p FROM Post p JOIN p.likedBy l WHERE l.id = u.id) AND " +
+            "NOT EXISTS (SELECT c FROM Comment c JOIN c.likedBy l WHERE l.id = u.id)")
+    int deleteWithoutContentByIdIn(@Param("ids") List<Long> ids, @Param("excludedRole") UserRoles excludedRole);
+
     @Query("SELECT u FROM User u WHERE " +
             "LOWER(u.nickname) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(u.username) LIKE LOWER(CONCAT('%', :keyword, '%'))")
@@ -0,0 +1,11 @@
+package fans.goldenglow.plumaspherebackend.repository.projection;
+
+/**
+ * Projection of the Markdown content of a post together with the entity version it was read at.
+ *
+ * @param id      the ID of the post
+ * @param version the version of the post when the content was read
+ * @param content the Markdown content of the post
+ */
+public record PostContent(Long id, Long version, String content) {
+}
@@ -0,0 +1,41 @@
+package fans.goldenglow.plumaspherebackend.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Projection of a post for listings, without its content or rendered HTML.
+ *
+ * @param id          the ID of the post
+ * @param title       the title of the post
+ * @param description the description of the post
+ * @param authorId    the ID of the author of the post
+ * @param createdAt   the creation time of the post
+ * @param updatedAt   the last update time of the post
+ * @param tags        the names of the tags of the post
+ */
+public record PostSummary(Long id,
+                          String title,
+                          String description,
+                          Long authorId,
+                          LocalDateTime createdAt,
+                          LocalDateTime updatedAt,
+                          List<String> tags) {
+    /**
+     * Constructs a PostSummary without tags, as selected by the summary queries.
+     * Tags are loaded for a whole page at once and attached with {@link #withTags(List)}.
+     */
+    public PostSummary(Long id, String title, String description, Long authorId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title, description, authorId, createdAt, updatedAt, List.of());
+    }
+
+    /**
+     * Returns a copy of this summary with the given tag names.
+     *
+     * @param tags the names of the tags of the post
+     * @return a new PostSummary with the given tags
+     */
+    public PostSummary withTags(List<String> tags) {
+        return new PostSummary(id, title, description, authorId, createdAt, updatedAt, tags);
+    }
+}
@@ -0,0 +1,11 @@
+package fans.goldenglow.plumaspherebackend.repository.projection;
+
+/**
+ * Projection of a tag name attached to a post, together with the number of posts using the tag.
+ *
+ * @param postId    the ID of the post
+ * @param name      the name of the tag
+ * @param postCount the number of posts associated with the tag
+ */
+public record PostTagName(Long postId, String name, Integer postCount) {
+}
@@ -0,0 +1,11 @@
+package fans.goldenglow.plumaspherebackend.repository.projection;
+
+/**
+ * Projection of a tag together with the number of posts associated with it.
+ *
+ * @param id        the ID of the tag
+ * @param name      the name of the tag
+ * @param postCount the number of posts associated with the tag
+ */
+public record TagPostCount(Long id, String name, Integer postCount) {
+}
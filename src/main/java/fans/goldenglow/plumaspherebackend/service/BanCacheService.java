@@ -0,0 +1,272 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.entity.BannedIp;
+import fans.goldenglow.plumaspherebackend.entity.User;
+import fans.goldenglow.plumaspherebackend.event.IpBanChangedEvent;
+import fans.goldenglow.plumaspherebackend.event.UserBanChangedEvent;
+import fans.goldenglow.plumaspherebackend.event.UserBansChangedEvent;
+import fans.goldenglow.plumaspherebackend.repository.BannedIpRepository;
+import fans.goldenglow.plumaspherebackend.repository.UserRepository;
+import fans.goldenglow.plumaspherebackend.util.IpPrefixTrie;
+import fans.goldenglow.plumaspherebackend.util.IpRange;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.BAN_INVALIDATION_CHANNEL;
+
+/**
+ * Service for caching the active IP and user bans in memory, so ban checks never hit the database.
+ * All bans are loaded at startup and reloaded periodically. A ban changed on any node is refreshed from the
+ * database after its transaction commits, on this node directly and on the other nodes through a Redis channel.
+ * Only banned IP addresses and users that are banned or marked for an IP ban are kept; expired bans are
+ * ignored when checked and dropped by the next reload.
+ * IP bans may cover ranges in CIDR notation and are kept in an {@link IpPrefixTrie}, so checking an address
+ * takes at most one step per address bit, however many addresses and ranges are banned.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BanCacheService implements MessageListener {
+    // Prefixes of the keys of IP and user bans sent on the invalidation channel
+    private static final String IP_KEY_PREFIX = "ip:";
+    private static final String USER_KEY_PREFIX = "user:";
+    // Separator of the user IDs in the key of bans changed together
+    private static final String USER_ID_SEPARATOR = ",";
+    // Expiry of a permanent IP ban, as the trie cannot hold null values
+    private static final LocalDateTime PERMANENT = LocalDateTime.MAX;
+
+    private final BannedIpRepository bannedIpRepository;
+    private final UserRepository userRepository;
+    private final RedisService redisService;
+    private final RedisMessageListenerContainer listenerContainer;
+    // Keys of bans refreshed since the current reload started, refreshed again once it completes
+    private final Set<String> refreshedDuringReload = ConcurrentHashMap.newKeySet();
+    // Expiry of each banned IP address or range; replaced as a whole by a reload
+    private volatile IpPrefixTrie<LocalDateTime> ipBans = new IpPrefixTrie<>();
+    // Ban of each user that is banned or marked for an IP ban; replaced as a whole by a reload
+    private volatile Map<Long, UserBan> userBans = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribes to the invalidation channel and loads all active bans.
+     * This method is called after the bean is constructed.
+     */
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(BAN_INVALIDATION_CHANNEL));
+        reload();
+    }
+
+    /**
+     * Checks if an IP address is currently banned, by itself or by a range containing it.
+     *
+     * @param ipAddress the IP address to check
+     * @return true if the IP address is banned and the ban has not expired, false if it is not or is malformed
+     */
+    public boolean isIpBanned(String ipAddress) {
+        byte[] address;
+        try {
+            address = IpRange.parseAddress(ipAddress);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return ipBans.anyMatch(address, expiresAt -> expiresAt == PERMANENT || LocalDateTime.now().isBefore(expiresAt));
+    }
+
+    /**
+     * Retrieves the ban of a user.
+     *
+     * @param userId the ID of the user
+     * @return the ban of the user, or empty if the user is neither banned nor marked for an IP ban
+     */
+    public Optional<UserBan> getUserBan(Long userId) {
+        return Optional.ofNullable(userBans.get(userId));
+    }
+
+    /**
+     * Reloads all active bans from the database.
+     * Bans refreshed while the reload runs are refreshed again afterwards, as the reload may have read them
+     * before they changed. This method is scheduled to run at the interval configured by config.ban.refresh_interval.
+     */
+    @Scheduled(fixedDelayString = "${config.ban.refresh_interval}", initialDelayString = "${config.ban.refresh_interval}")
+    public void reload() {
+        refreshedDuringReload.clear();
+        LocalDateTime now = LocalDateTime.now();
+
+        IpPrefixTrie<LocalDateTime> loadedIpBans = new IpPrefixTrie<>();
+        for (BannedIp bannedIp : bannedIpRepository.findAllActive(now)) {
+            try {
+                loadedIpBans.put(IpRange.parse(bannedIp.getIpAddress()), expiryOf(bannedIp));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring ban of malformed IP address {}", bannedIp.getIpAddress());
+            }
+        }
+        Map<Long, UserBan> loadedUserBans = new ConcurrentHashMap<>();
+        for (User user : userRepository.findByIsBannedTrueOrIsPendingIpBanTrue())
+            loadedUserBans.put(user.getId(), UserBan.of(user));
+        ipBans = loadedIpBans;
+        userBans = loadedUserBans;
+
+        for (String key : Set.copyOf(refreshedDuringReload)) refresh(key);
+        log.debug("Loaded {} IP bans and {} user bans", loadedIpBans.size(), loadedUserBans.size());
+    }
+
+    /**
+     * Refreshes the ban of an IP address once the transaction that changed it has committed,
+     * and notifies the other nodes.
+     *
+     * @param event the event describing the changed ban
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onIpBanChanged(IpBanChangedEvent event) {
+        invalidate(IP_KEY_PREFIX + event.ipAddress());
+    }
+
+    /**
+     * Refreshes the ban of a user once the transaction that changed it has committed,
+     * and notifies the other nodes.
+     *
+     * @param event the event describing the changed ban
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserBanChanged(UserBanChangedEvent event) {
+        invalidate(USER_KEY_PREFIX + event.userId());
+    }
+
+    /**
+     * Refreshes the bans of many users at once once the transaction that changed them has committed,
+     * and notifies the other nodes with a single message.
+     *
+     * @param event the event describing the changed bans
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserBansChanged(UserBansChangedEvent event) {
+        if (event.userIds().isEmpty()) return;
+        invalidate(USER_KEY_PREFIX + event.userIds().stream().map(String::valueOf).collect(Collectors.joining(USER_ID_SEPARATOR)));
+    }
+
+    /**
+     * Refreshes a ban changed on another node.
+     * Bans changed on this node are received as well and refreshed a second time, which is harmless.
+     *
+     * @param message the message carrying the key of the changed ban
+     * @param pattern the pattern matching the channel, unused as the channel is subscribed by name
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        refresh(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Refreshes a ban on this node and notifies the other nodes.
+     * If the notification fails, the other nodes pick the change up with their next reload.
+     *
+     * @param key the key of the changed ban
+     */
+    private void invalidate(String key) {
+        refresh(key);
+        try {
+            redisService.publish(BAN_INVALIDATION_CHANNEL, key);
+        } catch (RuntimeException e) {
+            log.warn("Failed to notify other nodes of changed ban {}", key, e);
+        }
+    }
+
+    /**
+     * Reads a ban from the database and updates the cache.
+     *
+     * @param key the key of the ban, e.g. ip:1.2.3.4, ip:10.0.0.0/8, user:42 or user:42,43,44
+     */
+    void refresh(String key) {
+        refreshedDuringReload.add(key);
+        if (key.startsWith(IP_KEY_PREFIX)) {
+            IpRange range;
+            try {
+                range = IpRange.parse(key.substring(IP_KEY_PREFIX.length()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed ban key {}", key);
+                return;
+            }
+            Optional<BannedIp> bannedIp = bannedIpRepository.findByIpAddress(range.toString())
+                    .filter(ban -> ban.getExpiresAt() == null || ban.getExpiresAt().isAfter(LocalDateTime.now()));
+            if (bannedIp.isPresent()) ipBans.put(range, expiryOf(bannedIp.get()));
+            else ipBans.remove(range);
+        } else if (key.startsWith(USER_KEY_PREFIX)) {
+            List<Long> userIds;
+            try {
+                userIds = Arrays.stream(key.substring(USER_KEY_PREFIX.length()).split(USER_ID_SEPARATOR))
+                        .map(Long::valueOf)
+                        .toList();
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed ban key {}", key);
+                return;
+            }
+            Map<Long, User> users = new HashMap<>();
+            for (User user : userRepository.findAllById(userIds)) users.put(user.getId(), user);
+            for (Long userId : userIds) {
+                User user = users.get(userId);
+                if (user != null && (Boolean.TRUE.equals(user.getIsBanned()) || Boolean.TRUE.equals(user.getIsPendingIpBan())))
+                    userBans.put(userId, UserBan.of(user));
+                else userBans.remove(userId);
+            }
+        } else {
+            log.warn("Ignoring malformed ban key {}", key);
+        }
+    }
+
+    private static LocalDateTime expiryOf(BannedIp bannedIp) {
+        return bannedIp.getExpiresAt() == null ? PERMANENT : bannedIp.getExpiresAt();
+    }
+
+    /**
+     * The ban of a user, as far as ban checks need it.
+     *
+     * @param banned         whether the user is banned, regardless of the expiry
+     * @param banReason      the reason of the ban
+     * @param banExpiresAt   the time the ban expires, or null if it is permanent
+     * @param pendingIpBan   whether the IP address of the user is to be banned on their next request
+     * @param ipBanReason    the reason of the pending IP ban
+     * @param ipBanExpiresAt the time the pending IP ban expires, or null if it is permanent
+     */
+    public record UserBan(boolean banned, String banReason, LocalDateTime banExpiresAt,
+                          boolean pendingIpBan, String ipBanReason, LocalDateTime ipBanExpiresAt) {
+        /**
+         * Creates the ban of a user from its entity.
+         *
+         * @param user the user
+         * @return the ban of the user
+         */
+        static UserBan of(User user) {
+            return new UserBan(Boolean.TRUE.equals(user.getIsBanned()), user.getBanReason(), user.getBanExpiresAt(),
+                    Boolean.TRUE.equals(user.getIsPendingIpBan()), user.getIpBanReason(), user.getIpBanExpiresAt());
+        }
+
+        /**
+         * Checks if the user is banned and the ban has not expired.
+         *
+         * @return true if the user is currently banned
+         */
+        public boolean isCurrentlyBanned() {
+            return banned && (banExpiresAt == null || LocalDateTime.now().isBefore(banExpiresAt));
+        }
+    }
+}
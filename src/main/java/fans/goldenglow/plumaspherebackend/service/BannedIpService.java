@@ -1,9 +1,13 @@
 package fans.goldenglow.plumaspherebackend.service;
 
+import fans.goldenglow.plumaspherebackend.annotation.ExclusiveJob;
 import fans.goldenglow.plumaspherebackend.entity.BannedIp;
+import fans.goldenglow.plumaspherebackend.event.IpBanChangedEvent;
 import fans.goldenglow.plumaspherebackend.repository.BannedIpRepository;
+import fans.goldenglow.plumaspherebackend.util.IpRange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -16,76 +20,106 @@ import java.util.List;
 /**
  * Service for managing banned IP addresses.
  * Provides methods to ban, unban, check if an IP is banned, and clean up expired bans.
+ * Bans cover a single IP address or a range in CIDR notation, e.g. {@code 192.168.1.0/24} or {@code 2001:db8::/64},
+ * and are stored in canonical form, see {@link IpRange}.
+ * Ban checks are answered by the {@link BanCacheService}, which is refreshed after every change.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BannedIpService {
     private final BannedIpRepository bannedIpRepository;
+    private final BanCacheService banCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JobLockService jobLockService;
 
     /**
-     * Checks if the given IP address is currently banned.
+     * Checks if the given IP address is currently banned, by itself or by a banned range containing it.
      *
      * @param ipAddress the IP address to check
      * @return true if the IP is banned, false otherwise
      */
-    @Transactional(readOnly = true)
     public boolean isIpBanned(String ipAddress) {
-        return bannedIpRepository.existsByIpAddressAndExpiresAtAfter(ipAddress, LocalDateTime.now());
+        return banCacheService.isIpBanned(ipAddress);
     }
 
     /**
-     * Bans an IP address permanently with a reason.
+     * Bans an IP address or range permanently with a reason.
      *
-     * @param ipAddress the IP address to ban
+     * @param ipAddress the IP address or range to ban
      * @param reason    the reason for the ban
+     * @throws IllegalArgumentException if the IP address or range is malformed
      */
     @Transactional
     public void banIp(String ipAddress, String reason) {
-        if (isIpBanned(ipAddress)) {
+        ipAddress = IpRange.parse(ipAddress).toString();
+        if (bannedIpRepository.existsActiveByIpAddress(ipAddress, LocalDateTime.now())) {
             return;
         }
 
-        BannedIp bannedIp = new BannedIp(ipAddress, reason);
-        bannedIpRepository.save(bannedIp);
+        saveBan(ipAddress, reason, null);
         log.info("IP {} banned permanently. Reason: {}.",
                 ipAddress, reason);
     }
 
     /**
-     * Bans an IP address temporarily with a reason and expiration time.
+     * Bans an IP address or range temporarily with a reason and expiration time.
      *
-     * @param ipAddress the IP address to ban
+     * @param ipAddress the IP address or range to ban
      * @param reason the reason for the ban
      * @param expiresAt the time when the ban expires
+     * @throws IllegalArgumentException if the IP address or range is malformed
      */
     @Transactional
     public void banIpTemporary(String ipAddress, String reason, LocalDateTime expiresAt) {
-        if (isIpBanned(ipAddress)) {
+        ipAddress = IpRange.parse(ipAddress).toString();
+        if (bannedIpRepository.existsActiveByIpAddress(ipAddress, LocalDateTime.now())) {
             return;
         }
 
-        BannedIp bannedIp = new BannedIp(ipAddress, reason, expiresAt);
-        bannedIpRepository.save(bannedIp);
+        saveBan(ipAddress, reason, expiresAt);
         log.info("IP {} banned temporarily until {}. Reason: {}.",
                 ipAddress, expiresAt, reason);
     }
 
     /**
-     * Unbans an IP address if it is currently banned.
+     * Unbans an IP address or range if it is currently banned.
+     * Only the ban of exactly this address or range is lifted; bans of ranges containing it are kept.
      *
-     * @param ipAddress the IP address to unban
+     * @param ipAddress the IP address or range to unban
      */
     @Transactional
     public void unbanIp(String ipAddress) {
+        try {
+            ipAddress = IpRange.parse(ipAddress).toString();
+        } catch (IllegalArgumentException e) {
+            // Bans stored before addresses were validated are removed as they are
+        }
         if (!bannedIpRepository.existsByIpAddress(ipAddress)) {
             return;
         }
 
         bannedIpRepository.deleteByIpAddress(ipAddress);
+        eventPublisher.publishEvent(new IpBanChangedEvent(ipAddress));
         log.info("IP {} has been unbanned", ipAddress);
     }
 
+    /**
+     * Saves the ban of an IP address, reusing the row of an expired ban that was not cleaned up yet.
+     *
+     * @param ipAddress the IP address to ban
+     * @param reason    the reason for the ban
+     * @param expiresAt the time when the ban expires, or null for a permanent ban
+     */
+    private void saveBan(String ipAddress, String reason, LocalDateTime expiresAt) {
+        BannedIp bannedIp = bannedIpRepository.findByIpAddress(ipAddress)
+                .orElseGet(() -> new BannedIp(ipAddress, reason));
+        bannedIp.setReason(reason);
+        bannedIp.setExpiresAt(expiresAt);
+        bannedIpRepository.save(bannedIp);
+        eventPublisher.publishEvent(new IpBanChangedEvent(ipAddress));
+    }
+
     /**
      * Retrieves a paginated list of all banned IP addresses.
      *
@@ -109,11 +143,18 @@ public class BannedIpService {
 
     /**
      * Cleans up expired IP bans by deleting all entries that have expired.
-     * This method is scheduled to run every hour.
+     * This method is scheduled to run every hour, on only one node of the cluster, and deletes nothing if its
+     * lease was lost before the transaction started.
      */
     @Scheduled(fixedRate = 3600000)
+    @ExclusiveJob(name = "banned-ip-cleanup", interval = "3600000")
     @Transactional
     public void cleanupExpiredBans() {
+        // Checked once the transaction started, as waiting for a connection may outlast the lease
+        if (!jobLockService.holdsCurrentLease()) {
+            log.warn("Lost lease of IP ban cleanup, leaving it to the node holding it");
+            return;
+        }
         bannedIpRepository.deleteAllByExpiresAtBefore(LocalDateTime.now());
         log.debug("Cleaned up expired IP bans");
     }
@@ -0,0 +1,251 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.BulkModerationProperties;
+import fans.goldenglow.plumaspherebackend.constant.BulkModerationAction;
+import fans.goldenglow.plumaspherebackend.constant.UserRoles;
+import fans.goldenglow.plumaspherebackend.dto.BulkModerationJobDto;
+import fans.goldenglow.plumaspherebackend.dto.BulkModerationRequestDto;
+import fans.goldenglow.plumaspherebackend.event.UserBansChangedEvent;
+import fans.goldenglow.plumaspherebackend.repository.UserRepository;
+import fans.goldenglow.plumaspherebackend.util.JsonUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.BULK_MODERATION_JOB_PREFIX;
+
+/**
+ * Service for banning, unbanning, marking, unmarking and deleting many users at once.
+ * Jobs run one after another on a single background thread. The selected users are processed in chunks,
+ * each applied with one set-based statement in its own transaction, so a job of thousands of users costs
+ * a few dozen queries and never holds a long transaction. The progress of each job is kept in Redis,
+ * so it can be polled from any node.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkModerationService {
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisService redisService;
+    private final LikeCacheService likeCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BulkModerationProperties properties;
+    private ThreadPoolTaskExecutor executor;
+
+    /**
+     * Initializes the single-threaded executor running the jobs.
+     * This method is called after the bean is constructed.
+     */
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("bulk-moderation-");
+        executor.initialize();
+    }
+
+    /**
+     * Shuts down the executor, interrupting the running job after its current chunk.
+     * Chunks committed before stay applied, and the job is reported as failed.
+     */
+    @PreDestroy
+    void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Submits a job applying an action to the users selected by a request.
+     *
+     * @param action  the action to apply
+     * @param request the selection of users and the reason and expiration time of bans and IP ban marks
+     * @return the ID of the queued job, to poll its progress with {@link #getJob(String)}
+     * @throws IllegalArgumentException if the request selects no users or lacks a reason for a ban or IP ban mark
+     * @throws IllegalStateException    if too many jobs are already waiting
+     */
+    public String submit(BulkModerationAction action, BulkModerationRequestDto request) {
+        validate(action, request);
+
+        BulkModerationJobDto job = new BulkModerationJobDto();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setAction(action);
+        job.setStatus(BulkModerationJobDto.Status.QUEUED);
+        job.setCreatedAt(ZonedDateTime.now());
+        save(job);
+
+        try {
+            executor.execute(() -> run(job, request));
+        } catch (TaskRejectedException e) {
+            redisService.delete(BULK_MODERATION_JOB_PREFIX + job.getJobId());
+            throw new IllegalStateException("Too many bulk moderation jobs are waiting, try again later");
+        }
+        log.info("Queued bulk moderation job {} to {} users", job.getJobId(), action);
+        return job.getJobId();
+    }
+
+    /**
+     * Retrieves the progress of a job.
+     *
+     * @param jobId the ID of the job
+     * @return the job, or empty if it does not exist or finished longer ago than the configured retention
+     */
+    public Optional<BulkModerationJobDto> getJob(String jobId) {
+        return Optional.ofNullable(redisService.get(BULK_MODERATION_JOB_PREFIX + jobId))
+                .map(json -> JsonUtil.fromJson(json, BulkModerationJobDto.class));
+    }
+
+    /**
+     * Runs a job, processing the selected users chunk by chunk and recording the progress after each chunk.
+     * Users selected by a filter are read by ascending ID from after the last processed one,
+     * so each chunk costs one indexed read regardless of how far the job has progressed.
+     *
+     * @param job     the job
+     * @param request the request of the job
+     */
+    void run(BulkModerationJobDto job, BulkModerationRequestDto request) {
+        job.setStatus(BulkModerationJobDto.Status.RUNNING);
+        try {
+            if (request.getUserIds() != null && !request.getUserIds().isEmpty()) {
+                List<Long> userIds = request.getUserIds().stream().distinct().sorted().toList();
+                job.setTotal(userIds.size());
+                save(job);
+                for (int from = 0; from < userIds.size(); from += properties.getChunkSize()) {
+                    List<Long> chunk = userIds.subList(from, Math.min(from + properties.getChunkSize(), userIds.size()));
+                    applyChunk(job, request, chunk);
+                }
+            } else {
+                LocalDateTime createdAfter = toLocalDateTime(request.getCreatedAfter());
+                LocalDateTime createdBefore = request.getCreatedBefore() != null
+                        ? toLocalDateTime(request.getCreatedBefore()) : LocalDateTime.now();
+                boolean withoutPosts = Boolean.TRUE.equals(request.getWithoutPosts());
+                job.setTotal(userRepository.countForModeration(createdAfter, createdBefore, withoutPosts, UserRoles.ADMIN));
+                save(job);
+                long afterId = Long.MIN_VALUE;
+                List<Long> chunk;
+                while (!(chunk = userRepository.findIdsForModeration(createdAfter, createdBefore, withoutPosts,
+                        UserRoles.ADMIN, afterId, PageRequest.of(0, properties.getChunkSize()))).isEmpty()) {
+                    applyChunk(job, request, chunk);
+                    afterId = chunk.getLast();
+                }
+            }
+            job.setStatus(BulkModerationJobDto.Status.COMPLETED);
+            log.info("Bulk moderation job {} to {} users affected {} of {} users",
+                    job.getJobId(), job.getAction(), job.getAffected(), job.getProcessed());
+        } catch (RuntimeException e) {
+            job.setStatus(BulkModerationJobDto.Status.FAILED);
+            job.setError(e.getMessage());
+            log.error("Bulk moderation job {} failed after {} users", job.getJobId(), job.getProcessed(), e);
+        }
+        job.setFinishedAt(ZonedDateTime.now());
+        save(job);
+    }
+
+    /**
+     * Applies the action of a job to a chunk of users in one transaction and records the progress.
+     * The users are announced in a {@link UserBansChangedEvent}, so their cached bans are refreshed once
+     * the transaction commits.
+     *
+     * @param job     the job
+     * @param request the request of the job
+     * @param userIds the IDs of the users in the chunk
+     * @throws IllegalStateException if the job was interrupted by a shutdown
+     */
+    private void applyChunk(BulkModerationJobDto job, BulkModerationRequestDto request, List<Long> userIds) {
+        if (Thread.currentThread().isInterrupted()) throw new IllegalStateException("Interrupted by shutdown");
+        Integer affected = transactionTemplate.execute(status -> {
+            int count = apply(job.getAction(), request, userIds);
+            eventPublisher.publishEvent(new UserBansChangedEvent(userIds));
+            return count;
+        });
+        job.setProcessed(job.getProcessed() + userIds.size());
+        job.setAffected(job.getAffected() + (affected != null ? affected : 0));
+        save(job);
+    }
+
+    /**
+     * Applies an action to a set of users with a single statement.
+     * Users are only deleted if they have no posts, comments or likes, including likes cached in Redis and not
+     * synced to the database yet, which would otherwise keep the ID of the deleted user.
+     *
+     * @param action  the action
+     * @param request the request carrying the reason and expiration time
+     * @param userIds the IDs of the users
+     * @return the number of users changed or deleted
+     */
+    private int apply(BulkModerationAction action, BulkModerationRequestDto request, List<Long> userIds) {
+        LocalDateTime expiresAt = toLocalDateTime(request.getExpiresAt());
+        return switch (action) {
+            case BAN -> userRepository.banByIdIn(userIds, request.getReason(), LocalDateTime.now(), expiresAt, UserRoles.ADMIN);
+            case UNBAN -> userRepository.unbanByIdIn(userIds);
+            case MARK_IP_BAN -> userRepository.markForIpBanByIdIn(userIds, request.getReason(), expiresAt, UserRoles.ADMIN);
+            case UNMARK_IP_BAN -> userRepository.clearIpBanMarkByIdIn(userIds);
+            case DELETE -> deleteWithoutContent(userIds);
+        };
+    }
+
+    /**
+     * Deletes the users that have no posts, comments or likes.
+     *
+     * @param userIds the IDs of the users
+     * @return the number of users deleted
+     */
+    private int deleteWithoutContent(List<Long> userIds) {
+        Set<Long> withUnsyncedLikes = likeCacheService.findUsersWithUnsyncedLikes(userIds);
+        List<Long> deletable = userIds.stream().filter(id -> !withUnsyncedLikes.contains(id)).toList();
+        if (deletable.isEmpty()) return 0;
+        return userRepository.deleteWithoutContentByIdIn(deletable, UserRoles.ADMIN);
+    }
+
+    /**
+     * Validates that a request selects users and carries what its action needs.
+     *
+     * @param action  the action
+     * @param request the request
+     * @throws IllegalArgumentException if the request is invalid
+     */
+    private static void validate(BulkModerationAction action, BulkModerationRequestDto request) {
+        boolean hasUserIds = request.getUserIds() != null && !request.getUserIds().isEmpty();
+        if (!hasUserIds && request.getCreatedAfter() == null)
+            throw new IllegalArgumentException("Either user IDs or a creation time filter must be given");
+        if ((action == BulkModerationAction.BAN || action == BulkModerationAction.MARK_IP_BAN)
+                && (request.getReason() == null || request.getReason().isBlank()))
+            throw new IllegalArgumentException("A reason must be given");
+    }
+
+    /**
+     * Stores the progress of a job in Redis, expiring after the configured retention.
+     * Failures are logged rather than thrown, as the progress is informational and must not abort the job.
+     *
+     * @param job the job
+     */
+    private void save(BulkModerationJobDto job) {
+        try {
+            redisService.set(BULK_MODERATION_JOB_PREFIX + job.getJobId(), JsonUtil.toJson(job),
+                    Duration.ofMillis(properties.getJobRetention()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to record progress of bulk moderation job {}", job.getJobId(), e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(ZonedDateTime dateTime) {
+        return dateTime != null ? dateTime.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime() : null;
+    }
+}
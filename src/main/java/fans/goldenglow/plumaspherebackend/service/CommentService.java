@@ -34,6 +34,17 @@ public class CommentService {
         return commentRepository.findById(id);
     }
 
+    /**
+     * Checks whether a comment exists.
+     *
+     * @param id the ID of the comment
+     * @return true if the comment exists, false otherwise
+     */
+    @Transactional(readOnly = true)
+    public boolean existsById(Long id) {
+        return commentRepository.existsById(id);
+    }
+
     /**
      * Finds comments associated with a specific post ID.
      *
@@ -80,6 +91,17 @@ public class CommentService {
         return commentRepository.countByPostId(postId);
     }
 
+    /**
+     * Counts the number of replies to a specific parent comment ID.
+     *
+     * @param parentCommentId the ID of the parent comment
+     * @return the number of replies to the specified comment
+     */
+    @Transactional(readOnly = true)
+    public long countByParentCommentId(Long parentCommentId) {
+        return commentRepository.countByParentCommentId(parentCommentId);
+    }
+
     /**
      * Finds the post ID associated with a specific comment ID.
      *
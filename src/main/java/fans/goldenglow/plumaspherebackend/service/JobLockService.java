@@ -0,0 +1,180 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.JOB_FENCE_PREFIX;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.JOB_LOCK_PREFIX;
+
+/**
+ * Service for leasing scheduled jobs in Redis, so each job runs on only one node at a time.
+ * A lease expires by itself if its node dies, and every lease gets a fencing token that is higher than the
+ * token of any earlier lease of the same job. Jobs check their lease with {@link #isHeld(Lease)}, or
+ * {@link #holdsCurrentLease()} when run through {@link #runExclusively}, before each write, so a job that ran
+ * longer than its lease finds out that another node took over and stops instead of repeating its work.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobLockService {
+    /*
+     * Takes the lease if it is free and issues the next fencing token.
+     * KEYS: lease, fence counter; ARGV: lease ID, lease time in milliseconds
+     * Returns the fencing token, or 0 if the lease is held by someone else.
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = RedisScript.of("""
+            if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+                return redis.call('INCR', KEYS[2])
+            end
+            return 0
+            """, Long.class);
+
+    /*
+     * Checks that the lease is still held under the given ID and no later lease was issued.
+     * KEYS: lease, fence counter; ARGV: lease ID, fencing token
+     */
+    private static final RedisScript<Long> HOLDS_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] and redis.call('GET', KEYS[2]) == ARGV[2] then
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    /*
+     * Releases the lease if it is still held under the given ID, keeping it for the given time if positive.
+     * KEYS: lease; ARGV: lease ID, time to keep the lease in milliseconds
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+                return 0
+            end
+            if tonumber(ARGV[2]) > 0 then
+                return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    // Lease of the job running on the current thread through runExclusively
+    private static final ThreadLocal<Lease> CURRENT_LEASE = new ThreadLocal<>();
+
+    private final RedisService redisService;
+
+    /**
+     * Tries to take the lease of a job.
+     *
+     * @param jobName   the name of the job
+     * @param leaseTime the time after which the lease expires unless released before
+     * @return the lease, or empty if another node holds it
+     */
+    public Optional<Lease> tryAcquire(String jobName, Duration leaseTime) {
+        String leaseId = UUID.randomUUID().toString();
+        Long token = redisService.execute(ACQUIRE_SCRIPT, keys(jobName), leaseId, String.valueOf(leaseTime.toMillis()));
+        if (token == null || token == 0) return Optional.empty();
+        return Optional.of(new Lease(jobName, leaseId, token, System.nanoTime()));
+    }
+
+    /**
+     * Checks that a lease has neither expired nor been superseded by a later lease.
+     *
+     * @param lease the lease
+     * @return true if the lease is still held
+     */
+    public boolean isHeld(Lease lease) {
+        Long held = redisService.execute(HOLDS_SCRIPT, keys(lease.jobName()), lease.leaseId(), String.valueOf(lease.token()));
+        return held != null && held == 1;
+    }
+
+    /**
+     * Checks that the job running on the current thread still holds its lease.
+     * Code not run through {@link #runExclusively} holds no lease and is never stopped. If Redis is unavailable,
+     * the lease cannot be confirmed and is treated as lost.
+     *
+     * @return true if no job runs on the current thread or its lease is still held
+     */
+    public boolean holdsCurrentLease() {
+        Lease lease = CURRENT_LEASE.get();
+        if (lease == null) return true;
+        try {
+            return isHeld(lease);
+        } catch (RuntimeException e) {
+            log.warn("Failed to check lease of job {}, treating it as lost", lease.jobName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Releases a lease, keeping it until a minimum time since it was taken has passed.
+     * A lease that expired or was taken over in the meantime is left untouched.
+     *
+     * @param lease    the lease
+     * @param holdTime the minimum time the lease is held since it was taken
+     */
+    public void release(Lease lease, Duration holdTime) {
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - lease.acquiredAt()).toMillis();
+        long remainingMillis = holdTime.toMillis() - elapsedMillis;
+        redisService.execute(RELEASE_SCRIPT, List.of(JOB_LOCK_PREFIX + lease.jobName()), lease.leaseId(),
+                String.valueOf(Math.max(remainingMillis, 0)));
+    }
+
+    /**
+     * Runs a job if its lease can be taken, then releases the lease.
+     * While the job runs, its lease is the current lease of the thread, see {@link #holdsCurrentLease()}.
+     * The job is skipped if another node holds the lease or Redis is unavailable,
+     * as running it on every node at once is what the lease is there to prevent.
+     *
+     * @param jobName   the name of the job
+     * @param holdTime  the minimum time the lease is held, so other nodes skip the job until then
+     * @param leaseTime the time after which the lease expires if the job does not finish
+     * @param job       the job, receiving its lease
+     * @return true if the job ran, false if it was skipped
+     */
+    public boolean runExclusively(String jobName, Duration holdTime, Duration leaseTime, Consumer<Lease> job) {
+        Optional<Lease> lease;
+        try {
+            lease = tryAcquire(jobName, leaseTime);
+        } catch (RuntimeException e) {
+            log.warn("Skipping job {} as its lease could not be taken", jobName, e);
+            return false;
+        }
+        if (lease.isEmpty()) {
+            log.debug("Skipping job {} as another node holds its lease", jobName);
+            return false;
+        }
+
+        CURRENT_LEASE.set(lease.get());
+        try {
+            job.accept(lease.get());
+        } finally {
+            CURRENT_LEASE.remove();
+            try {
+                release(lease.get(), holdTime);
+            } catch (RuntimeException e) {
+                log.warn("Failed to release lease of job {}, it expires by itself", jobName, e);
+            }
+        }
+        return true;
+    }
+
+    private static List<String> keys(String jobName) {
+        return List.of(JOB_LOCK_PREFIX + jobName, JOB_FENCE_PREFIX + jobName);
+    }
+
+    /**
+     * The lease of a job held by this node.
+     *
+     * @param jobName    the name of the job
+     * @param leaseId    the random ID identifying this lease in Redis
+     * @param token      the fencing token, higher than the token of any earlier lease of the job
+     * @param acquiredAt the value of {@link System#nanoTime()} when the lease was taken
+     */
+    public record Lease(String jobName, String leaseId, long token, long acquiredAt) {
+    }
+}
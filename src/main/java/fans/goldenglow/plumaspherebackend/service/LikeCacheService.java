@@ -1,38 +1,38 @@
 package fans.goldenglow.plumaspherebackend.service;
 
-import fans.goldenglow.plumaspherebackend.entity.Comment;
-import fans.goldenglow.plumaspherebackend.entity.Post;
+import fans.goldenglow.plumaspherebackend.config.LikeSyncProperties;
 import fans.goldenglow.plumaspherebackend.entity.User;
-import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.HashSet;
-import java.util.Optional;
 import java.util.Set;
-import java.util.function.BiConsumer;
-import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.COMMENT_LIKES_DIRTY_PREFIX;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.COMMENT_LIKES_DRAINING_PREFIX;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.COMMENT_LIKES_LOADED_KEY;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.COMMENT_LIKES_PREFIX;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.POST_LIKES_DIRTY_PREFIX;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.POST_LIKES_DRAINING_PREFIX;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.POST_LIKES_LOADED_KEY;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.POST_LIKES_PREFIX;
+
 /**
  * Service for managing likes on posts and comments, including caching likes in Redis.
- * Provides methods to get, switch, and check likes, as well as syncing likes with the database.
+ * Provides methods to get, switch, and check likes; the likes are written back to the database by {@link LikeSyncService}.
+ * Every switched like records its post or comment as dirty, so the sync only touches what changed since the last one.
  */
 @Service
 @RequiredArgsConstructor
 public class LikeCacheService {
-    // Redis keys for storing likes
-    private static final String POST_LIKES_KEY = "post:like:";
-    private static final String COMMENT_LIKES_KEY = "comment:like:";
-    private static final String POST_LIKES_LOADED = "post:likes:loaded";
-    private static final String COMMENT_LIKES_LOADED = "comment:likes:loaded";
-
     private final RedisService redisService;
     private final PostService postService;
     private final CommentService commentService;
     private final UserService userService;
+    private final LikeSyncProperties likeSyncProperties;
 
     /**
      * Retrieves the set of user IDs who liked a post.
@@ -43,11 +43,11 @@ public class LikeCacheService {
      */
     @Transactional(readOnly = true)
     public Set<Long> getPostLikes(Long postId) {
-        if (!redisService.existsInSet(POST_LIKES_LOADED, postId.toString())) {
+        if (!redisService.existsInSet(POST_LIKES_LOADED_KEY, postId.toString())) {
             return loadPostLikesToRedis(postId);
         }
 
-        String key = POST_LIKES_KEY + postId;
+        String key = POST_LIKES_PREFIX + postId;
         return stringSetToLongSet(redisService.getSetMembers(key));
     }
 
@@ -60,11 +60,11 @@ public class LikeCacheService {
      */
     @Transactional(readOnly = true)
     public Set<Long> getCommentLikes(Long commentId) {
-        if (!redisService.existsInSet(COMMENT_LIKES_LOADED, commentId.toString())) {
+        if (!redisService.existsInSet(COMMENT_LIKES_LOADED_KEY, commentId.toString())) {
             return loadCommentLikesToRedis(commentId);
         }
 
-        String key = COMMENT_LIKES_KEY + commentId;
+        String key = COMMENT_LIKES_PREFIX + commentId;
         return stringSetToLongSet(redisService.getSetMembers(key));
     }
 
@@ -77,11 +77,11 @@ public class LikeCacheService {
      */
     @Transactional(readOnly = true)
     public long getPostLikesCount(Long postId) {
-        if (!redisService.existsInSet(POST_LIKES_LOADED, postId.toString())) {
+        if (!redisService.existsInSet(POST_LIKES_LOADED_KEY, postId.toString())) {
             return loadPostLikesToRedis(postId).size();
         }
 
-        String key = POST_LIKES_KEY + postId;
+        String key = POST_LIKES_PREFIX + postId;
         Long count = redisService.getSetSize(key);
         return count != null ? count : 0L;
     }
@@ -95,11 +95,11 @@ public class LikeCacheService {
      */
     @Transactional(readOnly = true)
     public long getCommentLikesCount(Long commentId) {
-        if (!redisService.existsInSet(COMMENT_LIKES_LOADED, commentId.toString())) {
+        if (!redisService.existsInSet(COMMENT_LIKES_LOADED_KEY, commentId.toString())) {
             return loadCommentLikesToRedis(commentId).size();
         }
 
-        String key = COMMENT_LIKES_KEY + commentId;
+        String key = COMMENT_LIKES_PREFIX + commentId;
         Long count = redisService.getSetSize(key);
         return count != null ? count : 0L;
     }
@@ -119,6 +119,7 @@ public class LikeCacheService {
     /**
      * Switches the like status of a post for a user.
      * If the user has already liked the post, it removes the like; otherwise, it adds the like.
+     * The post is then recorded as dirty for the next sync.
      *
      * @param postId the ID of the post
      * @param userId the ID of the user
@@ -126,17 +127,19 @@ public class LikeCacheService {
     public void switchPostLike(Long postId, Long userId) {
         ensurePostLikesLoaded(postId);
 
-        String key = POST_LIKES_KEY + postId;
+        String key = POST_LIKES_PREFIX + postId;
         if (redisService.existsInSet(key, userId.toString())) {
             redisService.removeFromSet(key, userId.toString());
         } else {
             redisService.addToSet(key, userId.toString());
         }
+        markDirty(POST_LIKES_DIRTY_PREFIX, postId);
     }
 
     /**
      * Switches the like status of a comment for a user.
      * If the user has already liked the comment, it removes the like; otherwise, it adds the like.
+     * The comment is then recorded as dirty for the next sync.
      *
      * @param commentId the ID of the comment
      * @param userId    the ID of the user
@@ -145,12 +148,62 @@ public class LikeCacheService {
     public void switchCommentLike(Long commentId, Long userId) {
         ensureCommentLikesLoaded(commentId);
 
-        String key = COMMENT_LIKES_KEY + commentId;
+        String key = COMMENT_LIKES_PREFIX + commentId;
         if (redisService.existsInSet(key, userId.toString())) {
             redisService.removeFromSet(key, userId.toString());
         } else {
             redisService.addToSet(key, userId.toString());
         }
+        markDirty(COMMENT_LIKES_DIRTY_PREFIX, commentId);
+    }
+
+    /**
+     * Records a post or comment as dirty in the set of its sync shard.
+     * This is done after the like changed, so a sync draining the set in between still reads the change.
+     *
+     * @param prefix the prefix of the dirty sets of posts or comments
+     * @param id     the ID of the post or comment
+     */
+    private void markDirty(String prefix, Long id) {
+        redisService.addToSet(prefix + LikeSyncService.shardOf(id, likeSyncProperties.getShards()), id.toString());
+    }
+
+    /**
+     * Finds the users among the given ones who liked a post or comment whose likes have not been synced to the
+     * database yet. Such likes are only in Redis, so the database does not show these users as having liked anything.
+     * Only the like sets of the posts and comments recorded as dirty or being drained are read.
+     *
+     * @param userIds the IDs of the users to look for
+     * @return the IDs of the users with likes not synced yet
+     */
+    public Set<Long> findUsersWithUnsyncedLikes(Collection<Long> userIds) {
+        Set<String> candidates = userIds.stream().map(String::valueOf).collect(Collectors.toSet());
+        Set<Long> found = new HashSet<>();
+        for (int shard = 0; shard < likeSyncProperties.getShards(); shard++) {
+            collectLikers(POST_LIKES_PREFIX, POST_LIKES_DIRTY_PREFIX + shard, candidates, found);
+            collectLikers(POST_LIKES_PREFIX, POST_LIKES_DRAINING_PREFIX + shard, candidates, found);
+            collectLikers(COMMENT_LIKES_PREFIX, COMMENT_LIKES_DIRTY_PREFIX + shard, candidates, found);
+            collectLikers(COMMENT_LIKES_PREFIX, COMMENT_LIKES_DRAINING_PREFIX + shard, candidates, found);
+        }
+        return found;
+    }
+
+    /**
+     * Collects the users among the candidates who liked any of the posts or comments in a set.
+     *
+     * @param likesPrefix the prefix of the like sets of posts or comments
+     * @param idsKey      the key of the set of IDs of the posts or comments
+     * @param candidates  the IDs of the users to look for
+     * @param found       the IDs of the users found, added to
+     */
+    private void collectLikers(String likesPrefix, String idsKey, Set<String> candidates, Set<Long> found) {
+        Set<String> ids = redisService.getSetMembers(idsKey);
+        if (ids == null) return;
+        for (String id : ids) {
+            Set<String> likers = redisService.getSetMembers(likesPrefix + id);
+            if (likers == null) continue;
+            likers.stream().filter(candidates::contains).map(Long::valueOf).forEach(found::add);
+        }
     }
 
     /**
@@ -164,7 +217,7 @@ public class LikeCacheService {
     public boolean isPostLiked(Long postId, Long userId) {
         ensurePostLikesLoaded(postId);
 
-        String key = POST_LIKES_KEY + postId;
+        String key = POST_LIKES_PREFIX + postId;
         return redisService.existsInSet(key, userId.toString());
     }
 
@@ -180,7 +233,7 @@ public class LikeCacheService {
     public boolean isCommentLiked(Long commentId, Long userId) {
         ensureCommentLikesLoaded(commentId);
 
-        String key = COMMENT_LIKES_KEY + commentId;
+        String key = COMMENT_LIKES_PREFIX + commentId;
         return redisService.existsInSet(key, userId.toString());
     }
 
@@ -192,9 +245,9 @@ public class LikeCacheService {
      * @return a set of user IDs who liked the post
      */
     private Set<Long> loadPostLikesToRedis(Long postId) {
-        redisService.addToSet(POST_LIKES_LOADED, postId.toString());
+        redisService.addToSet(POST_LIKES_LOADED_KEY, postId.toString());
 
-        String key = POST_LIKES_KEY + postId;
+        String key = POST_LIKES_PREFIX + postId;
         return postService.findById(postId)
                 .map(post -> saveUsersToRedis(key, post.getLikedBy()))
                 .orElse(new HashSet<>());
@@ -209,9 +262,9 @@ public class LikeCacheService {
      */
     @Transactional(readOnly = true)
     protected Set<Long> loadCommentLikesToRedis(Long commentId) {
-        redisService.addToSet(COMMENT_LIKES_LOADED, commentId.toString());
+        redisService.addToSet(COMMENT_LIKES_LOADED_KEY, commentId.toString());
 
-        String key = COMMENT_LIKES_KEY + commentId;
+        String key = COMMENT_LIKES_PREFIX + commentId;
         return commentService.findById(commentId)
                 .map(comment -> saveUsersToRedis(key, comment.getLikedBy()))
                 .orElse(new HashSet<>());
@@ -224,7 +277,7 @@ public class LikeCacheService {
      * @param postId the ID of the post
      */
     private void ensurePostLikesLoaded(Long postId) {
-        if (!redisService.existsInSet(POST_LIKES_LOADED, postId.toString())) {
+        if (!redisService.existsInSet(POST_LIKES_LOADED_KEY, postId.toString())) {
             loadPostLikesToRedis(postId);
         }
     }
@@ -237,7 +290,7 @@ public class LikeCacheService {
      */
     @Transactional(readOnly = true)
     protected void ensureCommentLikesLoaded(Long commentId) {
-        if (!redisService.existsInSet(COMMENT_LIKES_LOADED, commentId.toString())) {
+        if (!redisService.existsInSet(COMMENT_LIKES_LOADED_KEY, commentId.toString())) {
             loadCommentLikesToRedis(commentId);
         }
     }
@@ -258,79 +311,4 @@ public class LikeCacheService {
         });
         return userIds;
     }
-
-    /**
-     * Synchronizes likes from Redis to the database at configurable intervals.
-     * This method is scheduled to run periodically to ensure that likes are consistent between Redis and the database.
-     * The sync interval is configurable via config.cache.like_sync_interval in application.yml
-     */
-    @Scheduled(fixedRateString = "${config.cache.like_sync_interval}")
-    @Transactional
-    public void syncLikesToDatabase() {
-        syncPostLikes();
-        syncCommentLikes();
-    }
-
-    /**
-     * Destroys the service by synchronizing likes to the database before shutdown.
-     * This method is called when the application context is closed.
-     */
-    @PreDestroy
-    @Transactional
-    public void destroy() {
-        syncLikesToDatabase();
-    }
-
-    /**
-     * Synchronizes post likes from Redis to the database.
-     * It retrieves all post likes from Redis and updates the corresponding Post entities in the database.
-     */
-    private void syncPostLikes() {
-        Set<String> keys = redisService.getKeys(POST_LIKES_KEY + "*");
-        for (String key : keys) {
-            Long postId = Long.valueOf(key.substring(POST_LIKES_KEY.length()));
-            Set<String> userIds = redisService.getSetMembers(key);
-
-            Optional<Post> post = postService.findById(postId);
-            if (post.isEmpty()) continue;
-
-            updateEntityLikes(post.get(), userIds, Post::setLikedBy, postService::save);
-        }
-    }
-
-    /**
-     * Synchronizes comment likes from Redis to the database.
-     * It retrieves all comment likes from Redis and updates the corresponding Comment entities in the database.
-     */
-    private void syncCommentLikes() {
-        Set<String> keys = redisService.getKeys(COMMENT_LIKES_KEY + "*");
-        for (String key : keys) {
-            Long commentId = Long.valueOf(key.substring(COMMENT_LIKES_KEY.length()));
-            Set<String> userIds = redisService.getSetMembers(key);
-
-            Optional<Comment> comment = commentService.findById(commentId);
-            if (comment.isEmpty()) continue;
-
-            updateEntityLikes(comment.get(), userIds, Comment::setLikedBy, commentService::save);
-        }
-    }
-
-    /**
-     * Updates the likes of a Post or Comment entity based on the provided user IDs.
-     * It sets the likedBy field and saves the entity to the database.
-     *
-     * @param entity           the Post or Comment entity to update
-     * @param userIds          the set of user IDs who liked the entity
-     * @param setLikedByMethod a method reference to set the likedBy field
-     * @param saveMethod       a method reference to save the entity
-     * @param <T>              the type of the entity (Post or Comment)
-     */
-    private <T> void updateEntityLikes(T entity, Set<String> userIds, BiConsumer<T, Set<User>> setLikedByMethod, Consumer<T> saveMethod) {
-        if (userIds != null && !userIds.isEmpty()) {
-            Set<User> users = new HashSet<>();
-            userIds.forEach(userId -> userService.findById(Long.valueOf(userId)).ifPresent(users::add));
-            setLikedByMethod.accept(entity, users);
-            saveMethod.accept(entity);
-        }
-    }
 }
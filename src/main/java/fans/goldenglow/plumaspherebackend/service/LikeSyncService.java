@@ -0,0 +1,433 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.LikeSyncProperties;
+import fans.goldenglow.plumaspherebackend.config.SchedulerProperties;
+import fans.goldenglow.plumaspherebackend.entity.Comment;
+import fans.goldenglow.plumaspherebackend.entity.Post;
+import fans.goldenglow.plumaspherebackend.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.COMMENT_LIKES_DIRTY_PREFIX;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.COMMENT_LIKES_DRAINING_PREFIX;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.COMMENT_LIKES_PREFIX;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.POST_LIKES_DIRTY_PREFIX;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.POST_LIKES_DRAINING_PREFIX;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.POST_LIKES_PREFIX;
+
+/**
+ * Service for writing the likes cached in Redis by {@link LikeCacheService} back to the database.
+ * The posts and comments are split into shards by the hash of their ID, and the shards are synced in parallel
+ * on a bounded pool of worker threads, each in its own short transaction. A shard that fails is retried on its own,
+ * without rolling back or repeating the others. Only the posts and comments recorded as dirty by {@link LikeCacheService}
+ * since the last sync are written, so the cost of a sync grows with the likes switched in the meantime rather than
+ * with the number of cached posts and comments. Each shard is leased separately through {@link JobLockService},
+ * so the shards of one sync are spread over all nodes of the cluster rather than run by a single node.
+ * The time since each shard was last synced is reported in the {@code likes.sync.lag} metric.
+ * <p>
+ * On shutdown, the dirty likes are flushed right after the WebSocket sessions were drained and before the web server
+ * shuts down, waiting at most the configured flush timeout. The flush also leases each shard, reusing the lease this
+ * node still holds from its last sync, so it never writes a shard another node is syncing. Shards leased by other
+ * nodes or not flushed in time keep their IDs in Redis, so they are synced by the other nodes, or by this one once
+ * it is back.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LikeSyncService implements SmartLifecycle {
+    private static final String JOB_NAME_PREFIX = "like-sync:";
+    // Time in milliseconds between two attempts to lease the shards held by other nodes on shutdown
+    private static final long FLUSH_RETRY_INTERVAL = 100;
+
+    /*
+     * Moves the IDs recorded as dirty into the draining set and returns all IDs in the draining set,
+     * including those left there by an earlier sync that did not complete.
+     * KEYS: dirty set, draining set
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                if redis.call('EXISTS', KEYS[2]) == 1 then
+                    redis.call('SUNIONSTORE', KEYS[2], KEYS[2], KEYS[1])
+                    redis.call('DEL', KEYS[1])
+                else
+                    redis.call('RENAME', KEYS[1], KEYS[2])
+                end
+            end
+            return redis.call('SMEMBERS', KEYS[2])
+            """, List.class);
+
+    private final RedisService redisService;
+    private final PostService postService;
+    private final CommentService commentService;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLockService jobLockService;
+    private final SchedulerProperties schedulerProperties;
+    private final LikeSyncProperties properties;
+    private final MeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    // Wall clock time in milliseconds each shard was last synced completely, by shard
+    private AtomicLongArray lastSynced;
+    // Lease each shard was last synced under by this node, kept by other nodes until the hold time passed
+    private AtomicReferenceArray<JobLockService.Lease> lastLeases;
+    private Timer shardTimer;
+    private Counter shardFailures;
+    // Number of shards of the syncs in progress that have not finished yet
+    private final AtomicInteger pendingShards = new AtomicInteger();
+    private volatile boolean running;
+    private volatile boolean flushing;
+
+    // Interval in milliseconds between two syncs
+    @Value("${config.cache.like_sync_interval}")
+    private long LIKE_SYNC_INTERVAL;
+
+    /**
+     * Initializes the worker pool and registers the lag metric of each shard.
+     * This method is called after the bean is constructed.
+     */
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setQueueCapacity(properties.getShards());
+        executor.setThreadNamePrefix("like-sync-");
+        executor.initialize();
+
+        lastSynced = new AtomicLongArray(properties.getShards());
+        lastLeases = new AtomicReferenceArray<>(properties.getShards());
+        long now = System.currentTimeMillis();
+        for (int shard = 0; shard < properties.getShards(); shard++) {
+            lastSynced.set(shard, now);
+            int index = shard;
+            Gauge.builder("likes.sync.lag", () -> (System.currentTimeMillis() - lastSynced.get(index)) / 1000.0)
+                    .description("Seconds since the likes of the shard were last synced to the database")
+                    .baseUnit("seconds")
+                    .tag("shard", String.valueOf(shard))
+                    .register(meterRegistry);
+        }
+        shardTimer = Timer.builder("likes.sync.shard.time")
+                .description("Time taken to sync the likes of a shard to the database")
+                .register(meterRegistry);
+        shardFailures = Counter.builder("likes.sync.shard.failures")
+                .description("Number of shards left to the next sync after all attempts failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Shuts down the worker pool, interrupting the shards still being flushed after the flush timeout.
+     * Their IDs stay in Redis and are synced by the next sync.
+     */
+    @PreDestroy
+    void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Marks the service as running once the application context has started.
+     */
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Flushes the dirty likes of all shards on shutdown, waiting at most the configured flush timeout.
+     * Each shard is synced under its lease; shards leased by other nodes, and shards whose lease was lost or whose
+     * sync failed, are tried again until the flush timeout, then left to the other nodes, which sync them on their
+     * next run.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        flushing = true;
+        long timeout = properties.getShutdownFlushTimeout();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        Duration leaseTime = Duration.ofMillis(timeout);
+        try {
+            List<Integer> shards = IntStream.range(0, properties.getShards()).boxed().toList();
+            while (true) {
+                Set<Integer> skipped = ConcurrentHashMap.newKeySet();
+                startSync(shards, shard -> {
+                    if (!flushShard(shard, leaseTime)) skipped.add(shard);
+                }).get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                if (skipped.isEmpty()) {
+                    log.info("Flushed dirty likes before shutdown");
+                    break;
+                }
+                if (deadline - System.nanoTime() <= TimeUnit.MILLISECONDS.toNanos(FLUSH_RETRY_INTERVAL)) {
+                    log.warn("Shards {} were not flushed, leaving their likes to the other nodes", skipped);
+                    break;
+                }
+                TimeUnit.MILLISECONDS.sleep(FLUSH_RETRY_INTERVAL);
+                shards = List.copyOf(skipped);
+            }
+        } catch (TimeoutException e) {
+            log.warn("Flushing likes timed out after {} ms, {} shards are left to the next sync", timeout, pendingShards.get());
+        } catch (ExecutionException e) {
+            log.error("Failed to flush likes before shutdown", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flushing = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the phase of the service, stopping right after the WebSocket sessions were drained and before the web
+     * server shuts down, so the progress of the flush can still be followed through the actuator.
+     *
+     * @return the phase of the service
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1;
+    }
+
+    /**
+     * Checks whether the dirty likes are being flushed, as the node is shutting down.
+     *
+     * @return true while the likes are flushed
+     */
+    public boolean isFlushing() {
+        return flushing;
+    }
+
+    /**
+     * Returns the number of shards of the syncs in progress that have not finished yet.
+     *
+     * @return the number of pending shards
+     */
+    public int getPendingShards() {
+        return pendingShards.get();
+    }
+
+    /**
+     * Synchronizes likes from Redis to the database at configurable intervals.
+     * The sync interval is configurable via config.cache.like_sync_interval in application.yml.
+     * Every node runs this method, and each shard is synced by whichever node takes its lease first,
+     * so a shard is synced once per interval across the cluster.
+     */
+    @Scheduled(fixedRateString = "${config.cache.like_sync_interval}")
+    public void syncLikesToDatabase() {
+        List<Integer> shards = IntStream.range(0, properties.getShards()).boxed().toList();
+        startSync(shards, this::syncLeasedShard).join();
+    }
+
+    /**
+     * Starts syncing the given shards on the worker pool.
+     *
+     * @param shards the indexes of the shards
+     * @param job    the job syncing a shard, receiving its index
+     * @return a future completing once all shards finished
+     */
+    private CompletableFuture<Void> startSync(List<Integer> shards, IntConsumer job) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        pendingShards.addAndGet(shards.size());
+        for (int shard : shards) {
+            futures.add(CompletableFuture.runAsync(() -> job.accept(shard), executor)
+                    .whenComplete((result, e) -> pendingShards.decrementAndGet()));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Syncs a shard if its lease can be taken, keeping the lease for the rest of the sync interval
+     * so other nodes skip the shard until the next sync.
+     *
+     * @param shard the index of the shard
+     */
+    private void syncLeasedShard(int shard) {
+        Duration holdTime = Duration.ofMillis(Math.max(LIKE_SYNC_INTERVAL - schedulerProperties.getClockTolerance(), 0));
+        Duration leaseTime = Duration.ofMillis(Math.max(LIKE_SYNC_INTERVAL, schedulerProperties.getLockAtMostFor()));
+        jobLockService.runExclusively(JOB_NAME_PREFIX + shard, holdTime, leaseTime, lease -> {
+            syncShard(shard, lease);
+            lastLeases.set(shard, lease);
+        });
+    }
+
+    /**
+     * Syncs a shard on shutdown under the lease this node still holds from its last sync, or else under a new lease
+     * released right after the shard was synced, so other nodes can take the shard over at once.
+     * A held lease may expire while the shard is synced, in which case a new lease is taken.
+     *
+     * @param shard     the index of the shard
+     * @param leaseTime the time after which a new lease expires if the shard is not synced in time
+     * @return true if the shard was synced, false if another node holds its lease or the sync failed
+     */
+    private boolean flushShard(int shard, Duration leaseTime) {
+        JobLockService.Lease lease = lastLeases.get(shard);
+        if (lease != null && holds(lease) && syncShard(shard, lease)) return true;
+        AtomicBoolean synced = new AtomicBoolean();
+        jobLockService.runExclusively(JOB_NAME_PREFIX + shard, Duration.ZERO, leaseTime,
+                newLease -> synced.set(syncShard(shard, newLease)));
+        return synced.get();
+    }
+
+    /**
+     * Checks whether this node still holds a lease, treating it as lost if Redis is unavailable.
+     *
+     * @param lease the lease
+     * @return true if the lease is still held
+     */
+    private boolean holds(JobLockService.Lease lease) {
+        try {
+            return jobLockService.isHeld(lease);
+        } catch (RuntimeException e) {
+            log.warn("Failed to check lease of job {}, treating it as lost", lease.jobName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Drains the dirty posts and comments of a shard and syncs their likes in one transaction, retrying it up to
+     * the configured number of attempts. Once the transaction committed, only the IDs it synced are removed from
+     * the draining sets, so IDs merged into them meanwhile, e.g. by a node flushing on shutdown, are kept for the
+     * next sync; a shard that keeps failing is logged and its IDs are synced again by the next sync.
+     * The lease of the shard is checked in each transaction before anything is written; once it was lost, the shard
+     * is left to the node holding it, so two nodes never write the likes of a shard concurrently.
+     *
+     * @param shard the index of the shard
+     * @param lease the lease of the shard
+     * @return true if the likes of the shard were committed or there were none, false if the lease was lost or all
+     * attempts failed
+     */
+    boolean syncShard(int shard, JobLockService.Lease lease) {
+        List<Long> postIds = claimDirty(POST_LIKES_DIRTY_PREFIX + shard, POST_LIKES_DRAINING_PREFIX + shard);
+        List<Long> commentIds = claimDirty(COMMENT_LIKES_DIRTY_PREFIX + shard, COMMENT_LIKES_DRAINING_PREFIX + shard);
+        if (postIds.isEmpty() && commentIds.isEmpty()) {
+            lastSynced.set(shard, System.currentTimeMillis());
+            return true;
+        }
+
+        for (int attempt = 1; attempt <= properties.getMaxAttempts(); attempt++) {
+            try {
+                Boolean written = shardTimer.record(() -> transactionTemplate.execute(status -> {
+                    if (!jobLockService.isHeld(lease)) return false;
+                    postIds.forEach(this::syncPostLikes);
+                    commentIds.forEach(this::syncCommentLikes);
+                    return true;
+                }));
+                if (!Boolean.TRUE.equals(written)) {
+                    log.warn("Lost lease of like sync shard {}, leaving it to the node holding it", shard);
+                    return false;
+                }
+                redisService.removeAllFromSet(POST_LIKES_DRAINING_PREFIX + shard, postIds.stream().map(String::valueOf).toList());
+                redisService.removeAllFromSet(COMMENT_LIKES_DRAINING_PREFIX + shard, commentIds.stream().map(String::valueOf).toList());
+                lastSynced.set(shard, System.currentTimeMillis());
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("Attempt {} to sync likes of shard {} failed", attempt, shard, e);
+            }
+        }
+        shardFailures.increment();
+        log.error("Failed to sync likes of shard {} after {} attempts, leaving it to the next sync", shard, properties.getMaxAttempts());
+        return false;
+    }
+
+    /**
+     * Atomically moves the IDs of a dirty set into its draining set and reads them.
+     * Likes switched from then on are recorded in a new dirty set and left to the next sync.
+     *
+     * @param dirtyKey    the key of the dirty set
+     * @param drainingKey the key of the draining set
+     * @return the IDs to sync
+     */
+    private List<Long> claimDirty(String dirtyKey, String drainingKey) {
+        @SuppressWarnings("unchecked")
+        List<String> ids = redisService.execute(CLAIM_SCRIPT, List.of(dirtyKey, drainingKey));
+        if (ids == null) return List.of();
+        return ids.stream().map(Long::valueOf).toList();
+    }
+
+    /**
+     * Synchronizes the likes of a post from Redis to the database.
+     *
+     * @param postId the ID of the post
+     */
+    private void syncPostLikes(Long postId) {
+        Set<String> userIds = redisService.getSetMembers(POST_LIKES_PREFIX + postId);
+        postService.findById(postId)
+                .ifPresent(post -> updateEntityLikes(post, userIds, Post::setLikedBy, postService::save));
+    }
+
+    /**
+     * Synchronizes the likes of a comment from Redis to the database.
+     *
+     * @param commentId the ID of the comment
+     */
+    private void syncCommentLikes(Long commentId) {
+        Set<String> userIds = redisService.getSetMembers(COMMENT_LIKES_PREFIX + commentId);
+        commentService.findById(commentId)
+                .ifPresent(comment -> updateEntityLikes(comment, userIds, Comment::setLikedBy, commentService::save));
+    }
+
+    /**
+     * Updates the likes of a Post or Comment entity based on the provided user IDs.
+     * It sets the likedBy field and saves the entity to the database. A missing or empty set clears the likes,
+     * as Redis deletes the set once the last like was removed and only dirty entities are synced, whose likes
+     * were loaded into Redis before they were switched.
+     *
+     * @param entity           the Post or Comment entity to update
+     * @param userIds          the set of user IDs who liked the entity
+     * @param setLikedByMethod a method reference to set the likedBy field
+     * @param saveMethod       a method reference to save the entity
+     * @param <T>              the type of the entity (Post or Comment)
+     */
+    private <T> void updateEntityLikes(T entity, Set<String> userIds, BiConsumer<T, Set<User>> setLikedByMethod, Consumer<T> saveMethod) {
+        Set<User> users = new HashSet<>();
+        if (userIds != null)
+            userIds.forEach(userId -> userService.findById(Long.valueOf(userId)).ifPresent(users::add));
+        setLikedByMethod.accept(entity, users);
+        saveMethod.accept(entity);
+    }
+
+    /**
+     * Determines the shard of a post or comment.
+     *
+     * @param id     the ID of the post or comment
+     * @param shards the number of shards
+     * @return the index of the shard
+     */
+    static int shardOf(long id, int shards) {
+        return Math.floorMod(Long.hashCode(id), shards);
+    }
+}
@@ -1,18 +1,54 @@
 package fans.goldenglow.plumaspherebackend.service;
 
+import com.vladsch.flexmark.ast.Reference;
 import com.vladsch.flexmark.html.HtmlRenderer;
 import com.vladsch.flexmark.parser.Parser;
 import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.data.MutableDataSet;
 import org.jsoup.Jsoup;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
- * Service for converting Markdown text to plain text.
- * This service uses Flexmark for parsing Markdown and Jsoup for extracting plain text.
+ * Service for rendering Markdown text.
+ * This service uses Flexmark for parsing and rendering Markdown and Jsoup for extracting plain text.
+ * Rendered top-level blocks are cached by content hash, so re-rendering an edited post only renders
+ * the blocks that actually changed.
  */
 @Service
 public class MarkdownService {
+    /**
+     * Maximum number of rendered blocks kept in the block cache.
+     */
+    private static final int BLOCK_CACHE_SIZE = 4096;
+
+    private final Parser parser;
+    private final HtmlRenderer renderer;
+    private final Map<String, String> blockHtmlCache;
+
+    /**
+     * Constructs a MarkdownService with a shared parser and renderer.
+     * Flexmark parsers and renderers are immutable and safe to reuse across threads.
+     */
+    public MarkdownService() {
+        MutableDataSet options = new MutableDataSet();
+        this.parser = Parser.builder(options).build();
+        this.renderer = HtmlRenderer.builder(options).build();
+        this.blockHtmlCache = Collections.synchronizedMap(new LinkedHashMap<String, String>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > BLOCK_CACHE_SIZE;
+            }
+        });
+    }
 
     /**
      * Converts Markdown formatted text to plain text.
@@ -21,14 +57,74 @@ public class MarkdownService {
      * @return the plain text extracted from the Markdown
      */
     public String convertMarkdownToPlainText(String markdown) {
-        MutableDataSet options = new MutableDataSet();
-        Parser parser = Parser.builder(options).build();
-        HtmlRenderer renderer = HtmlRenderer.builder(options).build();
-
         Document document = parser.parse(markdown);
         String html = renderer.render(document);
 
         String plainText = Jsoup.parse(html).text();
         return plainText.replaceAll("\\r\\n|\\r|\\n", " ");
     }
+
+    /**
+     * Renders Markdown formatted text to HTML.
+     * The document is parsed as a whole, but each top-level block is rendered separately and its
+     * HTML is cached under a hash of the block source. Unchanged blocks of an edited document are
+     * therefore served from the cache instead of being rendered again.
+     *
+     * @param markdown the Markdown text to render
+     * @return the rendered HTML, or an empty string if the input is null
+     */
+    public String renderHtml(String markdown) {
+        if (markdown == null) return "";
+
+        Document document = parser.parse(markdown);
+        String referenceFingerprint = getReferenceFingerprint(document);
+
+        StringBuilder html = new StringBuilder(markdown.length() + markdown.length() / 4);
+        for (Node block : document.getChildren()) {
+            String blockKey = hashBlock(referenceFingerprint, block.getChars().toString());
+            String blockHtml = blockHtmlCache.get(blockKey);
+            if (blockHtml == null) {
+                blockHtml = renderer.render(block);
+                blockHtmlCache.put(blockKey, blockHtml);
+            }
+            html.append(blockHtml);
+        }
+        return html.toString();
+    }
+
+    /**
+     * Builds a fingerprint of the link reference definitions of a document.
+     * Reference definitions change how links in any other block are rendered,
+     * so they are part of every block's cache key.
+     *
+     * @param document the parsed document
+     * @return the concatenated source of all reference definitions, or an empty string if there are none
+     */
+    private String getReferenceFingerprint(Document document) {
+        Map<String, Reference> references = Parser.REFERENCES.get(document);
+        if (references.isEmpty()) return "";
+
+        StringBuilder fingerprint = new StringBuilder();
+        references.values().forEach(reference -> fingerprint.append(reference.getChars()).append('\n'));
+        return fingerprint.toString();
+    }
+
+    /**
+     * Computes the cache key of a block from its source and the document's reference fingerprint.
+     *
+     * @param referenceFingerprint the fingerprint of the document's reference definitions
+     * @param blockSource          the Markdown source of the block
+     * @return the hex encoded SHA-256 hash of the block
+     */
+    private String hashBlock(String referenceFingerprint, String blockSource) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(referenceFingerprint.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(blockSource.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
@@ -0,0 +1,130 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.PostProcessingProperties;
+import fans.goldenglow.plumaspherebackend.event.PostContentChangedEvent;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostContent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for generating the content-derived fields of posts asynchronously.
+ * Content changes are picked up after their transaction commits and processed on a bounded executor,
+ * so Markdown parsing never holds a database connection. Posts that could not be queued stay marked
+ * as pending and are picked up again by a periodic sweep.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostProcessingService {
+    private final PostService postService;
+    private final PostProcessingProperties properties;
+    // IDs of posts that are queued or being processed, to avoid queuing the same post twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private ThreadPoolTaskExecutor executor;
+
+    /**
+     * Initializes the bounded executor used for processing posts.
+     * This method is called after the bean is constructed.
+     */
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("post-processing-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+    }
+
+    /**
+     * Shuts down the executor, letting already queued posts finish processing.
+     * Posts that do not finish stay pending and are processed after the next startup.
+     */
+    @PreDestroy
+    void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues a post for processing once the transaction that changed its content has committed.
+     *
+     * @param event the event describing the changed post
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostContentChanged(PostContentChangedEvent event) {
+        submit(event.postId());
+    }
+
+    /**
+     * Periodically queues posts that are still pending processing.
+     * This covers posts that were rejected by a full queue or whose processing was interrupted by a shutdown.
+     */
+    @Scheduled(fixedDelayString = "${config.post_processing.sweep_interval}")
+    public void processPendingPosts() {
+        int capacity = properties.getQueueCapacity();
+        for (Long postId : postService.findProcessingPendingIds(capacity)) {
+            if (!submit(postId)) break;
+        }
+    }
+
+    /**
+     * Queues a post for processing unless it is already queued.
+     *
+     * @param postId the ID of the post
+     * @return false if the executor rejected the post because its queue is full, true otherwise
+     */
+    boolean submit(Long postId) {
+        if (!inFlight.add(postId)) return true;
+        try {
+            executor.execute(() -> {
+                try {
+                    process(postId);
+                } finally {
+                    inFlight.remove(postId);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            inFlight.remove(postId);
+            log.warn("Post processing queue is full, post {} will be processed by the next sweep", postId);
+            return false;
+        }
+    }
+
+    /**
+     * Generates the description and rendered HTML of a post and writes them back.
+     * The content is read in a short read-only transaction, processed outside any transaction,
+     * and written back with an update guarded by the version the content was read at.
+     *
+     * @param postId the ID of the post
+     */
+    void process(Long postId) {
+        Optional<PostContent> postContent = postService.findContentById(postId);
+        if (postContent.isEmpty()) return;
+
+        PostContent content = postContent.get();
+        try {
+            String description = postService.generateDescription(content.content());
+            String renderedHtml = postService.renderHtml(content.content());
+            if (!postService.updateProcessedContent(content.id(), content.version(), description, renderedHtml)) {
+                log.debug("Post {} changed while being processed, skipping outdated result", postId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to process post {}", postId, e);
+        }
+    }
+}
@@ -1,20 +1,31 @@
 package fans.goldenglow.plumaspherebackend.service;
 
 import fans.goldenglow.plumaspherebackend.entity.Post;
+import fans.goldenglow.plumaspherebackend.event.PostContentChangedEvent;
 import fans.goldenglow.plumaspherebackend.repository.PostRepository;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostContent;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostSummary;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostTagName;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing blog posts.
  * Provides methods to count, find, save, and delete posts,
  * as well as search functionality and description generation.
+ * Content-derived fields are regenerated asynchronously after a content change is committed.
  */
 @Slf4j
 @Service
@@ -22,6 +33,7 @@ import java.util.Optional;
 public class PostService {
     private final PostRepository postRepository;
     private final MarkdownService markdownService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Counts the total number of posts.
@@ -44,6 +56,18 @@ public class PostService {
         return postRepository.findAll(pageable);
     }
 
+    /**
+     * Finds summaries of all posts with pagination support.
+     * Summaries do not include the content of the posts.
+     *
+     * @param pageable pagination information
+     * @return a page of post summaries
+     */
+    @Transactional(readOnly = true)
+    public Page<PostSummary> findAllSummaries(Pageable pageable) {
+        return withTagNames(postRepository.findAllSummaries(pageable));
+    }
+
     /**
      * Finds a post by its ID.
      *
@@ -55,6 +79,17 @@ public class PostService {
         return postRepository.findById(id);
     }
 
+    /**
+     * Checks whether a post exists.
+     *
+     * @param id the ID of the post
+     * @return true if the post exists, false otherwise
+     */
+    @Transactional(readOnly = true)
+    public boolean existsById(Long id) {
+        return postRepository.existsById(id);
+    }
+
     /**
      * Finds posts by a specific tag name with pagination support.
      *
@@ -67,6 +102,19 @@ public class PostService {
         return postRepository.findByTagsName(tagName, pageable);
     }
 
+    /**
+     * Finds summaries of posts by a specific tag name with pagination support.
+     * Summaries do not include the content of the posts.
+     *
+     * @param tagName  the name of the tag
+     * @param pageable pagination information
+     * @return a page of summaries of posts associated with the specified tag
+     */
+    @Transactional(readOnly = true)
+    public Page<PostSummary> findSummariesByTagName(String tagName, Pageable pageable) {
+        return withTagNames(postRepository.findSummariesByTagName(tagName, pageable));
+    }
+
     /**
      * Counts the number of posts associated with a specific tag name.
      *
@@ -88,6 +136,59 @@ public class PostService {
         postRepository.save(post);
     }
 
+    /**
+     * Saves a post whose content was created or changed.
+     * The post is marked as pending processing, and its description and rendered HTML are
+     * regenerated asynchronously once the surrounding transaction has committed.
+     *
+     * @param post the post to save
+     */
+    @Transactional
+    public void saveWithContentChange(Post post) {
+        if (post.getDescription() == null) post.setDescription("");
+        post.setProcessingPending(true);
+        postRepository.save(post);
+        eventPublisher.publishEvent(new PostContentChangedEvent(post.getId()));
+    }
+
+    /**
+     * Finds the content of a post together with the version it was read at.
+     *
+     * @param id the ID of the post
+     * @return an Optional containing the content of the post if found, or empty if not found
+     */
+    @Transactional(readOnly = true)
+    public Optional<PostContent> findContentById(Long id) {
+        return postRepository.findContentById(id);
+    }
+
+    /**
+     * Finds the IDs of posts that are still pending processing.
+     *
+     * @param limit the maximum number of IDs to return
+     * @return a list of post IDs pending processing, in ascending order
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findProcessingPendingIds(int limit) {
+        return postRepository.findProcessingPendingIds(PageRequest.of(0, limit));
+    }
+
+    /**
+     * Writes the processed description and rendered HTML back to a post.
+     * The update only applies if the post still has the version its content was read at,
+     * so results computed from outdated content are discarded.
+     *
+     * @param id           the ID of the post
+     * @param version      the version of the post the content was read at
+     * @param description  the generated description
+     * @param renderedHtml the rendered HTML
+     * @return true if the post was updated, false if its content has changed in the meantime
+     */
+    @Transactional
+    public boolean updateProcessedContent(Long id, Long version, String description, String renderedHtml) {
+        return postRepository.updateProcessedContent(id, version, description, renderedHtml) > 0;
+    }
+
     /**
      * Deletes a post by its ID.
      *
@@ -110,6 +211,58 @@ public class PostService {
         return postRepository.searchByKeyword(keyword, pageable);
     }
 
+    /**
+     * Searches for summaries of posts containing a specific keyword in title, content, or description.
+     * Summaries do not include the content of the posts.
+     *
+     * @param keyword  the keyword to search for
+     * @param pageable pagination information
+     * @return a page of summaries of posts matching the search criteria
+     */
+    @Transactional(readOnly = true)
+    public Page<PostSummary> searchSummaries(String keyword, Pageable pageable) {
+        return withTagNames(postRepository.searchSummariesByKeyword(keyword, pageable));
+    }
+
+    /**
+     * Finds the tag names of a post.
+     * The tag names are sorted by the number of posts associated with each tag in ascending order.
+     *
+     * @param postId the ID of the post
+     * @return the tag names of the post
+     */
+    @Transactional(readOnly = true)
+    public List<String> findTagNames(Long postId) {
+        return findTagNamesByPostIds(List.of(postId)).getOrDefault(postId, List.of());
+    }
+
+    /**
+     * Attaches tag names to a page of post summaries using a single query for the whole page.
+     * The tag names of each post are sorted by the number of posts associated with each tag in ascending order.
+     *
+     * @param summaries the page of post summaries
+     * @return the page of post summaries with their tag names
+     */
+    private Page<PostSummary> withTagNames(Page<PostSummary> summaries) {
+        if (summaries.isEmpty()) return summaries;
+        Map<Long, List<String>> tagNames = findTagNamesByPostIds(summaries.map(PostSummary::id).getContent());
+        return summaries.map(summary -> summary.withTags(tagNames.getOrDefault(summary.id(), List.of())));
+    }
+
+    /**
+     * Finds the tag names of several posts with a single query.
+     * The tag names of each post are sorted by the number of posts associated with each tag in ascending order.
+     *
+     * @param postIds the IDs of the posts
+     * @return a map from post ID to the tag names of the post; posts without tags are absent
+     */
+    private Map<Long, List<String>> findTagNamesByPostIds(List<Long> postIds) {
+        return postRepository.findTagNamesByPostIds(postIds).stream()
+                .sorted(Comparator.comparing(PostTagName::postCount))
+                .collect(Collectors.groupingBy(PostTagName::postId,
+                        Collectors.mapping(PostTagName::name, Collectors.toList())));
+    }
+
     /**
      * Counts the number of posts that contain a specific keyword in title, content, or description.
      *
@@ -133,4 +286,15 @@ public class PostService {
         String plainText = markdownService.convertMarkdownToPlainText(content);
         return plainText == null ? "" : plainText.length() > 300 ? plainText.substring(0, 300) + "..." : plainText;
     }
+
+    /**
+     * Renders the Markdown content of a post to HTML.
+     * Blocks left unchanged by an edit are served from the renderer's block cache.
+     *
+     * @param content the content of the post
+     * @return the rendered HTML of the post
+     */
+    public String renderHtml(String content) {
+        return markdownService.renderHtml(content);
+    }
 }
@@ -2,8 +2,12 @@ package fans.goldenglow.plumaspherebackend.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -25,6 +29,17 @@ public class RedisService {
         redisTemplate.opsForValue().set(key, value);
     }
 
+    /**
+     * Sets a key-value pair in Redis that expires after the given time.
+     *
+     * @param key   the key to set
+     * @param value the value to associate with the key
+     * @param ttl   the time after which the key expires
+     */
+    public void set(String key, String value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl);
+    }
+
     /**
      * Retrieves the value associated with a key from Redis.
      *
@@ -64,6 +79,17 @@ public class RedisService {
         redisTemplate.opsForSet().remove(key, value);
     }
 
+    /**
+     * Removes several values from a set in Redis in a single command.
+     *
+     * @param key    the key of the set
+     * @param values the values to remove from the set
+     */
+    public void removeAllFromSet(String key, Collection<String> values) {
+        if (values.isEmpty()) return;
+        redisTemplate.opsForSet().remove(key, values.toArray());
+    }
+
     /**
      * Retrieves all members of a set in Redis.
      *
@@ -114,4 +140,28 @@ public class RedisService {
     public Long getSetSize(String key) {
         return redisTemplate.opsForSet().size(key);
     }
+
+    /**
+     * Publishes a message to a Redis channel.
+     *
+     * @param channel the channel to publish to
+     * @param message the message to publish
+     * @return the number of subscribers that received the message
+     */
+    public Long publish(String channel, String message) {
+        return redisTemplate.convertAndSend(channel, message);
+    }
+
+    /**
+     * Executes a Lua script atomically.
+     *
+     * @param script the script to execute
+     * @param keys   the keys the script accesses
+     * @param args   the arguments of the script
+     * @param <T>    the type of the result
+     * @return the result of the script
+     */
+    public <T> T execute(RedisScript<T> script, List<String> keys, String... args) {
+        return redisTemplate.execute(script, keys, (Object[]) args);
+    }
 }
@@ -2,6 +2,7 @@ package fans.goldenglow.plumaspherebackend.service;
 
 import fans.goldenglow.plumaspherebackend.entity.Tag;
 import fans.goldenglow.plumaspherebackend.repository.TagRepository;
+import fans.goldenglow.plumaspherebackend.repository.projection.TagPostCount;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -32,6 +33,17 @@ public class TagService {
         return tagRepository.findAll();
     }
 
+    /**
+     * Finds all tags together with the number of posts associated with each tag.
+     * The post counts are computed by the database, so the posts of each tag are not loaded.
+     *
+     * @return a list of tags with their post counts, sorted by post count in descending order
+     */
+    @Transactional(readOnly = true)
+    public List<TagPostCount> findAllWithPostCount() {
+        return tagRepository.findAllWithPostCount();
+    }
+
     /**
      * Saves a tag to the repository.
      *
@@ -1,14 +1,21 @@
 package fans.goldenglow.plumaspherebackend.service;
 
+import fans.goldenglow.plumaspherebackend.annotation.ExclusiveJob;
 import fans.goldenglow.plumaspherebackend.entity.User;
+import fans.goldenglow.plumaspherebackend.event.UserBanChangedEvent;
+import fans.goldenglow.plumaspherebackend.event.UserBansChangedEvent;
 import fans.goldenglow.plumaspherebackend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,12 +23,20 @@ import java.util.List;
 /**
  * Service for managing user bans.
  * Provides methods to ban, unban, check ban status, and manage banned users.
+ * Every change is published as a {@link UserBanChangedEvent}, so the {@link BanCacheService} is refreshed.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserBanService {
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLockService jobLockService;
+
+    // Maximum number of expired bans lifted per transaction
+    @Value("${config.ban.cleanup_chunk_size}")
+    private int CLEANUP_CHUNK_SIZE;
 
     /**
      * Bans a user permanently with a specified reason.
@@ -36,6 +51,7 @@ public class UserBanService {
 
         user.ban(reason);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserBanChangedEvent(id));
         log.info("User {} banned permanently. Reason: {}", id, reason);
     }
 
@@ -53,6 +69,7 @@ public class UserBanService {
 
         user.banTemporary(reason, expiresAt);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserBanChangedEvent(id));
         log.info("User {} banned temporarily until {}. Reason: {}",
                 id, expiresAt, reason);
     }
@@ -69,9 +86,61 @@ public class UserBanService {
 
         user.unban();
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserBanChangedEvent(id));
         log.info("User {} has been unbanned", id);
     }
 
+    /**
+     * Marks a user for a permanent IP ban, applied to the IP address of their next request.
+     *
+     * @param id     the ID of the user
+     * @param reason the reason for the IP ban
+     */
+    @Transactional
+    public void markUserForIpBan(Long id, String reason) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found: " + id));
+
+        user.markForIpBan(reason);
+        userRepository.save(user);
+        eventPublisher.publishEvent(new UserBanChangedEvent(id));
+        log.info("User {} marked for permanent IP ban. Reason: {}", id, reason);
+    }
+
+    /**
+     * Marks a user for a temporary IP ban, applied to the IP address of their next request.
+     *
+     * @param id        the ID of the user
+     * @param reason    the reason for the IP ban
+     * @param expiresAt the expiration time of the IP ban
+     */
+    @Transactional
+    public void markUserForTemporaryIpBan(Long id, String reason, LocalDateTime expiresAt) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found: " + id));
+
+        user.markForTemporaryIpBan(reason, expiresAt);
+        userRepository.save(user);
+        eventPublisher.publishEvent(new UserBanChangedEvent(id));
+        log.info("User {} marked for temporary IP ban until {}. Reason: {}", id, expiresAt, reason);
+    }
+
+    /**
+     * Removes the IP ban mark of a user.
+     *
+     * @param id the ID of the user
+     */
+    @Transactional
+    public void unmarkUserIpBan(Long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found: " + id));
+
+        user.clearIpBanMark();
+        userRepository.save(user);
+        eventPublisher.publishEvent(new UserBanChangedEvent(id));
+        log.info("User {} unmarked for IP ban", id);
+    }
+
     /**
      * Checks if a user is currently banned.
      *
@@ -152,22 +221,40 @@ public class UserBanService {
 
     /**
      * Cleans up expired user bans by unbanning users whose ban has expired.
-     * This method is scheduled to run every hour.
+     * The users are unbanned in chunks of config.ban.cleanup_chunk_size, each read through the index on the
+     * ban expiry and unbanned with a single update in its own short transaction, so even a large backlog
+     * never loads entities or holds locks for long.
+     * This method is scheduled to run at the interval configured by config.ban.cleanup_interval,
+     * on only one node of the cluster, and stops before the next chunk once its lease was lost.
      */
-    @Scheduled(fixedRate = 3600000)
-    @Transactional
+    @Scheduled(fixedDelayString = "${config.ban.cleanup_interval}")
+    @ExclusiveJob(name = "user-ban-cleanup", interval = "${config.ban.cleanup_interval}")
     public void cleanupExpiredBans() {
-        List<User> expiredBannedUsers = userRepository.findUserByBanExpiresAtBefore(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        int unbannedTotal = 0;
+        List<Long> expiredIds;
+        do {
+            expiredIds = userRepository.findExpiredBanIds(now, PageRequest.of(0, CLEANUP_CHUNK_SIZE));
+            if (expiredIds.isEmpty()) break;
 
-        for (User user : expiredBannedUsers) {
-            user.unban();
-            log.info("Automatically unbanned user {} due to ban expiration", user.getId());
-        }
+            List<Long> chunk = expiredIds;
+            Integer unbanned = transactionTemplate.execute(status -> {
+                // Checked right before each chunk is written, so a run that outlived its lease stops
+                if (!jobLockService.holdsCurrentLease()) return null;
+                int count = userRepository.unbanExpiredByIdIn(chunk, now);
+                eventPublisher.publishEvent(new UserBansChangedEvent(chunk));
+                return count;
+            });
+            if (unbanned == null) {
+                log.warn("Lost lease of user ban cleanup, leaving the remaining bans to the node holding it");
+                break;
+            }
+            // Stop if nothing changed, e.g. as the users were unbanned concurrently, rather than reading them again
+            if (unbanned == 0) break;
+            unbannedTotal += unbanned;
+        } while (expiredIds.size() == CLEANUP_CHUNK_SIZE);
 
-        if (!expiredBannedUsers.isEmpty()) {
-            userRepository.saveAll(expiredBannedUsers);
-            log.info("Cleaned up {} expired user bans", expiredBannedUsers.size());
-        }
+        if (unbannedTotal > 0) log.info("Cleaned up {} expired user bans", unbannedTotal);
     }
 
     /**
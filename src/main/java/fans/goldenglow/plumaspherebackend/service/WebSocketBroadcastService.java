@@ -0,0 +1,110 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import fans.goldenglow.plumaspherebackend.dto.websocket.WebSocketMessageDto;
+import fans.goldenglow.plumaspherebackend.event.WebSocketTopicSubscriptionChangedEvent;
+import fans.goldenglow.plumaspherebackend.handler.WebSocketHandler;
+import fans.goldenglow.plumaspherebackend.handler.WebSocketTopic;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.WEBSOCKET_CHANNEL_PREFIX;
+
+/**
+ * Service for broadcasting WebSocket messages to the subscribers of a topic on every node.
+ * Messages are published to a Redis channel per topic, and each node only subscribes to the channels
+ * of topics that have at least one local subscriber, so a node never receives traffic for topics nobody
+ * on it is watching. The publishing node receives its own message through its subscription as well,
+ * so local subscribers get every message exactly once.
+ * Every message is numbered and kept for replay by the {@link WebSocketReplayService} before it is published,
+ * in the same atomic step, so all nodes agree on the number of every message of a topic. The messages may still
+ * arrive out of order, as the listener container handles them concurrently; the {@link WebSocketHandler} puts them
+ * back in order for each session, holding back a message until the ones numbered before it were sent.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WebSocketBroadcastService implements MessageListener {
+    private final WebSocketHandler webSocketHandler;
+    private final WebSocketReplayService webSocketReplayService;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final WebSocketProperties webSocketProperties;
+    // Topics whose channel this node is currently subscribed to
+    private final Set<WebSocketTopic> subscribedTopics = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Numbers a message and broadcasts it to the subscribers of a topic on every node.
+     * Messages are numbered even if no client is watching the topic, so clients resuming later know what they missed.
+     * If the message cannot be numbered and published, it is delivered unnumbered to the subscribers on this node only.
+     *
+     * @param topic   the topic to which the message should be sent
+     * @param message the message to be sent
+     */
+    public void broadcast(WebSocketTopic topic, WebSocketMessageDto message) {
+        message.setTopic(topic.key());
+        String json = message.toJson();
+        boolean relayEnabled = webSocketProperties.isRelayEnabled();
+        try {
+            String sequenced = webSocketReplayService.append(topic, json, relayEnabled ? WEBSOCKET_CHANNEL_PREFIX + topic.key() : null);
+            if (!relayEnabled) webSocketHandler.sendText(topic, sequenced);
+        } catch (RuntimeException e) {
+            log.warn("Failed to relay WebSocket message of {}, delivering to local subscribers only", topic, e);
+            webSocketHandler.sendText(topic, json);
+        }
+    }
+
+    /**
+     * Subscribes to or unsubscribes from the channel of a topic when its first local subscriber joined
+     * or its last local subscriber left.
+     *
+     * @param event the event carrying the topic whose local subscribers changed
+     */
+    @EventListener
+    public void onSubscriptionChanged(WebSocketTopicSubscriptionChangedEvent event) {
+        if (!webSocketProperties.isRelayEnabled()) return;
+        WebSocketTopic topic = event.topic();
+        // Most changes add or remove a subscriber of a topic that keeps other subscribers
+        if (webSocketHandler.hasSubscribers(topic) == subscribedTopics.contains(topic)) return;
+
+        synchronized (subscribedTopics) {
+            // Re-read under the lock, events of the same topic may be handled concurrently and out of order
+            boolean hasSubscribers = webSocketHandler.hasSubscribers(topic);
+            ChannelTopic channel = new ChannelTopic(WEBSOCKET_CHANNEL_PREFIX + topic.key());
+            if (hasSubscribers && subscribedTopics.add(topic)) {
+                listenerContainer.addMessageListener(this, channel);
+            } else if (!hasSubscribers && subscribedTopics.remove(topic)) {
+                listenerContainer.removeMessageListener(this, channel);
+            }
+        }
+    }
+
+    /**
+     * Delivers a message relayed through Redis to the subscribers of its topic on this node.
+     *
+     * @param message the message received from a topic channel
+     * @param pattern the pattern matching the channel, unused as channels are subscribed by name
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        Optional<WebSocketTopic> topic = channel.startsWith(WEBSOCKET_CHANNEL_PREFIX)
+                ? WebSocketTopic.parse(channel.substring(WEBSOCKET_CHANNEL_PREFIX.length()))
+                : Optional.empty();
+        if (topic.isEmpty()) {
+            log.warn("Ignoring WebSocket message relayed on unknown channel {}", channel);
+            return;
+        }
+        webSocketHandler.sendText(topic.get(), new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,218 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import fans.goldenglow.plumaspherebackend.constant.WebSocketMessageType;
+import fans.goldenglow.plumaspherebackend.dto.CommentDto;
+import fans.goldenglow.plumaspherebackend.dto.websocket.TopicUpdateMessageDto;
+import fans.goldenglow.plumaspherebackend.dto.websocket.WebSocketMessageDto;
+import fans.goldenglow.plumaspherebackend.entity.Comment;
+import fans.goldenglow.plumaspherebackend.event.CommentAddedEvent;
+import fans.goldenglow.plumaspherebackend.handler.WebSocketTopic;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Service for notifying WebSocket clients about likes and comments.
+ * Events are coalesced per topic: the first event on a topic opens a window of the configured length,
+ * and all events on that topic within the window are sent as a single update frame carrying the final
+ * counts and the comments added during the window, so a like storm costs one frame per window instead of
+ * one frame per like, and viewers can show new comments without re-fetching the comment pages.
+ * Updates are broadcast to the subscribers on every node.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WebSocketNotificationService {
+    private final WebSocketBroadcastService webSocketBroadcastService;
+    private final LikeCacheService likeCacheService;
+    private final CommentService commentService;
+    private final WebSocketProperties webSocketProperties;
+    // Changes collected during the open coalescing window of each topic
+    private final Map<WebSocketTopic, PendingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flushScheduler;
+    private ExecutorService flushExecutor;
+
+    /**
+     * Initializes the scheduler closing the coalescing windows and the executor sending the updates.
+     * This method is called after the bean is constructed.
+     */
+    @PostConstruct
+    void init() {
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("ws-coalesce").daemon().factory());
+        flushExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ws-flush-", 0).factory());
+    }
+
+    /**
+     * Shuts down the scheduler and the executor. Updates of windows still open are not sent.
+     */
+    @PreDestroy
+    void destroy() {
+        flushScheduler.shutdownNow();
+        flushExecutor.shutdown();
+    }
+
+    /**
+     * Notifies the viewers of a post that it was liked or unliked.
+     *
+     * @param postId the ID of the post
+     */
+    public void notifyPostLiked(Long postId) {
+        record(WebSocketTopic.post(postId), update -> update.liked = true);
+    }
+
+    /**
+     * Notifies the viewers of a post that a comment was added to it.
+     *
+     * @param postId  the ID of the post
+     * @param comment the comment that was added
+     */
+    public void notifyCommentAdded(Long postId, CommentDto comment) {
+        record(WebSocketTopic.post(postId), update -> update.addComment(comment, webSocketProperties.getMaxCommentsPerUpdate()));
+    }
+
+    /**
+     * Notifies the viewers of a comment thread that a reply was added to it.
+     *
+     * @param parentCommentId the ID of the comment that was replied to
+     * @param reply           the reply that was added
+     */
+    public void notifyReplyAdded(Long parentCommentId, CommentDto reply) {
+        record(WebSocketTopic.comment(parentCommentId), update -> update.addComment(reply, webSocketProperties.getMaxCommentsPerUpdate()));
+    }
+
+    /**
+     * Notifies the viewers of a post or comment thread of a comment added to it, once the transaction that added
+     * the comment has committed, so viewers are never shown a comment that was rolled back or cannot be loaded yet.
+     *
+     * @param event the event carrying the comment and where it was added
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentAdded(CommentAddedEvent event) {
+        if (event.parentCommentId() != null) notifyReplyAdded(event.parentCommentId(), event.comment());
+        else notifyCommentAdded(event.postId(), event.comment());
+    }
+
+    /**
+     * Notifies the viewers of a comment that it was liked or unliked.
+     * Comments on a post are shown with the post, replies are shown with the thread of their parent comment.
+     *
+     * @param commentId the ID of the comment
+     */
+    public void notifyCommentLiked(Long commentId) {
+        Long postId = commentService.findPostId(commentId);
+        if (postId != null) {
+            record(WebSocketTopic.post(postId), update -> update.likedCommentIds.add(commentId));
+            return;
+        }
+        commentService.findById(commentId)
+                .map(Comment::getParentComment)
+                .ifPresent(parent -> record(WebSocketTopic.comment(parent.getId()), update -> update.likedCommentIds.add(commentId)));
+    }
+
+    /**
+     * Records a change on a topic, opening a coalescing window if none is open.
+     *
+     * @param topic    the topic that changed
+     * @param mutation the change to record
+     */
+    private void record(WebSocketTopic topic, Consumer<PendingUpdate> mutation) {
+        pendingUpdates.compute(topic, (key, update) -> {
+            if (update == null) {
+                update = new PendingUpdate();
+                scheduleFlush(key);
+            }
+            mutation.accept(update);
+            return update;
+        });
+    }
+
+    /**
+     * Schedules the update of a topic to be sent when its coalescing window closes.
+     *
+     * @param topic the topic
+     */
+    private void scheduleFlush(WebSocketTopic topic) {
+        try {
+            flushScheduler.schedule(() -> flushExecutor.execute(() -> flush(topic)),
+                    webSocketProperties.getCoalesceWindow(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("WebSocket update of {} rejected during shutdown", topic);
+        }
+    }
+
+    /**
+     * Closes the coalescing window of a topic and sends its update with the current counts.
+     * Counts are read when the window closes, so the update reflects every change made during the window.
+     *
+     * @param topic the topic
+     */
+    void flush(WebSocketTopic topic) {
+        PendingUpdate update = pendingUpdates.remove(topic);
+        if (update == null) return;
+
+        try {
+            TopicUpdateMessageDto message = new TopicUpdateMessageDto();
+            if (update.liked) message.setLikeCount(likeCacheService.getPostLikesCount(topic.id()));
+            if (update.commented) {
+                message.setCommentCount(switch (topic.type()) {
+                    case POST -> commentService.countByPostId(topic.id());
+                    case COMMENT -> commentService.countByParentCommentId(topic.id());
+                });
+                if (update.newComments.size() <= webSocketProperties.getMaxCommentsPerUpdate())
+                    message.setNewComments(update.newComments);
+            }
+            if (!update.likedCommentIds.isEmpty()) {
+                Map<Long, Long> commentLikeCounts = new HashMap<>();
+                for (Long commentId : update.likedCommentIds) {
+                    commentLikeCounts.put(commentId, likeCacheService.getCommentLikesCount(commentId));
+                }
+                message.setCommentLikeCounts(commentLikeCounts);
+            }
+            webSocketBroadcastService.broadcast(topic, new WebSocketMessageDto(WebSocketMessageType.UPDATE, message));
+        } catch (RuntimeException e) {
+            log.warn("Failed to send WebSocket update of {}", topic, e);
+        }
+    }
+
+    /**
+     * Changes collected on a topic during a coalescing window.
+     * Only accessed while holding the map entry of the topic, or after it was removed from the map.
+     */
+    private static class PendingUpdate {
+        private final Set<Long> likedCommentIds = new HashSet<>();
+        private final List<CommentDto> newComments = new ArrayList<>();
+        private boolean liked;
+        private boolean commented;
+
+        /**
+         * Records a comment added during the window.
+         * Once more comments than an update carries were added, further comments are not kept.
+         *
+         * @param comment     the comment
+         * @param maxComments the maximum number of comments carried by an update
+         */
+        private void addComment(CommentDto comment, int maxComments) {
+            commented = true;
+            if (newComments.size() <= maxComments) newComments.add(comment);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import fans.goldenglow.plumaspherebackend.handler.WebSocketTopic;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.WEBSOCKET_REPLAY_PREFIX;
+import static fans.goldenglow.plumaspherebackend.constant.RedisKey.WEBSOCKET_SEQUENCE_PREFIX;
+
+/**
+ * Service for numbering the WebSocket messages of each topic and replaying them to clients that reconnect.
+ * Every message of a topic gets the next number of the topic's sequence, and the most recent messages of each
+ * topic are kept in a sorted set in Redis for the configured retention. A client reconnecting with the last
+ * number it received gets exactly the messages it missed, or is told to reload if they are no longer kept.
+ * Numbering, buffering and publishing happen in one Lua script, so all nodes agree on the numbers of a topic's
+ * messages; the numbers, not the order of arrival, tell which message of a topic is the newest.
+ */
+@Service
+@RequiredArgsConstructor
+public class WebSocketReplayService {
+    // Number of a message that was not sequenced, e.g. because Redis was unavailable
+    public static final long UNSEQUENCED = 0;
+    private static final String SEQUENCE_FIELD_PREFIX = "{\"seq\":";
+
+    /*
+     * Numbers a message by prepending the seq field to its JSON object, keeps it in the replay buffer,
+     * trims the buffer, refreshes the retention of both keys and publishes it if a channel is given.
+     * KEYS: sequence, replay buffer; ARGV: message, buffer size, retention in milliseconds, channel or empty
+     */
+    private static final RedisScript<String> APPEND_SCRIPT = RedisScript.of("""
+            local seq = redis.call('INCR', KEYS[1])
+            local message = '{"seq":' .. seq .. ',' .. string.sub(ARGV[1], 2)
+            redis.call('ZADD', KEYS[2], seq, message)
+            redis.call('ZREMRANGEBYRANK', KEYS[2], 0, -(tonumber(ARGV[2]) + 1))
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            redis.call('PEXPIRE', KEYS[2], ARGV[3])
+            if ARGV[4] ~= '' then
+                redis.call('PUBLISH', ARGV[4], message)
+            end
+            return message
+            """, String.class);
+
+    /*
+     * Reads the current number of a topic followed by the kept messages numbered after the given one.
+     * KEYS: sequence, replay buffer; ARGV: last number received
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REPLAY_SCRIPT = RedisScript.of("""
+            local messages = redis.call('ZRANGEBYSCORE', KEYS[2], '(' .. ARGV[1], '+inf')
+            table.insert(messages, 1, redis.call('GET', KEYS[1]) or '0')
+            return messages
+            """, List.class);
+
+    private final RedisService redisService;
+    private final WebSocketProperties webSocketProperties;
+
+    /**
+     * Numbers a message of a topic and keeps it for replay, publishing it to a channel if one is given.
+     *
+     * @param topic   the topic of the message
+     * @param json    the JSON object representing the message, with at least one field and without a seq field
+     * @param channel the channel to publish the numbered message to, or null to not publish it
+     * @return the JSON representation of the numbered message
+     */
+    public String append(WebSocketTopic topic, String json, String channel) {
+        return redisService.execute(APPEND_SCRIPT, keys(topic),
+                json,
+                String.valueOf(webSocketProperties.getReplayBufferSize()),
+                String.valueOf(webSocketProperties.getReplayRetention()),
+                channel == null ? "" : channel);
+    }
+
+    /**
+     * Reads the messages of a topic numbered after the last one a client received.
+     *
+     * @param topic   the topic
+     * @param lastSeq the number of the last message the client received
+     * @return the missed messages, or a replay that is not complete if some of them are no longer kept
+     */
+    public Replay replay(WebSocketTopic topic, long lastSeq) {
+        @SuppressWarnings("unchecked")
+        List<String> result = redisService.execute(REPLAY_SCRIPT, keys(topic), String.valueOf(lastSeq));
+        long currentSeq = Long.parseLong(result.getFirst());
+        List<String> messages = result.subList(1, result.size());
+
+        // A sequence behind the client was reset after the topic was idle for longer than the retention
+        if (currentSeq < lastSeq) return new Replay(List.of(), false);
+        if (currentSeq == lastSeq) return new Replay(List.of(), true);
+        boolean complete = !messages.isEmpty() && sequenceOf(messages.getFirst()) == lastSeq + 1;
+        return new Replay(complete ? messages : List.of(), complete);
+    }
+
+    /**
+     * Reads the number of the last message of a topic, so a new subscriber knows from which message on it is owed
+     * every message of the topic.
+     *
+     * @param topic the topic
+     * @return the number of the last message, or 0 if the topic has had no message within the retention
+     */
+    public long currentSeq(WebSocketTopic topic) {
+        String seq = redisService.get(WEBSOCKET_SEQUENCE_PREFIX + topic.key());
+        return seq == null ? 0 : Long.parseLong(seq);
+    }
+
+    /**
+     * Reads the number of a message numbered by this service.
+     *
+     * @param json the JSON representation of the message
+     * @return the number of the message, or {@link #UNSEQUENCED} if it has none
+     */
+    public static long sequenceOf(String json) {
+        if (!json.startsWith(SEQUENCE_FIELD_PREFIX)) return UNSEQUENCED;
+        int end = json.indexOf(',', SEQUENCE_FIELD_PREFIX.length());
+        if (end < 0) return UNSEQUENCED;
+        try {
+            return Long.parseLong(json, SEQUENCE_FIELD_PREFIX.length(), end, 10);
+        } catch (NumberFormatException e) {
+            return UNSEQUENCED;
+        }
+    }
+
+    private static List<String> keys(WebSocketTopic topic) {
+        return List.of(WEBSOCKET_SEQUENCE_PREFIX + topic.key(), WEBSOCKET_REPLAY_PREFIX + topic.key());
+    }
+
+    /**
+     * The messages a client missed.
+     *
+     * @param messages the JSON representations of the missed messages, oldest first
+     * @param complete false if some missed messages are no longer kept, in which case the client has to reload
+     */
+    public record Replay(List<String> messages, boolean complete) {
+    }
+}
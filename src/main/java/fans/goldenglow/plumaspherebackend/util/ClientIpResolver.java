@@ -0,0 +1,86 @@
+package fans.goldenglow.plumaspherebackend.util;
+
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Determines the IP address of the client behind a request.
+ * The {@code X-Forwarded-For} and {@code X-Real-IP} headers are only honored if the request comes from one of the
+ * configured trusted proxies, so clients cannot evade connection limits or IP bans with forged headers.
+ * The WebSocket connection limits and the IP ban checks share this resolver, so both see the same client address.
+ */
+@Component
+public class ClientIpResolver {
+    private final List<IpRange> trustedProxies;
+
+    /**
+     * Creates a resolver for the configured trusted proxies.
+     *
+     * @param webSocketProperties the properties holding the trusted proxies
+     * @throws IllegalArgumentException if a trusted proxy is not a valid IP address or range
+     */
+    public ClientIpResolver(WebSocketProperties webSocketProperties) {
+        this.trustedProxies = webSocketProperties.getTrustedProxies().stream().map(IpRange::parse).toList();
+    }
+
+    /**
+     * Resolves the client IP address of a request.
+     * The forwarded headers are only honored if the request comes from a trusted proxy. The
+     * {@code X-Forwarded-For} chain is then walked back from the end, skipping the trusted proxies, as the
+     * addresses before the first untrusted one may have been sent by the client itself.
+     *
+     * @param remoteIp      the address the request comes from
+     * @param xForwardedFor the {@code X-Forwarded-For} header, or null if absent
+     * @param xRealIp       the {@code X-Real-IP} header, or null if absent
+     * @return the client IP address
+     */
+    public String resolve(String remoteIp, String xForwardedFor, String xRealIp) {
+        if (!isTrustedProxy(remoteIp)) return remoteIp;
+
+        if (xForwardedFor != null && !xForwardedFor.isBlank()) {
+            String[] hops = xForwardedFor.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (!isIpAddress(hop)) return remoteIp;
+                if (i == 0 || !isTrustedProxy(hop)) return hop;
+            }
+        }
+
+        if (xRealIp != null && isIpAddress(xRealIp.trim())) return xRealIp.trim();
+        return remoteIp;
+    }
+
+    /**
+     * Checks whether an address is one of the configured trusted proxies.
+     *
+     * @param ip the IP address
+     * @return true if the address is in a trusted proxy range
+     */
+    private boolean isTrustedProxy(String ip) {
+        if (ip == null || trustedProxies.isEmpty()) return false;
+        byte[] address;
+        try {
+            address = IpRange.parseAddress(ip);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return trustedProxies.stream().anyMatch(range -> range.contains(address));
+    }
+
+    /**
+     * Checks whether a string is a valid IP address.
+     *
+     * @param value the string
+     * @return true if the string is an IPv4 or IPv6 address
+     */
+    private static boolean isIpAddress(String value) {
+        try {
+            IpRange.parseAddress(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package fans.goldenglow.plumaspherebackend.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Binary prefix trie mapping IPv4 and IPv6 address ranges to values.
+ * Each range is stored at the node reached by following the bits of its network address up to its prefix length,
+ * so looking up an address visits at most 32 nodes for IPv4 and 128 for IPv6, however many ranges are stored.
+ * Lookups are lock-free and may run concurrently with updates, which are serialized; a lookup sees each
+ * range either before or after a concurrent update of it.
+ *
+ * @param <V> the type of the values
+ */
+public class IpPrefixTrie<V> {
+    private final Node<V> ipv4Root = new Node<>();
+    private final Node<V> ipv6Root = new Node<>();
+    private int size;
+
+    /**
+     * Maps a range to a value, replacing the value the range was mapped to.
+     *
+     * @param range the range
+     * @param value the value, not null
+     */
+    public synchronized void put(IpRange range, V value) {
+        byte[] network = range.getNetwork();
+        Node<V> node = root(network);
+        for (int bit = 0; bit < range.getPrefixLength(); bit++) {
+            int index = bitAt(network, bit);
+            Node<V> child = node.children.get(index);
+            if (child == null) {
+                child = new Node<>();
+                node.children.set(index, child);
+            }
+            node = child;
+        }
+        if (node.value == null) size++;
+        node.value = value;
+    }
+
+    /**
+     * Removes the mapping of a range, pruning the nodes left without ranges.
+     * Ranges inside or around the removed one are kept.
+     *
+     * @param range the range
+     */
+    public synchronized void remove(IpRange range) {
+        byte[] network = range.getNetwork();
+        int prefixLength = range.getPrefixLength();
+        @SuppressWarnings("unchecked")
+        Node<V>[] path = new Node[prefixLength + 1];
+        path[0] = root(network);
+        for (int bit = 0; bit < prefixLength; bit++) {
+            path[bit + 1] = path[bit].children.get(bitAt(network, bit));
+            if (path[bit + 1] == null) return;
+        }
+        Node<V> node = path[prefixLength];
+        if (node.value == null) return;
+        node.value = null;
+        size--;
+        for (int bit = prefixLength - 1; bit >= 0 && path[bit + 1].isEmpty(); bit--) {
+            path[bit].children.set(bitAt(network, bit), null);
+        }
+    }
+
+    /**
+     * Checks whether any range containing an address is mapped to a value matching a condition.
+     * Ranges are visited from the shortest prefix to the longest.
+     *
+     * @param address   the address bytes, as returned by {@link IpRange#parseAddress(String)}
+     * @param condition the condition the value of a containing range has to match
+     * @return true if a containing range matches
+     */
+    public boolean anyMatch(byte[] address, Predicate<? super V> condition) {
+        Node<V> node = root(address);
+        int bits = address.length * 8;
+        for (int bit = 0; ; bit++) {
+            V value = node.value;
+            if (value != null && condition.test(value)) return true;
+            if (bit == bits) return false;
+            node = node.children.get(bitAt(address, bit));
+            if (node == null) return false;
+        }
+    }
+
+    /**
+     * Returns the number of ranges mapped to a value.
+     *
+     * @return the number of ranges
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private Node<V> root(byte[] address) {
+        return address.length == 4 ? ipv4Root : ipv6Root;
+    }
+
+    private static int bitAt(byte[] address, int bit) {
+        return (address[bit >>> 3] >>> (7 - (bit & 7))) & 1;
+    }
+
+    /**
+     * A node of the trie, holding the value of the range ending at it.
+     * Children and value are read and written with volatile semantics, so lock-free lookups see updates.
+     */
+    private static class Node<V> {
+        private final AtomicReferenceArray<Node<V>> children = new AtomicReferenceArray<>(2);
+        private volatile V value;
+
+        private boolean isEmpty() {
+            return value == null && children.get(0) == null && children.get(1) == null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package fans.goldenglow.plumaspherebackend.util;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * An IPv4 or IPv6 address range in CIDR notation, e.g. {@code 192.168.1.0/24} or {@code 2001:db8::/64}.
+ * A single address is a range with a prefix of all address bits. Ranges are normalized when parsed: the host
+ * bits of the network address are cleared and IPv4-mapped IPv6 addresses are turned into IPv4 addresses, so
+ * every range has exactly one {@link #toString() canonical representation}.
+ * Parsing never resolves host names.
+ */
+public final class IpRange {
+    private static final Pattern IPV4_PATTERN = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    // Prefix of IPv4 addresses mapped into IPv6, ::ffff:0:0/96
+    private static final byte[] IPV4_MAPPED_PREFIX = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, (byte) 0xff, (byte) 0xff};
+
+    private final byte[] network;
+    private final int prefixLength;
+
+    private IpRange(byte[] network, int prefixLength) {
+        this.network = network;
+        this.prefixLength = prefixLength;
+    }
+
+    /**
+     * Parses an IP address or a range in CIDR notation.
+     *
+     * @param value the address, e.g. {@code 10.0.0.1}, or the range, e.g. {@code 10.0.0.0/8}
+     * @return the range
+     * @throws IllegalArgumentException if the value is not a valid IP address or range
+     */
+    public static IpRange parse(String value) {
+        if (value == null || value.isBlank()) throw new IllegalArgumentException("IP address must not be empty");
+        String trimmed = value.trim();
+        int slash = trimmed.indexOf('/');
+        byte[] address = parseAddress(slash < 0 ? trimmed : trimmed.substring(0, slash));
+        int bits = address.length * 8;
+        int prefixLength = bits;
+        if (slash >= 0) {
+            try {
+                prefixLength = Integer.parseInt(trimmed.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid prefix length in " + value);
+            }
+            // An IPv4-mapped range keeps its prefix relative to the IPv4 address
+            if (address.length == 4 && trimmed.indexOf(':') >= 0) prefixLength -= 96;
+            if (prefixLength < 0 || prefixLength > bits)
+                throw new IllegalArgumentException("Invalid prefix length in " + value);
+        }
+        return new IpRange(mask(address, prefixLength), prefixLength);
+    }
+
+    /**
+     * Parses a single IP address.
+     *
+     * @param value the address
+     * @return the address bytes, 4 for IPv4 and IPv4-mapped IPv6 addresses, 16 for other IPv6 addresses
+     * @throws IllegalArgumentException if the value is not a valid IP address
+     */
+    public static byte[] parseAddress(String value) {
+        if (IPV4_PATTERN.matcher(value).matches()) {
+            String[] parts = value.split("\\.");
+            byte[] address = new byte[4];
+            for (int i = 0; i < 4; i++) {
+                int part = Integer.parseInt(parts[i]);
+                if (part > 255) throw new IllegalArgumentException("Invalid IPv4 address " + value);
+                address[i] = (byte) part;
+            }
+            return address;
+        }
+        // Strings containing a colon are parsed as IPv6 literals, without any name lookup
+        if (value.indexOf(':') < 0) throw new IllegalArgumentException("Invalid IP address " + value);
+        byte[] address;
+        try {
+            address = InetAddress.getByName(value.startsWith("[") ? value : "[" + value + "]").getAddress();
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Invalid IP address " + value);
+        }
+        if (address.length == 16 && Arrays.equals(address, 0, 12, IPV4_MAPPED_PREFIX, 0, 12))
+            return Arrays.copyOfRange(address, 12, 16);
+        return address;
+    }
+
+    /**
+     * Returns the network address of the range, with all host bits cleared.
+     *
+     * @return a copy of the network address bytes
+     */
+    public byte[] getNetwork() {
+        return network.clone();
+    }
+
+    /**
+     * Returns the number of leading bits of the network address that addresses in the range share.
+     *
+     * @return the prefix length
+     */
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+
+    /**
+     * Checks whether the range contains an address.
+     *
+     * @param address the address bytes, as returned by {@link #parseAddress(String)}
+     * @return true if the address is in the range
+     */
+    public boolean contains(byte[] address) {
+        if (address.length != network.length) return false;
+        return Arrays.equals(mask(address, prefixLength), network);
+    }
+
+    /**
+     * Returns the canonical representation of the range: the address alone for a single address,
+     * the network address and prefix length otherwise.
+     *
+     * @return the canonical representation
+     */
+    @Override
+    public String toString() {
+        String address;
+        try {
+            address = InetAddress.getByAddress(network).getHostAddress();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+        return prefixLength == network.length * 8 ? address : address + "/" + prefixLength;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IpRange other && prefixLength == other.prefixLength && Arrays.equals(network, other.network);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(network) + prefixLength;
+    }
+
+    private static byte[] mask(byte[] address, int prefixLength) {
+        byte[] masked = address.clone();
+        for (int i = 0; i < masked.length; i++) {
+            int bitsInByte = Math.clamp(prefixLength - i * 8L, 0, 8);
+            masked[i] &= (byte) (0xff << (8 - bitsInByte));
+        }
+        return masked;
+    }
+}
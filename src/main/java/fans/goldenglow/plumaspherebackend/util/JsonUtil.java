@@ -0,0 +1,51 @@
+package fans.goldenglow.plumaspherebackend.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Utility class for converting objects to and from JSON outside of Spring MVC.
+ * A single mapper is shared, since mappers are thread-safe once configured and expensive to create.
+ */
+public class JsonUtil {
+    // Shared mapper, writing dates as ISO-8601 strings and ignoring unknown properties like the REST API does
+    private final static JsonMapper jsonMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    /**
+     * Serializes an object to JSON.
+     *
+     * @param value the object to serialize
+     * @return the JSON representation of the object
+     * @throws IllegalStateException if the object cannot be serialized
+     */
+    public static String toJson(Object value) {
+        try {
+            return jsonMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to convert " + value.getClass().getSimpleName() + " to JSON", e);
+        }
+    }
+
+    /**
+     * Deserializes an object from JSON.
+     *
+     * @param json the JSON representation of the object
+     * @param type the class of the object
+     * @param <T>  the type of the object
+     * @return the deserialized object
+     * @throws IllegalArgumentException if the JSON is malformed or does not match the class
+     */
+    public static <T> T fromJson(String json, Class<T> type) {
+        try {
+            return jsonMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to convert JSON to " + type.getSimpleName(), e);
+        }
+    }
+}
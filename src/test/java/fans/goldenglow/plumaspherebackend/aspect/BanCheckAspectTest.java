@@ -0,0 +1,169 @@
+package fans.goldenglow.plumaspherebackend.aspect;
+
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import fans.goldenglow.plumaspherebackend.service.BanCacheService;
+import fans.goldenglow.plumaspherebackend.service.BannedIpService;
+import fans.goldenglow.plumaspherebackend.service.TokenService;
+import fans.goldenglow.plumaspherebackend.service.UserBanService;
+import fans.goldenglow.plumaspherebackend.util.ClientIpResolver;
+import org.aspectj.lang.JoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BanCheckAspect Tests")
+class BanCheckAspectTest {
+
+    private static final String TEST_IP_ADDRESS = "192.168.1.100";
+
+    @Mock
+    private BanCacheService banCacheService;
+    @Mock
+    private UserBanService userBanService;
+    @Mock
+    private BannedIpService bannedIpService;
+    @Mock
+    private TokenService tokenService;
+    @Spy
+    private ClientIpResolver clientIpResolver = new ClientIpResolver(new WebSocketProperties());
+
+    @InjectMocks
+    private BanCheckAspect banCheckAspect;
+
+    private final JoinPoint joinPoint = mock(JoinPoint.class, RETURNS_DEEP_STUBS);
+    private final JwtAuthenticationToken jwtToken = mock(JwtAuthenticationToken.class);
+
+    @BeforeEach
+    void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Forwarded-For", TEST_IP_ADDRESS);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        SecurityContextHolder.getContext().setAuthentication(jwtToken);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Nested
+    @DisplayName("User Ban Check")
+    class UserBanCheckTests {
+        @Test
+        @DisplayName("Should let user without ban pass using the cache only")
+        void checkUserBan_ShouldPass_WhenUserNotBanned() {
+            // Given
+            when(tokenService.extractUserIdFromJwt(jwtToken)).thenReturn(1L);
+            when(banCacheService.getUserBan(1L)).thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatCode(() -> banCheckAspect.checkUserBan(joinPoint)).doesNotThrowAnyException();
+            verifyNoInteractions(userBanService, bannedIpService);
+        }
+
+        @Test
+        @DisplayName("Should reject user with active ban")
+        void checkUserBan_ShouldReject_WhenUserBanned() {
+            // Given
+            when(tokenService.extractUserIdFromJwt(jwtToken)).thenReturn(1L);
+            when(banCacheService.getUserBan(1L)).thenReturn(Optional.of(new BanCacheService.UserBan(
+                    true, "Spam", LocalDateTime.now().plusDays(1), false, null, null)));
+
+            // When & Then
+            assertThatThrownBy(() -> banCheckAspect.checkUserBan(joinPoint))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN));
+            verifyNoInteractions(userBanService, bannedIpService);
+        }
+
+        @Test
+        @DisplayName("Should let user with expired ban pass")
+        void checkUserBan_ShouldPass_WhenBanExpired() {
+            // Given
+            when(tokenService.extractUserIdFromJwt(jwtToken)).thenReturn(1L);
+            when(banCacheService.getUserBan(1L)).thenReturn(Optional.of(new BanCacheService.UserBan(
+                    true, "Spam", LocalDateTime.now().minusSeconds(1), false, null, null)));
+
+            // When & Then
+            assertThatCode(() -> banCheckAspect.checkUserBan(joinPoint)).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Should ban IP address and clear mark when user is marked for IP ban")
+        void checkUserBan_ShouldBanIp_WhenPendingIpBan() {
+            // Given
+            when(tokenService.extractUserIdFromJwt(jwtToken)).thenReturn(1L);
+            when(banCacheService.getUserBan(1L)).thenReturn(Optional.of(new BanCacheService.UserBan(
+                    false, null, null, true, "Abuse", null)));
+
+            // When & Then
+            assertThatThrownBy(() -> banCheckAspect.checkUserBan(joinPoint)).isInstanceOf(ResponseStatusException.class);
+            verify(bannedIpService).banIp(TEST_IP_ADDRESS, "Abuse");
+            verify(userBanService).unmarkUserIpBan(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("IP Ban Check")
+    class IpBanCheckTests {
+        @Test
+        @DisplayName("Should reject request from banned IP address")
+        void checkIpBan_ShouldReject_WhenIpBanned() {
+            // Given
+            when(bannedIpService.isIpBanned(TEST_IP_ADDRESS)).thenReturn(true);
+
+            // When & Then
+            assertThatThrownBy(() -> banCheckAspect.checkIpBan(joinPoint)).isInstanceOf(ResponseStatusException.class);
+        }
+
+        @Test
+        @DisplayName("Should let request from other IP address pass")
+        void checkIpBan_ShouldPass_WhenIpNotBanned() {
+            // Given
+            when(bannedIpService.isIpBanned(TEST_IP_ADDRESS)).thenReturn(false);
+
+            // When & Then
+            assertThatCode(() -> banCheckAspect.checkIpBan(joinPoint)).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Should check the remote address when forwarded headers come from an untrusted client")
+        void checkIpBan_ShouldUseRemoteAddress_WhenNotTrustedProxy() {
+            // Given
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setRemoteAddr(TEST_IP_ADDRESS);
+            request.addHeader("X-Forwarded-For", "198.51.100.1");
+            request.addHeader("X-Real-IP", "198.51.100.2");
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            when(bannedIpService.isIpBanned(TEST_IP_ADDRESS)).thenReturn(true);
+
+            // When & Then
+            assertThatThrownBy(() -> banCheckAspect.checkIpBan(joinPoint)).isInstanceOf(ResponseStatusException.class);
+            verify(bannedIpService, never()).isIpBanned("198.51.100.1");
+        }
+    }
+}
@@ -1,13 +1,13 @@
 package fans.goldenglow.plumaspherebackend.controller;
 
-import fans.goldenglow.plumaspherebackend.dto.BanRequestDto;
-import fans.goldenglow.plumaspherebackend.dto.UserAdminDto;
+import fans.goldenglow.plumaspherebackend.constant.BulkModerationAction;
+import fans.goldenglow.plumaspherebackend.dto.*;
 import fans.goldenglow.plumaspherebackend.entity.BannedIp;
 import fans.goldenglow.plumaspherebackend.entity.User;
 import fans.goldenglow.plumaspherebackend.mapper.UserMapper;
 import fans.goldenglow.plumaspherebackend.service.BannedIpService;
+import fans.goldenglow.plumaspherebackend.service.BulkModerationService;
 import fans.goldenglow.plumaspherebackend.service.UserBanService;
-import fans.goldenglow.plumaspherebackend.service.UserService;
 import org.junit.jupiter.api.*;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -16,11 +16,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -30,10 +32,10 @@ class AdminControllerTest {
     @Mock
     private BannedIpService bannedIpService;
     @Mock
-    private UserService userService;
-    @Mock
     private UserBanService userBanService;
     @Mock
+    private BulkModerationService bulkModerationService;
+    @Mock
     private UserMapper userMapper;
     @InjectMocks
     private AdminController adminController;
@@ -112,6 +114,78 @@ class AdminControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/v1/admin/ban-ip")
+    class BanIp {
+        @Test
+        @DisplayName("Should ban IP range permanently")
+        void banIp_Range() {
+            BanIPRequestDto dto = new BanIPRequestDto("203.0.113.0/24", "spam", null);
+            ResponseEntity<String> response = adminController.banIp(dto);
+            assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+            verify(bannedIpService).banIp("203.0.113.0/24", "spam");
+        }
+
+        @Test
+        @DisplayName("Should return bad request for malformed IP address")
+        void banIp_Malformed() {
+            BanIPRequestDto dto = new BanIPRequestDto("example.com", "spam", null);
+            doThrow(new IllegalArgumentException("Invalid IP address example.com")).when(bannedIpService).banIp("example.com", "spam");
+            ResponseEntity<String> response = adminController.banIp(dto);
+            assertThat(response.getStatusCode().is4xxClientError()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk moderation")
+    class BulkModeration {
+        @Test
+        @DisplayName("Should accept bulk ban and return job ID")
+        void bulkBanUsers_Accepted() {
+            BulkModerationRequestDto dto = new BulkModerationRequestDto(List.of(1L, 2L), null, null, null, "spam", null);
+            when(bulkModerationService.submit(BulkModerationAction.BAN, dto)).thenReturn("job-1");
+            ResponseEntity<StringDto> response = adminController.bulkBanUsers(dto);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+            assertThat(response.getBody()).isEqualTo(new StringDto("job-1"));
+        }
+
+        @Test
+        @DisplayName("Should return bad request for invalid bulk request")
+        void bulkDeleteUsers_Invalid() {
+            BulkModerationRequestDto dto = new BulkModerationRequestDto();
+            when(bulkModerationService.submit(BulkModerationAction.DELETE, dto)).thenThrow(new IllegalArgumentException("No users selected"));
+            ResponseEntity<StringDto> response = adminController.bulkDeleteUsers(dto);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        @Test
+        @DisplayName("Should return service unavailable when too many jobs are waiting")
+        void bulkUnbanUsers_Rejected() {
+            BulkModerationRequestDto dto = new BulkModerationRequestDto(List.of(1L), null, null, null, null, null);
+            when(bulkModerationService.submit(BulkModerationAction.UNBAN, dto)).thenThrow(new IllegalStateException("Too many jobs"));
+            ResponseEntity<StringDto> response = adminController.bulkUnbanUsers(dto);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        @Test
+        @DisplayName("Should return job progress")
+        void getBulkJob_Found() {
+            BulkModerationJobDto job = new BulkModerationJobDto();
+            job.setJobId("job-1");
+            when(bulkModerationService.getJob("job-1")).thenReturn(Optional.of(job));
+            ResponseEntity<BulkModerationJobDto> response = adminController.getBulkJob("job-1");
+            assertThat(response.getBody()).isEqualTo(job);
+        }
+
+        @Test
+        @DisplayName("Should return not found for unknown job")
+        void getBulkJob_NotFound() {
+            when(bulkModerationService.getJob("job-2")).thenReturn(Optional.empty());
+            ResponseEntity<BulkModerationJobDto> response = adminController.getBulkJob("job-2");
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/v1/admin/banned-users/search")
     class SearchBannedUsers {
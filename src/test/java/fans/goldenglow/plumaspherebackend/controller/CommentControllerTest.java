@@ -5,7 +5,7 @@ import fans.goldenglow.plumaspherebackend.dto.CommentDto;
 import fans.goldenglow.plumaspherebackend.entity.Comment;
 import fans.goldenglow.plumaspherebackend.entity.Post;
 import fans.goldenglow.plumaspherebackend.entity.User;
-import fans.goldenglow.plumaspherebackend.handler.WebSocketHandler;
+import fans.goldenglow.plumaspherebackend.event.CommentAddedEvent;
 import fans.goldenglow.plumaspherebackend.mapper.CommentMapper;
 import fans.goldenglow.plumaspherebackend.service.CommentService;
 import fans.goldenglow.plumaspherebackend.service.ConfigService;
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.*;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.HttpStatus;
@@ -30,6 +31,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @DisplayName("CommentController Tests")
@@ -45,7 +47,7 @@ class CommentControllerTest {
     @Mock
     private ConfigService configService;
     @Mock
-    private WebSocketHandler webSocketHandler;
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private CommentController commentController;
     private AutoCloseable mocks;
@@ -109,8 +111,11 @@ class CommentControllerTest {
             JwtAuthenticationToken token = createJwtToken("10");
             when(postService.findById(1L)).thenReturn(Optional.of(post));
             when(userService.findById(10L)).thenReturn(Optional.of(user));
+            CommentDto commentDto = new CommentDto();
+            when(commentMapper.toDto(any(Comment.class))).thenReturn(commentDto);
             ResponseEntity<Void> response = commentController.replyPost(1L, dto, token);
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            verify(eventPublisher).publishEvent(CommentAddedEvent.onPost(1L, commentDto));
         }
 
         @Test
@@ -151,8 +156,11 @@ class CommentControllerTest {
             JwtAuthenticationToken token = createJwtToken("10");
             when(commentService.findById(2L)).thenReturn(Optional.of(parent));
             when(userService.findById(10L)).thenReturn(Optional.of(user));
+            CommentDto replyDto = new CommentDto();
+            when(commentMapper.toDto(any(Comment.class))).thenReturn(replyDto);
             ResponseEntity<Void> response = commentController.replyComment(2L, dto, token);
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            verify(eventPublisher).publishEvent(CommentAddedEvent.onComment(2L, replyDto));
         }
 
         @Test
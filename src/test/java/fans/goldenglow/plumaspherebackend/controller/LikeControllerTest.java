@@ -1,9 +1,7 @@
 package fans.goldenglow.plumaspherebackend.controller;
 
-import fans.goldenglow.plumaspherebackend.dto.websocket.WebSocketMessageDto;
-import fans.goldenglow.plumaspherebackend.handler.WebSocketHandler;
-import fans.goldenglow.plumaspherebackend.service.CommentService;
 import fans.goldenglow.plumaspherebackend.service.LikeCacheService;
+import fans.goldenglow.plumaspherebackend.service.WebSocketNotificationService;
 import org.junit.jupiter.api.*;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -21,9 +19,7 @@ class LikeControllerTest {
     @Mock
     private LikeCacheService likeCacheService;
     @Mock
-    private WebSocketHandler webSocketHandler;
-    @Mock
-    private CommentService commentService;
+    private WebSocketNotificationService webSocketNotificationService;
     @InjectMocks
     private LikeController likeController;
     private AutoCloseable mocks;
@@ -116,7 +112,25 @@ class LikeControllerTest {
             ResponseEntity<Void> response = likeController.likePost(1L, token);
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             verify(likeCacheService).switchPostLike(1L, 10L);
-            verify(webSocketHandler).sendMessageToPost(eq(1L), any(WebSocketMessageDto.class));
+            verify(webSocketNotificationService).notifyPostLiked(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /comment/{commentId}/like")
+    class LikeComment {
+        @Test
+        @DisplayName("Should like comment and notify websocket clients")
+        void likeComment_ShouldSucceed() {
+            Jwt jwt = mock(Jwt.class);
+            when(jwt.getSubject()).thenReturn("10");
+            JwtAuthenticationToken token = mock(JwtAuthenticationToken.class);
+            when(token.getToken()).thenReturn(jwt);
+
+            ResponseEntity<Void> response = likeController.likeComment(2L, token);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            verify(likeCacheService).switchCommentLike(2L, 10L);
+            verify(webSocketNotificationService).notifyCommentLiked(2L);
         }
     }
 }
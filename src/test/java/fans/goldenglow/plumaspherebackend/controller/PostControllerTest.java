@@ -5,6 +5,7 @@ import fans.goldenglow.plumaspherebackend.dto.PostDto;
 import fans.goldenglow.plumaspherebackend.entity.Post;
 import fans.goldenglow.plumaspherebackend.entity.User;
 import fans.goldenglow.plumaspherebackend.mapper.PostMapper;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostSummary;
 import fans.goldenglow.plumaspherebackend.service.ConfigService;
 import fans.goldenglow.plumaspherebackend.service.PostService;
 import fans.goldenglow.plumaspherebackend.service.TagService;
@@ -72,11 +73,11 @@ class PostControllerTest {
         @Test
         @DisplayName("Should return paged posts")
         void getPosts_ShouldReturnPagedPosts() {
-            List<Post> posts = List.of(new Post());
-            Page<Post> page = new PageImpl<>(posts);
+            List<PostSummary> summaries = List.of(new PostSummary(1L, "title", "desc", 1L, null, null));
+            Page<PostSummary> page = new PageImpl<>(summaries);
             List<PostDto> dtos = List.of(new PostDto());
-            when(postService.findAll(any(PageRequest.class))).thenReturn(page);
-            when(postMapper.toDto(posts)).thenReturn(dtos);
+            when(postService.findAllSummaries(any(PageRequest.class))).thenReturn(page);
+            when(postMapper.summariesToDto(summaries)).thenReturn(dtos);
             ResponseEntity<List<PostDto>> response = postController.getPosts(0);
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isEqualTo(dtos);
@@ -85,8 +86,8 @@ class PostControllerTest {
         @Test
         @DisplayName("Should return empty list when no posts")
         void getPosts_ShouldReturnEmptyList() {
-            when(postService.findAll(any(PageRequest.class))).thenReturn(new PageImpl<>(Collections.emptyList()));
-            when(postMapper.toDto(Collections.emptyList())).thenReturn(Collections.emptyList());
+            when(postService.findAllSummaries(any(PageRequest.class))).thenReturn(new PageImpl<>(Collections.emptyList()));
+            when(postMapper.summariesToDto(Collections.emptyList())).thenReturn(Collections.emptyList());
             ResponseEntity<List<PostDto>> response = postController.getPosts(0);
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isEmpty();
@@ -99,11 +100,11 @@ class PostControllerTest {
         @Test
         @DisplayName("Should return search results")
         void searchPosts_ShouldReturnResults() {
-            List<Post> posts = List.of(new Post());
-            Page<Post> page = new PageImpl<>(posts);
+            List<PostSummary> summaries = List.of(new PostSummary(1L, "title", "desc", 1L, null, null));
+            Page<PostSummary> page = new PageImpl<>(summaries);
             List<PostDto> dtos = List.of(new PostDto());
-            when(postService.searchPosts(eq("q"), any(PageRequest.class))).thenReturn(page);
-            when(postMapper.toDto(posts)).thenReturn(dtos);
+            when(postService.searchSummaries(eq("q"), any(PageRequest.class))).thenReturn(page);
+            when(postMapper.summariesToDto(summaries)).thenReturn(dtos);
             ResponseEntity<List<PostDto>> response = postController.searchPosts("q", 0);
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isEqualTo(dtos);
@@ -142,11 +143,11 @@ class PostControllerTest {
         @Test
         @DisplayName("Should return posts by tag")
         void getPostsByTag_ShouldReturnPosts() {
-            List<Post> posts = List.of(new Post());
-            Page<Post> page = new PageImpl<>(posts);
+            List<PostSummary> summaries = List.of(new PostSummary(1L, "title", "desc", 1L, null, null));
+            Page<PostSummary> page = new PageImpl<>(summaries);
             List<PostDto> dtos = List.of(new PostDto());
-            when(postService.findByTagName(eq("tag"), any(PageRequest.class))).thenReturn(page);
-            when(postMapper.toDto(posts)).thenReturn(dtos);
+            when(postService.findSummariesByTagName(eq("tag"), any(PageRequest.class))).thenReturn(page);
+            when(postMapper.summariesToDto(summaries)).thenReturn(dtos);
             ResponseEntity<List<PostDto>> response = postController.getPostsByTag("tag", 0);
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isEqualTo(dtos);
@@ -215,9 +216,57 @@ class PostControllerTest {
             PostDto dto = new PostDto();
             when(postService.findById(1L)).thenReturn(Optional.of(post));
             when(postMapper.toDto(post)).thenReturn(dto);
+            when(postService.findTagNames(1L)).thenReturn(List.of("rare", "popular"));
             ResponseEntity<PostDto> response = postController.getPost(1L);
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isEqualTo(dto);
+            assertThat(dto.getTags()).containsExactly("rare", "popular");
+        }
+
+        @Test
+        @DisplayName("Should render HTML on the fly if post has no pre-rendered HTML")
+        void getPost_ShouldRenderHtml_WhenNotPreRendered() {
+            Post post = new Post();
+            post.setContent("content");
+            PostDto dto = new PostDto();
+            when(postService.findById(1L)).thenReturn(Optional.of(post));
+            when(postMapper.toDto(post)).thenReturn(dto);
+            when(postService.renderHtml("content")).thenReturn("<p>content</p>\n");
+            ResponseEntity<PostDto> response = postController.getPost(1L);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isNotNull();
+            assertThat(response.getBody().getRenderedHtml()).isEqualTo("<p>content</p>\n");
+        }
+
+        @Test
+        @DisplayName("Should render HTML on the fly if post is pending processing")
+        void getPost_ShouldRenderHtml_WhenProcessingPending() {
+            Post post = new Post();
+            post.setContent("new content");
+            post.setRenderedHtml("<p>old content</p>\n");
+            post.setProcessingPending(true);
+            PostDto dto = new PostDto();
+            when(postService.findById(1L)).thenReturn(Optional.of(post));
+            when(postMapper.toDto(post)).thenReturn(dto);
+            when(postService.renderHtml("new content")).thenReturn("<p>new content</p>\n");
+            ResponseEntity<PostDto> response = postController.getPost(1L);
+            assertThat(response.getBody()).isNotNull();
+            assertThat(response.getBody().getRenderedHtml()).isEqualTo("<p>new content</p>\n");
+        }
+
+        @Test
+        @DisplayName("Should not re-render HTML if post is pre-rendered")
+        void getPost_ShouldNotRenderHtml_WhenPreRendered() {
+            Post post = new Post();
+            post.setContent("content");
+            post.setRenderedHtml("<p>content</p>\n");
+            PostDto dto = new PostDto();
+            dto.setRenderedHtml("<p>content</p>\n");
+            when(postService.findById(1L)).thenReturn(Optional.of(post));
+            when(postMapper.toDto(post)).thenReturn(dto);
+            ResponseEntity<PostDto> response = postController.getPost(1L);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            verify(postService, never()).renderHtml(anyString());
         }
 
         @Test
@@ -243,10 +292,11 @@ class PostControllerTest {
             dto.setContent("content");
             dto.setTags(Collections.emptyList());
             when(tagService.dtoToEntity(anyList())).thenReturn(Collections.emptySet());
-            when(postService.generateDescription("content")).thenReturn("desc");
             ResponseEntity<Void> response = postController.createPost(dto, token);
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-            verify(postService).save(any(Post.class));
+            verify(postService).saveWithContentChange(argThat(saved -> "content".equals(saved.getContent())));
+            verify(postService, never()).generateDescription(anyString());
+            verify(postService, never()).renderHtml(anyString());
         }
 
         @Test
@@ -275,10 +325,11 @@ class PostControllerTest {
             dto.setTags(Collections.emptyList());
             when(postService.findById(1L)).thenReturn(Optional.of(post));
             when(tagService.dtoToEntity(anyList())).thenReturn(Collections.emptySet());
-            when(postService.generateDescription("content")).thenReturn("desc");
             ResponseEntity<Void> response = postController.updatePost(dto);
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-            verify(postService).save(post);
+            assertThat(post.getContent()).isEqualTo("content");
+            verify(postService).saveWithContentChange(post);
+            verify(postService, never()).generateDescription(anyString());
         }
 
         @Test
@@ -1,7 +1,7 @@
 package fans.goldenglow.plumaspherebackend.controller;
 
 import fans.goldenglow.plumaspherebackend.dto.TagDto;
-import fans.goldenglow.plumaspherebackend.entity.Tag;
+import fans.goldenglow.plumaspherebackend.repository.projection.TagPostCount;
 import fans.goldenglow.plumaspherebackend.service.TagService;
 import org.junit.jupiter.api.*;
 import org.mockito.InjectMocks;
@@ -39,11 +39,8 @@ class TagControllerTest {
         @Test
         @DisplayName("Should return all tags sorted by post count")
         void getAllTags_ShouldReturnList() {
-            Tag tag = new Tag("tag1");
-            tag.setId(1L);
-            tag.setPosts(Collections.emptySet());
             TagDto dto = new TagDto(1L, "tag1", 0);
-            when(tagService.findAll()).thenReturn(List.of(tag));
+            when(tagService.findAllWithPostCount()).thenReturn(List.of(new TagPostCount(1L, "tag1", 0)));
             ResponseEntity<List<TagDto>> response = tagController.getAllTags();
             assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
             assertThat(response.getBody()).containsExactly(dto);
@@ -52,7 +49,7 @@ class TagControllerTest {
         @Test
         @DisplayName("Should return empty list when no tags")
         void getAllTags_ShouldReturnEmpty() {
-            when(tagService.findAll()).thenReturn(Collections.emptyList());
+            when(tagService.findAllWithPostCount()).thenReturn(Collections.emptyList());
             ResponseEntity<List<TagDto>> response = tagController.getAllTags();
             assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
             assertThat(response.getBody()).isEmpty();
@@ -0,0 +1,209 @@
+package fans.goldenglow.plumaspherebackend.handler;
+
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import fans.goldenglow.plumaspherebackend.util.ClientIpResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("WebSocketConnectionLimiter Tests")
+class WebSocketConnectionLimiterTest {
+    private static final String CLIENT_IP = "203.0.113.7";
+
+    private WebSocketProperties properties;
+    private MeterRegistry meterRegistry;
+    private WebSocketConnectionLimiter connectionLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WebSocketProperties();
+        properties.setMaxConnections(3);
+        properties.setMaxConnectionsPerIp(2);
+        meterRegistry = new SimpleMeterRegistry();
+        connectionLimiter = new WebSocketConnectionLimiter(properties, meterRegistry, new ClientIpResolver(properties));
+    }
+
+    private Map<String, Object> handshake(MockHttpServletRequest request) {
+        Map<String, Object> attributes = new HashMap<>();
+        connectionLimiter.beforeHandshake(new ServletServerHttpRequest(request),
+                new ServletServerHttpResponse(new MockHttpServletResponse()), mock(WebSocketHandler.class), attributes);
+        return attributes;
+    }
+
+    private static WebSocketSession session(String clientIp) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(WebSocketConnectionLimiter.CLIENT_IP_ATTRIBUTE, clientIp);
+        when(session.getAttributes()).thenReturn(attributes);
+        return session;
+    }
+
+    @Nested
+    @DisplayName("Connection Slots")
+    class ConnectionSlotTests {
+        @Test
+        @DisplayName("Should reject connections over the per-IP limit")
+        void acquire_ShouldReject_WhenIpLimitReached() {
+            // When & Then
+            assertThat(connectionLimiter.acquire(session(CLIENT_IP))).isTrue();
+            assertThat(connectionLimiter.acquire(session(CLIENT_IP))).isTrue();
+            assertThat(connectionLimiter.acquire(session(CLIENT_IP))).isFalse();
+            assertThat(connectionLimiter.getConnections()).isEqualTo(2);
+            assertThat(meterRegistry.get("websocket.connections.rejected").tag("limit", "ip").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reject connections over the total limit")
+        void acquire_ShouldReject_WhenTotalLimitReached() {
+            // When & Then
+            assertThat(connectionLimiter.acquire(session("203.0.113.1"))).isTrue();
+            assertThat(connectionLimiter.acquire(session("203.0.113.2"))).isTrue();
+            assertThat(connectionLimiter.acquire(session("203.0.113.3"))).isTrue();
+            assertThat(connectionLimiter.acquire(session("203.0.113.4"))).isFalse();
+            assertThat(connectionLimiter.getConnections()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should free the slot of a released connection")
+        void release_ShouldFreeSlot() {
+            // Given
+            WebSocketSession session = session(CLIENT_IP);
+            connectionLimiter.acquire(session);
+            connectionLimiter.acquire(session(CLIENT_IP));
+
+            // When
+            connectionLimiter.release(session);
+
+            // Then
+            assertThat(connectionLimiter.acquire(session(CLIENT_IP))).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Handshake")
+    class HandshakeTests {
+        @Test
+        @DisplayName("Should store the client IP forwarded by trusted proxies and accept the handshake")
+        void beforeHandshake_ShouldAccept_WhenBelowLimits() {
+            // Given
+            properties.setTrustedProxies(List.of("127.0.0.1", "10.0.0.0/8"));
+            connectionLimiter = new WebSocketConnectionLimiter(properties, meterRegistry, new ClientIpResolver(properties));
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader("X-Forwarded-For", CLIENT_IP + ", 10.0.0.1");
+            Map<String, Object> attributes = new HashMap<>();
+
+            // When
+            boolean accepted = connectionLimiter.beforeHandshake(new ServletServerHttpRequest(request),
+                    new ServletServerHttpResponse(new MockHttpServletResponse()), mock(WebSocketHandler.class), attributes);
+
+            // Then
+            assertThat(accepted).isTrue();
+            assertThat(attributes).containsEntry(WebSocketConnectionLimiter.CLIENT_IP_ATTRIBUTE, CLIENT_IP);
+        }
+
+        @Test
+        @DisplayName("Should ignore forwarded headers from a client that is not a trusted proxy")
+        void beforeHandshake_ShouldUseRemoteAddress_WhenNotTrustedProxy() {
+            // Given
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setRemoteAddr(CLIENT_IP);
+            request.addHeader("X-Forwarded-For", "198.51.100.1");
+            request.addHeader("X-Real-IP", "198.51.100.2");
+
+            // When
+            Map<String, Object> attributes = handshake(request);
+
+            // Then
+            assertThat(attributes).containsEntry(WebSocketConnectionLimiter.CLIENT_IP_ATTRIBUTE, CLIENT_IP);
+        }
+
+        @Test
+        @DisplayName("Should ignore the addresses a client prepends to the forwarded chain")
+        void beforeHandshake_ShouldUseLastUntrustedHop_WhenChainForged() {
+            // Given
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader("X-Forwarded-For", "198.51.100.1, " + CLIENT_IP);
+
+            // When
+            Map<String, Object> attributes = handshake(request);
+
+            // Then
+            assertThat(attributes).containsEntry(WebSocketConnectionLimiter.CLIENT_IP_ATTRIBUTE, CLIENT_IP);
+        }
+
+        @Test
+        @DisplayName("Should reject the handshake with 429 when the per-IP limit is reached")
+        void beforeHandshake_ShouldReject_WhenIpLimitReached() {
+            // Given
+            connectionLimiter.acquire(session(CLIENT_IP));
+            connectionLimiter.acquire(session(CLIENT_IP));
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setRemoteAddr(CLIENT_IP);
+            request.setRemoteHost(CLIENT_IP);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            // When
+            boolean accepted = connectionLimiter.beforeHandshake(new ServletServerHttpRequest(request),
+                    new ServletServerHttpResponse(response), mock(WebSocketHandler.class), new HashMap<>());
+
+            // Then
+            assertThat(accepted).isFalse();
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        }
+    }
+
+    @Nested
+    @DisplayName("Draining")
+    class DrainingTests {
+        @Test
+        @DisplayName("Should reject the handshake with 503 once the node stops accepting")
+        void beforeHandshake_ShouldReject_WhenDraining() {
+            // Given
+            connectionLimiter.stopAccepting();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            // When
+            boolean accepted = connectionLimiter.beforeHandshake(new ServletServerHttpRequest(new MockHttpServletRequest()),
+                    new ServletServerHttpResponse(response), mock(WebSocketHandler.class), new HashMap<>());
+
+            // Then
+            assertThat(accepted).isFalse();
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+            assertThat(meterRegistry.get("websocket.connections.rejected").tag("limit", "draining").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should refuse slots but keep existing ones once the node stops accepting")
+        void acquire_ShouldReject_WhenDraining() {
+            // Given
+            WebSocketSession existing = session(CLIENT_IP);
+            connectionLimiter.acquire(existing);
+
+            // When
+            connectionLimiter.stopAccepting();
+
+            // Then
+            assertThat(connectionLimiter.isAccepting()).isFalse();
+            assertThat(connectionLimiter.acquire(session(CLIENT_IP))).isFalse();
+            assertThat(connectionLimiter.getConnections()).isEqualTo(1);
+        }
+    }
+}
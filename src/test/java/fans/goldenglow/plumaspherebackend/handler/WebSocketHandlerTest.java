@@ -0,0 +1,342 @@
+package fans.goldenglow.plumaspherebackend.handler;
+
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import fans.goldenglow.plumaspherebackend.service.CommentService;
+import fans.goldenglow.plumaspherebackend.service.PostService;
+import fans.goldenglow.plumaspherebackend.service.WebSocketReplayService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DisplayName("WebSocketHandler Tests")
+class WebSocketHandlerTest {
+    private static final WebSocketTopic POST_TOPIC = WebSocketTopic.post(1L);
+    private static final URI POST_URI = URI.create("ws://localhost/ws?postId=1");
+
+    private WebSocketProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private WebSocketConnectionLimiter connectionLimiter;
+    private WebSocketReplayService replayService;
+    private PostService postService;
+    private WebSocketHandler webSocketHandler;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WebSocketProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        connectionLimiter = mock(WebSocketConnectionLimiter.class);
+        when(connectionLimiter.acquire(any())).thenReturn(true);
+        WebSocketSubscriberRegistry subscriberRegistry = new WebSocketSubscriberRegistry(meterRegistry);
+        subscriberRegistry.init();
+        replayService = mock(WebSocketReplayService.class);
+        postService = mock(PostService.class);
+        when(postService.existsById(1L)).thenReturn(true);
+        webSocketHandler = new WebSocketHandler(properties, mock(ApplicationEventPublisher.class), subscriberRegistry,
+                connectionLimiter, replayService, postService, mock(CommentService.class), meterRegistry);
+        webSocketHandler.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        webSocketHandler.destroy();
+    }
+
+    private WebSocketSession connect(String id, List<String> received) throws Exception {
+        return connect(id, POST_URI, received);
+    }
+
+    private WebSocketSession connect(String id, URI uri, List<String> received) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.getUri()).thenReturn(uri);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            received.add(invocation.<WebSocketMessage<?>>getArgument(0).getPayload().toString());
+            return null;
+        }).when(session).sendMessage(any());
+        webSocketHandler.afterConnectionEstablished(session);
+        return session;
+    }
+
+    private WebSocketSession connectBlocked(String id, CountDownLatch unblock, List<String> received) throws Exception {
+        WebSocketSession session = connect(id, received);
+        doAnswer(invocation -> {
+            unblock.await();
+            received.add(invocation.<WebSocketMessage<?>>getArgument(0).getPayload().toString());
+            return null;
+        }).when(session).sendMessage(any());
+        return session;
+    }
+
+    private static String update(int n) {
+        return "{\"type\":\"UPDATE\",\"n\":" + n + "}";
+    }
+
+    private static String sequenced(long seq) {
+        return "{\"seq\":" + seq + ",\"type\":\"UPDATE\",\"topic\":\"post:1\"}";
+    }
+
+    private static String newComment(long seq, long commentId) {
+        return "{\"seq\":" + seq + ",\"type\":\"UPDATE\",\"topic\":\"post:1\",\"data\":{\"newComments\":[{\"id\":" + commentId + "}]}}";
+    }
+
+    @Nested
+    @DisplayName("Fan-out")
+    class FanOutTests {
+        @Test
+        @DisplayName("Should not wait for a blocked client nor delay other clients")
+        void sendText_ShouldNotWaitForBlockedClient() throws Exception {
+            // Given
+            CountDownLatch unblock = new CountDownLatch(1);
+            List<String> blockedReceived = new CopyOnWriteArrayList<>();
+            List<String> received = new CopyOnWriteArrayList<>();
+            connectBlocked("blocked", unblock, blockedReceived);
+            WebSocketSession session = connect("session", received);
+
+            // When
+            long start = System.nanoTime();
+            webSocketHandler.sendText(POST_TOPIC, update(1));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Then
+            assertThat(elapsedMillis).isLessThan(1000);
+            verify(session, timeout(1000)).sendMessage(new TextMessage(update(1)));
+            assertThat(blockedReceived).isEmpty();
+            unblock.countDown();
+        }
+
+        @Test
+        @DisplayName("Should send the frames to a session in the order they were broadcast")
+        void sendText_ShouldKeepOrderPerSession() throws Exception {
+            // Given
+            List<String> received = new CopyOnWriteArrayList<>();
+            WebSocketSession session = connect("session", received);
+            List<String> frames = IntStream.range(0, 200).mapToObj(WebSocketHandlerTest::update).toList();
+
+            // When
+            frames.forEach(frame -> webSocketHandler.sendText(POST_TOPIC, frame));
+
+            // Then
+            verify(session, timeout(2000).times(frames.size())).sendMessage(any());
+            assertThat(received).containsExactlyElementsOf(frames);
+        }
+    }
+
+    @Nested
+    @DisplayName("Send Limits")
+    class SendLimitTests {
+        @Test
+        @DisplayName("Should drop a session whose outbox exceeds the buffer size limit")
+        void sendText_ShouldDropSession_WhenBufferSizeLimitExceeded() throws Exception {
+            // Given
+            properties.setBufferSizeLimit(update(1).length() * 2);
+            CountDownLatch unblock = new CountDownLatch(1);
+            WebSocketSession session = connectBlocked("slow", unblock, new CopyOnWriteArrayList<>());
+            webSocketHandler.sendText(POST_TOPIC, update(1));
+            verify(session, timeout(1000)).sendMessage(any());
+
+            // When
+            for (int n = 2; n <= 4; n++) webSocketHandler.sendText(POST_TOPIC, update(n));
+
+            // Then
+            verify(session, timeout(1000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+            assertThat(meterRegistry.get("websocket.send.failures").tag("reason", "limit").counter().count()).isEqualTo(1);
+            unblock.countDown();
+        }
+
+        @Test
+        @DisplayName("Should drop a session whose send takes longer than the send time limit")
+        void sendText_ShouldDropSession_WhenSendTimeLimitExceeded() throws Exception {
+            // Given
+            properties.setSendTimeLimit(50);
+            CountDownLatch unblock = new CountDownLatch(1);
+            WebSocketSession session = connectBlocked("slow", unblock, new CopyOnWriteArrayList<>());
+            webSocketHandler.sendText(POST_TOPIC, update(1));
+            verify(session, timeout(1000)).sendMessage(any());
+            TimeUnit.MILLISECONDS.sleep(100);
+
+            // When
+            webSocketHandler.sendText(POST_TOPIC, update(2));
+
+            // Then
+            verify(session, timeout(1000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+            unblock.countDown();
+        }
+
+        @Test
+        @DisplayName("Should discard the oldest queued frames with the drop strategy")
+        void sendText_ShouldDropOldestFrames_WhenDropStrategy() throws Exception {
+            // Given
+            properties.setBufferSizeLimit(update(1).length() * 2);
+            properties.setOverflowStrategy(ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP);
+            CountDownLatch unblock = new CountDownLatch(1);
+            List<String> received = new CopyOnWriteArrayList<>();
+            WebSocketSession session = connectBlocked("slow", unblock, received);
+            webSocketHandler.sendText(POST_TOPIC, update(1));
+            verify(session, timeout(1000)).sendMessage(any());
+
+            // When
+            for (int n = 2; n <= 5; n++) webSocketHandler.sendText(POST_TOPIC, update(n));
+            unblock.countDown();
+
+            // Then
+            verify(session, timeout(1000).times(3)).sendMessage(any());
+            assertThat(received).containsExactly(update(1), update(4), update(5));
+            verify(session, never()).close(any());
+            assertThat(meterRegistry.get("websocket.send.failures").tag("reason", "dropped").counter().count()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Message Numbers")
+    class MessageNumberTests {
+        @Test
+        @DisplayName("Should drop a message the session was already sent")
+        void sendText_ShouldDropStaleMessage() throws Exception {
+            // Given
+            when(replayService.currentSeq(POST_TOPIC)).thenReturn(4L);
+            List<String> received = new CopyOnWriteArrayList<>();
+            WebSocketSession session = connect("session", received);
+
+            // When
+            webSocketHandler.sendText(POST_TOPIC, sequenced(5));
+            webSocketHandler.sendText(POST_TOPIC, sequenced(4));
+            webSocketHandler.sendText(POST_TOPIC, sequenced(5));
+            webSocketHandler.sendText(POST_TOPIC, sequenced(6));
+
+            // Then
+            verify(session, timeout(1000).times(2)).sendMessage(any());
+            assertThat(received).containsExactly(sequenced(5), sequenced(6));
+            assertThat(meterRegistry.get("websocket.broadcast.stale").counter().count()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should send messages arriving out of order in the order they were numbered")
+        void sendText_ShouldReorderMessages() throws Exception {
+            // Given
+            when(replayService.currentSeq(POST_TOPIC)).thenReturn(3L);
+            List<String> received = new CopyOnWriteArrayList<>();
+            WebSocketSession session = connect("session", received);
+
+            // When
+            webSocketHandler.sendText(POST_TOPIC, newComment(5, 50));
+            webSocketHandler.sendText(POST_TOPIC, newComment(4, 40));
+
+            // Then
+            verify(session, timeout(1000).times(2)).sendMessage(any());
+            assertThat(received).containsExactly(newComment(4, 40), newComment(5, 50));
+            verify(replayService, never()).replay(any(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should read a message that did not arrive within the reorder timeout from the replay buffer")
+        void sendText_ShouldReplayMissingMessage_WhenReorderTimeoutPassed() throws Exception {
+            // Given
+            properties.setReorderTimeout(50);
+            when(replayService.currentSeq(POST_TOPIC)).thenReturn(3L);
+            when(replayService.replay(POST_TOPIC, 3))
+                    .thenReturn(new WebSocketReplayService.Replay(List.of(newComment(4, 40), newComment(5, 50)), true));
+            List<String> received = new CopyOnWriteArrayList<>();
+            WebSocketSession session = connect("session", received);
+
+            // When
+            webSocketHandler.sendText(POST_TOPIC, newComment(5, 50));
+
+            // Then
+            verify(session, timeout(1000).times(2)).sendMessage(any());
+            assertThat(received).containsExactly(newComment(4, 40), newComment(5, 50));
+        }
+
+        @Test
+        @DisplayName("Should ask the client to resync when a missing message is no longer kept")
+        void sendText_ShouldResync_WhenMissingMessageNotKept() throws Exception {
+            // Given
+            properties.setReorderTimeout(50);
+            when(replayService.currentSeq(POST_TOPIC)).thenReturn(3L);
+            when(replayService.replay(POST_TOPIC, 3)).thenReturn(new WebSocketReplayService.Replay(List.of(), false));
+            List<String> received = new CopyOnWriteArrayList<>();
+            WebSocketSession session = connect("session", received);
+            webSocketHandler.sendText(POST_TOPIC, sequenced(5));
+            verify(session, timeout(1000)).sendMessage(any());
+
+            // When
+            webSocketHandler.sendText(POST_TOPIC, sequenced(4));
+            webSocketHandler.sendText(POST_TOPIC, sequenced(6));
+
+            // Then
+            verify(session, timeout(1000).times(2)).sendMessage(any());
+            assertThat(received).hasSize(2);
+            assertThat(received.getFirst()).contains("RESYNC").contains("post:1");
+            assertThat(received.getLast()).isEqualTo(sequenced(6));
+        }
+
+        @Test
+        @DisplayName("Should not send a message again that was already replayed")
+        void sendText_ShouldSkipReplayedMessage() throws Exception {
+            // Given
+            when(replayService.replay(POST_TOPIC, 3))
+                    .thenReturn(new WebSocketReplayService.Replay(List.of(sequenced(4), sequenced(5)), true));
+            List<String> received = new CopyOnWriteArrayList<>();
+            WebSocketSession session = connect("session", URI.create("ws://localhost/ws?postId=1&lastSeq=3"), received);
+
+            // When
+            webSocketHandler.sendText(POST_TOPIC, sequenced(5));
+            webSocketHandler.sendText(POST_TOPIC, sequenced(6));
+
+            // Then
+            verify(session, timeout(1000).times(3)).sendMessage(any());
+            assertThat(received).containsExactly(sequenced(4), sequenced(5), sequenced(6));
+        }
+    }
+
+    @Nested
+    @DisplayName("Subscriptions")
+    class SubscriptionTests {
+        @Test
+        @DisplayName("Should reject subscribing to the topic of a post that does not exist")
+        void handleTextMessage_ShouldReject_WhenPostDoesNotExist() throws Exception {
+            // Given
+            List<String> received = new CopyOnWriteArrayList<>();
+            WebSocketSession session = connect("session", URI.create("ws://localhost/ws"), received);
+
+            // When
+            webSocketHandler.handleTextMessage(session, new TextMessage("{\"type\":\"SUBSCRIBE\",\"topics\":[\"post:1\",\"post:404\"]}"));
+
+            // Then
+            verify(session, timeout(1000)).sendMessage(any());
+            assertThat(received).singleElement().asString().contains("ERROR").contains("post:404");
+            assertThat(webSocketHandler.hasSubscribers(POST_TOPIC)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should not subscribe a connection whose URI names a post that does not exist")
+        void afterConnectionEstablished_ShouldNotSubscribe_WhenPostDoesNotExist() throws Exception {
+            // When
+            connect("session", URI.create("ws://localhost/ws?postId=404"), new CopyOnWriteArrayList<>());
+
+            // Then
+            assertThat(webSocketHandler.hasSubscribers(WebSocketTopic.post(404L))).isFalse();
+        }
+    }
+}
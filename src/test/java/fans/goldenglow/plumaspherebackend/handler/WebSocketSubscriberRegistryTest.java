@@ -0,0 +1,150 @@
+package fans.goldenglow.plumaspherebackend.handler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("WebSocketSubscriberRegistry Tests")
+class WebSocketSubscriberRegistryTest {
+    private static final WebSocketTopic POST_TOPIC = WebSocketTopic.post(1L);
+
+    private MeterRegistry meterRegistry;
+    private WebSocketSubscriberRegistry subscriberRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subscriberRegistry = new WebSocketSubscriberRegistry(meterRegistry);
+        subscriberRegistry.init();
+    }
+
+    @Nested
+    @DisplayName("Subscribers")
+    class SubscriberTests {
+        @Test
+        @DisplayName("Should add and remove sessions of a topic")
+        void addAndRemove_ShouldTrackSessions() {
+            // Given
+            WebSocketSession first = mock(WebSocketSession.class);
+            WebSocketSession second = mock(WebSocketSession.class);
+
+            // When
+            subscriberRegistry.add(POST_TOPIC, first);
+            subscriberRegistry.add(POST_TOPIC, second);
+            subscriberRegistry.add(POST_TOPIC, second);
+            subscriberRegistry.remove(POST_TOPIC, first);
+
+            // Then
+            assertThat(subscriberRegistry.count(POST_TOPIC)).isEqualTo(1);
+            assertThat(subscriberRegistry.get(POST_TOPIC)).containsExactly(second);
+        }
+
+        @Test
+        @DisplayName("Should return no sessions for a topic without subscribers")
+        void get_ShouldReturnEmpty_WhenNoSubscribers() {
+            // When & Then
+            assertThat(subscriberRegistry.get(POST_TOPIC)).isEmpty();
+            assertThat(subscriberRegistry.count(POST_TOPIC)).isZero();
+        }
+
+        @Test
+        @DisplayName("Should not lose sessions joining while others leave")
+        void addAndRemove_ShouldKeepJoiningSessions_WhenConcurrent() throws Exception {
+            // Given
+            int sessions = 1000;
+            List<WebSocketSession> leaving = new ArrayList<>();
+            List<WebSocketSession> joining = new ArrayList<>();
+            for (int i = 0; i < sessions; i++) {
+                WebSocketSession session = mock(WebSocketSession.class);
+                subscriberRegistry.add(POST_TOPIC, session);
+                leaving.add(session);
+                joining.add(mock(WebSocketSession.class));
+            }
+            CountDownLatch start = new CountDownLatch(1);
+
+            // When
+            try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+                List<Future<?>> futures = new ArrayList<>();
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    leaving.forEach(session -> subscriberRegistry.remove(POST_TOPIC, session));
+                    return null;
+                }));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    joining.forEach(session -> subscriberRegistry.add(POST_TOPIC, session));
+                    return null;
+                }));
+                start.countDown();
+                for (Future<?> future : futures) future.get();
+            }
+
+            // Then
+            assertThat(subscriberRegistry.count(POST_TOPIC)).isEqualTo(sessions);
+            assertThat(subscriberRegistry.get(POST_TOPIC)).containsExactlyInAnyOrderElementsOf(joining);
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics")
+    class MetricsTests {
+        @Test
+        @DisplayName("Should report topics and subscribers per topic type")
+        void gauges_ShouldReportSubscribersPerType() {
+            // Given
+            subscriberRegistry.add(POST_TOPIC, mock(WebSocketSession.class));
+            subscriberRegistry.add(POST_TOPIC, mock(WebSocketSession.class));
+            subscriberRegistry.add(WebSocketTopic.post(2L), mock(WebSocketSession.class));
+            subscriberRegistry.add(WebSocketTopic.comment(3L), mock(WebSocketSession.class));
+
+            // When & Then
+            assertThat(meterRegistry.get("websocket.topics").tag("type", "post").gauge().value()).isEqualTo(2);
+            assertThat(meterRegistry.get("websocket.topics").tag("type", "comment").gauge().value()).isEqualTo(1);
+            assertThat(meterRegistry.get("websocket.topic.subscribers").tag("type", "post").gauge().value()).isEqualTo(3);
+            assertThat(meterRegistry.get("websocket.topic.subscribers.max").tag("type", "post").gauge().value()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should not register meters per topic")
+        void gauges_ShouldNotGrowWithTopics() {
+            // Given
+            int meters = meterRegistry.getMeters().size();
+
+            // When
+            for (long id = 0; id < 100; id++) subscriberRegistry.add(WebSocketTopic.post(id), mock(WebSocketSession.class));
+
+            // Then
+            assertThat(meterRegistry.getMeters()).hasSize(meters);
+        }
+
+        @Test
+        @DisplayName("Should stop counting a topic when its last subscriber leaves")
+        void remove_ShouldStopCounting_WhenLastSubscriberLeaves() {
+            // Given
+            WebSocketSession session = mock(WebSocketSession.class);
+            subscriberRegistry.add(POST_TOPIC, session);
+
+            // When
+            subscriberRegistry.remove(POST_TOPIC, session);
+
+            // Then
+            assertThat(meterRegistry.get("websocket.topic.subscribers").tag("type", "post").gauge().value()).isZero();
+            assertThat(meterRegistry.get("websocket.topics").tag("type", "post").gauge().value()).isZero();
+            assertThat(meterRegistry.get("websocket.topic.subscribers.max").tag("type", "post").gauge().value()).isZero();
+        }
+    }
+}
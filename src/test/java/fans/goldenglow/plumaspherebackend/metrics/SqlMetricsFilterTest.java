@@ -0,0 +1,115 @@
+package fans.goldenglow.plumaspherebackend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SqlMetricsFilter Tests")
+class SqlMetricsFilterTest {
+    private static final String ENDPOINT = "PostController.getPosts";
+
+    private MeterRegistry meterRegistry;
+    private SqlMetricsFilter sqlMetricsFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sqlMetricsFilter = new SqlMetricsFilter(meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Metric Recording")
+    class MetricRecordingTests {
+        @Test
+        @DisplayName("Should record statements, rows and database time per endpoint")
+        void doFilter_ShouldRecordMetricsPerEndpoint() throws Exception {
+            // Given
+            FilterChain chain = (request, response) -> {
+                SqlMetricsContext context = SqlMetricsContext.current();
+                context.setEndpoint(ENDPOINT);
+                context.recordQuery(10, false);
+                context.recordQuery(600, true);
+                context.recordRow();
+                context.recordRow();
+                context.recordRow();
+            };
+
+            // When
+            sqlMetricsFilter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+
+            // Then
+            assertThat(meterRegistry.get("http.server.sql.queries").tag("endpoint", ENDPOINT).summary().totalAmount()).isEqualTo(2);
+            assertThat(meterRegistry.get("http.server.sql.rows").tag("endpoint", ENDPOINT).summary().totalAmount()).isEqualTo(3);
+            assertThat(meterRegistry.get("http.server.sql.time").tag("endpoint", ENDPOINT).timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(610);
+            assertThat(meterRegistry.get("http.server.sql.slow").tag("endpoint", ENDPOINT).counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should label requests without a handler as unmapped")
+        void doFilter_ShouldUseUnmappedEndpoint_WhenNoHandler() throws Exception {
+            // When
+            sqlMetricsFilter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (request, response) -> {
+            });
+
+            // Then
+            assertThat(meterRegistry.get("http.server.sql.queries").tag("endpoint", SqlMetricsContext.UNMAPPED).summary().count()).isEqualTo(1);
+            assertThat(meterRegistry.find("http.server.sql.slow").counter()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Context Lifecycle")
+    class ContextLifecycleTests {
+        @Test
+        @DisplayName("Should unbind context after request")
+        void doFilter_ShouldUnbindContext() throws Exception {
+            // When
+            sqlMetricsFilter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                    (request, response) -> assertThat(SqlMetricsContext.current()).isNotNull());
+
+            // Then
+            assertThat(SqlMetricsContext.current()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should unbind context and record metrics when request fails")
+        void doFilter_ShouldUnbindContext_WhenRequestFails() {
+            // Given
+            FilterChain chain = (request, response) -> {
+                SqlMetricsContext.current().setEndpoint(ENDPOINT);
+                throw new IllegalStateException("boom");
+            };
+
+            // When & Then
+            assertThatThrownBy(() -> sqlMetricsFilter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(SqlMetricsContext.current()).isNull();
+            assertThat(meterRegistry.get("http.server.sql.queries").tag("endpoint", ENDPOINT).summary().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should tag statements with the current endpoint")
+        void statementInspector_ShouldTagStatementsWithEndpoint() throws Exception {
+            // Given
+            SqlEndpointStatementInspector inspector = new SqlEndpointStatementInspector();
+
+            // When & Then
+            assertThat(inspector.inspect("select 1")).isEqualTo("select 1");
+            sqlMetricsFilter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (request, response) -> {
+                SqlMetricsContext.current().setEndpoint(ENDPOINT);
+                assertThat(inspector.inspect("select 1")).isEqualTo("/* " + ENDPOINT + " */ select 1");
+            });
+        }
+    }
+}
@@ -94,6 +94,31 @@ class BannedIpRepositoryTest {
             boolean notExists = bannedIpRepository.existsByIpAddressAndExpiresAtAfter("nonExistentIp", LocalDateTime.now());
             assertThat(notExists).isFalse();
         }
+
+        @Test
+        @DisplayName("Should treat permanent and unexpired bans as active")
+        void existsActiveByIpAddress_ShouldIncludePermanentBans() {
+            entityManager.persist(new BannedIp("permanentIp", TEST_REASON));
+            entityManager.persistAndFlush(new BannedIp("expiredIp", TEST_REASON, LocalDateTime.now().minusDays(1)));
+
+            assertThat(bannedIpRepository.existsActiveByIpAddress(TEST_IP_ADDRESS, LocalDateTime.now())).isTrue();
+            assertThat(bannedIpRepository.existsActiveByIpAddress("permanentIp", LocalDateTime.now())).isTrue();
+            assertThat(bannedIpRepository.existsActiveByIpAddress("expiredIp", LocalDateTime.now())).isFalse();
+            assertThat(bannedIpRepository.existsActiveByIpAddress("nonExistentIp", LocalDateTime.now())).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should find all permanent and unexpired bans")
+        void findAllActive_ShouldReturnPermanentAndUnexpiredBans() {
+            entityManager.persist(new BannedIp("permanentIp", TEST_REASON));
+            entityManager.persistAndFlush(new BannedIp("expiredIp", TEST_REASON, LocalDateTime.now().minusDays(1)));
+
+            List<BannedIp> activeBans = bannedIpRepository.findAllActive(LocalDateTime.now());
+
+            assertThat(activeBans)
+                    .extracting(BannedIp::getIpAddress)
+                    .containsExactlyInAnyOrder(TEST_IP_ADDRESS, "permanentIp");
+        }
     }
 
     @Nested
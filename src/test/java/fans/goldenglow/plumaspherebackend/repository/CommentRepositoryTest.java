@@ -260,6 +260,24 @@ class CommentRepositoryTest {
             // Then
             assertThat(comments).isEmpty();
         }
+
+        @Test
+        @DisplayName("Should count child comments of parent comment")
+        void countByParentCommentId_ShouldReturnCorrectCount() {
+            // Given
+            Comment savedParentComment = entityManager.persistAndFlush(createComment(PARENT_COMMENT_CONTENT, null, savedUser));
+            for (int i = 0; i < 2; i++) {
+                Comment childComment = createComment(CHILD_COMMENT_CONTENT + i, null, savedUser);
+                childComment.setParentComment(savedParentComment);
+                entityManager.persistAndFlush(childComment);
+            }
+
+            // When
+            Long count = commentRepository.countByParentCommentId(savedParentComment.getId());
+
+            // Then
+            assertThat(count).isEqualTo(2);
+        }
     }
 
     @Nested
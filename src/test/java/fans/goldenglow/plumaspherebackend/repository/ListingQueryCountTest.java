@@ -0,0 +1,246 @@
+package fans.goldenglow.plumaspherebackend.repository;
+
+import fans.goldenglow.plumaspherebackend.dto.CommentDto;
+import fans.goldenglow.plumaspherebackend.dto.PostDto;
+import fans.goldenglow.plumaspherebackend.entity.Comment;
+import fans.goldenglow.plumaspherebackend.entity.Post;
+import fans.goldenglow.plumaspherebackend.entity.Tag;
+import fans.goldenglow.plumaspherebackend.entity.User;
+import fans.goldenglow.plumaspherebackend.mapper.CommentMapper;
+import fans.goldenglow.plumaspherebackend.mapper.CommentMapperImpl;
+import fans.goldenglow.plumaspherebackend.mapper.PostMapper;
+import fans.goldenglow.plumaspherebackend.mapper.PostMapperImpl;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostSummary;
+import fans.goldenglow.plumaspherebackend.service.CommentService;
+import fans.goldenglow.plumaspherebackend.service.MarkdownService;
+import fans.goldenglow.plumaspherebackend.service.PostService;
+import fans.goldenglow.plumaspherebackend.service.TagService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements issued by the data access behind the listing endpoints.
+ * Each test replays what an endpoint does and asserts that the number of statements
+ * does not depend on how many rows are listed.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({PostService.class, MarkdownService.class, CommentService.class, TagService.class,
+        PostMapperImpl.class, CommentMapperImpl.class})
+@DisplayName("Listing Query Count Tests")
+class ListingQueryCountTest {
+
+    private static final int PAGE_SIZE = 5;
+
+    private final TestEntityManager entityManager;
+    private final Statistics statistics;
+    private final PostService postService;
+    private final CommentService commentService;
+    private final TagService tagService;
+    private final PostMapper postMapper;
+    private final CommentMapper commentMapper;
+
+    @Autowired
+    ListingQueryCountTest(TestEntityManager entityManager,
+                          EntityManagerFactory entityManagerFactory,
+                          PostService postService,
+                          CommentService commentService,
+                          TagService tagService,
+                          PostMapper postMapper,
+                          CommentMapper commentMapper) {
+        this.entityManager = entityManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.postService = postService;
+        this.commentService = commentService;
+        this.tagService = tagService;
+        this.postMapper = postMapper;
+        this.commentMapper = commentMapper;
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics.setStatisticsEnabled(true);
+    }
+
+    /**
+     * Creates posts and comments, each by a different user, and tags every post with two shared tags.
+     * The persistence context is cleared afterwards, so nothing is served from the first-level cache.
+     *
+     * @param rows the number of posts and of comments on the first post to create
+     * @return the first post created
+     */
+    private Post seed(int rows) {
+        Tag java = entityManager.persist(new Tag("java"));
+        Tag spring = entityManager.persist(new Tag("spring"));
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            User author = entityManager.persist(new User("user" + i, "password"));
+            Post post = new Post();
+            post.setTitle("title" + i);
+            post.setContent("content" + i);
+            post.setDescription("description" + i);
+            post.setAuthor(author);
+            post.setTags(Set.of(java, spring));
+            posts.add(entityManager.persist(post));
+        }
+        for (int i = 0; i < rows; i++) {
+            User author = entityManager.persist(new User("commenter" + i, "password"));
+            Comment comment = new Comment("comment" + i, author);
+            comment.setPost(posts.getFirst());
+            entityManager.persist(comment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return posts.getFirst();
+    }
+
+    /**
+     * Runs an action and returns the number of SQL statements it prepared.
+     *
+     * @param action the action to run
+     * @return the number of prepared statements
+     */
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Nested
+    @DisplayName("Comment Listings")
+    class CommentListingTests {
+        @ParameterizedTest
+        @ValueSource(ints = {PAGE_SIZE + 1, PAGE_SIZE * 3})
+        @DisplayName("Should list comments of a post with a page query and a count query")
+        void getComments_ShouldUseConstantStatements(int rows) {
+            // Given
+            Long postId = seed(rows).getId();
+
+            // When
+            long statements = countStatements(() -> {
+                Page<Comment> comments = commentService.findByPostId(postId, PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")));
+                List<CommentDto> dtos = commentMapper.toDto(comments.getContent());
+                assertThat(dtos).hasSize(PAGE_SIZE).allSatisfy(dto -> assertThat(dto.getAuthorNickname()).isNotNull());
+            });
+
+            // Then
+            assertThat(statements).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should list comments of a user with a page query and a count query")
+        void getUserComments_ShouldUseConstantStatements() {
+            // Given
+            seed(PAGE_SIZE);
+            Long userId = entityManager.getEntityManager()
+                    .createQuery("SELECT u.id FROM User u WHERE u.username = 'commenter0'", Long.class)
+                    .getSingleResult();
+            entityManager.clear();
+
+            // When
+            long statements = countStatements(() -> {
+                Page<Comment> comments = commentService.findByUserId(userId, PageRequest.of(0, PAGE_SIZE));
+                commentMapper.toDto(comments.getContent());
+            });
+
+            // Then
+            assertThat(statements).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Post Listings")
+    class PostListingTests {
+        @ParameterizedTest
+        @ValueSource(ints = {PAGE_SIZE + 1, PAGE_SIZE * 3})
+        @DisplayName("Should list posts with a page query, a count query and a tag query")
+        void getPosts_ShouldUseConstantStatements(int rows) {
+            // Given
+            seed(rows);
+
+            // When
+            long statements = countStatements(() -> {
+                Page<PostSummary> summaries = postService.findAllSummaries(PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")));
+                List<PostDto> dtos = postMapper.summariesToDto(summaries.getContent());
+                assertThat(dtos).hasSize(PAGE_SIZE).allSatisfy(dto -> assertThat(dto.getTags()).hasSize(2));
+            });
+
+            // Then
+            assertThat(statements).isEqualTo(3);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {PAGE_SIZE + 1, PAGE_SIZE * 3})
+        @DisplayName("Should list posts by tag with a page query, a count query and a tag query")
+        void getPostsByTag_ShouldUseConstantStatements(int rows) {
+            // Given
+            seed(rows);
+
+            // When
+            long statements = countStatements(() -> {
+                Page<PostSummary> summaries = postService.findSummariesByTagName("java", PageRequest.of(0, PAGE_SIZE));
+                postMapper.summariesToDto(summaries.getContent());
+            });
+
+            // Then
+            assertThat(statements).isEqualTo(3);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {PAGE_SIZE + 1, PAGE_SIZE * 3})
+        @DisplayName("Should load a single post without loading the posts of its tags")
+        void getPost_ShouldUseConstantStatements(int rows) {
+            // Given
+            Long postId = seed(rows).getId();
+
+            // When
+            long statements = countStatements(() -> {
+                Post post = postService.findById(postId).orElseThrow();
+                PostDto dto = postMapper.toDto(post);
+                dto.setTags(postService.findTagNames(postId));
+                assertThat(dto.getTags()).containsExactlyInAnyOrder("java", "spring");
+            });
+
+            // Then
+            assertThat(statements).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tag Listings")
+    class TagListingTests {
+        @ParameterizedTest
+        @ValueSource(ints = {PAGE_SIZE + 1, PAGE_SIZE * 3})
+        @DisplayName("Should list tags with their post counts in a single query")
+        void getAllTags_ShouldUseSingleStatement(int rows) {
+            // Given
+            seed(rows);
+
+            // When
+            long statements = countStatements(() ->
+                    assertThat(tagService.findAllWithPostCount()).allSatisfy(tag -> assertThat(tag.postCount()).isEqualTo(rows)));
+
+            // Then
+            assertThat(statements).isEqualTo(1);
+        }
+    }
+}
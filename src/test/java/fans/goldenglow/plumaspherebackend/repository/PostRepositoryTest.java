@@ -3,6 +3,9 @@ package fans.goldenglow.plumaspherebackend.repository;
 import fans.goldenglow.plumaspherebackend.entity.Post;
 import fans.goldenglow.plumaspherebackend.entity.Tag;
 import fans.goldenglow.plumaspherebackend.entity.User;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostContent;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostSummary;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostTagName;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,7 +17,9 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -279,4 +284,116 @@ class PostRepositoryTest {
             assertThat(foundPosts.getTotalElements()).isEqualTo(count);
         }
     }
+
+    @Nested
+    @DisplayName("Summary Operations")
+    class SummaryOperationsTests {
+        @Test
+        @DisplayName("Should return summaries without content")
+        void findAllSummaries_ShouldReturnSummaries() {
+            // When
+            Page<PostSummary> summaries = postRepository.findAllSummaries(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+            // Then
+            assertThat(summaries.getTotalElements()).isEqualTo(1);
+            assertThat(summaries.getContent().getFirst())
+                    .satisfies(summary -> {
+                        assertThat(summary.title()).isEqualTo(TEST_TITLE);
+                        assertThat(summary.description()).isEqualTo(TEST_DESCRIPTION);
+                        assertThat(summary.authorId()).isEqualTo(savedUser.getId());
+                        assertThat(summary.createdAt()).isNotNull();
+                        assertThat(summary.tags()).isEmpty();
+                    });
+        }
+
+        @Test
+        @DisplayName("Should return summaries by tag name")
+        void findSummariesByTagName_ShouldReturnSummaries_WhenTagExists() {
+            // When
+            Page<PostSummary> summaries = postRepository.findSummariesByTagName(TAG_NAME, PageRequest.of(0, 10));
+            Page<PostSummary> noSummaries = postRepository.findSummariesByTagName(NON_EXISTENT_TAG, PageRequest.of(0, 10));
+
+            // Then
+            assertThat(summaries.getTotalElements()).isEqualTo(1);
+            assertThat(noSummaries).isEmpty();
+        }
+
+        @ParameterizedTest
+        @CsvSource({
+                "title, 1",
+                "content, 1",
+                "description, 1",
+                "nonExistent, 0"
+        })
+        @DisplayName("Should search summaries consistently with entity search")
+        void searchSummariesByKeyword_ShouldMatchEntitySearch(String keyword, int expectedCount) {
+            // When
+            Page<PostSummary> summaries = postRepository.searchSummariesByKeyword(keyword, PageRequest.of(0, 10));
+
+            // Then
+            assertThat(summaries).hasSize(expectedCount);
+            assertThat(summaries.getTotalElements()).isEqualTo(postRepository.countByKeyword(keyword));
+        }
+
+        @Test
+        @DisplayName("Should return tag names with post counts for given posts")
+        void findTagNamesByPostIds_ShouldReturnTagNamesWithPostCounts() {
+            // Given
+            Long postId = postRepository.findAll().getFirst().getId();
+
+            // When
+            List<PostTagName> tagNames = postRepository.findTagNamesByPostIds(List.of(postId));
+
+            // Then
+            assertThat(tagNames).containsExactly(new PostTagName(postId, TAG_NAME, 1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Processing Operations")
+    class ProcessingOperationsTests {
+        @Test
+        @DisplayName("Should write back processed content when version matches")
+        void updateProcessedContent_ShouldUpdate_WhenVersionMatches() {
+            // Given
+            Post post = postRepository.findAll().getFirst();
+            post.setProcessingPending(true);
+            entityManager.persistAndFlush(post);
+            PostContent content = postRepository.findContentById(post.getId()).orElseThrow();
+
+            // When
+            int updated = postRepository.updateProcessedContent(content.id(), content.version(), "newDescription", "<p>html</p>");
+            entityManager.clear();
+
+            // Then
+            assertThat(updated).isEqualTo(1);
+            Post result = postRepository.findById(post.getId()).orElseThrow();
+            assertThat(result.getDescription()).isEqualTo("newDescription");
+            assertThat(result.getRenderedHtml()).isEqualTo("<p>html</p>");
+            assertThat(result.getProcessingPending()).isFalse();
+            assertThat(postRepository.findProcessingPendingIds(PageRequest.of(0, 10))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should discard processed content when version is outdated")
+        void updateProcessedContent_ShouldNotUpdate_WhenVersionOutdated() {
+            // Given
+            Post post = postRepository.findAll().getFirst();
+            post.setProcessingPending(true);
+            entityManager.persistAndFlush(post);
+            PostContent content = postRepository.findContentById(post.getId()).orElseThrow();
+            post.setContent("editedContent");
+            entityManager.persistAndFlush(post);
+
+            // When
+            int updated = postRepository.updateProcessedContent(content.id(), content.version(), "newDescription", "<p>html</p>");
+            entityManager.clear();
+
+            // Then
+            assertThat(updated).isZero();
+            Post result = postRepository.findById(post.getId()).orElseThrow();
+            assertThat(result.getDescription()).isEqualTo(TEST_DESCRIPTION);
+            assertThat(postRepository.findProcessingPendingIds(PageRequest.of(0, 10))).containsExactly(post.getId());
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package fans.goldenglow.plumaspherebackend.repository;
 
+import fans.goldenglow.plumaspherebackend.entity.Post;
 import fans.goldenglow.plumaspherebackend.entity.Tag;
+import fans.goldenglow.plumaspherebackend.entity.User;
+import fans.goldenglow.plumaspherebackend.repository.projection.TagPostCount;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -10,7 +13,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -131,4 +136,49 @@ class TagRepositoryTest {
             assertThat(foundTag).isPresent();
         }
     }
+
+    @Nested
+    @DisplayName("Post Count Operations")
+    class PostCountTests {
+
+        @Test
+        @DisplayName("Should return tags with post counts sorted in descending order")
+        void findAllWithPostCount_ShouldReturnSortedPostCounts() {
+            // Given
+            Tag testTag = entityManager.persist(new Tag(TEST_TAG_NAME));
+            Tag anotherTag = entityManager.persist(new Tag(ANOTHER_TAG_NAME));
+            User author = entityManager.persist(new User("author", "password"));
+            for (int i = 0; i < 2; i++) {
+                Post post = new Post();
+                post.setTitle("title" + i);
+                post.setContent("content" + i);
+                post.setDescription("description" + i);
+                post.setAuthor(author);
+                post.setTags(i == 0 ? Set.of(testTag) : Set.of(testTag, anotherTag));
+                entityManager.persist(post);
+            }
+            entityManager.flush();
+
+            // When
+            List<TagPostCount> tags = tagRepository.findAllWithPostCount();
+
+            // Then
+            assertThat(tags).containsExactly(
+                    new TagPostCount(testTag.getId(), TEST_TAG_NAME, 2),
+                    new TagPostCount(anotherTag.getId(), ANOTHER_TAG_NAME, 1));
+        }
+
+        @Test
+        @DisplayName("Should return zero post count for unused tag")
+        void findAllWithPostCount_ShouldReturnZero_WhenTagUnused() {
+            // Given
+            Tag tag = entityManager.persistAndFlush(new Tag(TEST_TAG_NAME));
+
+            // When
+            List<TagPostCount> tags = tagRepository.findAllWithPostCount();
+
+            // Then
+            assertThat(tags).containsExactly(new TagPostCount(tag.getId(), TEST_TAG_NAME, 0));
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package fans.goldenglow.plumaspherebackend.repository;
 
 import fans.goldenglow.plumaspherebackend.constant.UserRoles;
+import fans.goldenglow.plumaspherebackend.entity.Post;
 import fans.goldenglow.plumaspherebackend.entity.User;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,6 +17,7 @@ import org.springframework.data.domain.PageRequest;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -286,39 +288,6 @@ public class UserRepositoryTest {
             assertThat(count).isEqualTo(bannedUsers);
         }
 
-        @Test
-        @DisplayName("Should find users with expired bans")
-        void findUserByBanExpiresAtBefore_ShouldReturnExpiredBans_WhenExpiredBansExist() {
-            // Given
-            LocalDateTime pastDate = LocalDateTime.now().minusDays(1);
-            LocalDateTime futureDate = LocalDateTime.now().plusDays(1);
-
-            User expiredBanUser = new User("expiredUser", TEST_PASSWORD);
-            expiredBanUser.ban(BAN_REASON);
-            expiredBanUser.setBanExpiresAt(pastDate);
-
-            User activeBanUser = new User("activeUser", TEST_PASSWORD);
-            activeBanUser.ban(BAN_REASON);
-            activeBanUser.setBanExpiresAt(futureDate);
-
-            entityManager.persist(expiredBanUser);
-            entityManager.persist(activeBanUser);
-            entityManager.flush();
-
-            // When
-            List<User> expiredUsers = userRepository.findUserByBanExpiresAtBefore(LocalDateTime.now());
-
-            // Then
-            assertThat(expiredUsers)
-                    .hasSize(1)
-                    .first()
-                    .satisfies(u -> {
-                        assertThat(u.getUsername()).isEqualTo("expiredUser");
-                        assertThat(u.getBanReason()).isEqualTo(BAN_REASON);
-                        assertThat(u.getBanExpiresAt()).isBefore(LocalDateTime.now());
-                    });
-        }
-
         @Test
         @DisplayName("Should return zero count when no banned users exist")
         void countByIsBannedTrue_ShouldReturnZero_WhenNoBannedUsersExist() {
@@ -334,48 +303,57 @@ public class UserRepositoryTest {
         }
 
         @Test
-        @DisplayName("Should find expired bans with precise time handling")
-        void findUserByBanExpiresAtBefore_ShouldHandlePreciseTime() {
+        @DisplayName("Should find IDs of expired bans oldest first, up to the page size")
+        void findExpiredBanIds_ShouldReturnExpiredBansOldestFirst() {
             // Given
             LocalDateTime now = LocalDateTime.now();
-            LocalDateTime oneSecondAgo = now.minusSeconds(1);
-            LocalDateTime oneSecondLater = now.plusSeconds(1);
-
-            User expiredUser = new User("expiredUser", TEST_PASSWORD);
-            expiredUser.ban(BAN_REASON);
-            expiredUser.setBanExpiresAt(oneSecondAgo);
-
-            User notExpiredUser = new User("notExpiredUser", TEST_PASSWORD);
-            notExpiredUser.ban(BAN_REASON);
-            notExpiredUser.setBanExpiresAt(oneSecondLater);
-
-            entityManager.persist(expiredUser);
-            entityManager.persist(notExpiredUser);
+            User expiredLongAgo = new User("expiredLongAgo", TEST_PASSWORD);
+            expiredLongAgo.banTemporary(BAN_REASON, now.minusDays(2));
+            User expiredRecently = new User("expiredRecently", TEST_PASSWORD);
+            expiredRecently.banTemporary(BAN_REASON, now.minusHours(1));
+            User active = new User("active", TEST_PASSWORD);
+            active.banTemporary(BAN_REASON, now.plusDays(1));
+            User permanent = new User("permanent", TEST_PASSWORD);
+            permanent.ban(BAN_REASON);
+            entityManager.persist(expiredLongAgo);
+            entityManager.persist(expiredRecently);
+            entityManager.persist(active);
+            entityManager.persist(permanent);
             entityManager.flush();
 
             // When
-            List<User> expiredUsers = userRepository.findUserByBanExpiresAtBefore(now);
+            List<Long> ids = userRepository.findExpiredBanIds(now, PageRequest.of(0, 10));
+            List<Long> firstId = userRepository.findExpiredBanIds(now, PageRequest.of(0, 1));
 
             // Then
-            assertThat(expiredUsers)
-                    .hasSize(1)
-                    .first()
-                    .satisfies(u -> assertThat(u.getUsername()).isEqualTo("expiredUser"));
+            assertThat(ids).containsExactly(expiredLongAgo.getId(), expiredRecently.getId());
+            assertThat(firstId).containsExactly(expiredLongAgo.getId());
         }
 
         @Test
-        @DisplayName("Should handle null ban expiry date query gracefully")
-        void findUserByBanExpiresAtBefore_ShouldHandleNullDate() {
+        @DisplayName("Should lift only bans that are still expired")
+        void unbanExpiredByIdIn_ShouldSkipExtendedBans() {
             // Given
-            User bannedUser = new User("bannedUser", TEST_PASSWORD);
-            bannedUser.ban(BAN_REASON);
-            entityManager.persistAndFlush(bannedUser);
+            LocalDateTime now = LocalDateTime.now();
+            User expired = new User("expired", TEST_PASSWORD);
+            expired.banTemporary(BAN_REASON, now.minusHours(1));
+            User extended = new User("extended", TEST_PASSWORD);
+            extended.banTemporary(BAN_REASON, now.plusDays(1));
+            entityManager.persist(expired);
+            entityManager.persist(extended);
+            entityManager.flush();
 
-            // When - Query with null should be handled gracefully
-            List<User> users = userRepository.findUserByBanExpiresAtBefore(null);
+            // When
+            int unbanned = userRepository.unbanExpiredByIdIn(List.of(expired.getId(), extended.getId()), now);
+            entityManager.clear();
 
-            // Then - Should return empty list or handle gracefully
-            assertThat(users).isNotNull();
+            // Then
+            assertThat(unbanned).isEqualTo(1);
+            assertThat(userRepository.findById(expired.getId())).get().satisfies(u -> {
+                assertThat(u.getIsBanned()).isFalse();
+                assertThat(u.getBanExpiresAt()).isNull();
+            });
+            assertThat(userRepository.findById(extended.getId())).get().satisfies(u -> assertThat(u.getIsBanned()).isTrue());
         }
     }
 
@@ -903,4 +881,142 @@ public class UserRepositoryTest {
             assertThat(count).isEqualTo(0);
         }
     }
+
+    @Nested
+    @DisplayName("Bulk Moderation Operations")
+    class BulkModerationTests {
+
+        private User persistUser(String username, UserRoles role, LocalDateTime createdAt) {
+            User user = new User(username, TEST_PASSWORD);
+            user.setRole(role);
+            user.setCreatedAt(createdAt);
+            return entityManager.persistAndFlush(user);
+        }
+
+        @Test
+        @DisplayName("Should page through recent non-admin users without posts by ID")
+        void findIdsForModeration_ShouldFilterAndPage() {
+            // Given
+            LocalDateTime now = LocalDateTime.now();
+            User bot1 = persistUser("bot1", UserRoles.REGULAR, now.minusMinutes(10));
+            User bot2 = persistUser("bot2", UserRoles.REGULAR, now.minusMinutes(5));
+            persistUser("oldUser", UserRoles.REGULAR, now.minusDays(2));
+            persistUser("newAdmin", UserRoles.ADMIN, now.minusMinutes(1));
+            User author = persistUser("author", UserRoles.REGULAR, now.minusMinutes(1));
+            Post post = new Post();
+            post.setTitle("Title");
+            post.setContent("Content");
+            post.setDescription("Description");
+            post.setAuthor(author);
+            entityManager.persistAndFlush(post);
+            entityManager.clear();
+
+            // When
+            List<Long> firstPage = userRepository.findIdsForModeration(now.minusHours(1), now, true, UserRoles.ADMIN, Long.MIN_VALUE, PageRequest.of(0, 1));
+            List<Long> secondPage = userRepository.findIdsForModeration(now.minusHours(1), now, true, UserRoles.ADMIN, firstPage.getLast(), PageRequest.of(0, 1));
+            long count = userRepository.countForModeration(now.minusHours(1), now, true, UserRoles.ADMIN);
+
+            // Then
+            assertThat(firstPage).containsExactly(bot1.getId());
+            assertThat(secondPage).containsExactly(bot2.getId());
+            assertThat(count).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should ban listed users except admins")
+        void banByIdIn_ShouldBanNonAdminUsers() {
+            // Given
+            LocalDateTime expiresAt = LocalDateTime.now().plusDays(1);
+            User user = persistUser("user", UserRoles.REGULAR, null);
+            User admin = persistUser("admin", UserRoles.ADMIN, null);
+
+            // When
+            int updated = userRepository.banByIdIn(List.of(user.getId(), admin.getId()), BAN_REASON, LocalDateTime.now(), expiresAt, UserRoles.ADMIN);
+            entityManager.clear();
+
+            // Then
+            assertThat(updated).isEqualTo(1);
+            assertThat(userRepository.findById(user.getId())).get().satisfies(u -> {
+                assertThat(u.getIsBanned()).isTrue();
+                assertThat(u.getBanReason()).isEqualTo(BAN_REASON);
+                assertThat(u.getBanExpiresAt()).isNotNull();
+                assertThat(u.getVersion()).isEqualTo(user.getVersion() + 1);
+            });
+            assertThat(userRepository.findById(admin.getId())).get().satisfies(u -> assertThat(u.getIsBanned()).isFalse());
+        }
+
+        @Test
+        @DisplayName("Should unban and unmark listed users")
+        void unbanAndClearIpBanMarkByIdIn_ShouldResetUsers() {
+            // Given
+            User user = new User(BANNED_USERNAME, TEST_PASSWORD);
+            user.ban(BAN_REASON);
+            user.markForIpBan(BAN_REASON);
+            entityManager.persistAndFlush(user);
+
+            // When
+            int unbanned = userRepository.unbanByIdIn(List.of(user.getId()));
+            int unmarked = userRepository.clearIpBanMarkByIdIn(List.of(user.getId()));
+            entityManager.clear();
+
+            // Then
+            assertThat(unbanned).isEqualTo(1);
+            assertThat(unmarked).isEqualTo(1);
+            assertThat(userRepository.findById(user.getId())).get().satisfies(u -> {
+                assertThat(u.getIsBanned()).isFalse();
+                assertThat(u.getBanReason()).isNull();
+                assertThat(u.getIsPendingIpBan()).isFalse();
+                assertThat(u.getIpBanReason()).isNull();
+            });
+        }
+
+        @Test
+        @DisplayName("Should mark listed users for IP ban")
+        void markForIpBanByIdIn_ShouldMarkUsers() {
+            // Given
+            User user = persistUser(PENDING_IP_BAN_USERNAME, UserRoles.REGULAR, null);
+
+            // When
+            int updated = userRepository.markForIpBanByIdIn(List.of(user.getId()), BAN_REASON, null, UserRoles.ADMIN);
+            entityManager.clear();
+
+            // Then
+            assertThat(updated).isEqualTo(1);
+            assertThat(userRepository.findById(user.getId())).get().satisfies(u -> {
+                assertThat(u.getIsPendingIpBan()).isTrue();
+                assertThat(u.getIpBanReason()).isEqualTo(BAN_REASON);
+                assertThat(u.getIpBanExpiresAt()).isNull();
+            });
+        }
+
+        @Test
+        @DisplayName("Should delete only listed users without content")
+        void deleteWithoutContentByIdIn_ShouldSkipUsersWithContent() {
+            // Given
+            User bot = persistUser("bot", UserRoles.REGULAR, null);
+            User author = persistUser("author", UserRoles.REGULAR, null);
+            User liker = persistUser("liker", UserRoles.REGULAR, null);
+            User admin = persistUser("admin", UserRoles.ADMIN, null);
+            Post post = new Post();
+            post.setTitle("Title");
+            post.setContent("Content");
+            post.setDescription("Description");
+            post.setAuthor(author);
+            post.setLikedBy(Set.of(liker));
+            entityManager.persistAndFlush(post);
+            entityManager.clear();
+
+            // When
+            int deleted = userRepository.deleteWithoutContentByIdIn(
+                    List.of(bot.getId(), author.getId(), liker.getId(), admin.getId()), UserRoles.ADMIN);
+            entityManager.clear();
+
+            // Then
+            assertThat(deleted).isEqualTo(1);
+            assertThat(userRepository.findById(bot.getId())).isEmpty();
+            assertThat(userRepository.findById(author.getId())).isPresent();
+            assertThat(userRepository.findById(liker.getId())).isPresent();
+            assertThat(userRepository.findById(admin.getId())).isPresent();
+        }
+    }
 }
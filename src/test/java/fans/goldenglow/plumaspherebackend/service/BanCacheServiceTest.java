@@ -0,0 +1,268 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.entity.BannedIp;
+import fans.goldenglow.plumaspherebackend.entity.User;
+import fans.goldenglow.plumaspherebackend.event.IpBanChangedEvent;
+import fans.goldenglow.plumaspherebackend.event.UserBanChangedEvent;
+import fans.goldenglow.plumaspherebackend.event.UserBansChangedEvent;
+import fans.goldenglow.plumaspherebackend.repository.BannedIpRepository;
+import fans.goldenglow.plumaspherebackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BanCacheService Tests")
+class BanCacheServiceTest {
+
+    private static final String TEST_IP_ADDRESS = "192.168.1.100";
+    private static final String BAN_CHANNEL = "ban:invalidate";
+
+    @Mock
+    private BannedIpRepository bannedIpRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RedisService redisService;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private BanCacheService banCacheService;
+
+    @BeforeEach
+    void setUp() {
+        banCacheService = new BanCacheService(bannedIpRepository, userRepository, redisService, listenerContainer);
+    }
+
+    private static User bannedUser(Long id, LocalDateTime expiresAt) {
+        User user = new User("bannedUser", "password");
+        user.setId(id);
+        user.banTemporary("Spam", expiresAt);
+        return user;
+    }
+
+    @Nested
+    @DisplayName("Loading")
+    class LoadingTests {
+        @Test
+        @DisplayName("Should subscribe to the invalidation channel and load bans on startup")
+        void init_ShouldSubscribeAndLoad() {
+            // Given
+            when(bannedIpRepository.findAllActive(any(LocalDateTime.class)))
+                    .thenReturn(List.of(new BannedIp(TEST_IP_ADDRESS, "Spam")));
+
+            // When
+            banCacheService.init();
+
+            // Then
+            verify(listenerContainer).addMessageListener(banCacheService, new ChannelTopic(BAN_CHANNEL));
+            assertThat(banCacheService.isIpBanned(TEST_IP_ADDRESS)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should treat permanent and unexpired temporary IP bans as banned")
+        void reload_ShouldLoadIpBans() {
+            // Given
+            when(bannedIpRepository.findAllActive(any(LocalDateTime.class))).thenReturn(List.of(
+                    new BannedIp("10.0.0.1", "Spam"),
+                    new BannedIp("10.0.0.2", "Spam", LocalDateTime.now().plusDays(1)),
+                    new BannedIp("10.0.0.3", "Spam", LocalDateTime.now().minusSeconds(1))));
+
+            // When
+            banCacheService.reload();
+
+            // Then
+            assertThat(banCacheService.isIpBanned("10.0.0.1")).isTrue();
+            assertThat(banCacheService.isIpBanned("10.0.0.2")).isTrue();
+            assertThat(banCacheService.isIpBanned("10.0.0.3")).isFalse();
+            assertThat(banCacheService.isIpBanned("10.0.0.4")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should treat every address of a banned range as banned")
+        void reload_ShouldLoadRangeBans() {
+            // Given
+            when(bannedIpRepository.findAllActive(any(LocalDateTime.class))).thenReturn(List.of(
+                    new BannedIp("203.0.113.0/24", "Spam"),
+                    new BannedIp("2001:db8:0:0:0:0:0:0/64", "Spam"),
+                    new BannedIp("not an address", "Spam")));
+
+            // When
+            banCacheService.reload();
+
+            // Then
+            assertThat(banCacheService.isIpBanned("203.0.113.42")).isTrue();
+            assertThat(banCacheService.isIpBanned("2001:db8::1")).isTrue();
+            assertThat(banCacheService.isIpBanned("203.0.114.1")).isFalse();
+            assertThat(banCacheService.isIpBanned("unknown")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should load banned users and ignore others")
+        void reload_ShouldLoadUserBans() {
+            // Given
+            when(userRepository.findByIsBannedTrueOrIsPendingIpBanTrue())
+                    .thenReturn(List.of(bannedUser(1L, LocalDateTime.now().plusDays(1))));
+
+            // When
+            banCacheService.reload();
+
+            // Then
+            assertThat(banCacheService.getUserBan(1L)).hasValueSatisfying(ban -> {
+                assertThat(ban.isCurrentlyBanned()).isTrue();
+                assertThat(ban.banReason()).isEqualTo("Spam");
+            });
+            assertThat(banCacheService.getUserBan(2L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should keep bans changed while a reload was running")
+        void reload_ShouldReapplyBansRefreshedDuringReload() {
+            // Given
+            when(bannedIpRepository.findByIpAddress(TEST_IP_ADDRESS))
+                    .thenReturn(Optional.of(new BannedIp(TEST_IP_ADDRESS, "Spam")));
+            when(bannedIpRepository.findAllActive(any(LocalDateTime.class))).thenAnswer(invocation -> {
+                // The ban is committed after the reload read the bans
+                banCacheService.refresh("ip:" + TEST_IP_ADDRESS);
+                return List.of();
+            });
+
+            // When
+            banCacheService.reload();
+
+            // Then
+            assertThat(banCacheService.isIpBanned(TEST_IP_ADDRESS)).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation")
+    class InvalidationTests {
+        @Test
+        @DisplayName("Should refresh banned IP and notify other nodes")
+        void onIpBanChanged_ShouldRefreshAndPublish() {
+            // Given
+            when(bannedIpRepository.findByIpAddress(TEST_IP_ADDRESS))
+                    .thenReturn(Optional.of(new BannedIp(TEST_IP_ADDRESS, "Spam")));
+
+            // When
+            banCacheService.onIpBanChanged(new IpBanChangedEvent(TEST_IP_ADDRESS));
+
+            // Then
+            assertThat(banCacheService.isIpBanned(TEST_IP_ADDRESS)).isTrue();
+            verify(redisService).publish(BAN_CHANNEL, "ip:" + TEST_IP_ADDRESS);
+        }
+
+        @Test
+        @DisplayName("Should drop unbanned IP")
+        void onIpBanChanged_ShouldDropUnbannedIp() {
+            // Given
+            when(bannedIpRepository.findAllActive(any(LocalDateTime.class)))
+                    .thenReturn(List.of(new BannedIp(TEST_IP_ADDRESS, "Spam")));
+            banCacheService.reload();
+            when(bannedIpRepository.findByIpAddress(TEST_IP_ADDRESS)).thenReturn(Optional.empty());
+
+            // When
+            banCacheService.onIpBanChanged(new IpBanChangedEvent(TEST_IP_ADDRESS));
+
+            // Then
+            assertThat(banCacheService.isIpBanned(TEST_IP_ADDRESS)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should drop unbanned user")
+        void onUserBanChanged_ShouldDropUnbannedUser() {
+            // Given
+            User user = bannedUser(1L, null);
+            when(userRepository.findByIsBannedTrueOrIsPendingIpBanTrue()).thenReturn(List.of(user));
+            banCacheService.reload();
+            user.unban();
+            when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(user));
+
+            // When
+            banCacheService.onUserBanChanged(new UserBanChangedEvent(1L));
+
+            // Then
+            assertThat(banCacheService.getUserBan(1L)).isEmpty();
+            verify(redisService).publish(BAN_CHANNEL, "user:1");
+        }
+
+        @Test
+        @DisplayName("Should refresh bans of many users with one query and one message")
+        void onUserBansChanged_ShouldRefreshAllUsers() {
+            // Given
+            User user = bannedUser(1L, null);
+            when(userRepository.findByIsBannedTrueOrIsPendingIpBanTrue()).thenReturn(List.of(user, bannedUser(2L, null)));
+            banCacheService.reload();
+            when(userRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(user, bannedUser(3L, null)));
+
+            // When
+            banCacheService.onUserBansChanged(new UserBansChangedEvent(List.of(1L, 2L, 3L)));
+
+            // Then
+            assertThat(banCacheService.getUserBan(1L)).isPresent();
+            assertThat(banCacheService.getUserBan(2L)).isEmpty();
+            assertThat(banCacheService.getUserBan(3L)).isPresent();
+            verify(redisService).publish(BAN_CHANNEL, "user:1,2,3");
+        }
+
+        @Test
+        @DisplayName("Should refresh locally even if other nodes cannot be notified")
+        void onUserBanChanged_ShouldRefresh_WhenPublishFails() {
+            // Given
+            when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(bannedUser(1L, null)));
+            when(redisService.publish(BAN_CHANNEL, "user:1")).thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+            // When
+            banCacheService.onUserBanChanged(new UserBanChangedEvent(1L));
+
+            // Then
+            assertThat(banCacheService.getUserBan(1L)).isPresent();
+        }
+
+        @Test
+        @DisplayName("Should refresh ban changed on another node without notifying again")
+        void onMessage_ShouldRefreshWithoutPublishing() {
+            // Given
+            when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(bannedUser(1L, null)));
+            DefaultMessage message = new DefaultMessage(BAN_CHANNEL.getBytes(StandardCharsets.UTF_8), "user:1".getBytes(StandardCharsets.UTF_8));
+
+            // When
+            banCacheService.onMessage(message, null);
+
+            // Then
+            assertThat(banCacheService.getUserBan(1L)).isPresent();
+            verifyNoInteractions(redisService);
+        }
+
+        @Test
+        @DisplayName("Should ignore malformed ban key")
+        void onMessage_ShouldIgnoreMalformedKey() {
+            // Given
+            DefaultMessage message = new DefaultMessage(BAN_CHANNEL.getBytes(StandardCharsets.UTF_8), "user:abc".getBytes(StandardCharsets.UTF_8));
+
+            // When
+            banCacheService.onMessage(message, null);
+
+            // Then
+            verifyNoInteractions(userRepository, bannedIpRepository);
+        }
+    }
+}
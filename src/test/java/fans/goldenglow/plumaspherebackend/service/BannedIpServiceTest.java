@@ -1,6 +1,7 @@
 package fans.goldenglow.plumaspherebackend.service;
 
 import fans.goldenglow.plumaspherebackend.entity.BannedIp;
+import fans.goldenglow.plumaspherebackend.event.IpBanChangedEvent;
 import fans.goldenglow.plumaspherebackend.repository.BannedIpRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -17,8 +19,10 @@ import org.springframework.data.domain.PageRequest;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -33,6 +37,12 @@ class BannedIpServiceTest {
     private BannedIpService bannedIpService;
     @Mock
     private BannedIpRepository bannedIpRepository;
+    @Mock
+    private BanCacheService banCacheService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private JobLockService jobLockService;
     private BannedIp testBannedIp;
 
     @BeforeEach
@@ -45,33 +55,31 @@ class BannedIpServiceTest {
     @DisplayName("Ban check logic")
     class BanCheckTests {
         @Test
-        @DisplayName("Should return true if IP is banned and not expired")
+        @DisplayName("Should return true if IP is banned in the cache")
         void isIpBanned_ShouldReturnTrue_WhenIpIsBannedAndNotExpired() {
             // Given
-            when(bannedIpRepository.existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
-                    .thenReturn(true);
+            when(banCacheService.isIpBanned(TEST_IP_ADDRESS)).thenReturn(true);
 
             // When
             boolean result = bannedIpService.isIpBanned(TEST_IP_ADDRESS);
 
             // Then
             assertThat(result).isTrue();
-            verify(bannedIpRepository).existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class));
+            verifyNoInteractions(bannedIpRepository);
         }
 
         @Test
-        @DisplayName("Should return false if IP is not banned")
+        @DisplayName("Should return false if IP is not banned in the cache")
         void isIpBanned_ShouldReturnFalse_WhenIpIsNotBanned() {
             // Given
-            when(bannedIpRepository.existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
-                    .thenReturn(false);
+            when(banCacheService.isIpBanned(TEST_IP_ADDRESS)).thenReturn(false);
 
             // When
             boolean result = bannedIpService.isIpBanned(TEST_IP_ADDRESS);
 
             // Then
             assertThat(result).isFalse();
-            verify(bannedIpRepository).existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class));
+            verifyNoInteractions(bannedIpRepository);
         }
     }
 
@@ -82,7 +90,7 @@ class BannedIpServiceTest {
         @DisplayName("Should create permanent ban if IP is not already banned")
         void banIp_ShouldCreatePermanentBan_WhenIpIsNotAlreadyBanned() {
             // Given
-            when(bannedIpRepository.existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
+            when(bannedIpRepository.existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
                     .thenReturn(false);
             when(bannedIpRepository.save(any(BannedIp.class))).thenReturn(testBannedIp);
 
@@ -91,14 +99,57 @@ class BannedIpServiceTest {
 
             // Then
             verify(bannedIpRepository).save(any(BannedIp.class));
-            verify(bannedIpRepository).existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class));
+            verify(bannedIpRepository).existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class));
+            verify(eventPublisher).publishEvent(new IpBanChangedEvent(TEST_IP_ADDRESS));
+        }
+
+        @Test
+        @DisplayName("Should store range in canonical form")
+        void banIp_ShouldNormalizeRange() {
+            // Given
+            when(bannedIpRepository.existsActiveByIpAddress(eq("203.0.113.0/24"), any(LocalDateTime.class)))
+                    .thenReturn(false);
+
+            // When
+            bannedIpService.banIp("203.0.113.77/24", TEST_REASON);
+
+            // Then
+            verify(bannedIpRepository).save(argThat(bannedIp -> bannedIp.getIpAddress().equals("203.0.113.0/24")));
+            verify(eventPublisher).publishEvent(new IpBanChangedEvent("203.0.113.0/24"));
+        }
+
+        @Test
+        @DisplayName("Should reject malformed address")
+        void banIp_ShouldThrow_WhenAddressMalformed() {
+            // When & Then
+            assertThatThrownBy(() -> bannedIpService.banIp("example.com", TEST_REASON))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(bannedIpRepository, eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Should reuse the row of an expired ban that was not cleaned up yet")
+        void banIp_ShouldReuseExpiredBan() {
+            // Given
+            BannedIp expiredBan = new BannedIp(TEST_IP_ADDRESS, "Old reason", LocalDateTime.now().minusDays(1));
+            when(bannedIpRepository.existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
+                    .thenReturn(false);
+            when(bannedIpRepository.findByIpAddress(TEST_IP_ADDRESS)).thenReturn(Optional.of(expiredBan));
+
+            // When
+            bannedIpService.banIp(TEST_IP_ADDRESS, TEST_REASON);
+
+            // Then
+            verify(bannedIpRepository).save(expiredBan);
+            assertThat(expiredBan.getReason()).isEqualTo(TEST_REASON);
+            assertThat(expiredBan.getExpiresAt()).isNull();
         }
 
         @Test
         @DisplayName("Should not create ban if IP is already banned")
         void banIp_ShouldNotCreateBan_WhenIpIsAlreadyBanned() {
             // Given
-            when(bannedIpRepository.existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
+            when(bannedIpRepository.existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
                     .thenReturn(true);
 
             // When
@@ -106,14 +157,14 @@ class BannedIpServiceTest {
 
             // Then
             verify(bannedIpRepository, never()).save(any(BannedIp.class));
-            verify(bannedIpRepository).existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class));
+            verify(bannedIpRepository).existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class));
         }
 
         @Test
         @DisplayName("Should create temporary ban if IP is not already banned")
         void banIpTemporary_ShouldCreateTemporaryBan_WhenIpIsNotAlreadyBanned() {
             // Given
-            when(bannedIpRepository.existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
+            when(bannedIpRepository.existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
                     .thenReturn(false);
             when(bannedIpRepository.save(any(BannedIp.class))).thenReturn(testBannedIp);
 
@@ -122,14 +173,14 @@ class BannedIpServiceTest {
 
             // Then
             verify(bannedIpRepository).save(any(BannedIp.class));
-            verify(bannedIpRepository).existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class));
+            verify(bannedIpRepository).existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class));
         }
 
         @Test
         @DisplayName("Should not create temporary ban if IP is already banned")
         void banIpTemporary_ShouldNotCreateBan_WhenIpIsAlreadyBanned() {
             // Given
-            when(bannedIpRepository.existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
+            when(bannedIpRepository.existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
                     .thenReturn(true);
 
             // When
@@ -137,7 +188,7 @@ class BannedIpServiceTest {
 
             // Then
             verify(bannedIpRepository, never()).save(any(BannedIp.class));
-            verify(bannedIpRepository).existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class));
+            verify(bannedIpRepository).existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class));
         }
     }
 
@@ -156,6 +207,7 @@ class BannedIpServiceTest {
             // Then
             verify(bannedIpRepository).existsByIpAddress(TEST_IP_ADDRESS);
             verify(bannedIpRepository).deleteByIpAddress(TEST_IP_ADDRESS);
+            verify(eventPublisher).publishEvent(new IpBanChangedEvent(TEST_IP_ADDRESS));
         }
 
         @Test
@@ -170,6 +222,7 @@ class BannedIpServiceTest {
             // Then
             verify(bannedIpRepository).existsByIpAddress(TEST_IP_ADDRESS);
             verify(bannedIpRepository, never()).deleteByIpAddress(any());
+            verifyNoInteractions(eventPublisher);
         }
     }
 
@@ -247,12 +300,28 @@ class BannedIpServiceTest {
         @Test
         @DisplayName("Should delete expired bans")
         void cleanupExpiredBans_ShouldDeleteExpiredBans() {
+            // Given
+            when(jobLockService.holdsCurrentLease()).thenReturn(true);
+
             // When
             bannedIpService.cleanupExpiredBans();
 
             // Then
             verify(bannedIpRepository).deleteAllByExpiresAtBefore(any(LocalDateTime.class));
         }
+
+        @Test
+        @DisplayName("Should delete nothing once the lease was lost")
+        void cleanupExpiredBans_ShouldDoNothing_WhenLeaseLost() {
+            // Given
+            when(jobLockService.holdsCurrentLease()).thenReturn(false);
+
+            // When
+            bannedIpService.cleanupExpiredBans();
+
+            // Then
+            verifyNoInteractions(bannedIpRepository);
+        }
     }
 
     @Nested
@@ -262,7 +331,7 @@ class BannedIpServiceTest {
         @DisplayName("Should create banned IP with correct properties for permanent ban")
         void banIp_ShouldCreateBannedIpWithCorrectProperties() {
             // Given
-            when(bannedIpRepository.existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
+            when(bannedIpRepository.existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
                     .thenReturn(false);
 
             // When
@@ -280,7 +349,7 @@ class BannedIpServiceTest {
         @DisplayName("Should create banned IP with correct properties for temporary ban")
         void banIpTemporary_ShouldCreateBannedIpWithCorrectProperties() {
             // Given
-            when(bannedIpRepository.existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
+            when(bannedIpRepository.existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
                     .thenReturn(false);
 
             // When
@@ -298,7 +367,7 @@ class BannedIpServiceTest {
         @DisplayName("Should handle null reason for permanent ban")
         void banIp_ShouldHandleNullReason() {
             // Given
-            when(bannedIpRepository.existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
+            when(bannedIpRepository.existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
                     .thenReturn(false);
 
             // When
@@ -316,7 +385,7 @@ class BannedIpServiceTest {
         @DisplayName("Should handle null reason for temporary ban")
         void banIpTemporary_ShouldHandleNullReason() {
             // Given
-            when(bannedIpRepository.existsByIpAddressAndExpiresAtAfter(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
+            when(bannedIpRepository.existsActiveByIpAddress(eq(TEST_IP_ADDRESS), any(LocalDateTime.class)))
                     .thenReturn(false);
 
             // When
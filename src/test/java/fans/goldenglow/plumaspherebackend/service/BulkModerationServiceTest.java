@@ -0,0 +1,216 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.BulkModerationProperties;
+import fans.goldenglow.plumaspherebackend.constant.BulkModerationAction;
+import fans.goldenglow.plumaspherebackend.constant.UserRoles;
+import fans.goldenglow.plumaspherebackend.dto.BulkModerationJobDto;
+import fans.goldenglow.plumaspherebackend.dto.BulkModerationRequestDto;
+import fans.goldenglow.plumaspherebackend.event.UserBansChangedEvent;
+import fans.goldenglow.plumaspherebackend.repository.UserRepository;
+import fans.goldenglow.plumaspherebackend.util.JsonUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BulkModerationService Tests")
+class BulkModerationServiceTest {
+
+    private static final String JOB_KEY = "admin:bulk:job:job-1";
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private RedisService redisService;
+    @Mock
+    private LikeCacheService likeCacheService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BulkModerationService bulkModerationService;
+
+    @BeforeEach
+    void setUp() {
+        BulkModerationProperties properties = new BulkModerationProperties();
+        properties.setChunkSize(2);
+        bulkModerationService = new BulkModerationService(userRepository, transactionTemplate, redisService, likeCacheService, eventPublisher, properties);
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static BulkModerationJobDto job(BulkModerationAction action) {
+        BulkModerationJobDto job = new BulkModerationJobDto();
+        job.setJobId("job-1");
+        job.setAction(action);
+        job.setStatus(BulkModerationJobDto.Status.QUEUED);
+        return job;
+    }
+
+    @Nested
+    @DisplayName("Submission")
+    class SubmissionTests {
+        @Test
+        @DisplayName("Should reject request selecting no users")
+        void submit_ShouldThrow_WhenNoUsersSelected() {
+            assertThatThrownBy(() -> bulkModerationService.submit(BulkModerationAction.UNBAN, new BulkModerationRequestDto()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(redisService);
+        }
+
+        @Test
+        @DisplayName("Should reject ban without reason")
+        void submit_ShouldThrow_WhenBanWithoutReason() {
+            BulkModerationRequestDto request = new BulkModerationRequestDto(List.of(1L), null, null, null, " ", null);
+
+            assertThatThrownBy(() -> bulkModerationService.submit(BulkModerationAction.BAN, request))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(redisService);
+        }
+    }
+
+    @Nested
+    @DisplayName("Execution")
+    class ExecutionTests {
+        @Test
+        @DisplayName("Should ban listed users in chunks and record progress")
+        void run_ShouldBanUsersInChunks() {
+            // Given
+            runTransactionsInline();
+            ZonedDateTime expiresAt = ZonedDateTime.now().plusDays(1);
+            BulkModerationRequestDto request = new BulkModerationRequestDto(List.of(3L, 1L, 2L, 1L), null, null, null, "Spam", expiresAt);
+            when(userRepository.banByIdIn(eq(List.of(1L, 2L)), eq("Spam"), any(LocalDateTime.class), any(LocalDateTime.class), eq(UserRoles.ADMIN)))
+                    .thenReturn(2);
+            when(userRepository.banByIdIn(eq(List.of(3L)), eq("Spam"), any(LocalDateTime.class), any(LocalDateTime.class), eq(UserRoles.ADMIN)))
+                    .thenReturn(0);
+            BulkModerationJobDto job = job(BulkModerationAction.BAN);
+
+            // When
+            bulkModerationService.run(job, request);
+
+            // Then
+            assertThat(job.getStatus()).isEqualTo(BulkModerationJobDto.Status.COMPLETED);
+            assertThat(job.getTotal()).isEqualTo(3);
+            assertThat(job.getProcessed()).isEqualTo(3);
+            assertThat(job.getAffected()).isEqualTo(2);
+            verify(eventPublisher).publishEvent(new UserBansChangedEvent(List.of(1L, 2L)));
+            verify(eventPublisher).publishEvent(new UserBansChangedEvent(List.of(3L)));
+            verify(redisService, atLeast(3)).set(eq(JOB_KEY), anyString(), eq(Duration.ofDays(1)));
+        }
+
+        @Test
+        @DisplayName("Should page through filtered users by ID")
+        void run_ShouldPageThroughFilteredUsers() {
+            // Given
+            runTransactionsInline();
+            BulkModerationRequestDto request = new BulkModerationRequestDto(null, ZonedDateTime.now().minusHours(1), null, true, null, null);
+            when(userRepository.countForModeration(any(), any(), eq(true), eq(UserRoles.ADMIN))).thenReturn(3L);
+            when(userRepository.findIdsForModeration(any(), any(), eq(true), eq(UserRoles.ADMIN), eq(Long.MIN_VALUE), any(Pageable.class)))
+                    .thenReturn(List.of(5L, 8L));
+            when(userRepository.findIdsForModeration(any(), any(), eq(true), eq(UserRoles.ADMIN), eq(8L), any(Pageable.class)))
+                    .thenReturn(List.of(9L));
+            when(userRepository.findIdsForModeration(any(), any(), eq(true), eq(UserRoles.ADMIN), eq(9L), any(Pageable.class)))
+                    .thenReturn(List.of());
+            when(userRepository.deleteWithoutContentByIdIn(anyList(), eq(UserRoles.ADMIN))).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+            BulkModerationJobDto job = job(BulkModerationAction.DELETE);
+
+            // When
+            bulkModerationService.run(job, request);
+
+            // Then
+            assertThat(job.getStatus()).isEqualTo(BulkModerationJobDto.Status.COMPLETED);
+            assertThat(job.getTotal()).isEqualTo(3);
+            assertThat(job.getAffected()).isEqualTo(3);
+            verify(userRepository).deleteWithoutContentByIdIn(List.of(5L, 8L), UserRoles.ADMIN);
+            verify(userRepository).deleteWithoutContentByIdIn(List.of(9L), UserRoles.ADMIN);
+        }
+
+        @Test
+        @DisplayName("Should not delete users with likes not synced to the database yet")
+        void run_ShouldSkipUsersWithUnsyncedLikes_WhenDeleting() {
+            // Given
+            runTransactionsInline();
+            BulkModerationRequestDto request = new BulkModerationRequestDto(List.of(1L, 2L, 3L), null, null, null, null, null);
+            when(likeCacheService.findUsersWithUnsyncedLikes(List.of(1L, 2L))).thenReturn(Set.of(2L));
+            when(likeCacheService.findUsersWithUnsyncedLikes(List.of(3L))).thenReturn(Set.of(3L));
+            when(userRepository.deleteWithoutContentByIdIn(List.of(1L), UserRoles.ADMIN)).thenReturn(1);
+            BulkModerationJobDto job = job(BulkModerationAction.DELETE);
+
+            // When
+            bulkModerationService.run(job, request);
+
+            // Then
+            assertThat(job.getStatus()).isEqualTo(BulkModerationJobDto.Status.COMPLETED);
+            assertThat(job.getAffected()).isEqualTo(1);
+            verify(userRepository, times(1)).deleteWithoutContentByIdIn(anyList(), any());
+        }
+
+        @Test
+        @DisplayName("Should report failure and keep progress of committed chunks")
+        void run_ShouldFail_WhenChunkFails() {
+            // Given
+            runTransactionsInline();
+            BulkModerationRequestDto request = new BulkModerationRequestDto(List.of(1L, 2L, 3L), null, null, null, null, null);
+            when(userRepository.unbanByIdIn(List.of(1L, 2L))).thenReturn(2);
+            when(userRepository.unbanByIdIn(List.of(3L))).thenThrow(new IllegalStateException("Connection lost"));
+            BulkModerationJobDto job = job(BulkModerationAction.UNBAN);
+
+            // When
+            bulkModerationService.run(job, request);
+
+            // Then
+            assertThat(job.getStatus()).isEqualTo(BulkModerationJobDto.Status.FAILED);
+            assertThat(job.getProcessed()).isEqualTo(2);
+            assertThat(job.getError()).isEqualTo("Connection lost");
+            assertThat(job.getFinishedAt()).isNotNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Progress")
+    class ProgressTests {
+        @Test
+        @DisplayName("Should read job progress from Redis")
+        void getJob_ShouldReadProgress() {
+            // Given
+            BulkModerationJobDto job = job(BulkModerationAction.BAN);
+            job.setProcessed(500);
+            when(redisService.get(JOB_KEY)).thenReturn(JsonUtil.toJson(job));
+
+            // When & Then
+            assertThat(bulkModerationService.getJob("job-1")).hasValueSatisfying(found -> {
+                assertThat(found.getAction()).isEqualTo(BulkModerationAction.BAN);
+                assertThat(found.getProcessed()).isEqualTo(500);
+            });
+        }
+
+        @Test
+        @DisplayName("Should return empty for unknown job")
+        void getJob_ShouldReturnEmpty_WhenUnknown() {
+            assertThat(bulkModerationService.getJob("job-1")).isEmpty();
+        }
+    }
+}
@@ -275,6 +275,21 @@ class CommentServiceTest {
             assertThat(actualCount).isZero();
             verify(commentRepository).countByPostId(postId);
         }
+
+        @Test
+        @DisplayName("Should return count of replies to comment")
+        void countByParentCommentId_ShouldReturnCount() {
+            // Given
+            Long parentCommentId = 1L;
+            when(commentRepository.countByParentCommentId(parentCommentId)).thenReturn(2L);
+
+            // When
+            long actualCount = commentService.countByParentCommentId(parentCommentId);
+
+            // Then
+            assertThat(actualCount).isEqualTo(2L);
+            verify(commentRepository).countByParentCommentId(parentCommentId);
+        }
     }
 
     @Nested
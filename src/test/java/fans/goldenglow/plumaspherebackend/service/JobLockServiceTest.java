@@ -0,0 +1,175 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.EmbeddedRedisTestConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({EmbeddedRedisTestConfiguration.class})
+@DisplayName("JobLockService Tests")
+class JobLockServiceTest {
+
+    private static final String JOB_NAME = "test-job";
+    private static final String LOCK_KEY = "job:lock:test-job";
+    private static final Duration LEASE_TIME = Duration.ofMinutes(1);
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("*");
+        if (!keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Nested
+    @DisplayName("Leases")
+    class LeaseTests {
+        @Test
+        @DisplayName("Should grant lease to only one holder at a time")
+        void tryAcquire_ShouldBeExclusive() {
+            // When
+            Optional<JobLockService.Lease> first = jobLockService.tryAcquire(JOB_NAME, LEASE_TIME);
+            Optional<JobLockService.Lease> second = jobLockService.tryAcquire(JOB_NAME, LEASE_TIME);
+
+            // Then
+            assertThat(first).isPresent();
+            assertThat(second).isEmpty();
+            assertThat(jobLockService.isHeld(first.get())).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should issue increasing fencing tokens")
+        void tryAcquire_ShouldIssueIncreasingTokens() {
+            // Given
+            JobLockService.Lease first = jobLockService.tryAcquire(JOB_NAME, LEASE_TIME).orElseThrow();
+            jobLockService.release(first, Duration.ZERO);
+
+            // When
+            JobLockService.Lease second = jobLockService.tryAcquire(JOB_NAME, LEASE_TIME).orElseThrow();
+
+            // Then
+            assertThat(second.token()).isGreaterThan(first.token());
+            assertThat(jobLockService.isHeld(first)).isFalse();
+            assertThat(jobLockService.isHeld(second)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should detect lease taken over after it expired")
+        void isHeld_ShouldBeFalse_WhenSuperseded() throws InterruptedException {
+            // Given
+            JobLockService.Lease expired = jobLockService.tryAcquire(JOB_NAME, Duration.ofMillis(50)).orElseThrow();
+            TimeUnit.MILLISECONDS.sleep(100);
+            JobLockService.Lease current = jobLockService.tryAcquire(JOB_NAME, LEASE_TIME).orElseThrow();
+
+            // When
+            jobLockService.release(expired, Duration.ZERO);
+
+            // Then
+            assertThat(jobLockService.isHeld(expired)).isFalse();
+            assertThat(jobLockService.isHeld(current)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should keep lease until hold time passed")
+        void release_ShouldKeepLeaseForHoldTime() {
+            // Given
+            JobLockService.Lease lease = jobLockService.tryAcquire(JOB_NAME, LEASE_TIME).orElseThrow();
+
+            // When
+            jobLockService.release(lease, Duration.ofSeconds(30));
+
+            // Then
+            assertThat(redisTemplate.getExpire(LOCK_KEY, TimeUnit.SECONDS)).isPositive().isLessThanOrEqualTo(30);
+            assertThat(jobLockService.tryAcquire(JOB_NAME, LEASE_TIME)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Exclusive Runs")
+    class ExclusiveRunTests {
+        @Test
+        @DisplayName("Should run job and release lease")
+        void runExclusively_ShouldRunAndRelease() {
+            // Given
+            AtomicBoolean ran = new AtomicBoolean();
+
+            // When
+            boolean result = jobLockService.runExclusively(JOB_NAME, Duration.ZERO, LEASE_TIME, lease -> ran.set(true));
+
+            // Then
+            assertThat(result).isTrue();
+            assertThat(ran).isTrue();
+            assertThat(redisTemplate.hasKey(LOCK_KEY)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should skip job while another node holds lease")
+        void runExclusively_ShouldSkip_WhenLeaseHeld() {
+            // Given
+            jobLockService.tryAcquire(JOB_NAME, LEASE_TIME);
+            AtomicBoolean ran = new AtomicBoolean();
+
+            // When
+            boolean result = jobLockService.runExclusively(JOB_NAME, Duration.ZERO, LEASE_TIME, lease -> ran.set(true));
+
+            // Then
+            assertThat(result).isFalse();
+            assertThat(ran).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should expose the lease of the running job to the current thread")
+        void holdsCurrentLease_ShouldFollowLeaseOfRunningJob() {
+            // Given
+            AtomicBoolean heldAtStart = new AtomicBoolean();
+            AtomicBoolean heldAfterTakeover = new AtomicBoolean(true);
+
+            // When
+            jobLockService.runExclusively(JOB_NAME, Duration.ZERO, LEASE_TIME, lease -> {
+                heldAtStart.set(jobLockService.holdsCurrentLease());
+                // Another node takes over after the lease expired
+                redisTemplate.delete(LOCK_KEY);
+                jobLockService.tryAcquire(JOB_NAME, LEASE_TIME);
+                heldAfterTakeover.set(jobLockService.holdsCurrentLease());
+            });
+
+            // Then
+            assertThat(heldAtStart).isTrue();
+            assertThat(heldAfterTakeover).isFalse();
+            assertThat(jobLockService.holdsCurrentLease()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should release lease when job fails")
+        void runExclusively_ShouldRelease_WhenJobFails() {
+            // When & Then
+            assertThatThrownBy(() -> jobLockService.runExclusively(JOB_NAME, Duration.ZERO, LEASE_TIME, lease -> {
+                throw new IllegalStateException("Job failed");
+            })).isInstanceOf(IllegalStateException.class);
+            assertThat(redisTemplate.hasKey(LOCK_KEY)).isFalse();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package fans.goldenglow.plumaspherebackend.service;
 
+import fans.goldenglow.plumaspherebackend.config.LikeSyncProperties;
 import fans.goldenglow.plumaspherebackend.entity.Comment;
 import fans.goldenglow.plumaspherebackend.entity.Post;
 import fans.goldenglow.plumaspherebackend.entity.User;
@@ -11,7 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -26,6 +27,9 @@ class LikeCacheServiceTest {
     private static final String COMMENT_LIKES_KEY = "comment:like:";
     private static final String POST_LIKES_LOADED = "post:likes:loaded";
     private static final String COMMENT_LIKES_LOADED = "comment:likes:loaded";
+    // With the default 16 shards, ID 1 falls into shard 1
+    private static final String POST_LIKES_DIRTY = "post:likes:dirty:1";
+    private static final String COMMENT_LIKES_DIRTY = "comment:likes:dirty:1";
 
     @Mock
     private RedisService redisService;
@@ -43,7 +47,28 @@ class LikeCacheServiceTest {
 
     @BeforeEach
     void setUp() {
-        likeCacheService = new LikeCacheService(redisService, postService, commentService, userService);
+        likeCacheService = new LikeCacheService(redisService, postService, commentService, userService, new LikeSyncProperties());
+    }
+
+    @Nested
+    @DisplayName("Unsynced Likes")
+    class UnsyncedLikes {
+        @Test
+        @DisplayName("Should find users who liked dirty or draining posts and comments")
+        void testFindUsersWithUnsyncedLikes_ShouldReadDirtyAndDrainingLikeSets() {
+            // Given
+            when(redisService.getSetMembers(anyString())).thenReturn(Set.of());
+            when(redisService.getSetMembers(POST_LIKES_DIRTY)).thenReturn(Set.of("1"));
+            when(redisService.getSetMembers("comment:likes:draining:2")).thenReturn(Set.of("2"));
+            when(redisService.getSetMembers(POST_LIKES_KEY + 1)).thenReturn(Set.of("10", "30"));
+            when(redisService.getSetMembers(COMMENT_LIKES_KEY + 2)).thenReturn(Set.of("20", "40"));
+
+            // When
+            Set<Long> result = likeCacheService.findUsersWithUnsyncedLikes(List.of(10L, 20L, 50L));
+
+            // Then
+            assertEquals(Set.of(10L, 20L), result);
+        }
     }
 
     @Nested
@@ -167,6 +192,7 @@ class LikeCacheServiceTest {
             // Then
             verify(redisService).addToSet(POST_LIKES_KEY + postId, userId.toString());
             verify(redisService, never()).removeFromSet(anyString(), anyString());
+            verify(redisService).addToSet(POST_LIKES_DIRTY, postId.toString());
         }
 
         @Test
@@ -183,7 +209,8 @@ class LikeCacheServiceTest {
 
             // Then
             verify(redisService).removeFromSet(POST_LIKES_KEY + postId, userId.toString());
-            verify(redisService, never()).addToSet(anyString(), anyString());
+            verify(redisService, never()).addToSet(eq(POST_LIKES_KEY + postId), anyString());
+            verify(redisService).addToSet(POST_LIKES_DIRTY, postId.toString());
         }
 
         @Test
@@ -360,6 +387,7 @@ class LikeCacheServiceTest {
             // Then
             verify(redisService).addToSet(COMMENT_LIKES_KEY + commentId, userId.toString());
             verify(redisService, never()).removeFromSet(anyString(), anyString());
+            verify(redisService).addToSet(COMMENT_LIKES_DIRTY, commentId.toString());
         }
 
         @Test
@@ -376,7 +404,8 @@ class LikeCacheServiceTest {
 
             // Then
             verify(redisService).removeFromSet(COMMENT_LIKES_KEY + commentId, userId.toString());
-            verify(redisService, never()).addToSet(anyString(), anyString());
+            verify(redisService, never()).addToSet(eq(COMMENT_LIKES_KEY + commentId), anyString());
+            verify(redisService).addToSet(COMMENT_LIKES_DIRTY, commentId.toString());
         }
 
         @Test
@@ -412,81 +441,6 @@ class LikeCacheServiceTest {
         }
     }
 
-    @Nested
-    @DisplayName("Sync and Destroy Operations")
-    class SyncAndDestroy {
-        @Test
-        @DisplayName("Should sync likes to database for posts and comments")
-        void testSyncLikesToDatabase_ShouldSyncPostsAndComments() {
-            // Given
-            Set<String> postKeys = Set.of(POST_LIKES_KEY + "1", POST_LIKES_KEY + "2");
-            Set<String> commentKeys = Set.of(COMMENT_LIKES_KEY + "1", COMMENT_LIKES_KEY + "2");
-
-            when(redisService.getKeys(POST_LIKES_KEY + "*")).thenReturn(postKeys);
-            when(redisService.getKeys(COMMENT_LIKES_KEY + "*")).thenReturn(commentKeys);
-
-            // Mock post sync
-            when(redisService.getSetMembers(POST_LIKES_KEY + "1")).thenReturn(Set.of("10", "20"));
-            when(redisService.getSetMembers(POST_LIKES_KEY + "2")).thenReturn(Set.of("30"));
-            Post post1 = createPostWithLikes(1L, new HashSet<>());
-            Post post2 = createPostWithLikes(2L, new HashSet<>());
-            when(postService.findById(1L)).thenReturn(Optional.of(post1));
-            when(postService.findById(2L)).thenReturn(Optional.of(post2));
-            when(userService.findById(10L)).thenReturn(Optional.of(createUser(10L)));
-            when(userService.findById(20L)).thenReturn(Optional.of(createUser(20L)));
-            when(userService.findById(30L)).thenReturn(Optional.of(createUser(30L)));
-
-            // Mock comment sync
-            when(redisService.getSetMembers(COMMENT_LIKES_KEY + "1")).thenReturn(Set.of("40"));
-            when(redisService.getSetMembers(COMMENT_LIKES_KEY + "2")).thenReturn(Set.of("50", "60"));
-            Comment comment1 = createCommentWithLikes(1L, new HashSet<>());
-            Comment comment2 = createCommentWithLikes(2L, new HashSet<>());
-            when(commentService.findById(1L)).thenReturn(Optional.of(comment1));
-            when(commentService.findById(2L)).thenReturn(Optional.of(comment2));
-            when(userService.findById(40L)).thenReturn(Optional.of(createUser(40L)));
-            when(userService.findById(50L)).thenReturn(Optional.of(createUser(50L)));
-            when(userService.findById(60L)).thenReturn(Optional.of(createUser(60L)));
-
-            // When
-            likeCacheService.syncLikesToDatabase();
-
-            // Then
-            verify(postService).save(post1);
-            verify(postService).save(post2);
-            verify(commentService).save(comment1);
-            verify(commentService).save(comment2);
-        }
-
-        @Test
-        @DisplayName("Should skip sync if entity not found")
-        void testSyncLikesToDatabase_WhenEntityNotFound_ShouldSkip() {
-            // Given
-            Set<String> postKeys = Set.of(POST_LIKES_KEY + "999");
-            when(redisService.getKeys(POST_LIKES_KEY + "*")).thenReturn(postKeys);
-            when(redisService.getKeys(COMMENT_LIKES_KEY + "*")).thenReturn(Set.of());
-            when(postService.findById(999L)).thenReturn(Optional.empty());
-
-            // When
-            likeCacheService.syncLikesToDatabase();
-
-            // Then
-            verify(postService, never()).save(any());
-        }
-
-        @Test
-        @DisplayName("Should call syncLikesToDatabase on destroy")
-        void testDestroy_ShouldCallSyncLikesToDatabase() {
-            // Given
-            when(redisService.getKeys(anyString())).thenReturn(Set.of());
-
-            // When
-            likeCacheService.destroy();
-
-            // Then
-            verify(redisService, atLeastOnce()).getKeys(anyString());
-        }
-    }
-
     // Helper methods
     private User createUser(Long id) {
         User user = new User();
@@ -0,0 +1,406 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.LikeSyncProperties;
+import fans.goldenglow.plumaspherebackend.config.SchedulerProperties;
+import fans.goldenglow.plumaspherebackend.entity.Comment;
+import fans.goldenglow.plumaspherebackend.entity.Post;
+import fans.goldenglow.plumaspherebackend.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LikeSyncService Tests")
+class LikeSyncServiceTest {
+    private static final String POST_LIKES_KEY = "post:like:";
+    private static final String COMMENT_LIKES_KEY = "comment:like:";
+    private static final String POST_LIKES_DRAINING = "post:likes:draining:";
+    private static final String COMMENT_LIKES_DRAINING = "comment:likes:draining:";
+
+    @Mock
+    private RedisService redisService;
+    @Mock
+    private PostService postService;
+    @Mock
+    private CommentService commentService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private JobLockService jobLockService;
+
+    private LikeSyncProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private LikeSyncService likeSyncService;
+
+    @BeforeEach
+    void setUp() {
+        // Two shards: odd IDs fall into shard 1, even IDs into shard 0
+        properties = new LikeSyncProperties();
+        properties.setShards(2);
+        properties.setThreads(2);
+        properties.setMaxAttempts(2);
+        meterRegistry = new SimpleMeterRegistry();
+        likeSyncService = new LikeSyncService(redisService, postService, commentService, userService,
+                transactionTemplate, jobLockService, new SchedulerProperties(), properties, meterRegistry);
+        ReflectionTestUtils.setField(likeSyncService, "LIKE_SYNC_INTERVAL", 30000L);
+        likeSyncService.init();
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private void givenDirty(Map<String, List<String>> drainingSets) {
+        when(redisService.execute(any(), anyList())).thenAnswer(invocation ->
+                drainingSets.getOrDefault(invocation.<List<String>>getArgument(1).getLast(), List.of()));
+    }
+
+    private void givenLeasesTaken() {
+        when(jobLockService.runExclusively(anyString(), any(Duration.class), any(Duration.class), any()))
+                .thenAnswer(invocation -> {
+                    String jobName = invocation.getArgument(0);
+                    invocation.<Consumer<JobLockService.Lease>>getArgument(3)
+                            .accept(new JobLockService.Lease(jobName, "lease", 1, System.nanoTime()));
+                    return true;
+                });
+        lenient().when(jobLockService.isHeld(any())).thenReturn(true);
+    }
+
+    private Post givenPostLikedBy(Long postId, Long userId) {
+        Post post = new Post();
+        post.setId(postId);
+        post.setLikedBy(new HashSet<>());
+        when(redisService.getSetMembers(POST_LIKES_KEY + postId)).thenReturn(Set.of(userId.toString()));
+        when(postService.findById(postId)).thenReturn(Optional.of(post));
+        when(userService.findById(userId)).thenReturn(Optional.of(createUser(userId)));
+        return post;
+    }
+
+    private Comment givenCommentLikedBy(Long commentId, Long userId) {
+        Comment comment = new Comment();
+        comment.setId(commentId);
+        comment.setLikedBy(new HashSet<>());
+        when(redisService.getSetMembers(COMMENT_LIKES_KEY + commentId)).thenReturn(Set.of(userId.toString()));
+        when(commentService.findById(commentId)).thenReturn(Optional.of(comment));
+        when(userService.findById(userId)).thenReturn(Optional.of(createUser(userId)));
+        return comment;
+    }
+
+    private User createUser(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        return user;
+    }
+
+    @Nested
+    @DisplayName("Sharded Sync")
+    class ShardedSyncTests {
+        @Test
+        @DisplayName("Should sync posts and comments with one transaction per shard")
+        void syncLikesToDatabase_ShouldSyncEachShardInOwnTransaction() {
+            // Given
+            runTransactionsInline();
+            givenLeasesTaken();
+            givenDirty(Map.of(POST_LIKES_DRAINING + "1", List.of("1"), POST_LIKES_DRAINING + "0", List.of("2"),
+                    COMMENT_LIKES_DRAINING + "1", List.of("3")));
+            Post post1 = givenPostLikedBy(1L, 10L);
+            Post post2 = givenPostLikedBy(2L, 20L);
+            Comment comment3 = givenCommentLikedBy(3L, 30L);
+
+            // When
+            likeSyncService.syncLikesToDatabase();
+
+            // Then
+            verify(transactionTemplate, times(2)).execute(any());
+            verify(postService).save(post1);
+            verify(postService).save(post2);
+            verify(commentService).save(comment3);
+            assertThat(post1.getLikedBy()).extracting(User::getId).containsExactly(10L);
+            assertThat(comment3.getLikedBy()).extracting(User::getId).containsExactly(30L);
+            verify(redisService).removeAllFromSet(POST_LIKES_DRAINING + "0", List.of("2"));
+            verify(redisService).removeAllFromSet(POST_LIKES_DRAINING + "1", List.of("1"));
+            verify(redisService).removeAllFromSet(COMMENT_LIKES_DRAINING + "1", List.of("3"));
+        }
+
+        @Test
+        @DisplayName("Should retry only the failing shard")
+        void syncLikesToDatabase_ShouldRetryOnlyFailingShard() {
+            // Given
+            runTransactionsInline();
+            givenLeasesTaken();
+            givenDirty(Map.of(POST_LIKES_DRAINING + "1", List.of("1"), POST_LIKES_DRAINING + "0", List.of("2")));
+            Post post1 = givenPostLikedBy(1L, 10L);
+            Post post2 = givenPostLikedBy(2L, 20L);
+            doThrow(new IllegalStateException("Row was updated by another transaction")).doNothing()
+                    .when(postService).save(post1);
+
+            // When
+            likeSyncService.syncLikesToDatabase();
+
+            // Then
+            verify(postService, times(2)).save(post1);
+            verify(postService, times(1)).save(post2);
+            assertThat(meterRegistry.get("likes.sync.shard.failures").counter().count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should leave shard to next sync after all attempts failed")
+        void syncLikesToDatabase_ShouldCountFailure_WhenAllAttemptsFail() {
+            // Given
+            runTransactionsInline();
+            givenLeasesTaken();
+            givenDirty(Map.of(POST_LIKES_DRAINING + "1", List.of("1")));
+            Post post1 = givenPostLikedBy(1L, 10L);
+            doThrow(new IllegalStateException("Connection lost")).when(postService).save(post1);
+
+            // When
+            likeSyncService.syncLikesToDatabase();
+
+            // Then
+            verify(postService, times(2)).save(post1);
+            verify(redisService, never()).removeAllFromSet(eq(POST_LIKES_DRAINING + "1"), anyCollection());
+            assertThat(meterRegistry.get("likes.sync.shard.failures").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should clear the likes of an entity whose last like was removed")
+        void syncLikesToDatabase_ShouldClearLikes_WhenLastLikeRemoved() {
+            // Given
+            runTransactionsInline();
+            givenLeasesTaken();
+            givenDirty(Map.of(POST_LIKES_DRAINING + "1", List.of("1")));
+            Post post1 = new Post();
+            post1.setId(1L);
+            post1.setLikedBy(new HashSet<>(Set.of(createUser(10L))));
+            when(redisService.getSetMembers(POST_LIKES_KEY + 1)).thenReturn(Set.of());
+            when(postService.findById(1L)).thenReturn(Optional.of(post1));
+
+            // When
+            likeSyncService.syncLikesToDatabase();
+
+            // Then
+            verify(postService).save(post1);
+            assertThat(post1.getLikedBy()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should skip entities that no longer exist")
+        void syncLikesToDatabase_ShouldSkip_WhenEntityNotFound() {
+            // Given
+            runTransactionsInline();
+            givenLeasesTaken();
+            givenDirty(Map.of(POST_LIKES_DRAINING + "1", List.of("999")));
+            when(postService.findById(999L)).thenReturn(Optional.empty());
+
+            // When
+            likeSyncService.syncLikesToDatabase();
+
+            // Then
+            verify(postService, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should not open transactions when nothing is dirty and report lag of every shard")
+        void syncLikesToDatabase_ShouldSkipCleanShardsAndReportLag() {
+            // Given
+            givenDirty(Map.of());
+            givenLeasesTaken();
+
+            // When
+            likeSyncService.syncLikesToDatabase();
+
+            // Then
+            verifyNoInteractions(transactionTemplate, postService, commentService);
+            assertThat(meterRegistry.get("likes.sync.lag").gauges()).hasSize(2);
+            assertThat(meterRegistry.get("likes.sync.lag").tag("shard", "1").gauge().value()).isLessThan(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Leases and Shutdown")
+    class LeaseAndShutdownTests {
+        @Test
+        @DisplayName("Should skip shards leased by another node")
+        void syncLikesToDatabase_ShouldSkipShardsLeasedElsewhere() {
+            // Given
+            runTransactionsInline();
+            givenDirty(Map.of(POST_LIKES_DRAINING + "1", List.of("1"), POST_LIKES_DRAINING + "0", List.of("2")));
+            Post post1 = givenPostLikedBy(1L, 10L);
+            when(jobLockService.runExclusively(eq("like-sync:0"), any(Duration.class), any(Duration.class), any()))
+                    .thenReturn(false);
+            when(jobLockService.runExclusively(eq("like-sync:1"), any(Duration.class), any(Duration.class), any()))
+                    .thenAnswer(invocation -> {
+                        invocation.<Consumer<JobLockService.Lease>>getArgument(3)
+                                .accept(new JobLockService.Lease("like-sync:1", "lease", 1, System.nanoTime()));
+                        return true;
+                    });
+            when(jobLockService.isHeld(any())).thenReturn(true);
+
+            // When
+            likeSyncService.syncLikesToDatabase();
+
+            // Then
+            verify(postService).save(post1);
+            verify(postService, never()).findById(2L);
+        }
+
+        @Test
+        @DisplayName("Should write nothing once the lease of a shard was lost")
+        void syncShard_ShouldWriteNothing_WhenLeaseLost() {
+            // Given
+            runTransactionsInline();
+            givenDirty(Map.of(POST_LIKES_DRAINING + "1", List.of("1")));
+            JobLockService.Lease lease = new JobLockService.Lease("like-sync:1", "lease", 1, System.nanoTime());
+            when(jobLockService.isHeld(lease)).thenReturn(false);
+
+            // When
+            boolean synced = likeSyncService.syncShard(1, lease);
+
+            // Then
+            assertThat(synced).isFalse();
+            verify(transactionTemplate, times(1)).execute(any());
+            verifyNoInteractions(postService);
+            verify(redisService, never()).removeAllFromSet(eq(POST_LIKES_DRAINING + "1"), anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should flush dirty shards under leases released right after on shutdown")
+        void stop_ShouldFlushUnderLeases() {
+            // Given
+            runTransactionsInline();
+            givenLeasesTaken();
+            givenDirty(Map.of(POST_LIKES_DRAINING + "1", List.of("1")));
+            Post post1 = givenPostLikedBy(1L, 10L);
+
+            // When
+            likeSyncService.stop();
+
+            // Then
+            verify(postService).save(post1);
+            verify(jobLockService).runExclusively(eq("like-sync:1"), eq(Duration.ZERO), any(Duration.class), any());
+            assertThat(likeSyncService.isFlushing()).isFalse();
+            assertThat(likeSyncService.getPendingShards()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should flush under the lease still held from the last sync on shutdown")
+        void stop_ShouldReuseLeaseHeldFromLastSync() {
+            // Given
+            runTransactionsInline();
+            givenLeasesTaken();
+            likeSyncService.syncLikesToDatabase();
+            givenDirty(Map.of(POST_LIKES_DRAINING + "1", List.of("1")));
+            Post post1 = givenPostLikedBy(1L, 10L);
+
+            // When
+            likeSyncService.stop();
+
+            // Then
+            verify(postService).save(post1);
+            verify(jobLockService, times(2)).runExclusively(anyString(), any(Duration.class), any(Duration.class), any());
+        }
+
+        @Test
+        @DisplayName("Should take a new lease when the lease held from the last sync expires during the flush")
+        void stop_ShouldTakeNewLease_WhenHeldLeaseExpires() {
+            // Given
+            runTransactionsInline();
+            when(jobLockService.runExclusively(anyString(), any(Duration.class), any(Duration.class), any()))
+                    .thenAnswer(invocation -> {
+                        String jobName = invocation.getArgument(0);
+                        invocation.<Consumer<JobLockService.Lease>>getArgument(3)
+                                .accept(new JobLockService.Lease(jobName, "lease", 1, System.nanoTime()));
+                        return true;
+                    });
+            likeSyncService.syncLikesToDatabase();
+            long flushStart = System.nanoTime();
+            AtomicInteger keptLeaseChecks = new AtomicInteger();
+            // The lease of shard 1 kept from the sync is still held when the flush starts, but expires before it writes
+            when(jobLockService.isHeld(any())).thenAnswer(invocation -> {
+                JobLockService.Lease lease = invocation.getArgument(0);
+                return lease.acquiredAt() > flushStart || !lease.jobName().equals("like-sync:1")
+                        || keptLeaseChecks.getAndIncrement() == 0;
+            });
+            givenDirty(Map.of(POST_LIKES_DRAINING + "1", List.of("1")));
+            Post post1 = givenPostLikedBy(1L, 10L);
+
+            // When
+            likeSyncService.stop();
+
+            // Then
+            verify(postService).save(post1);
+            verify(jobLockService).runExclusively(eq("like-sync:1"), eq(Duration.ZERO), any(Duration.class), any());
+            verify(redisService).removeAllFromSet(POST_LIKES_DRAINING + "1", List.of("1"));
+        }
+
+        @Test
+        @DisplayName("Should leave shards leased by another node to that node on shutdown")
+        void stop_ShouldSkipShardsLeasedElsewhere() {
+            // Given
+            properties.setShutdownFlushTimeout(300);
+            when(jobLockService.runExclusively(anyString(), any(Duration.class), any(Duration.class), any()))
+                    .thenReturn(false);
+
+            // When
+            likeSyncService.stop();
+
+            // Then
+            verify(jobLockService, atLeast(4)).runExclusively(anyString(), any(Duration.class), any(Duration.class), any());
+            verifyNoInteractions(redisService, postService, transactionTemplate);
+            assertThat(likeSyncService.isFlushing()).isFalse();
+            assertThat(likeSyncService.getPendingShards()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should give up flushing after the flush timeout")
+        void stop_ShouldReturn_WhenFlushTimesOut() {
+            // Given
+            properties.setShutdownFlushTimeout(100);
+            CountDownLatch release = new CountDownLatch(1);
+            when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+                release.await();
+                return null;
+            });
+            givenDirty(Map.of(POST_LIKES_DRAINING + "1", List.of("1")));
+            givenLeasesTaken();
+
+            // When
+            long start = System.nanoTime();
+            likeSyncService.stop();
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Then
+            assertThat(elapsedMillis).isLessThan(5000);
+            assertThat(likeSyncService.getPendingShards()).isEqualTo(1);
+            verify(redisService, never()).removeAllFromSet(eq(POST_LIKES_DRAINING + "1"), anyCollection());
+            release.countDown();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisplayName("MarkdownService Tests")
@@ -259,4 +260,72 @@ class MarkdownServiceTest {
             assertEquals("Paragraph 1 Paragraph 2 Paragraph 3", result);
         }
     }
+
+    @Nested
+    @DisplayName("HTML Rendering")
+    class HtmlRendering {
+        @Test
+        @DisplayName("Should return empty string for null input")
+        void testRenderHtml_NullInput() {
+            // When
+            String result = markdownService.renderHtml(null);
+
+            // Then
+            assertEquals("", result);
+        }
+
+        @Test
+        @DisplayName("Should render headers and paragraphs")
+        void testRenderHtml_HeadersAndParagraphs() {
+            // Given
+            String markdown = "# Title\n\nSome **bold** text";
+
+            // When
+            String result = markdownService.renderHtml(markdown);
+
+            // Then
+            assertEquals("<h1>Title</h1>\n<p>Some <strong>bold</strong> text</p>\n", result);
+        }
+
+        @Test
+        @DisplayName("Should render the same output when blocks are served from cache")
+        void testRenderHtml_CachedBlocks() {
+            // Given
+            String markdown = "# Title\n\nParagraph 1\n\nParagraph 2";
+
+            // When
+            String first = markdownService.renderHtml(markdown);
+            String second = markdownService.renderHtml(markdown);
+
+            // Then
+            assertEquals(first, second);
+        }
+
+        @Test
+        @DisplayName("Should re-render only the edited block")
+        void testRenderHtml_EditedBlock() {
+            // Given
+            markdownService.renderHtml("# Title\n\nParagraph 1\n\nParagraph 2");
+
+            // When
+            String result = markdownService.renderHtml("# Title\n\nParagraph 1 edited\n\nParagraph 2");
+
+            // Then
+            assertEquals("<h1>Title</h1>\n<p>Paragraph 1 edited</p>\n<p>Paragraph 2</p>\n", result);
+        }
+
+        @Test
+        @DisplayName("Should re-render links when their reference definition changes")
+        void testRenderHtml_ChangedReference() {
+            // Given
+            markdownService.renderHtml("See [docs][ref]\n\n[ref]: https://one.example.com");
+
+            // When
+            String result = markdownService.renderHtml("See [docs][ref]\n\n[ref]: https://two.example.com");
+
+            // Then
+            assertTrue(result.contains("https://two.example.com"));
+            assertFalse(result.contains("https://one.example.com"));
+        }
+    }
 }
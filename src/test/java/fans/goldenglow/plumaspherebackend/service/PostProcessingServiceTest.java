@@ -0,0 +1,126 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.PostProcessingProperties;
+import fans.goldenglow.plumaspherebackend.event.PostContentChangedEvent;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostContent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PostProcessingService Tests")
+class PostProcessingServiceTest {
+
+    private static final Long POST_ID = 1L;
+    private static final Long VERSION = 3L;
+    private static final String CONTENT = "# Title";
+
+    @Mock
+    private PostService postService;
+
+    private PostProcessingService postProcessingService;
+
+    @BeforeEach
+    void setUp() {
+        PostProcessingProperties properties = new PostProcessingProperties();
+        properties.setThreads(1);
+        properties.setQueueCapacity(10);
+        postProcessingService = new PostProcessingService(postService, properties);
+        postProcessingService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        postProcessingService.destroy();
+    }
+
+    @Nested
+    @DisplayName("Processing")
+    class ProcessingTests {
+        @Test
+        @DisplayName("Should write back description and rendered HTML with the read version")
+        void process_ShouldWriteBackWithReadVersion() {
+            // Given
+            when(postService.findContentById(POST_ID)).thenReturn(Optional.of(new PostContent(POST_ID, VERSION, CONTENT)));
+            when(postService.generateDescription(CONTENT)).thenReturn("Title");
+            when(postService.renderHtml(CONTENT)).thenReturn("<h1>Title</h1>\n");
+            when(postService.updateProcessedContent(POST_ID, VERSION, "Title", "<h1>Title</h1>\n")).thenReturn(true);
+
+            // When
+            postProcessingService.process(POST_ID);
+
+            // Then
+            verify(postService).updateProcessedContent(POST_ID, VERSION, "Title", "<h1>Title</h1>\n");
+        }
+
+        @Test
+        @DisplayName("Should do nothing when post no longer exists")
+        void process_ShouldDoNothing_WhenPostDeleted() {
+            // Given
+            when(postService.findContentById(POST_ID)).thenReturn(Optional.empty());
+
+            // When
+            postProcessingService.process(POST_ID);
+
+            // Then
+            verify(postService, never()).generateDescription(anyString());
+            verify(postService, never()).updateProcessedContent(anyLong(), anyLong(), anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should not propagate processing failures")
+        void process_ShouldSwallowFailures() {
+            // Given
+            when(postService.findContentById(POST_ID)).thenReturn(Optional.of(new PostContent(POST_ID, VERSION, CONTENT)));
+            when(postService.generateDescription(CONTENT)).thenThrow(new IllegalStateException("boom"));
+
+            // When
+            postProcessingService.process(POST_ID);
+
+            // Then
+            verify(postService, never()).updateProcessedContent(anyLong(), anyLong(), anyString(), anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("Scheduling")
+    class SchedulingTests {
+        @Test
+        @DisplayName("Should process post after content change event")
+        void onPostContentChanged_ShouldProcessPost() {
+            // Given
+            when(postService.findContentById(POST_ID)).thenReturn(Optional.empty());
+
+            // When
+            postProcessingService.onPostContentChanged(new PostContentChangedEvent(POST_ID));
+
+            // Then
+            verify(postService, timeout(1000)).findContentById(POST_ID);
+        }
+
+        @Test
+        @DisplayName("Should queue all pending posts on sweep")
+        void processPendingPosts_ShouldQueuePendingPosts() {
+            // Given
+            when(postService.findProcessingPendingIds(10)).thenReturn(List.of(1L, 2L));
+            when(postService.findContentById(any())).thenReturn(Optional.empty());
+
+            // When
+            postProcessingService.processPendingPosts();
+
+            // Then
+            verify(postService, timeout(1000)).findContentById(1L);
+            verify(postService, timeout(1000)).findContentById(2L);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package fans.goldenglow.plumaspherebackend.service;
 
 import fans.goldenglow.plumaspherebackend.entity.Post;
+import fans.goldenglow.plumaspherebackend.event.PostContentChangedEvent;
 import fans.goldenglow.plumaspherebackend.repository.PostRepository;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostContent;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostSummary;
+import fans.goldenglow.plumaspherebackend.repository.projection.PostTagName;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,6 +17,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -23,6 +28,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,6 +43,9 @@ class PostServiceTest {
     @Mock
     private MarkdownService markdownService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PostService postService;
 
@@ -170,6 +180,79 @@ class PostServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Summary Operations")
+    class SummaryTests {
+        private PostSummary summary(Long id) {
+            return new PostSummary(id, "Title " + id, "Description " + id, 1L, null, null);
+        }
+
+        @Test
+        @DisplayName("Should attach tag names sorted by post count to each summary")
+        void findAllSummaries_ShouldAttachSortedTagNames() {
+            // Given
+            Page<PostSummary> summaries = new PageImpl<>(List.of(summary(1L), summary(2L)), testPageable, 2);
+            when(postRepository.findAllSummaries(testPageable)).thenReturn(summaries);
+            when(postRepository.findTagNamesByPostIds(List.of(1L, 2L))).thenReturn(List.of(
+                    new PostTagName(1L, "popular", 5),
+                    new PostTagName(1L, "rare", 1),
+                    new PostTagName(2L, "popular", 5)));
+
+            // When
+            Page<PostSummary> actualPage = postService.findAllSummaries(testPageable);
+
+            // Then
+            assertThat(actualPage.getTotalElements()).isEqualTo(2);
+            assertThat(actualPage.getContent().get(0).tags()).containsExactly("rare", "popular");
+            assertThat(actualPage.getContent().get(1).tags()).containsExactly("popular");
+        }
+
+        @Test
+        @DisplayName("Should return empty tag list for summaries without tags")
+        void findSummariesByTagName_ShouldReturnEmptyTags_WhenPostHasNoTags() {
+            // Given
+            Page<PostSummary> summaries = new PageImpl<>(List.of(summary(1L)), testPageable, 1);
+            when(postRepository.findSummariesByTagName("java", testPageable)).thenReturn(summaries);
+            when(postRepository.findTagNamesByPostIds(List.of(1L))).thenReturn(Collections.emptyList());
+
+            // When
+            Page<PostSummary> actualPage = postService.findSummariesByTagName("java", testPageable);
+
+            // Then
+            assertThat(actualPage.getContent()).singleElement().satisfies(summary -> assertThat(summary.tags()).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should return sorted tag names of a single post")
+        void findTagNames_ShouldReturnSortedTagNames() {
+            // Given
+            when(postRepository.findTagNamesByPostIds(List.of(1L))).thenReturn(List.of(
+                    new PostTagName(1L, "popular", 5),
+                    new PostTagName(1L, "rare", 1)));
+
+            // When
+            List<String> tagNames = postService.findTagNames(1L);
+
+            // Then
+            assertThat(tagNames).containsExactly("rare", "popular");
+        }
+
+        @Test
+        @DisplayName("Should not query tags when no summaries match")
+        void searchSummaries_ShouldNotQueryTags_WhenEmpty() {
+            // Given
+            Page<PostSummary> emptyPage = new PageImpl<>(Collections.emptyList(), testPageable, 0);
+            when(postRepository.searchSummariesByKeyword("keyword", testPageable)).thenReturn(emptyPage);
+
+            // When
+            Page<PostSummary> actualPage = postService.searchSummaries("keyword", testPageable);
+
+            // Then
+            assertThat(actualPage).isEmpty();
+            verify(postRepository, never()).findTagNamesByPostIds(any());
+        }
+    }
+
     @Nested
     @DisplayName("Tag Operations")
     class TagTests {
@@ -453,4 +536,93 @@ class PostServiceTest {
             verify(markdownService).convertMarkdownToPlainText(content);
         }
     }
+
+    @Nested
+    @DisplayName("HTML Rendering")
+    class HtmlRendering {
+        @Test
+        @DisplayName("Should delegate rendering to the markdown service")
+        void renderHtml_ShouldDelegateToMarkdownService() {
+            // Given
+            String content = "# Title";
+            when(markdownService.renderHtml(content)).thenReturn("<h1>Title</h1>\n");
+
+            // When
+            String html = postService.renderHtml(content);
+
+            // Then
+            assertThat(html).isEqualTo("<h1>Title</h1>\n");
+            verify(markdownService).renderHtml(content);
+        }
+    }
+
+    @Nested
+    @DisplayName("Content Processing")
+    class ContentProcessingTests {
+        @Test
+        @DisplayName("Should mark post as pending and publish event when content changes")
+        void saveWithContentChange_ShouldMarkPendingAndPublishEvent() {
+            // When
+            postService.saveWithContentChange(testPost);
+
+            // Then
+            assertThat(testPost.getProcessingPending()).isTrue();
+            verify(postRepository).save(testPost);
+            verify(eventPublisher).publishEvent(new PostContentChangedEvent(1L));
+        }
+
+        @Test
+        @DisplayName("Should initialize description of new post")
+        void saveWithContentChange_ShouldInitializeDescription_WhenNull() {
+            // Given
+            testPost.setDescription(null);
+
+            // When
+            postService.saveWithContentChange(testPost);
+
+            // Then
+            assertThat(testPost.getDescription()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return content from repository")
+        void findContentById_ShouldReturnContent() {
+            // Given
+            PostContent content = new PostContent(1L, 0L, "Test Content");
+            when(postRepository.findContentById(1L)).thenReturn(Optional.of(content));
+
+            // When
+            Optional<PostContent> result = postService.findContentById(1L);
+
+            // Then
+            assertThat(result).contains(content);
+        }
+
+        @Test
+        @DisplayName("Should request pending post IDs with given limit")
+        void findProcessingPendingIds_ShouldUseLimit() {
+            // Given
+            when(postRepository.findProcessingPendingIds(PageRequest.of(0, 10))).thenReturn(List.of(1L, 2L));
+
+            // When
+            List<Long> result = postService.findProcessingPendingIds(10);
+
+            // Then
+            assertThat(result).containsExactly(1L, 2L);
+        }
+
+        @ParameterizedTest
+        @CsvSource({"1, true", "0, false"})
+        @DisplayName("Should report whether processed content was written back")
+        void updateProcessedContent_ShouldReportResult(int updatedRows, boolean expected) {
+            // Given
+            when(postRepository.updateProcessedContent(1L, 3L, "desc", "<p>html</p>")).thenReturn(updatedRows);
+
+            // When
+            boolean result = postService.updateProcessedContent(1L, 3L, "desc", "<p>html</p>");
+
+            // Then
+            assertThat(result).isEqualTo(expected);
+        }
+    }
 }
@@ -8,10 +8,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -27,6 +36,9 @@ class RedisServiceTest {
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
     @BeforeEach
     void setUp() {
         // Clean up Redis before each test - delete all keys
@@ -66,6 +78,21 @@ class RedisServiceTest {
             assertThat(result).isNull();
         }
 
+        @Test
+        @DisplayName("Should set value with expiration")
+        void testSetWithTtl() {
+            // Given
+            String key = "test-key";
+            String value = "test-value";
+
+            // When
+            redisService.set(key, value, Duration.ofMinutes(1));
+
+            // Then
+            assertThat(redisService.get(key)).isEqualTo(value);
+            assertThat(redisTemplate.getExpire(key, TimeUnit.SECONDS)).isPositive().isLessThanOrEqualTo(60);
+        }
+
         @Test
         @DisplayName("Should delete key")
         void testDelete() {
@@ -131,6 +158,22 @@ class RedisServiceTest {
             assertThat(setMembers).doesNotContain(value);
         }
 
+        @Test
+        @DisplayName("Should remove only the given values from set")
+        void testRemoveAllFromSet() {
+            // Given
+            String key = "test-set";
+            redisService.addToSet(key, "1");
+            redisService.addToSet(key, "2");
+            redisService.addToSet(key, "3");
+
+            // When
+            redisService.removeAllFromSet(key, List.of("1", "2"));
+
+            // Then
+            assertThat(redisService.getSetMembers(key)).containsExactly("3");
+        }
+
         @Test
         @DisplayName("Should get all set members")
         void testGetSetMembers() {
@@ -209,6 +252,66 @@ class RedisServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Pub/Sub Operations")
+    class PubSubOperations {
+        @Test
+        @DisplayName("Should deliver published message to channel subscribers")
+        void testPublish() throws Exception {
+            // Given
+            String channel = "test-channel";
+            CompletableFuture<String> received = new CompletableFuture<>();
+            MessageListener listener = (message, pattern) -> received.complete(new String(message.getBody(), StandardCharsets.UTF_8));
+            redisMessageListenerContainer.addMessageListener(listener, new ChannelTopic(channel));
+
+            try {
+                // When
+                long receivers = 0;
+                for (int attempt = 0; attempt < 50 && receivers == 0; attempt++) {
+                    // The subscription is registered asynchronously, so publish until it is active
+                    receivers = redisService.publish(channel, "hello");
+                    if (receivers == 0) Thread.sleep(20);
+                }
+
+                // Then
+                assertThat(receivers).isEqualTo(1);
+                assertThat(received.get(1, TimeUnit.SECONDS)).isEqualTo("hello");
+            } finally {
+                redisMessageListenerContainer.removeMessageListener(listener);
+            }
+        }
+
+        @Test
+        @DisplayName("Should report no receivers when channel has no subscribers")
+        void testPublishWithoutSubscribers() {
+            // When
+            Long receivers = redisService.publish("channel-without-subscribers", "hello");
+
+            // Then
+            assertThat(receivers).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Script Operations")
+    class ScriptOperations {
+        @Test
+        @DisplayName("Should execute script with keys and arguments")
+        void testExecute() {
+            // Given
+            String key = "script-counter";
+            RedisScript<Long> script = RedisScript.of("return redis.call('INCRBY', KEYS[1], ARGV[1])", Long.class);
+
+            // When
+            redisService.execute(script, List.of(key), "2");
+            Long result = redisService.execute(script, List.of(key), "3");
+
+            // Then
+            assertThat(result).isEqualTo(5L);
+            assertThat(redisService.get(key)).isEqualTo("5");
+        }
+    }
+
     @Nested
     @DisplayName("Multiple Operations")
     class MultipleOperations {
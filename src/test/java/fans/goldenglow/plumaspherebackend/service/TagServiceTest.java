@@ -2,6 +2,7 @@ package fans.goldenglow.plumaspherebackend.service;
 
 import fans.goldenglow.plumaspherebackend.entity.Tag;
 import fans.goldenglow.plumaspherebackend.repository.TagRepository;
+import fans.goldenglow.plumaspherebackend.repository.projection.TagPostCount;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -75,6 +76,21 @@ class TagServiceTest {
             assertThat(actualTags).isEmpty();
             verify(tagRepository).findAll();
         }
+
+        @Test
+        @DisplayName("Should return tags with post counts from repository")
+        void findAllWithPostCount_ShouldReturnTagsWithPostCounts() {
+            // Given
+            List<TagPostCount> expectedTags = List.of(new TagPostCount(1L, "java", 3), new TagPostCount(2L, "spring", 1));
+            when(tagRepository.findAllWithPostCount()).thenReturn(expectedTags);
+
+            // When
+            List<TagPostCount> actualTags = tagService.findAllWithPostCount();
+
+            // Then
+            assertThat(actualTags).isEqualTo(expectedTags);
+            verify(tagRepository, never()).findAll();
+        }
     }
 
     @Nested
@@ -1,6 +1,8 @@
 package fans.goldenglow.plumaspherebackend.service;
 
 import fans.goldenglow.plumaspherebackend.entity.User;
+import fans.goldenglow.plumaspherebackend.event.UserBanChangedEvent;
+import fans.goldenglow.plumaspherebackend.event.UserBansChangedEvent;
 import fans.goldenglow.plumaspherebackend.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,10 +12,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -25,6 +31,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +41,15 @@ class UserBanServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JobLockService jobLockService;
+
     @InjectMocks
     private UserBanService userBanService;
 
@@ -78,6 +94,7 @@ class UserBanServiceTest {
                 assertThat(user.getBanExpiresAt()).isNull(); // Permanent ban
                 return true;
             }));
+            verify(eventPublisher).publishEvent(new UserBanChangedEvent(1L));
         }
 
         @Test
@@ -190,6 +207,72 @@ class UserBanServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("IP Ban Mark Operations")
+    class IpBanMarkOperations {
+        @Test
+        @DisplayName("Should mark user for permanent IP ban and publish change")
+        void markUserForIpBan_ShouldMarkUser_WhenUserExists() {
+            // Given
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+            // When
+            userBanService.markUserForIpBan(1L, "Spam");
+
+            // Then
+            assertThat(testUser.getIsPendingIpBan()).isTrue();
+            assertThat(testUser.getIpBanReason()).isEqualTo("Spam");
+            assertThat(testUser.getIpBanExpiresAt()).isNull();
+            verify(userRepository).save(testUser);
+            verify(eventPublisher).publishEvent(new UserBanChangedEvent(1L));
+        }
+
+        @Test
+        @DisplayName("Should mark user for temporary IP ban and publish change")
+        void markUserForTemporaryIpBan_ShouldMarkUser_WhenUserExists() {
+            // Given
+            LocalDateTime expiresAt = LocalDateTime.now().plusDays(1);
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+            // When
+            userBanService.markUserForTemporaryIpBan(1L, "Spam", expiresAt);
+
+            // Then
+            assertThat(testUser.getIsPendingIpBan()).isTrue();
+            assertThat(testUser.getIpBanExpiresAt()).isEqualTo(expiresAt);
+            verify(userRepository).save(testUser);
+            verify(eventPublisher).publishEvent(new UserBanChangedEvent(1L));
+        }
+
+        @Test
+        @DisplayName("Should clear IP ban mark and publish change")
+        void unmarkUserIpBan_ShouldClearMark_WhenUserExists() {
+            // Given
+            when(userRepository.findById(3L)).thenReturn(Optional.of(markedUser));
+
+            // When
+            userBanService.unmarkUserIpBan(3L);
+
+            // Then
+            assertThat(markedUser.getIsPendingIpBan()).isFalse();
+            verify(userRepository).save(markedUser);
+            verify(eventPublisher).publishEvent(new UserBanChangedEvent(3L));
+        }
+
+        @Test
+        @DisplayName("Should throw exception when user not found for IP ban mark")
+        void markUserForIpBan_ShouldThrowException_WhenUserNotFound() {
+            // Given
+            when(userRepository.findById(999L)).thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> userBanService.markUserForIpBan(999L, "Spam"))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessage("User not found: 999");
+            verifyNoInteractions(eventPublisher);
+        }
+    }
+
     @Nested
     @DisplayName("Unban Operations")
     class UnbanOperations {
@@ -441,51 +524,82 @@ class UserBanServiceTest {
     @DisplayName("Cleanup Expired Bans")
     class CleanupExpiredBans {
         @Test
-        @DisplayName("Should unban expired users")
-        void cleanupExpiredBans_ShouldUnbanExpiredUsers() {
+        @DisplayName("Should unban expired users in chunks")
+        void cleanupExpiredBans_ShouldUnbanExpiredUsersInChunks() {
+            // Given
+            ReflectionTestUtils.setField(userBanService, "CLEANUP_CHUNK_SIZE", 2);
+            when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                    invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+            when(jobLockService.holdsCurrentLease()).thenReturn(true);
+            when(userRepository.findExpiredBanIds(any(LocalDateTime.class), any(Pageable.class)))
+                    .thenReturn(List.of(4L, 5L))
+                    .thenReturn(List.of(6L));
+            when(userRepository.unbanExpiredByIdIn(eq(List.of(4L, 5L)), any(LocalDateTime.class))).thenReturn(2);
+            when(userRepository.unbanExpiredByIdIn(eq(List.of(6L)), any(LocalDateTime.class))).thenReturn(1);
+
+            // When
+            userBanService.cleanupExpiredBans();
+
+            // Then
+            verify(userRepository, times(2)).findExpiredBanIds(any(LocalDateTime.class), any(Pageable.class));
+            verify(eventPublisher).publishEvent(new UserBansChangedEvent(List.of(4L, 5L)));
+            verify(eventPublisher).publishEvent(new UserBansChangedEvent(List.of(6L)));
+            verify(userRepository, never()).saveAll(any());
+        }
+
+        @Test
+        @DisplayName("Should stop when a chunk unbans nobody")
+        void cleanupExpiredBans_ShouldStop_WhenNothingUnbanned() {
             // Given
-            User expiredUser1 = new User("expired1", "password");
-            expiredUser1.setId(4L);
-            expiredUser1.setIsBanned(true);
-            expiredUser1.setBanExpiresAt(LocalDateTime.now().minusHours(1));
+            ReflectionTestUtils.setField(userBanService, "CLEANUP_CHUNK_SIZE", 2);
+            when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                    invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+            when(jobLockService.holdsCurrentLease()).thenReturn(true);
+            when(userRepository.findExpiredBanIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(4L, 5L));
+            when(userRepository.unbanExpiredByIdIn(eq(List.of(4L, 5L)), any(LocalDateTime.class))).thenReturn(0);
 
-            User expiredUser2 = new User("expired2", "password");
-            expiredUser2.setId(5L);
-            expiredUser2.setIsBanned(true);
-            expiredUser2.setBanExpiresAt(LocalDateTime.now().minusDays(1));
+            // When
+            userBanService.cleanupExpiredBans();
 
-            List<User> expiredUsers = Arrays.asList(expiredUser1, expiredUser2);
+            // Then
+            verify(userRepository).findExpiredBanIds(any(LocalDateTime.class), any(Pageable.class));
+        }
 
-            when(userRepository.findUserByBanExpiresAtBefore(any(LocalDateTime.class)))
-                    .thenReturn(expiredUsers);
+        @Test
+        @DisplayName("Should stop before the next chunk once the lease was lost")
+        void cleanupExpiredBans_ShouldStop_WhenLeaseLost() {
+            // Given
+            ReflectionTestUtils.setField(userBanService, "CLEANUP_CHUNK_SIZE", 2);
+            when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                    invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+            when(jobLockService.holdsCurrentLease()).thenReturn(true).thenReturn(false);
+            when(userRepository.findExpiredBanIds(any(LocalDateTime.class), any(Pageable.class)))
+                    .thenReturn(List.of(4L, 5L))
+                    .thenReturn(List.of(6L, 7L));
+            when(userRepository.unbanExpiredByIdIn(eq(List.of(4L, 5L)), any(LocalDateTime.class))).thenReturn(2);
 
             // When
             userBanService.cleanupExpiredBans();
 
             // Then
-            verify(userRepository).findUserByBanExpiresAtBefore(any(LocalDateTime.class));
-            verify(userRepository).saveAll(argThat(users -> {
-                List<User> userList = (List<User>) users;
-                assertThat(userList).hasSize(2);
-                assertThat(userList.get(0).getIsBanned()).isFalse();
-                assertThat(userList.get(1).getIsBanned()).isFalse();
-                return true;
-            }));
+            verify(userRepository, never()).unbanExpiredByIdIn(eq(List.of(6L, 7L)), any(LocalDateTime.class));
+            verify(eventPublisher, never()).publishEvent(new UserBansChangedEvent(List.of(6L, 7L)));
         }
 
         @Test
         @DisplayName("Should do nothing when no expired bans")
         void cleanupExpiredBans_ShouldDoNothing_WhenNoExpiredBans() {
             // Given
-            when(userRepository.findUserByBanExpiresAtBefore(any(LocalDateTime.class)))
+            ReflectionTestUtils.setField(userBanService, "CLEANUP_CHUNK_SIZE", 2);
+            when(userRepository.findExpiredBanIds(any(LocalDateTime.class), any(Pageable.class)))
                     .thenReturn(Collections.emptyList());
 
             // When
             userBanService.cleanupExpiredBans();
 
             // Then
-            verify(userRepository).findUserByBanExpiresAtBefore(any(LocalDateTime.class));
-            verify(userRepository, never()).saveAll(any());
+            verify(userRepository).findExpiredBanIds(any(LocalDateTime.class), any(Pageable.class));
+            verifyNoInteractions(transactionTemplate, eventPublisher);
         }
     }
 
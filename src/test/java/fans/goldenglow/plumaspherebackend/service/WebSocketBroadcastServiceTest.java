@@ -0,0 +1,197 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import fans.goldenglow.plumaspherebackend.constant.WebSocketMessageType;
+import fans.goldenglow.plumaspherebackend.dto.websocket.TopicUpdateMessageDto;
+import fans.goldenglow.plumaspherebackend.dto.websocket.WebSocketMessageDto;
+import fans.goldenglow.plumaspherebackend.event.WebSocketTopicSubscriptionChangedEvent;
+import fans.goldenglow.plumaspherebackend.handler.WebSocketHandler;
+import fans.goldenglow.plumaspherebackend.handler.WebSocketTopic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WebSocketBroadcastService Tests")
+class WebSocketBroadcastServiceTest {
+
+    private static final WebSocketTopic POST_TOPIC = WebSocketTopic.post(1L);
+    private static final String POST_CHANNEL = "ws:post:1";
+
+    @Mock
+    private WebSocketHandler webSocketHandler;
+    @Mock
+    private WebSocketReplayService webSocketReplayService;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private WebSocketProperties properties;
+    private WebSocketBroadcastService webSocketBroadcastService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WebSocketProperties();
+        webSocketBroadcastService = new WebSocketBroadcastService(webSocketHandler, webSocketReplayService, listenerContainer, properties);
+    }
+
+    private static WebSocketMessageDto updateMessage() {
+        return new WebSocketMessageDto(WebSocketMessageType.UPDATE, new TopicUpdateMessageDto(3L, null, null, null));
+    }
+
+    @Nested
+    @DisplayName("Broadcast")
+    class BroadcastTests {
+        @Test
+        @DisplayName("Should number and publish message to the channel of the topic without delivering locally")
+        void broadcast_ShouldPublish_WhenRelayEnabled() {
+            // Given
+            WebSocketMessageDto message = updateMessage();
+
+            // When
+            webSocketBroadcastService.broadcast(POST_TOPIC, message);
+
+            // Then
+            assertThat(message.getTopic()).isEqualTo("post:1");
+            verify(webSocketReplayService).append(POST_TOPIC, message.toJson(), POST_CHANNEL);
+            verifyNoInteractions(webSocketHandler);
+        }
+
+        @Test
+        @DisplayName("Should deliver unnumbered message locally when publishing fails")
+        void broadcast_ShouldDeliverLocally_WhenPublishFails() {
+            // Given
+            WebSocketMessageDto message = updateMessage();
+            message.setTopic("post:1");
+            when(webSocketReplayService.append(POST_TOPIC, message.toJson(), POST_CHANNEL))
+                    .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+            // When
+            webSocketBroadcastService.broadcast(POST_TOPIC, message);
+
+            // Then
+            verify(webSocketHandler).sendText(POST_TOPIC, message.toJson());
+        }
+
+        @Test
+        @DisplayName("Should number message and deliver it locally without publishing when relay is disabled")
+        void broadcast_ShouldDeliverLocally_WhenRelayDisabled() {
+            // Given
+            properties.setRelayEnabled(false);
+            WebSocketMessageDto message = updateMessage();
+            message.setTopic("post:1");
+            String sequenced = "{\"seq\":1," + message.toJson().substring(1);
+            when(webSocketReplayService.append(POST_TOPIC, message.toJson(), null)).thenReturn(sequenced);
+
+            // When
+            webSocketBroadcastService.broadcast(POST_TOPIC, message);
+
+            // Then
+            verify(webSocketHandler).sendText(POST_TOPIC, sequenced);
+        }
+    }
+
+    @Nested
+    @DisplayName("Channel Subscriptions")
+    class SubscriptionTests {
+        @Test
+        @DisplayName("Should subscribe to the channel once when the first local subscriber joins")
+        void onSubscriptionChanged_ShouldSubscribeOnce() {
+            // Given
+            when(webSocketHandler.hasSubscribers(POST_TOPIC)).thenReturn(true);
+            WebSocketTopicSubscriptionChangedEvent event = new WebSocketTopicSubscriptionChangedEvent(POST_TOPIC);
+
+            // When
+            webSocketBroadcastService.onSubscriptionChanged(event);
+            webSocketBroadcastService.onSubscriptionChanged(event);
+
+            // Then
+            verify(listenerContainer, times(1)).addMessageListener(webSocketBroadcastService, new ChannelTopic(POST_CHANNEL));
+        }
+
+        @Test
+        @DisplayName("Should unsubscribe from the channel when the last local subscriber leaves")
+        void onSubscriptionChanged_ShouldUnsubscribe_WhenNoSubscribersLeft() {
+            // Given
+            WebSocketTopicSubscriptionChangedEvent event = new WebSocketTopicSubscriptionChangedEvent(POST_TOPIC);
+            when(webSocketHandler.hasSubscribers(POST_TOPIC)).thenReturn(true);
+            webSocketBroadcastService.onSubscriptionChanged(event);
+            when(webSocketHandler.hasSubscribers(POST_TOPIC)).thenReturn(false);
+
+            // When
+            webSocketBroadcastService.onSubscriptionChanged(event);
+
+            // Then
+            verify(listenerContainer).removeMessageListener(webSocketBroadcastService, new ChannelTopic(POST_CHANNEL));
+        }
+
+        @Test
+        @DisplayName("Should not touch the container when a topic without channel has no subscribers")
+        void onSubscriptionChanged_ShouldDoNothing_WhenNeverSubscribed() {
+            // Given
+            when(webSocketHandler.hasSubscribers(POST_TOPIC)).thenReturn(false);
+
+            // When
+            webSocketBroadcastService.onSubscriptionChanged(new WebSocketTopicSubscriptionChangedEvent(POST_TOPIC));
+
+            // Then
+            verifyNoInteractions(listenerContainer);
+        }
+
+        @Test
+        @DisplayName("Should ignore subscription changes when relay is disabled")
+        void onSubscriptionChanged_ShouldDoNothing_WhenRelayDisabled() {
+            // Given
+            properties.setRelayEnabled(false);
+
+            // When
+            webSocketBroadcastService.onSubscriptionChanged(new WebSocketTopicSubscriptionChangedEvent(POST_TOPIC));
+
+            // Then
+            verifyNoInteractions(listenerContainer, webSocketHandler);
+        }
+    }
+
+    @Nested
+    @DisplayName("Relayed Messages")
+    class RelayedMessageTests {
+        @Test
+        @DisplayName("Should deliver relayed message to local subscribers of its topic")
+        void onMessage_ShouldDeliverToTopic() {
+            // Given
+            String json = updateMessage().toJson();
+            DefaultMessage message = new DefaultMessage(POST_CHANNEL.getBytes(StandardCharsets.UTF_8), json.getBytes(StandardCharsets.UTF_8));
+
+            // When
+            webSocketBroadcastService.onMessage(message, null);
+
+            // Then
+            verify(webSocketHandler).sendText(POST_TOPIC, json);
+        }
+
+        @Test
+        @DisplayName("Should ignore message relayed on a malformed channel")
+        void onMessage_ShouldIgnore_WhenChannelMalformed() {
+            // Given
+            DefaultMessage message = new DefaultMessage("ws:unknown".getBytes(StandardCharsets.UTF_8), "{}".getBytes(StandardCharsets.UTF_8));
+
+            // When
+            webSocketBroadcastService.onMessage(message, null);
+
+            // Then
+            verifyNoInteractions(webSocketHandler);
+        }
+    }
+}
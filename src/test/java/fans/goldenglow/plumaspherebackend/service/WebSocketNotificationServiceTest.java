@@ -0,0 +1,215 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import fans.goldenglow.plumaspherebackend.constant.WebSocketMessageType;
+import fans.goldenglow.plumaspherebackend.dto.CommentDto;
+import fans.goldenglow.plumaspherebackend.dto.websocket.TopicUpdateMessageDto;
+import fans.goldenglow.plumaspherebackend.dto.websocket.WebSocketMessageDto;
+import fans.goldenglow.plumaspherebackend.entity.Comment;
+import fans.goldenglow.plumaspherebackend.event.CommentAddedEvent;
+import fans.goldenglow.plumaspherebackend.handler.WebSocketTopic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WebSocketNotificationService Tests")
+class WebSocketNotificationServiceTest {
+
+    private static final Long POST_ID = 1L;
+    private static final WebSocketTopic POST_TOPIC = WebSocketTopic.post(POST_ID);
+    private static final long COALESCE_WINDOW = 20;
+    private static final long SETTLE_TIME = 300;
+    private static final int MAX_COMMENTS = 2;
+
+    @Mock
+    private WebSocketBroadcastService webSocketBroadcastService;
+    @Mock
+    private LikeCacheService likeCacheService;
+    @Mock
+    private CommentService commentService;
+
+    private WebSocketNotificationService webSocketNotificationService;
+
+    @BeforeEach
+    void setUp() {
+        WebSocketProperties properties = new WebSocketProperties();
+        properties.setCoalesceWindow(COALESCE_WINDOW);
+        properties.setMaxCommentsPerUpdate(MAX_COMMENTS);
+        webSocketNotificationService = new WebSocketNotificationService(webSocketBroadcastService, likeCacheService, commentService, properties);
+        webSocketNotificationService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        webSocketNotificationService.destroy();
+    }
+
+    private static CommentDto comment(Long id) {
+        return new CommentDto(id, "Comment " + id, ZonedDateTime.now(), 10L, "Reader");
+    }
+
+    /**
+     * Waits until the coalescing windows have closed and returns the single update sent to a topic.
+     *
+     * @param topic the topic the update was sent to
+     * @return the payload of the update
+     */
+    private TopicUpdateMessageDto captureSingleUpdate(WebSocketTopic topic) {
+        ArgumentCaptor<WebSocketMessageDto> captor = ArgumentCaptor.forClass(WebSocketMessageDto.class);
+        verify(webSocketBroadcastService, after(SETTLE_TIME).times(1)).broadcast(eq(topic), captor.capture());
+        WebSocketMessageDto message = captor.getValue();
+        assertThat(message.getType()).isEqualTo(WebSocketMessageType.UPDATE);
+        return (TopicUpdateMessageDto) message.getData();
+    }
+
+    @Nested
+    @DisplayName("Coalescing")
+    class CoalescingTests {
+        @Test
+        @DisplayName("Should send one update with the final like count for a burst of likes")
+        void notifyPostLiked_ShouldCoalesceBurst() {
+            // Given
+            when(likeCacheService.getPostLikesCount(POST_ID)).thenReturn(3L);
+
+            // When
+            webSocketNotificationService.notifyPostLiked(POST_ID);
+            webSocketNotificationService.notifyPostLiked(POST_ID);
+            webSocketNotificationService.notifyPostLiked(POST_ID);
+
+            // Then
+            TopicUpdateMessageDto update = captureSingleUpdate(POST_TOPIC);
+            assertThat(update.getLikeCount()).isEqualTo(3L);
+            assertThat(update.getCommentCount()).isNull();
+            assertThat(update.getCommentLikeCounts()).isNull();
+            verify(likeCacheService).getPostLikesCount(POST_ID);
+        }
+
+        @Test
+        @DisplayName("Should merge new comments and comment likes on the same post into one update")
+        void notifications_ShouldMergePerTopic() {
+            // Given
+            Long commentId = 5L;
+            when(commentService.findPostId(commentId)).thenReturn(POST_ID);
+            when(commentService.countByPostId(POST_ID)).thenReturn(4L);
+            when(likeCacheService.getCommentLikesCount(commentId)).thenReturn(2L);
+            CommentDto newComment = comment(8L);
+
+            // When
+            webSocketNotificationService.notifyCommentAdded(POST_ID, newComment);
+            webSocketNotificationService.notifyCommentLiked(commentId);
+            webSocketNotificationService.notifyCommentLiked(commentId);
+
+            // Then
+            TopicUpdateMessageDto update = captureSingleUpdate(POST_TOPIC);
+            assertThat(update.getLikeCount()).isNull();
+            assertThat(update.getCommentCount()).isEqualTo(4L);
+            assertThat(update.getCommentLikeCounts()).isEqualTo(Map.of(commentId, 2L));
+            assertThat(update.getNewComments()).containsExactly(newComment);
+        }
+
+        @Test
+        @DisplayName("Should send likes of replies to the thread of the parent comment")
+        void notifyCommentLiked_ShouldTargetParentThread_WhenCommentIsReply() {
+            // Given
+            Long replyId = 7L;
+            Comment parent = new Comment();
+            parent.setId(3L);
+            Comment reply = new Comment();
+            reply.setId(replyId);
+            reply.setParentComment(parent);
+            WebSocketTopic threadTopic = WebSocketTopic.comment(3L);
+            when(commentService.findPostId(replyId)).thenReturn(null);
+            when(commentService.findById(replyId)).thenReturn(Optional.of(reply));
+            when(likeCacheService.getCommentLikesCount(replyId)).thenReturn(1L);
+
+            // When
+            webSocketNotificationService.notifyCommentLiked(replyId);
+
+            // Then
+            TopicUpdateMessageDto update = captureSingleUpdate(threadTopic);
+            assertThat(update.getCommentLikeCounts()).isEqualTo(Map.of(replyId, 1L));
+        }
+
+        @Test
+        @DisplayName("Should count replies for new replies in a comment thread")
+        void notifyReplyAdded_ShouldSendReplyCount() {
+            // Given
+            WebSocketTopic threadTopic = WebSocketTopic.comment(3L);
+            when(commentService.countByParentCommentId(3L)).thenReturn(6L);
+
+            // When
+            webSocketNotificationService.notifyReplyAdded(3L, comment(11L));
+
+            // Then
+            assertThat(captureSingleUpdate(threadTopic).getCommentCount()).isEqualTo(6L);
+        }
+    }
+
+    @Nested
+    @DisplayName("New Comments")
+    class NewCommentTests {
+        @Test
+        @DisplayName("Should carry the comments added during the window, oldest first")
+        void notifyCommentAdded_ShouldCarryNewComments() {
+            // Given
+            when(commentService.countByPostId(POST_ID)).thenReturn(2L);
+            CommentDto first = comment(1L);
+            CommentDto second = comment(2L);
+
+            // When
+            webSocketNotificationService.notifyCommentAdded(POST_ID, first);
+            webSocketNotificationService.notifyCommentAdded(POST_ID, second);
+
+            // Then
+            assertThat(captureSingleUpdate(POST_TOPIC).getNewComments()).isEqualTo(List.of(first, second));
+        }
+
+        @Test
+        @DisplayName("Should leave out the comments when more were added than an update carries")
+        void notifyCommentAdded_ShouldOmitComments_WhenTooMany() {
+            // Given
+            when(commentService.countByPostId(POST_ID)).thenReturn(3L);
+
+            // When
+            for (long id = 1; id <= MAX_COMMENTS + 1; id++) {
+                webSocketNotificationService.notifyCommentAdded(POST_ID, comment(id));
+            }
+
+            // Then
+            TopicUpdateMessageDto update = captureSingleUpdate(POST_TOPIC);
+            assertThat(update.getCommentCount()).isEqualTo(3L);
+            assertThat(update.getNewComments()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should notify the thread of a reply added in a committed transaction")
+        void onCommentAdded_ShouldNotifyThread_WhenReply() {
+            // Given
+            WebSocketTopic threadTopic = WebSocketTopic.comment(3L);
+            when(commentService.countByParentCommentId(3L)).thenReturn(1L);
+            CommentDto reply = comment(11L);
+
+            // When
+            webSocketNotificationService.onCommentAdded(CommentAddedEvent.onComment(3L, reply));
+
+            // Then
+            assertThat(captureSingleUpdate(threadTopic).getNewComments()).isEqualTo(List.of(reply));
+            verify(webSocketBroadcastService, never()).broadcast(eq(POST_TOPIC), any());
+        }
+    }
+}
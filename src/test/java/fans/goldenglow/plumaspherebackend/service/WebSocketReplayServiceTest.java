@@ -0,0 +1,169 @@
+package fans.goldenglow.plumaspherebackend.service;
+
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import fans.goldenglow.plumaspherebackend.handler.WebSocketTopic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WebSocketReplayService Tests")
+class WebSocketReplayServiceTest {
+
+    private static final WebSocketTopic POST_TOPIC = WebSocketTopic.post(1L);
+    private static final List<String> KEYS = List.of("ws:seq:post:1", "ws:replay:post:1");
+
+    @Mock
+    private RedisService redisService;
+
+    private WebSocketReplayService webSocketReplayService;
+
+    @BeforeEach
+    void setUp() {
+        webSocketReplayService = new WebSocketReplayService(redisService, new WebSocketProperties());
+    }
+
+    private static String message(long seq) {
+        return "{\"seq\":" + seq + ",\"type\":\"UPDATE\",\"topic\":\"post:1\"}";
+    }
+
+    @Nested
+    @DisplayName("Append")
+    class AppendTests {
+        @Test
+        @DisplayName("Should number message with buffer size, retention and channel")
+        void append_ShouldRunScript_WithChannel() {
+            // Given
+            String json = "{\"type\":\"UPDATE\",\"topic\":\"post:1\"}";
+            when(redisService.execute(any(), eq(KEYS), eq(json), eq("100"), eq("600000"), eq("ws:post:1")))
+                    .thenReturn(message(1));
+
+            // When
+            String result = webSocketReplayService.append(POST_TOPIC, json, "ws:post:1");
+
+            // Then
+            assertThat(result).isEqualTo(message(1));
+        }
+
+        @Test
+        @DisplayName("Should pass empty channel when message is not published")
+        void append_ShouldRunScript_WithoutChannel() {
+            // Given
+            String json = "{\"type\":\"UPDATE\",\"topic\":\"post:1\"}";
+            when(redisService.execute(any(), eq(KEYS), eq(json), eq("100"), eq("600000"), eq("")))
+                    .thenReturn(message(1));
+
+            // When
+            String result = webSocketReplayService.append(POST_TOPIC, json, null);
+
+            // Then
+            assertThat(result).isEqualTo(message(1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Replay")
+    class ReplayTests {
+        @Test
+        @DisplayName("Should return missed messages when all of them are kept")
+        void replay_ShouldReturnMessages_WhenComplete() {
+            // Given
+            when(redisService.execute(any(), eq(KEYS), eq("5"))).thenReturn(List.of("7", message(6), message(7)));
+
+            // When
+            WebSocketReplayService.Replay replay = webSocketReplayService.replay(POST_TOPIC, 5);
+
+            // Then
+            assertThat(replay.complete()).isTrue();
+            assertThat(replay.messages()).containsExactly(message(6), message(7));
+        }
+
+        @Test
+        @DisplayName("Should return empty complete replay when nothing was missed")
+        void replay_ShouldReturnEmpty_WhenUpToDate() {
+            // Given
+            when(redisService.execute(any(), eq(KEYS), eq("7"))).thenReturn(List.of("7"));
+
+            // When
+            WebSocketReplayService.Replay replay = webSocketReplayService.replay(POST_TOPIC, 7);
+
+            // Then
+            assertThat(replay.complete()).isTrue();
+            assertThat(replay.messages()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return incomplete replay when missed messages were trimmed")
+        void replay_ShouldBeIncomplete_WhenTrimmed() {
+            // Given
+            when(redisService.execute(any(), eq(KEYS), eq("2"))).thenReturn(List.of("7", message(6), message(7)));
+
+            // When
+            WebSocketReplayService.Replay replay = webSocketReplayService.replay(POST_TOPIC, 2);
+
+            // Then
+            assertThat(replay.complete()).isFalse();
+            assertThat(replay.messages()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return incomplete replay when sequence was reset")
+        void replay_ShouldBeIncomplete_WhenSequenceReset() {
+            // Given
+            when(redisService.execute(any(), eq(KEYS), eq("9"))).thenReturn(List.of("0"));
+
+            // When
+            WebSocketReplayService.Replay replay = webSocketReplayService.replay(POST_TOPIC, 9);
+
+            // Then
+            assertThat(replay.complete()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Sequence Numbers")
+    class SequenceTests {
+        @Test
+        @DisplayName("Should read number of last message of topic")
+        void currentSeq_ShouldReadSequence() {
+            // Given
+            when(redisService.get("ws:seq:post:1")).thenReturn("7");
+
+            // When
+            long seq = webSocketReplayService.currentSeq(POST_TOPIC);
+
+            // Then
+            assertThat(seq).isEqualTo(7);
+        }
+
+        @Test
+        @DisplayName("Should return zero when topic has no sequence")
+        void currentSeq_ShouldReturnZero_WhenMissing() {
+            assertThat(webSocketReplayService.currentSeq(POST_TOPIC)).isZero();
+        }
+
+        @Test
+        @DisplayName("Should read number of numbered message")
+        void sequenceOf_ShouldReadNumber() {
+            assertThat(WebSocketReplayService.sequenceOf(message(42))).isEqualTo(42);
+        }
+
+        @Test
+        @DisplayName("Should return unsequenced for message without number")
+        void sequenceOf_ShouldReturnUnsequenced_WhenMissing() {
+            assertThat(WebSocketReplayService.sequenceOf("{\"type\":\"UPDATE\"}")).isEqualTo(WebSocketReplayService.UNSEQUENCED);
+            assertThat(WebSocketReplayService.sequenceOf("{\"seq\":abc,\"type\":\"UPDATE\"}")).isEqualTo(WebSocketReplayService.UNSEQUENCED);
+        }
+    }
+}
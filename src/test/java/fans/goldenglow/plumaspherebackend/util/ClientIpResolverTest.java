@@ -0,0 +1,49 @@
+package fans.goldenglow.plumaspherebackend.util;
+
+import fans.goldenglow.plumaspherebackend.config.WebSocketProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ClientIpResolver Tests")
+class ClientIpResolverTest {
+    private static final String CLIENT_IP = "203.0.113.7";
+
+    private ClientIpResolver clientIpResolver;
+
+    @BeforeEach
+    void setUp() {
+        WebSocketProperties properties = new WebSocketProperties();
+        properties.setTrustedProxies(List.of("127.0.0.1", "10.0.0.0/8"));
+        clientIpResolver = new ClientIpResolver(properties);
+    }
+
+    @Test
+    @DisplayName("Should use the remote address when it is not a trusted proxy")
+    void resolve_ShouldUseRemoteAddress_WhenNotTrustedProxy() {
+        assertThat(clientIpResolver.resolve(CLIENT_IP, "198.51.100.1", "198.51.100.2")).isEqualTo(CLIENT_IP);
+    }
+
+    @Test
+    @DisplayName("Should skip trusted proxies in the forwarded chain")
+    void resolve_ShouldSkipTrustedHops() {
+        assertThat(clientIpResolver.resolve("127.0.0.1", "198.51.100.1, " + CLIENT_IP + ", 10.0.0.1", null))
+                .isEqualTo(CLIENT_IP);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the remote address when the forwarded chain is malformed")
+    void resolve_ShouldUseRemoteAddress_WhenChainMalformed() {
+        assertThat(clientIpResolver.resolve("127.0.0.1", "not-an-ip", CLIENT_IP)).isEqualTo("127.0.0.1");
+    }
+
+    @Test
+    @DisplayName("Should use X-Real-IP from a trusted proxy without X-Forwarded-For")
+    void resolve_ShouldUseRealIp_WhenNoForwardedFor() {
+        assertThat(clientIpResolver.resolve("127.0.0.1", null, " " + CLIENT_IP + " ")).isEqualTo(CLIENT_IP);
+    }
+}
@@ -0,0 +1,118 @@
+package fans.goldenglow.plumaspherebackend.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("IpPrefixTrie Tests")
+class IpPrefixTrieTest {
+
+    private IpPrefixTrie<String> trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new IpPrefixTrie<>();
+    }
+
+    private boolean matches(String address) {
+        return trie.anyMatch(IpRange.parseAddress(address), value -> true);
+    }
+
+    @Nested
+    @DisplayName("Lookup")
+    class LookupTests {
+        @Test
+        @DisplayName("Should match single addresses exactly")
+        void anyMatch_ShouldMatchSingleAddress() {
+            trie.put(IpRange.parse("192.168.1.100"), "ban");
+
+            assertThat(matches("192.168.1.100")).isTrue();
+            assertThat(matches("192.168.1.101")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should match every address of an IPv4 range")
+        void anyMatch_ShouldMatchIpv4Range() {
+            trie.put(IpRange.parse("203.0.113.0/24"), "ban");
+
+            assertThat(matches("203.0.113.0")).isTrue();
+            assertThat(matches("203.0.113.255")).isTrue();
+            assertThat(matches("203.0.114.1")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should match every address of an IPv6 range without mixing address families")
+        void anyMatch_ShouldMatchIpv6Range() {
+            trie.put(IpRange.parse("2001:db8:1::/64"), "ban");
+
+            assertThat(matches("2001:db8:1::42")).isTrue();
+            assertThat(matches("2001:db8:1:0:ffff:ffff:ffff:ffff")).isTrue();
+            assertThat(matches("2001:db8:2::1")).isFalse();
+            assertThat(matches("32.1.13.184")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should match any range on the path that satisfies the condition")
+        void anyMatch_ShouldCheckEveryContainingRange() {
+            trie.put(IpRange.parse("10.0.0.0/8"), "active");
+            trie.put(IpRange.parse("10.1.0.0/16"), "expired");
+
+            assertThat(trie.anyMatch(IpRange.parseAddress("10.1.2.3"), "active"::equals)).isTrue();
+            assertThat(trie.anyMatch(IpRange.parseAddress("10.1.2.3"), "expired"::equals)).isTrue();
+            assertThat(trie.anyMatch(IpRange.parseAddress("10.2.2.3"), "expired"::equals)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should match everything with a zero-length prefix")
+        void anyMatch_ShouldMatchAll_WhenPrefixIsZero() {
+            trie.put(IpRange.parse("0.0.0.0/0"), "ban");
+
+            assertThat(matches("8.8.8.8")).isTrue();
+            assertThat(matches("::1")).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Updates")
+    class UpdateTests {
+        @Test
+        @DisplayName("Should replace the value of a range without counting it twice")
+        void put_ShouldReplaceValue() {
+            trie.put(IpRange.parse("10.0.0.0/8"), "first");
+            trie.put(IpRange.parse("10.0.0.0/8"), "second");
+
+            assertThat(trie.size()).isEqualTo(1);
+            assertThat(trie.anyMatch(IpRange.parseAddress("10.0.0.1"), "second"::equals)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should remove a range and keep ranges inside and around it")
+        void remove_ShouldKeepOtherRanges() {
+            trie.put(IpRange.parse("10.0.0.0/8"), "outer");
+            trie.put(IpRange.parse("10.1.0.0/16"), "middle");
+            trie.put(IpRange.parse("10.1.2.3"), "inner");
+
+            trie.remove(IpRange.parse("10.1.0.0/16"));
+
+            assertThat(trie.size()).isEqualTo(2);
+            assertThat(trie.anyMatch(IpRange.parseAddress("10.1.9.9"), "middle"::equals)).isFalse();
+            assertThat(trie.anyMatch(IpRange.parseAddress("10.1.9.9"), "outer"::equals)).isTrue();
+            assertThat(trie.anyMatch(IpRange.parseAddress("10.1.2.3"), "inner"::equals)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should ignore removal of a range that is not stored")
+        void remove_ShouldIgnoreUnknownRange() {
+            trie.put(IpRange.parse("10.0.0.0/8"), "ban");
+
+            trie.remove(IpRange.parse("10.0.0.0/16"));
+            trie.remove(IpRange.parse("192.168.0.0/16"));
+
+            assertThat(trie.size()).isEqualTo(1);
+            assertThat(matches("10.0.0.1")).isTrue();
+        }
+    }
+}
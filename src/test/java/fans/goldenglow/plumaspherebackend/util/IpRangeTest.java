@@ -0,0 +1,74 @@
+package fans.goldenglow.plumaspherebackend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("IpRange Tests")
+class IpRangeTest {
+
+    @Nested
+    @DisplayName("Parsing")
+    class ParsingTests {
+        @Test
+        @DisplayName("Should parse single IPv4 address as full-length prefix")
+        void parse_ShouldParseIpv4Address() {
+            IpRange range = IpRange.parse("192.168.1.100");
+
+            assertThat(range.getPrefixLength()).isEqualTo(32);
+            assertThat(range.toString()).isEqualTo("192.168.1.100");
+        }
+
+        @Test
+        @DisplayName("Should clear host bits of IPv4 range")
+        void parse_ShouldNormalizeIpv4Range() {
+            IpRange range = IpRange.parse("192.168.1.77/24");
+
+            assertThat(range.getPrefixLength()).isEqualTo(24);
+            assertThat(range.toString()).isEqualTo("192.168.1.0/24");
+            assertThat(range).isEqualTo(IpRange.parse("192.168.1.0/24"));
+        }
+
+        @Test
+        @DisplayName("Should parse and normalize IPv6 range")
+        void parse_ShouldNormalizeIpv6Range() {
+            IpRange range = IpRange.parse("2001:db8::1234/64");
+
+            assertThat(range.getPrefixLength()).isEqualTo(64);
+            assertThat(range).isEqualTo(IpRange.parse("2001:0db8:0:0::/64"));
+        }
+
+        @Test
+        @DisplayName("Should treat IPv4-mapped IPv6 addresses as IPv4")
+        void parse_ShouldUnmapIpv4MappedAddress() {
+            assertThat(IpRange.parse("::ffff:10.0.0.1")).isEqualTo(IpRange.parse("10.0.0.1"));
+            assertThat(IpRange.parse("::ffff:10.0.0.0/104")).isEqualTo(IpRange.parse("10.0.0.0/8"));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"", "example.com", "256.0.0.1", "10.0.0.1/33", "10.0.0.1/abc", "2001:db8::/129", "1.2.3"})
+        @DisplayName("Should reject malformed addresses and ranges")
+        void parse_ShouldReject_WhenMalformed(String value) {
+            assertThatThrownBy(() -> IpRange.parse(value)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Containment")
+    class ContainmentTests {
+        @Test
+        @DisplayName("Should contain addresses sharing the prefix only")
+        void contains_ShouldMatchPrefix() {
+            IpRange range = IpRange.parse("10.1.0.0/16");
+
+            assertThat(range.contains(IpRange.parseAddress("10.1.255.3"))).isTrue();
+            assertThat(range.contains(IpRange.parseAddress("10.2.0.1"))).isFalse();
+            assertThat(range.contains(IpRange.parseAddress("::1"))).isFalse();
+        }
+    }
+}